@@ -0,0 +1,63 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of benchmarks.jar, it accepts the usual JMH options and always adds the GC profiler so the allocation rate per
+ * operation is reported. Unless -rf/-rff are given the results are written as JSON to jmh-result.json so runs of different
+ * releases can be compared, e.g.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar -rff kit-1.4.0.json
+ * java -jar benchmarks/target/benchmarks.jar MoveByBusinessDays -p implementation=jdk8
+ * java -jar benchmarks/target/benchmarks.jar -l
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        // the list and help options do not run anything, as with org.openjdk.jmh.Main
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+        if (commandLine.shouldListWithParams()) {
+            new Runner(commandLine).listWithParams(commandLine);
+            return;
+        }
+        if (commandLine.shouldListProfilers()) {
+            commandLine.listProfilers();
+            return;
+        }
+        if (commandLine.shouldListResultFormats()) {
+            commandLine.listResultFormats();
+            return;
+        }
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.datecalc.common.CurrencyDateCalculator;
+import net.objectlab.kit.datecalc.common.SpotLag;
+
+/**
+ * CurrencyDateCalculator.calculateSpotDate for a major pair, a cross and a pair using the USD calendar on T+1.
+ * @author Benoit Xhenseval
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CurrencyDateCalculatorBenchmark {
+    private static final int DATES = 512;
+
+    @Param({ DateSupport.JDK_CALENDAR, DateSupport.JDK_DATE, DateSupport.JODA, DateSupport.JDK8 })
+    private String implementation;
+
+    @Param({ "EUR.USD", "EUR.GBP", "USD.MXN" })
+    private String currencyPair;
+
+    private Workload<?> workload;
+
+    @Setup
+    public void setUp() {
+        workload = Workload.create(DateSupport.forName(implementation), currencyPair.substring(0, 3), currencyPair.substring(4));
+    }
+
+    @Benchmark
+    public Object calculateSpotDate() {
+        return workload.calculateSpotDate();
+    }
+
+    private static final class Workload<E extends Serializable> {
+        private final CurrencyDateCalculator<E> calculator;
+        private final List<E> dates;
+        private int next;
+
+        private Workload(final CurrencyDateCalculator<E> calculator, final List<E> dates) {
+            this.calculator = calculator;
+            this.dates = dates;
+        }
+
+        static <E extends Serializable> Workload<E> create(final DateSupport<E> support, final String ccy1, final String ccy2) {
+            support.registerCurrencyHolidays();
+            return new Workload<>(support.getFactory().getDefaultCurrencyDateCalculator(ccy1, ccy2, SpotLag.T_2),
+                    support.toDates(LocalDate.of(2017, 1, 1), DATES));
+        }
+
+        Object calculateSpotDate() {
+            next = next + 1 & DATES - 1;
+            return calculator.calculateSpotDate(dates.get(next));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
+import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.jdk.CalendarKitCalculatorsFactory;
+import net.objectlab.kit.datecalc.jdk.DateKitCalculatorsFactory;
+
+/**
+ * Gives the benchmarks access to each date implementation (jdk Calendar, jdk Date, Joda and JDK8) with the same holidays so the
+ * results can be compared.
+ * @author Benoit Xhenseval
+ */
+final class DateSupport<E extends Serializable> {
+    static final String JDK_CALENDAR = "jdk-calendar";
+    static final String JDK_DATE = "jdk-date";
+    static final String JODA = "joda";
+    static final String JDK8 = "jdk8";
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2000, 1, 1);
+    static final LocalDate LAST_DAY = LocalDate.of(2040, 12, 31);
+
+    private final KitCalculatorsFactory<E> factory;
+    private final Function<LocalDate, E> converter;
+
+    private DateSupport(final KitCalculatorsFactory<E> factory, final Function<LocalDate, E> converter) {
+        this.factory = factory;
+        this.converter = converter;
+    }
+
+    static DateSupport<?> forName(final String implementation) {
+        switch (implementation) {
+        case JDK_CALENDAR:
+            return new DateSupport<>(CalendarKitCalculatorsFactory.getDefaultInstance(),
+                    d -> GregorianCalendar.from(d.atStartOfDay(ZoneId.systemDefault())));
+        case JDK_DATE:
+            return new DateSupport<>(DateKitCalculatorsFactory.getDefaultInstance(), d -> Date.from(d.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        case JODA:
+            return new DateSupport<>(net.objectlab.kit.datecalc.joda.LocalDateKitCalculatorsFactory.getDefaultInstance(),
+                    d -> new org.joda.time.LocalDate(d.getYear(), d.getMonthValue(), d.getDayOfMonth()));
+        case JDK8:
+            return new DateSupport<>(net.objectlab.kit.datecalc.jdk8.LocalDateKitCalculatorsFactory.getDefaultInstance(), d -> d);
+        default:
+            throw new IllegalArgumentException("Unknown implementation " + implementation);
+        }
+    }
+
+    KitCalculatorsFactory<E> getFactory() {
+        return factory;
+    }
+
+    E toDate(final LocalDate date) {
+        return converter.apply(date);
+    }
+
+    /**
+     * @return count consecutive calendar days from first.
+     */
+    List<E> toDates(final LocalDate first, final int count) {
+        final List<E> dates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dates.add(toDate(first.plusDays(i)));
+        }
+        return dates;
+    }
+
+    /**
+     * Registers a calendar with the same days every year between FIRST_DAY and LAST_DAY, e.g. "01-01" for New Year.
+     */
+    void registerHolidays(final String name, final String... monthDays) {
+        final Set<E> holidays = new HashSet<>();
+        for (int year = FIRST_DAY.getYear(); year <= LAST_DAY.getYear(); year++) {
+            for (final String monthDay : monthDays) {
+                holidays.add(toDate(LocalDate.parse(year + "-" + monthDay)));
+            }
+        }
+        factory.registerHolidays(name, new DefaultHolidayCalendar<>(holidays, toDate(FIRST_DAY), toDate(LAST_DAY)));
+    }
+
+    /**
+     * Registers GBP, EUR, USD and MXN calendars.
+     */
+    void registerCurrencyHolidays() {
+        registerHolidays("GBP", "01-01", "04-14", "04-17", "05-01", "05-29", "08-28", "12-25", "12-26");
+        registerHolidays("EUR", "01-01", "04-14", "04-17", "05-01", "12-25", "12-26");
+        registerHolidays("USD", "01-01", "01-16", "02-20", "05-29", "07-04", "09-04", "10-09", "11-23", "12-25");
+        registerHolidays("MXN", "01-01", "02-05", "03-21", "05-01", "09-16", "11-20", "12-12", "12-25");
+    }
+}
@@ -0,0 +1,87 @@
+package net.objectlab.kit.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.fxcalc.CrossRateCalculator;
+import net.objectlab.kit.fxcalc.CurrencyPair;
+import net.objectlab.kit.fxcalc.CurrencyProvider;
+import net.objectlab.kit.fxcalc.FxRate;
+import net.objectlab.kit.fxcalc.FxRateCalculator;
+import net.objectlab.kit.fxcalc.FxRateCalculatorBuilder;
+import net.objectlab.kit.fxcalc.FxRateCalculatorImpl;
+import net.objectlab.kit.fxcalc.FxRateImpl;
+import net.objectlab.kit.fxcalc.JdkCurrencyProvider;
+import net.objectlab.kit.fxcalc.StandardMajorCurrencyRanking;
+import net.objectlab.kit.util.BigDecimalUtil;
+
+/**
+ * FxRateCalculatorImpl.findFx for a snapshot rate, its inverse and crosses, and CrossRateCalculator.calculateCross on its own.
+ * @author Benoit Xhenseval
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FxRateCalculatorBenchmark {
+    @Param({ "EUR.USD", "USD.EUR", "GBP.CHF", "JPY.MXN" })
+    private String currencyPair;
+
+    @Param({ "false", "true" })
+    private boolean cacheResults;
+
+    private final CurrencyProvider currencyProvider = new JdkCurrencyProvider();
+    private FxRateCalculator calculator;
+    private CurrencyPair target;
+    private FxRate gbpUsd;
+    private FxRate usdChf;
+    private CurrencyPair gbpChf;
+
+    @Setup
+    public void setUp() {
+        gbpUsd = rate("GBP", "USD", "1.2501", "1.2503");
+        usdChf = rate("USD", "CHF", "0.9812", "0.9815");
+        gbpChf = CurrencyPair.of("GBP", "CHF");
+        final FxRateCalculatorBuilder builder = new FxRateCalculatorBuilder() //
+                .addRateSnapshot(rate("EUR", "USD", "1.1201", "1.1203")) //
+                .addRateSnapshot(gbpUsd) //
+                .addRateSnapshot(usdChf) //
+                .addRateSnapshot(rate("USD", "JPY", "112.31", "112.34")) //
+                .addRateSnapshot(rate("AUD", "USD", "0.7601", "0.7604")) //
+                .addRateSnapshot(rate("USD", "CAD", "1.3101", "1.3104")) //
+                .addRateSnapshot(rate("USD", "MXN", "18.901", "18.911")) //
+                .cacheResults(cacheResults);
+        calculator = new FxRateCalculatorImpl(builder);
+        target = CurrencyPair.of(currencyPair.substring(0, 3), currencyPair.substring(4));
+    }
+
+    private FxRate rate(final String ccy1, final String ccy2, final String bid, final String ask) {
+        return new FxRateImpl(CurrencyPair.of(ccy1, ccy2), null, true, BigDecimalUtil.bd(bid), BigDecimalUtil.bd(ask), currencyProvider);
+    }
+
+    @Benchmark
+    public Optional<FxRate> findFx() {
+        return calculator.findFx(target);
+    }
+
+    @Benchmark
+    public FxRate calculateCross() {
+        return CrossRateCalculator.calculateCross(gbpChf, gbpUsd, usdChf, 6, 12, StandardMajorCurrencyRanking.getDefault(),
+                BigDecimal.ROUND_HALF_DOWN, BigDecimal.ROUND_HALF_UP, currencyProvider);
+    }
+}
@@ -0,0 +1,84 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
+
+/**
+ * DateCalculator.moveByBusinessDays from a different start date each time, with and without the business day index.
+ * @author Benoit Xhenseval
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MoveByBusinessDaysBenchmark {
+    private static final int DATES = 512;
+
+    @Param({ DateSupport.JDK_CALENDAR, DateSupport.JDK_DATE, DateSupport.JODA, DateSupport.JDK8 })
+    private String implementation;
+
+    @Param({ HolidayHandlerType.FORWARD, HolidayHandlerType.MODIFIED_FOLLOWING })
+    private String holidayHandlerType;
+
+    @Param({ "1", "22", "250" })
+    private int businessDays;
+
+    @Param({ "false", "true" })
+    private boolean businessDayIndex;
+
+    private Workload<?> workload;
+
+    @Setup
+    public void setUp() {
+        workload = Workload.create(DateSupport.forName(implementation), holidayHandlerType, businessDayIndex);
+    }
+
+    @Benchmark
+    public Object moveByBusinessDays() {
+        return workload.moveByBusinessDays(businessDays);
+    }
+
+    private static final class Workload<E extends Serializable> {
+        private final DateCalculator<E> calculator;
+        private final List<E> dates;
+        private int next;
+
+        private Workload(final DateCalculator<E> calculator, final List<E> dates) {
+            this.calculator = calculator;
+            this.dates = dates;
+        }
+
+        static <E extends Serializable> Workload<E> create(final DateSupport<E> support, final String holidayHandlerType,
+                final boolean businessDayIndex) {
+            support.registerHolidays("BENCH", "01-01", "05-01", "08-28", "12-25", "12-26");
+            final DateCalculator<E> calculator = support.getFactory().getDateCalculator("BENCH", holidayHandlerType);
+            calculator.setBusinessDayIndexEnabled(businessDayIndex);
+            return new Workload<>(calculator, support.toDates(LocalDate.of(2017, 1, 1), DATES));
+        }
+
+        Object moveByBusinessDays(final int businessDays) {
+            next = next + 1 & DATES - 1;
+            calculator.setStartDate(dates.get(next));
+            return calculator.moveByBusinessDays(businessDays).getCurrentBusinessDate();
+        }
+    }
+}
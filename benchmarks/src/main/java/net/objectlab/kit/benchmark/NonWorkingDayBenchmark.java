@@ -0,0 +1,72 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
+
+/**
+ * DateCalculator.isNonWorkingDay over a year of dates.
+ * @author Benoit Xhenseval
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NonWorkingDayBenchmark {
+    private static final int DATES = 512;
+
+    @Param({ DateSupport.JDK_CALENDAR, DateSupport.JDK_DATE, DateSupport.JODA, DateSupport.JDK8 })
+    private String implementation;
+
+    private Workload<?> workload;
+
+    @Setup
+    public void setUp() {
+        workload = Workload.create(DateSupport.forName(implementation));
+    }
+
+    @Benchmark
+    public boolean isNonWorkingDay() {
+        return workload.isNonWorkingDay();
+    }
+
+    private static final class Workload<E extends Serializable> {
+        private final DateCalculator<E> calculator;
+        private final List<E> dates;
+        private int next;
+
+        private Workload(final DateCalculator<E> calculator, final List<E> dates) {
+            this.calculator = calculator;
+            this.dates = dates;
+        }
+
+        static <E extends Serializable> Workload<E> create(final DateSupport<E> support) {
+            support.registerHolidays("BENCH", "01-01", "05-01", "08-28", "12-25", "12-26");
+            return new Workload<>(support.getFactory().getDateCalculator("BENCH", HolidayHandlerType.FORWARD),
+                    support.toDates(LocalDate.of(2017, 1, 1), DATES));
+        }
+
+        boolean isNonWorkingDay() {
+            next = next + 1 & DATES - 1;
+            return calculator.isNonWorkingDay(dates.get(next));
+        }
+    }
+}
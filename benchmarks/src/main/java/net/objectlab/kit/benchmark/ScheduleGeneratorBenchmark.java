@@ -0,0 +1,158 @@
+package net.objectlab.kit.benchmark;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.datecalc.common.BusinessDayEngine;
+import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
+import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.PeriodCountBasis;
+import net.objectlab.kit.datecalc.common.ScheduleGenerator;
+import net.objectlab.kit.datecalc.common.ScheduleGeneratorBuilder;
+import net.objectlab.kit.datecalc.common.Tenor;
+
+/**
+ * A coupon schedule generated in one pass by the ScheduleGenerator against the same dates built by moving a DateCalculator by each
+ * multiple of the frequency, and a batch of schedules with and without the common ForkJoinPool.
+ * @author Benoit Xhenseval
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScheduleGeneratorBenchmark {
+    private static final int DATES = 512;
+
+    private static final int BATCH = 4096;
+
+    @Param({ DateSupport.JDK_CALENDAR, DateSupport.JDK_DATE, DateSupport.JODA, DateSupport.JDK8 })
+    private String implementation;
+
+    @Param({ "3M", "6M" })
+    private String frequency;
+
+    @Param({ "5", "20" })
+    private int years;
+
+    private Workload<?> workload;
+
+    @Setup
+    public void setUp() {
+        workload = Workload.create(DateSupport.forName(implementation), Tenor.valueOf(frequency), years);
+    }
+
+    @Benchmark
+    public Object generate() {
+        return workload.generate();
+    }
+
+    @Benchmark
+    public Object moveByTenor() {
+        return workload.moveByTenor();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object generateBatch() {
+        return workload.generateBatch(null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object generateBatchInParallel() {
+        return workload.generateBatch(ForkJoinPool.commonPool());
+    }
+
+    private static final class Workload<E extends Serializable> {
+        private final ScheduleGenerator<E> generator;
+        private final DateCalculator<E> calculator;
+        private final Tenor frequency;
+        private final int periods;
+        private final List<E> dates;
+        private final int[] startDays;
+        private final int[] endDays;
+        private final int[] batchStartDays;
+        private final int[] batchEndDays;
+        private int next;
+
+        private Workload(final ScheduleGenerator<E> generator, final DateCalculator<E> calculator, final Tenor frequency, final int years,
+                final List<E> dates, final EpochDayConverter<E> converter) {
+            this.generator = generator;
+            this.calculator = calculator;
+            this.frequency = frequency;
+            this.periods = years * 12 / frequency.getUnits();
+            this.dates = dates;
+            startDays = new int[DATES];
+            endDays = new int[DATES];
+            for (int i = 0; i < DATES; i++) {
+                startDays[i] = converter.toEpochDay(dates.get(i));
+                endDays[i] = (int) LocalDate.ofEpochDay(startDays[i]).plusYears(years).toEpochDay();
+            }
+            batchStartDays = new int[BATCH];
+            batchEndDays = new int[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                batchStartDays[i] = startDays[i & DATES - 1];
+                batchEndDays[i] = endDays[i & DATES - 1];
+            }
+        }
+
+        static <E extends Serializable> Workload<E> create(final DateSupport<E> support, final Tenor frequency, final int years) {
+            support.registerHolidays("BENCH", "01-01", "05-01", "08-28", "12-25", "12-26");
+            final KitCalculatorsFactory<E> factory = support.getFactory();
+            final BusinessDayEngine<E> engine = factory.getBusinessDayEngine("BENCH", null);
+            final ScheduleGenerator<E> generator = new ScheduleGenerator<>(new ScheduleGeneratorBuilder<E>() //
+                    .businessDayEngine(engine) //
+                    .frequency(frequency) //
+                    .accrualHolidayHandlerType(HolidayHandlerType.MODIFIED_FOLLOWING) //
+                    .periodCountBasis(PeriodCountBasis.ACT_365));
+            final DateCalculator<E> calculator = factory.getDateCalculator("BENCH", HolidayHandlerType.MODIFIED_FOLLOWING);
+            return new Workload<>(generator, calculator, frequency, years, support.toDates(LocalDate.of(2017, 1, 1), DATES),
+                    engine.getEpochDayConverter());
+        }
+
+        Object generate() {
+            next = next + 1 & DATES - 1;
+            return generator.generate(startDays[next], endDays[next]);
+        }
+
+        /**
+         * The adjusted period boundaries, each one calculated from the start date as the schedule would.
+         */
+        Object moveByTenor() {
+            next = next + 1 & DATES - 1;
+            final E start = dates.get(next);
+            final List<E> schedule = new ArrayList<>(periods + 1);
+            schedule.add(calculator.setStartDate(start).getCurrentBusinessDate());
+            for (int i = 1; i <= periods; i++) {
+                calculator.setStartDate(start);
+                schedule.add(calculator.moveByTenor(new Tenor(i * frequency.getUnits(), frequency.getCode()), 0).getCurrentBusinessDate());
+            }
+            return schedule;
+        }
+
+        Object generateBatch(final ExecutorService executor) {
+            return generator.generate(batchStartDays, batchEndDays, executor);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.objectlab.kit.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.objectlab.kit.pf.AssetDetails;
+import net.objectlab.kit.pf.BasicAsset;
+import net.objectlab.kit.pf.BasicLine;
+import net.objectlab.kit.pf.BasicPortfolio;
+import net.objectlab.kit.pf.ExistingPortfolioLine;
+import net.objectlab.kit.pf.ValidationResults;
+import net.objectlab.kit.pf.ucits.BasicUcitsConcentrationValidator;
+
+/**
+ * BasicUcitsConcentrationValidator.validate for portfolios of different sizes, about 3 lines per issuer.
+ * @author Benoit Xhenseval
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UcitsConcentrationValidatorBenchmark {
+    @Param({ "10", "100", "1000" })
+    private int lineCount;
+
+    private BasicUcitsConcentrationValidator validator;
+    private BasicPortfolio portfolio;
+
+    @Setup
+    public void setUp() {
+        final Map<String, AssetDetails> assets = new HashMap<>();
+        final List<ExistingPortfolioLine> lines = new ArrayList<>(lineCount);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lineCount; i++) {
+            final String code = "ASSET" + i;
+            assets.put(code, new BasicAsset(code, "Asset " + i, "ISSUER" + i / 3));
+            final BigDecimal price = BigDecimal.valueOf(10 + i % 90);
+            final BigDecimal quantity = BigDecimal.valueOf(100 + i % 7 * 50);
+            final BigDecimal value = price.multiply(quantity);
+            lines.add(new BasicLine(code, "Asset " + i, price, quantity, value));
+            total = total.add(value);
+        }
+
+        portfolio = new BasicPortfolio();
+        portfolio.setPortfolioCcy("USD");
+        portfolio.setPortfolioValue(total);
+        portfolio.setLines(lines);
+
+        validator = new BasicUcitsConcentrationValidator(new BasicUcitsConcentrationValidator.Builder() //
+                .assetDetailsProvider(assets::get) //
+                .assetEligibilityProvider(code -> !code.endsWith("9")));
+    }
+
+    @Benchmark
+    public ValidationResults validate() {
+        return validator.validate(portfolio);
+    }
+}
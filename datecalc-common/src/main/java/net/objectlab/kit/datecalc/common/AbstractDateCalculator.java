@@ -32,16 +32,9 @@
  */
 package net.objectlab.kit.datecalc.common;
 
-import static net.objectlab.kit.datecalc.common.HolidayHandlerType.BACKWARD;
-import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD;
-import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_FOLLOWING;
-import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PRECEDING;
-
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Abstract implementation in order to encapsulate all the common functionality
@@ -56,7 +49,7 @@ import java.util.Set;
  *            Joda:LocalDate, YearMonthDay
  *
  */
-public abstract class AbstractDateCalculator<E extends Serializable> implements DateCalculator<E> {
+public abstract class AbstractDateCalculator<E extends Serializable> implements DateCalculator<E>, WorkingDayJumpTable<E> {
     private static final int MONTHS_IN_YEAR = 12;
 
     protected static final int DAYS_IN_WEEK = 7;
@@ -73,29 +66,122 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
 
     private int currentIncrement;
 
+    private boolean businessDayIndexEnabled;
+
+    private DefaultBusinessDayEngine<E> businessDayEngine;
+
+    private long businessDayEngineVersion;
+
     protected AbstractDateCalculator(final String name, final HolidayCalendar<E> holidayCalendar, final HolidayHandler<E> holidayHandler) {
         this.name = name;
-        if (holidayCalendar != null) {
-            this.holidayCalendar = new ImmutableHolidayCalendar<E>(holidayCalendar);
-        } else {
-            this.holidayCalendar = new ImmutableHolidayCalendar<E>(new DefaultHolidayCalendar<E>());
-        }
+        this.holidayCalendar = immutableCopy(holidayCalendar);
         this.holidayHandler = holidayHandler;
     }
 
     public DateCalculator<E> setHolidayCalendar(final HolidayCalendar<E> calendar) {
-        if (calendar != null) {
-            if (calendar instanceof ImmutableHolidayCalendar) {
-                holidayCalendar = calendar;
-            } else {
-                holidayCalendar = new ImmutableHolidayCalendar<E>(calendar);
-            }
+        if (calendar instanceof ImmutableHolidayCalendar || calendar instanceof CombinedHolidayCalendar || calendar instanceof VersionedHolidayCalendar) {
+            holidayCalendar = calendar;
         } else {
-            holidayCalendar = new ImmutableHolidayCalendar<E>(new DefaultHolidayCalendar<E>());
+            holidayCalendar = immutableCopy(calendar);
         }
+        invalidateBusinessDayIndex();
         return this;
     }
 
+    public DateCalculator<E> setBusinessDayIndexEnabled(final boolean enabled) {
+        businessDayIndexEnabled = enabled;
+        if (!enabled) {
+            invalidateBusinessDayIndex();
+        }
+        return this;
+    }
+
+    public boolean isBusinessDayIndexEnabled() {
+        return businessDayIndexEnabled;
+    }
+
+    /**
+     * Must be called by implementations when the WorkingWeek changes so that
+     * the BusinessDayEngine (and its BusinessDayIndex) gets rebuilt.
+     * @since 1.4.0
+     */
+    protected void invalidateBusinessDayIndex() {
+        businessDayEngine = null;
+    }
+
+    /**
+     * The engine is built from the current holidays, WorkingWeek (as given by
+     * isWeekend) and HolidayHandler; it is rebuilt if any of them changes,
+     * including a new version of a {@link VersionedHolidayCalendar}.
+     *
+     * @throws UnsupportedOperationException
+     *             if this calculator has no EpochDayConverter.
+     */
+    public BusinessDayEngine<E> getBusinessDayEngine() {
+        final DefaultBusinessDayEngine<E> engine = getEngine();
+        if (engine == null) {
+            throw new UnsupportedOperationException("A BusinessDayEngine requires an EpochDayConverter for " + getClass().getName());
+        }
+        return engine;
+    }
+
+    /**
+     * @return the engine, null if there is no EpochDayConverter.
+     */
+    private DefaultBusinessDayEngine<E> getEngine() {
+        final long version = VersionedHolidayCalendar.versionOf(holidayCalendar);
+        if (businessDayEngine == null || version != businessDayEngineVersion) {
+            final EpochDayConverter<E> converter = getEpochDayConverter();
+            if (converter == null) {
+                return null;
+            }
+            WorkingWeek week = WorkingWeek.DEFAULT;
+            for (int day = 0; day < DAYS_IN_WEEK; day++) {
+                week = week.withWorkingDayFromCalendar(!isWeekend(converter.fromEpochDay(day)), EpochDayUtil.getCalendarDayOfWeek(day));
+            }
+            // a single version for the whole engine, the index must match the holidays
+            final HolidayCalendar<E> calendar = holidayCalendar instanceof VersionedHolidayCalendar ? ((VersionedHolidayCalendar<E>) holidayCalendar)
+                    .getCurrent() : holidayCalendar;
+            businessDayEngine = new DefaultBusinessDayEngine<E>(calendar, week, holidayHandler, converter);
+            businessDayEngineVersion = version;
+        }
+        return businessDayEngine;
+    }
+
+    /**
+     * Copies a DefaultHolidayCalendar into an epoch day based one if this
+     * calculator provides an EpochDayConverter, any other calendar (including
+     * a subclass) is simply wrapped so that its own isHoliday logic applies.
+     * A combined, versioned, rule based or mapped calendar is already a read
+     * only view and is kept as is.
+     */
+    private HolidayCalendar<E> immutableCopy(final HolidayCalendar<E> calendar) {
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        if (calendar == null) {
+            return new ImmutableHolidayCalendar<E>(new DefaultHolidayCalendar<E>(null, null, null, converter));
+        }
+        if (calendar instanceof CombinedHolidayCalendar || calendar instanceof VersionedHolidayCalendar || calendar instanceof RuleBasedHolidayCalendar
+                || calendar instanceof MappedHolidayCalendar) {
+            return calendar;
+        }
+        if (converter == null || calendar.getClass() != DefaultHolidayCalendar.class) {
+            return new ImmutableHolidayCalendar<E>(calendar);
+        }
+        return new ImmutableHolidayCalendar<E>(new DefaultHolidayCalendar<E>(calendar.getHolidays(), calendar.getEarlyBoundary(),
+                calendar.getLateBoundary(), converter));
+    }
+
+    /**
+     * Provides the converter used to store the holidays as epoch days, called
+     * from the constructor so it should not rely on any instance field.
+     *
+     * @return the converter for E, null if none (default).
+     * @since 1.4.0
+     */
+    protected EpochDayConverter<E> getEpochDayConverter() {
+        return null;
+    }
+
     public String getName() {
         return name;
     }
@@ -225,12 +311,14 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
         final List<E> list = new ArrayList<E>();
 
         if (tenors != null) {
-            final E originalDate = clone(getCurrentBusinessDate());
+            final E originalDate = getCurrentBusinessDate();
             for (final Tenor tenor : tenors) {
+                // a fresh copy each time as some date types are moved in place
+                currentBusinessDate = clone(originalDate);
                 moveByTenor(tenor, spotLag);
                 list.add(getCurrentBusinessDate());
-                setCurrentBusinessDate(originalDate);
             }
+            currentBusinessDate = originalDate;
         }
 
         return list;
@@ -248,6 +336,9 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
 
     public DateCalculator<E> setHolidayHandler(final HolidayHandler<E> holidayHandler) {
         this.holidayHandler = holidayHandler;
+        if (businessDayEngine != null) {
+            businessDayEngine = businessDayEngine.withHolidayHandler(holidayHandler);
+        }
         return this;
     }
 
@@ -262,9 +353,31 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
         if (date != null && (holidayCalendar.getEarlyBoundary() != null || holidayCalendar.getLateBoundary() != null)) {
             checkBoundary(date);
         }
+        final DefaultBusinessDayEngine<E> engine = getEngine();
+        if (engine != null) {
+            return engine.isNonWorkingDay(date);
+        }
         return isWeekend(date) || holidayCalendar.isHoliday(date);
     }
 
+    /**
+     * Uses the BusinessDayIndex of the engine if it is enabled, otherwise
+     * returns NOT_FOUND so that the HolidayHandler checks day by day.
+     */
+    public int daysToWorkingDay(final E date, final int increment) {
+        final DefaultBusinessDayEngine<E> engine = businessDayIndexEnabled ? getEngine() : null;
+        return engine != null ? engine.daysToWorkingDay(date, increment) : BusinessDayIndex.NOT_FOUND;
+    }
+
+    /**
+     * Uses the BusinessDayIndex of the engine if it is enabled, otherwise
+     * returns NOT_FOUND so that the HolidayHandler checks day by day.
+     */
+    public int daysToWorkingDayInMonth(final E date, final int increment) {
+        final DefaultBusinessDayEngine<E> engine = businessDayIndexEnabled ? getEngine() : null;
+        return engine != null ? engine.daysToWorkingDayInMonth(date, increment) : BusinessDayIndex.NOT_FOUND;
+    }
+
     /**
      * This may throw an {@link IndexOutOfBoundsException} if the date is not within the
      * boundaries.
@@ -304,7 +417,11 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
     }
 
     public DateCalculator<E> moveByBusinessDays(final int businessDays) {
-        checkHolidayValidity(businessDays);
+        DefaultBusinessDayEngine.checkHolidayHandlerDirection(getHolidayHandlerType(), businessDays);
+
+        if (businessDayIndexEnabled && businessDays != 0 && moveByBusinessDaysIndexed(businessDays)) {
+            return this;
+        }
 
         final int numberOfStepsLeft = Math.abs(businessDays);
         final int step = businessDays < 0 ? -1 : 1;
@@ -316,16 +433,42 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
         return this;
     }
 
-    private void checkHolidayValidity(final int businessDays) {
-        if (businessDays > 0 && holidayHandler != null
-                && (holidayHandler.getType().equals(BACKWARD) || holidayHandler.getType().equals(MODIFIED_PRECEDING))) {
-            throw new IllegalArgumentException(
-                    "A " + MODIFIED_PRECEDING + " or " + BACKWARD + " does not allow positive steps for moveByBusinessDays");
-        } else if (businessDays < 0 && holidayHandler != null
-                && (holidayHandler.getType().equals(FORWARD) || holidayHandler.getType().equals(MODIFIED_FOLLOWING))) {
-            throw new IllegalArgumentException(
-                    "A " + MODIFIED_FOLLOWING + " or " + FORWARD + " does not allow negative steps for moveByBusinessDays");
+    /**
+     * Jumps straight to the date that the step by step algorithm would reach,
+     * using the index of the BusinessDayEngine; the final move goes via
+     * moveByDays so the date type specifics (time, boundaries) are kept.
+     *
+     * @return false if the index cannot provide the date.
+     */
+    private boolean moveByBusinessDaysIndexed(final int businessDays) {
+        final DefaultBusinessDayEngine<E> engine = getEngine();
+        if (engine == null) {
+            return false;
         }
+        final int from = getEpochDayConverter().toEpochDay(getCurrentBusinessDate());
+        final int to = engine.moveByBusinessDays(from, businessDays);
+        if (to == BusinessDayIndex.NOT_FOUND) {
+            return false;
+        }
+        moveByDays(to - from);
+        setCurrentIncrement(businessDays < 0 ? -1 : 1);
+        return true;
+    }
+
+    /**
+     * Counts the working days d such that start &lt;= d &lt; end, using the
+     * BusinessDayEngine (whether the index is enabled for moveByBusinessDays
+     * or not).
+     */
+    public int businessDaysBetween(final E start, final E end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end dates cannot be null");
+        }
+        if (holidayCalendar.getEarlyBoundary() != null || holidayCalendar.getLateBoundary() != null) {
+            checkBoundary(start);
+            checkBoundary(end);
+        }
+        return getBusinessDayEngine().businessDaysBetween(start, end);
     }
 
     /**
@@ -347,19 +490,14 @@ public abstract class AbstractDateCalculator<E extends Serializable> implements
 
         checkHolidayHandlerValidity(calculator);
 
-        final Set<E> newSet = new HashSet<E>();
-        if (holidayCalendar != null) {
-            newSet.addAll(holidayCalendar.getHolidays());
-        }
-
         final HolidayCalendar<E> calendarToCombine = calculator.getHolidayCalendar();
         checkBoundaries(calendarToCombine);
 
-        if (calendarToCombine.getHolidays() != null) {
-            newSet.addAll(calendarToCombine.getHolidays());
-        }
+        final List<HolidayCalendar<E>> calendars = new ArrayList<HolidayCalendar<E>>(2);
+        calendars.add(holidayCalendar);
+        calendars.add(calendarToCombine);
 
-        final HolidayCalendar<E> newCal = new DefaultHolidayCalendar<E>(newSet,
+        final HolidayCalendar<E> newCal = CombinedHolidayCalendar.union(calendars,
                 compareDate(holidayCalendar.getEarlyBoundary(), calendarToCombine.getEarlyBoundary(), false),
                 compareDate(holidayCalendar.getLateBoundary(), calendarToCombine.getLateBoundary(), true));
 
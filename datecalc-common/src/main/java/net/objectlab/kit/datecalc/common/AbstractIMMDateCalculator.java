@@ -33,7 +33,9 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Abstract implementation in order to encapsulate all the common functionality
@@ -50,10 +52,19 @@ import java.util.List;
  */
 public abstract class AbstractIMMDateCalculator<E> implements IMMDateCalculator<E> {
 
+    /**
+     * @deprecated unused since the IMM dates are looked up in a shared table
+     *             of epoch days, will be removed.
+     */
+    @Deprecated
     protected static final int MONTHS_IN_QUARTER = 3;
 
+    /** @deprecated unused, will be removed. */
+    @Deprecated
     protected static final int MONTH_IN_YEAR = 12;
 
+    /** @deprecated unused, will be removed. */
+    @Deprecated
     protected static final int DAYS_IN_WEEK = 7;
 
     /**
@@ -144,7 +155,139 @@ public abstract class AbstractIMMDateCalculator<E> implements IMMDateCalculator<
         return dates;
     }
 
+    /**
+     * Iterates lazily over the IMM dates after a given date, without any end;
+     * it will exclude the start date if it is an IMM date.
+     *
+     * @param start
+     *            start of the iteration, excluded
+     * @param period
+     *            specify when the "next" IMM is, if quarterly then it is the
+     *            conventional algorithm.
+     * @return an iterator that never runs out of IMM dates.
+     * @since 1.4.0
+     */
+    public Iterator<E> getIMMDateIterator(final E start, final IMMPeriod period) {
+        return new IMMDateIterator(start, null, 0, period);
+    }
+
+    /**
+     * Iterates lazily over the IMM dates between 2 dates, it will exclude the
+     * start date if it is an IMM date but would include the end date if it is
+     * an IMM. Without an epoch day converter the dates are calculated upfront
+     * by getIMMDates(start,end,period).
+     *
+     * @param start
+     *            start of the interval, excluded
+     * @param end
+     *            end of the interval, may be included.
+     * @param period
+     *            specify when the "next" IMM is, if quarterly then it is the
+     *            conventional algorithm.
+     * @return an iterator over the IMM dates.
+     * @since 1.4.0
+     */
+    public Iterator<E> getIMMDateIterator(final E start, final E end, final IMMPeriod period) {
+        if (end == null) {
+            throw new IllegalArgumentException("end cannot be null");
+        }
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        if (converter == null) {
+            return getIMMDates(start, end, period).iterator();
+        }
+        return new IMMDateIterator(start, converter, converter.toEpochDay(end), period);
+    }
+
+    /**
+     * Provides the converter used to find the end of an iteration over IMM
+     * dates.
+     *
+     * @return the converter for E, null if none (default).
+     * @since 1.4.0
+     */
+    protected EpochDayConverter<E> getEpochDayConverter() {
+        return null;
+    }
+
+    /**
+     * Looks up the shared table of IMM dates, the implementations use it
+     * once the date is converted to an epoch day.
+     *
+     * @param epochDay
+     *            the number of days since 1970-01-01
+     * @return true if that day is an IMM date (3rd Wednesday of
+     *         March/June/Sept/Dec).
+     * @since 1.4.0
+     */
+    protected final boolean isIMMEpochDay(final int epochDay) {
+        return IMMDateTable.isIMMDate(epochDay);
+    }
+
+    /**
+     * Looks up the shared table of IMM dates, the implementations use it
+     * once the date is converted to an epoch day.
+     *
+     * @param requestNextIMM
+     *            true for the next IMM date, false for the previous one.
+     * @param epochDay
+     *            the start date as an epoch day, excluded.
+     * @param period
+     *            specify when the "next" IMM is, if quarterly then it is the
+     *            conventional algorithm.
+     * @return the next or previous IMM date as an epoch day.
+     * @since 1.4.0
+     */
+    protected final int getNextIMMEpochDay(final boolean requestNextIMM, final int epochDay, final IMMPeriod period) {
+        return IMMDateTable.getNextIMMDate(requestNextIMM, epochDay, period);
+    }
+
     protected abstract E getNextIMMDate(final boolean requestNextIMM, final E theStartDate, final IMMPeriod period);
+
+    /**
+     * Calculates the next IMM date when the previous one is consumed, so
+     * only one date is held whatever the length of the iteration.
+     */
+    private final class IMMDateIterator implements Iterator<E> {
+        private final EpochDayConverter<E> converter;
+
+        private final int endDay;
+
+        private final IMMPeriod period;
+
+        private E next;
+
+        private IMMDateIterator(final E start, final EpochDayConverter<E> converter, final int endDay, final IMMPeriod period) {
+            this.converter = converter;
+            this.endDay = endDay;
+            this.period = period;
+            next = calculateNext(start);
+        }
+
+        private E calculateNext(final E date) {
+            final E imm = getNextIMMDate(true, date, period);
+            if (converter != null && converter.toEpochDay(imm) > endDay) {
+                return null;
+            }
+            return imm;
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException("No more IMM dates");
+            }
+            final E date = next;
+            next = calculateNext(date);
+            return date;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("IMM dates cannot be removed");
+        }
+    }
 }
 
 /*
@@ -33,14 +33,24 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
 
 import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
 import net.objectlab.kit.datecalc.common.ccy.DefaultCurrencyCalculatorConfig;
+import net.objectlab.kit.datecalc.common.ccy.NonWorkingDayMaskCache;
 
 /**
  * Base class for all calculator factories, it handles the holiday registration.
@@ -54,7 +64,26 @@ import net.objectlab.kit.datecalc.common.ccy.DefaultCurrencyCalculatorConfig;
  */
 public abstract class AbstractKitCalculatorsFactory<E extends Serializable> implements KitCalculatorsFactory<E> {
 
-    private final ConcurrentMap<String, HolidayCalendar<E>> holidays = new ConcurrentHashMap<String, HolidayCalendar<E>>();
+    private final ConcurrentMap<String, VersionedHolidayCalendar<E>> holidays = new ConcurrentHashMap<String, VersionedHolidayCalendar<E>>();
+
+    private final ConcurrentMap<List<String>, HolidayCalendar<E>> combinedHolidays = new ConcurrentHashMap<List<String>, HolidayCalendar<E>>();
+
+    private final ConcurrentMap<List<String>, BusinessDayEngine<E>> engines = new ConcurrentHashMap<List<String>, BusinessDayEngine<E>>();
+
+    private final CurrencyDateCalculatorCache<E> currencyCalculators = new CurrencyDateCalculatorCache<E>();
+
+    private final NonWorkingDayMaskCache nonWorkingDayMasks = new NonWorkingDayMaskCache();
+
+    // per thread, the calculators of the generation they were built in
+    private final ThreadLocal<ThreadCalculators<E>> threadCalculators = new ThreadLocal<ThreadCalculators<E>>();
+
+    private final ConcurrentMap<String, CalendarLoad<E>> loading = new ConcurrentHashMap<String, CalendarLoad<E>>();
+
+    private final ConcurrentMap<String, Boolean> unknownHolidayCalendars = new ConcurrentHashMap<String, Boolean>();
+
+    private volatile HolidayCalendarSource<E> holidayCalendarSource;
+
+    private volatile boolean unknownHolidayCalendarsCached;
 
     private CurrencyCalculatorConfig currencyCalculatorConfig = new DefaultCurrencyCalculatorConfig();
 
@@ -64,6 +93,7 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
      */
     public void setCurrencyCalculatorConfig(final CurrencyCalculatorConfig config) {
         currencyCalculatorConfig = config;
+        currencyCalculators.clear();
     }
 
     /**
@@ -77,12 +107,52 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
         return currencyCalculatorConfig;
     }
 
+    /**
+     * Use this method to load the calendars on demand rather than registering
+     * all of them upfront. The source is called the first time a name that is
+     * not registered is used (e.g. by getDateCalculator or a currency
+     * calculator) and the calendar it returns is registered under that name;
+     * concurrent requests for the same name share a single load.
+     *
+     * @param source
+     *            the source, null to only use the registered calendars.
+     * @param cacheUnknownNames
+     *            if true, a name the source does not know is remembered and
+     *            not asked again until it is registered or unregistered.
+     * @since 1.4.0
+     */
+    public void setHolidayCalendarSource(final HolidayCalendarSource<E> source, final boolean cacheUnknownNames) {
+        holidayCalendarSource = source;
+        unknownHolidayCalendarsCached = cacheUnknownNames;
+        unknownHolidayCalendars.clear();
+        currencyCalculators.clear();
+    }
+
+    /**
+     * Same as setHolidayCalendarSource(source, false).
+     * @since 1.4.0
+     */
+    public void setHolidayCalendarSource(final HolidayCalendarSource<E> source) {
+        setHolidayCalendarSource(source, false);
+    }
+
+    /**
+     * @return the source used to load unregistered calendars, null if none.
+     * @since 1.4.0
+     */
+    public HolidayCalendarSource<E> getHolidayCalendarSource() {
+        return holidayCalendarSource;
+    }
+
     /**
      * Use this method to register a given calendar, it will replace any
      * existing one with the same name. An immutable copy is made so that any changes outside this class
-     * will have no affect. It won't update any existing DateCalculator as these should
-     * not be amended whilst in existence (we could otherwise get inconsistent
-     * results).
+     * will have no affect. If the name is already registered, the copy is
+     * published as a new version of the same {@link VersionedHolidayCalendar}
+     * so existing DateCalculators see the new holidays from their next call;
+     * a calculation already running completes with the version it started with.
+     * A {@link RuleBasedHolidayCalendar} is read only and is registered as is,
+     * its holidays are still generated year by year.
      *
      * @param name
      *            the calendar name to register these holidays under.
@@ -91,20 +161,156 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
      */
     public KitCalculatorsFactory<E> registerHolidays(final String name, final HolidayCalendar<E> holidaysCalendar) {
         if (name != null) {
-            final Set<E> hol = new HashSet<E>();
-            if (holidaysCalendar != null && holidaysCalendar.getHolidays() != null) {
-                hol.addAll(holidaysCalendar.getHolidays());
-            }
-            final DefaultHolidayCalendar<E> defaultHolidayCalendar = new DefaultHolidayCalendar<E>(hol);
-            if (holidaysCalendar != null) {
-                defaultHolidayCalendar.setEarlyBoundary(holidaysCalendar.getEarlyBoundary());
-                defaultHolidayCalendar.setLateBoundary(holidaysCalendar.getLateBoundary());
+            final long start = System.nanoTime();
+            if (holidaysCalendar instanceof RuleBasedHolidayCalendar) {
+                publish(name, holidaysCalendar, System.nanoTime() - start);
+            } else {
+                final Set<E> hol = new HashSet<E>();
+                if (holidaysCalendar != null && holidaysCalendar.getHolidays() != null) {
+                    hol.addAll(holidaysCalendar.getHolidays());
+                }
+                final DefaultHolidayCalendar<E> defaultHolidayCalendar = new DefaultHolidayCalendar<E>(hol, null, null, getEpochDayConverter());
+                if (holidaysCalendar != null) {
+                    defaultHolidayCalendar.setEarlyBoundary(holidaysCalendar.getEarlyBoundary());
+                    defaultHolidayCalendar.setLateBoundary(holidaysCalendar.getLateBoundary());
+                }
+                publish(name, new ImmutableHolidayCalendar<E>(defaultHolidayCalendar), System.nanoTime() - start);
             }
-            this.holidays.put(name, new ImmutableHolidayCalendar<E>(holidaysCalendar));
+            unknownHolidayCalendars.remove(name);
+            combinedHolidays.clear();
+            engines.clear();
+            currencyCalculators.clear();
+            nonWorkingDayMasks.clear();
         }
         return this;
     }
 
+    /**
+     * Registers all the calendars of a memory mapped file, each calendar
+     * reads its holidays straight from the file without being copied. A
+     * calendar already registered under the same name gets a new version.
+     *
+     * @throws UnsupportedOperationException
+     *             if this factory has no EpochDayConverter.
+     * @since 1.4.0
+     */
+    public KitCalculatorsFactory<E> registerHolidays(final HolidayCalendarFile calendarFile) {
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        if (converter == null) {
+            throw new UnsupportedOperationException("A HolidayCalendarFile requires an EpochDayConverter for " + getClass().getName());
+        }
+        for (final String name : calendarFile.getCalendarNames()) {
+            final long start = System.nanoTime();
+            final HolidayCalendar<E> calendar = calendarFile.getHolidayCalendar(name, converter);
+            publish(name, calendar, System.nanoTime() - start);
+            unknownHolidayCalendars.remove(name);
+        }
+        combinedHolidays.clear();
+        engines.clear();
+        currencyCalculators.clear();
+        nonWorkingDayMasks.clear();
+        return this;
+    }
+
+    /**
+     * @return the registered calendar, loading it from the
+     *         HolidayCalendarSource if needed; null if unknown.
+     * @throws IllegalStateException
+     *             if the HolidayCalendarSource asks for the calendar it is
+     *             loading.
+     */
+    private VersionedHolidayCalendar<E> lookup(final String name) {
+        final VersionedHolidayCalendar<E> registered = name != null ? holidays.get(name) : null;
+        final HolidayCalendarSource<E> source = holidayCalendarSource;
+        if (registered != null || name == null || source == null || unknownHolidayCalendars.containsKey(name)) {
+            return registered;
+        }
+        final CalendarLoad<E> task = new CalendarLoad<E>(new Callable<VersionedHolidayCalendar<E>>() {
+            public VersionedHolidayCalendar<E> call() {
+                return load(source, name);
+            }
+        });
+        CalendarLoad<E> running = loading.putIfAbsent(name, task);
+        if (running == null) {
+            running = task;
+            try {
+                task.run();
+            } finally {
+                loading.remove(name, task);
+            }
+        } else if (running.loader == Thread.currentThread()) {
+            // waiting would never end, the source asks for the calendar it is loading
+            throw new IllegalStateException("The HolidayCalendarSource asked for holiday calendar " + name + " whilst loading it");
+        }
+        try {
+            return running.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Cannot load holiday calendar " + name, e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted whilst loading holiday calendar " + name, e);
+        }
+    }
+
+    private VersionedHolidayCalendar<E> load(final HolidayCalendarSource<E> source, final String name) {
+        // it may have been loaded whilst this thread was waiting
+        final VersionedHolidayCalendar<E> registered = holidays.get(name);
+        if (registered != null) {
+            return registered;
+        }
+        final HolidayCalendar<E> calendar = source.loadHolidayCalendar(name);
+        if (calendar == null) {
+            if (unknownHolidayCalendarsCached) {
+                unknownHolidayCalendars.put(name, Boolean.TRUE);
+            }
+            return null;
+        }
+        registerHolidays(name, calendar);
+        return holidays.get(name);
+    }
+
+    /**
+     * A load run by the thread that created it, which is remembered to detect
+     * a HolidayCalendarSource asking for the calendar it is loading.
+     */
+    private static final class CalendarLoad<E extends Serializable> extends FutureTask<VersionedHolidayCalendar<E>> {
+        private final Thread loader = Thread.currentThread();
+
+        private CalendarLoad(final Callable<VersionedHolidayCalendar<E>> callable) {
+            super(callable);
+        }
+    }
+
+    private void publish(final String name, final HolidayCalendar<E> calendar, final long loadNanos) {
+        final VersionedHolidayCalendar<E> existing = holidays.get(name);
+        if (existing == null) {
+            final VersionedHolidayCalendar<E> previous = holidays.putIfAbsent(name, new VersionedHolidayCalendar<E>(name, calendar, loadNanos));
+            if (previous != null) {
+                previous.publish(calendar, loadNanos);
+            }
+        } else {
+            existing.publish(calendar, loadNanos);
+        }
+    }
+
+    /**
+     * Provides the converter used to store the registered holidays as epoch
+     * days.
+     *
+     * @return the converter for E, null to detect it from the holidays
+     *         (default).
+     * @since 1.4.0
+     */
+    protected EpochDayConverter<E> getEpochDayConverter() {
+        return null;
+    }
+
     /**
      * Check if a calendar of a given name is already registered.
      * @return true if the holiday name is registered.
@@ -114,11 +320,157 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
     }
 
     /**
-     * Provides an immutable Holiday Calendar with that name if registered, null if not registered
+     * Provides an immutable Holiday Calendar with that name if registered, null if not registered.
+     * The calendar is the {@link VersionedHolidayCalendar} for that name and
+     * reflects any later registration under the same name. If it is not
+     * registered yet, it is loaded from the HolidayCalendarSource if any.
      * @return an immutable Holiday Calendar that is registered, null if not registered.
      */
     public HolidayCalendar<E> getHolidayCalendar(final String name) {
-        return holidays.get(name);
+        return lookup(name);
+    }
+
+    /**
+     * Provides the versioned handle for that name, giving access to the
+     * version number and the load timings.
+     * @return the versioned Holiday Calendar, null if not registered.
+     * @since 1.4.0
+     */
+    public VersionedHolidayCalendar<E> getVersionedHolidayCalendar(final String name) {
+        return lookup(name);
+    }
+
+    /**
+     * Provides a cached BusinessDayEngine using the registered calendar and
+     * the default WorkingWeek.
+     *
+     * @throws UnsupportedOperationException
+     *             if this factory has no EpochDayConverter.
+     * @since 1.4.0
+     */
+    public BusinessDayEngine<E> getBusinessDayEngine(final String name, final String holidayHandlerType) {
+        final List<String> key = Arrays.asList(name, holidayHandlerType);
+        BusinessDayEngine<E> engine = engines.get(key);
+        if (engine == null) {
+            final HolidayHandler<E> handler = getHolidayHandler(holidayHandlerType);
+            if (holidayHandlerType == null) {
+                final EpochDayConverter<E> converter = getEpochDayConverter();
+                if (converter == null) {
+                    throw new UnsupportedOperationException("A BusinessDayEngine requires an EpochDayConverter for " + getClass().getName());
+                }
+                final VersionedHolidayCalendar<E> calendar = lookup(name);
+                engine = new DefaultBusinessDayEngine<E>(calendar != null ? calendar.getCurrent() : null, WorkingWeek.DEFAULT, handler, converter);
+            } else {
+                engine = getBusinessDayEngine(name, null).withHolidayHandler(handler);
+            }
+            final BusinessDayEngine<E> existing = engines.putIfAbsent(key, engine);
+            if (existing != null) {
+                engine = existing;
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Provides a DateCalculator confined to the calling thread, built by
+     * getDateCalculator the first time the thread asks for it and rebuilt
+     * once a calendar is registered or unregistered.
+     * <p>
+     * The calculators of a thread are kept by the factory generation they
+     * were built in; the first call after a calendar is registered or
+     * unregistered drops all of them, whatever their name. A thread that
+     * does not call again (e.g. an idle pooled thread) retains its
+     * calculators, and their calendars, until
+     * {@link #removeThreadLocalDateCalculators()} is called on it or the
+     * factory is garbage collected.
+     * </p>
+     * @since 1.4.0
+     */
+    public DateCalculator<E> getThreadLocalDateCalculator(final String name, final String holidayHandlerType) {
+        // the currency calculators are cleared on every (un)registration too
+        final long generation = currencyCalculators.getGeneration();
+        ThreadCalculators<E> cached = threadCalculators.get();
+        if (cached == null || cached.generation != generation) {
+            cached = new ThreadCalculators<E>(generation);
+            threadCalculators.set(cached);
+        }
+        Map<String, DateCalculator<E>> byType = cached.calculators.get(name);
+        if (byType == null) {
+            byType = new HashMap<String, DateCalculator<E>>();
+            cached.calculators.put(name, byType);
+        }
+        DateCalculator<E> calculator = byType.get(holidayHandlerType);
+        if (calculator == null) {
+            calculator = getDateCalculator(name, holidayHandlerType);
+            byType.put(holidayHandlerType, calculator);
+        }
+        return calculator;
+    }
+
+    /**
+     * Releases the DateCalculators confined to the calling thread, typically
+     * before returning a pooled thread to its pool.
+     * @since 1.4.0
+     */
+    public void removeThreadLocalDateCalculators() {
+        threadCalculators.remove();
+    }
+
+    /**
+     * Provides a read only union of the registered calendars, cached by the
+     * list of names. The boundaries are the latest early boundary and the
+     * earliest late boundary of the calendars.
+     *
+     * @return the combined calendar, null if none of the names is registered.
+     * @since 1.4.0
+     */
+    public HolidayCalendar<E> getCombinedHolidayCalendar(final String... calendarNames) {
+        if (calendarNames == null || calendarNames.length == 0) {
+            return null;
+        }
+        final List<String> key = Arrays.asList(calendarNames.clone());
+        HolidayCalendar<E> combined = combinedHolidays.get(key);
+        if (combined == null) {
+            combined = combineHolidayCalendars(key);
+            if (combined != null) {
+                final HolidayCalendar<E> existing = combinedHolidays.putIfAbsent(key, combined);
+                if (existing != null) {
+                    combined = existing;
+                }
+            }
+        }
+        return combined;
+    }
+
+    private HolidayCalendar<E> combineHolidayCalendars(final List<String> calendarNames) {
+        final List<HolidayCalendar<E>> calendars = new ArrayList<HolidayCalendar<E>>(calendarNames.size());
+        E early = null;
+        E late = null;
+        for (final String name : calendarNames) {
+            final HolidayCalendar<E> calendar = lookup(name);
+            if (calendar != null) {
+                calendars.add(calendar);
+                if (early == null || calendar.getEarlyBoundary() != null && compareBoundaries(calendar.getEarlyBoundary(), early) > 0) {
+                    early = calendar.getEarlyBoundary();
+                }
+                if (late == null || calendar.getLateBoundary() != null && compareBoundaries(calendar.getLateBoundary(), late) < 0) {
+                    late = calendar.getLateBoundary();
+                }
+            }
+        }
+        if (calendars.isEmpty()) {
+            return null;
+        }
+        return calendars.size() == 1 ? calendars.get(0) : CombinedHolidayCalendar.union(calendars, early, late);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compareBoundaries(final E date1, final E date2) {
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        if (converter != null) {
+            return converter.toEpochDay(date1) - converter.toEpochDay(date2);
+        }
+        return ((Comparable<Object>) date1).compareTo(date2);
     }
 
     /**
@@ -131,7 +483,7 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
      */
     protected void setHolidays(final String name, final DateCalculator<E> dc) {
         if (name != null) {
-            dc.setHolidayCalendar(holidays.get(name));
+            dc.setHolidayCalendar(lookup(name));
         }
     }
 
@@ -149,6 +501,13 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
      */
     public KitCalculatorsFactory<E> unregisterHolidayCalendar(final String calendarName) {
         holidays.remove(calendarName);
+        if (calendarName != null) {
+            unknownHolidayCalendars.remove(calendarName);
+        }
+        combinedHolidays.clear();
+        engines.clear();
+        currencyCalculators.clear();
+        nonWorkingDayMasks.clear();
         return this;
     }
 
@@ -157,9 +516,39 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
      */
     public KitCalculatorsFactory<E> unregisterAllHolidayCalendars() {
         holidays.clear();
+        unknownHolidayCalendars.clear();
+        combinedHolidays.clear();
+        engines.clear();
+        currencyCalculators.clear();
+        nonWorkingDayMasks.clear();
         return this;
     }
 
+    /**
+     * Provides the default CurrencyDateCalculator for the currency pair, it is
+     * built once and shared until a calendar is registered or unregistered
+     * or the CurrencyCalculatorConfig is replaced or modified.
+     * @since 1.4.0
+     */
+    public CurrencyDateCalculator<E> getDefaultCurrencyDateCalculator(final String ccy1, final String ccy2, final SpotLag spotLag) {
+        if (ccy1 == null || ccy2 == null || spotLag == null) {
+            // let the builder report what is missing
+            return buildCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+        }
+        final CurrencyCalculatorConfig config = getCurrencyCalculatorConfig();
+        CurrencyDateCalculator<E> calculator = currencyCalculators.get(ccy1, ccy2, spotLag, config);
+        if (calculator == null) {
+            final long generation = currencyCalculators.getGeneration();
+            calculator = buildCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+            currencyCalculators.put(ccy1, ccy2, spotLag, config, calculator, generation);
+        }
+        return calculator;
+    }
+
+    public List<E> calculateValueDates(final Iterable<ValueDateRequest<E>> requests, final ExecutorService executor) {
+        return ValueDateBatch.calculate(this, requests, executor);
+    }
+
     /**
      * Method that may be called by the specialised factory methods and will fetch the registered holidayCalendar for all 3 currencies 
      * and the working weeks via the currencyCalculatorConfig and assigning currencyCalculatorConfig to the builder, 
@@ -175,7 +564,19 @@ public abstract class AbstractKitCalculatorsFactory<E extends Serializable> impl
                 .ccy2Week(getCurrencyCalculatorConfig().getWorkingWeek(builder.getCcy2())) //
                 .crossCcyCalendar(getHolidayCalendar(builder.getCrossCcy())) //
                 .crossCcyWeek(getCurrencyCalculatorConfig().getWorkingWeek(builder.getCrossCcy())) //
-                .currencyCalculatorConfig(getCurrencyCalculatorConfig());
+                .currencyCalculatorConfig(getCurrencyCalculatorConfig()) //
+                .nonWorkingDayMaskCache(nonWorkingDayMasks);
+    }
+
+    private static final class ThreadCalculators<E> {
+        // by calendar name then handler type
+        private final Map<String, Map<String, DateCalculator<E>>> calculators = new HashMap<String, Map<String, DateCalculator<E>>>();
+
+        private final long generation;
+
+        private ThreadCalculators(final long generation) {
+            this.generation = generation;
+        }
     }
 }
 
@@ -0,0 +1,227 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Base for the PeriodCountCalculators of the kit: the calculations on epoch
+ * days do not depend on the date type and are done by
+ * {@link EpochDayPeriodCount}. It also offers the BUS/252 and ACT/ACT ICMA
+ * year fractions, which need more than the start, end and basis of the
+ * {@link PeriodCountCalculator} methods.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public abstract class AbstractPeriodCountCalculator<E> implements PeriodCountCalculator<E> {
+
+    /**
+     * Calculates the number of days between each pair of dates given as
+     * epoch days (days since 1970-01-01), with integer arithmetic only.
+     *
+     * @param startEpochDays
+     *            the start dates
+     * @param endEpochDays
+     *            the end dates, same length as the start dates
+     * @param basis
+     *            the basis to use
+     * @return number of days between each end and start, as dayDiff for a
+     *         start before or on the end.
+     * @see EpochDayPeriodCount
+     * @since 1.4.0
+     */
+    public int[] dayDiff(final int[] startEpochDays, final int[] endEpochDays, final PeriodCountBasis basis) {
+        return EpochDayPeriodCount.dayDiff(startEpochDays, endEpochDays, basis, null);
+    }
+
+    /**
+     * Same as dayDiff(startEpochDays, endEpochDays, basis) but large arrays
+     * are split in chunks calculated in parallel by the executor, null to
+     * use the calling thread only.
+     * @since 1.4.0
+     */
+    public int[] dayDiff(final int[] startEpochDays, final int[] endEpochDays, final PeriodCountBasis basis, final ExecutorService executor) {
+        return EpochDayPeriodCount.dayDiff(startEpochDays, endEpochDays, basis, executor);
+    }
+
+    /**
+     * Calculates the number of years (or fraction) between each pair of
+     * dates given as epoch days (days since 1970-01-01), with integer
+     * arithmetic only.
+     *
+     * @param startEpochDays
+     *            the start dates
+     * @param endEpochDays
+     *            the end dates, same length as the start dates
+     * @param basis
+     *            the basis to use
+     * @return number of years between each end and start, as yearDiff for a
+     *         start before or on the end.
+     * @see EpochDayPeriodCount
+     * @since 1.4.0
+     */
+    public double[] yearDiff(final int[] startEpochDays, final int[] endEpochDays, final PeriodCountBasis basis) {
+        return EpochDayPeriodCount.yearDiff(startEpochDays, endEpochDays, basis, null);
+    }
+
+    /**
+     * Same as yearDiff(startEpochDays, endEpochDays, basis) but large arrays
+     * are split in chunks calculated in parallel by the executor, null to
+     * use the calling thread only.
+     * @since 1.4.0
+     */
+    public double[] yearDiff(final int[] startEpochDays, final int[] endEpochDays, final PeriodCountBasis basis, final ExecutorService executor) {
+        return EpochDayPeriodCount.yearDiff(startEpochDays, endEpochDays, basis, executor);
+    }
+
+    /**
+     * BUS/252: the number of business days d such that start &lt;= d &lt;
+     * end, divided by 252. The business days are counted by the index of
+     * the engine, typically KitCalculatorsFactory.getBusinessDayEngine(name,
+     * null), so each call is a couple of array lookups.
+     *
+     * @param start
+     *            the start date
+     * @param end
+     *            the end date
+     * @param businessDays
+     *            the holidays and WorkingWeek to use.
+     * @return number of years between end and start, negative if end is
+     *         before start.
+     * @throws IndexOutOfBoundsException
+     *             if a date is outside the boundaries of the holidays.
+     * @see PeriodCountBasis#BUS_252
+     * @since 1.4.0
+     */
+    public double yearDiffBus252(final E start, final E end, final BusinessDayEngine<E> businessDays) {
+        return businessDays.businessDaysBetween(start, end) / YEAR_252_0;
+    }
+
+    /**
+     * BUS/252 for each pair of dates given as epoch days (days since
+     * 1970-01-01), large arrays are split in chunks calculated in parallel
+     * by the executor, null to use the calling thread only.
+     * @since 1.4.0
+     */
+    public double[] yearDiffBus252(final int[] startEpochDays, final int[] endEpochDays, final BusinessDayEngine<E> businessDays,
+            final ExecutorService executor) {
+        return EpochDayPeriodCount.yearDiffBus252(startEpochDays, endEpochDays, businessDays, executor);
+    }
+
+    /**
+     * ACT/ACT ICMA: the end date is taken as a coupon date and the coupon
+     * periods roll back from it every 12 / couponsPerYear months (the day
+     * of month capped to the end of shorter months). Each full period
+     * counts for 1 / couponsPerYear and the first, partial, period for its
+     * actual days over the actual days of the period times couponsPerYear.
+     *
+     * @param start
+     *            the start date
+     * @param end
+     *            the end date, a coupon date
+     * @param couponsPerYear
+     *            the coupon frequency: 1, 2, 3, 4, 6 or 12.
+     * @return number of years between end and start, negative if end is
+     *         before start.
+     * @throws IllegalArgumentException
+     *             if the frequency does not divide a year in whole months.
+     * @see PeriodCountBasis#ACT_ACT_ICMA
+     * @since 1.4.0
+     */
+    public abstract double yearDiffActActIcma(final E start, final E end, final int couponsPerYear);
+
+    /**
+     * ACT/ACT ICMA for each pair of dates given as epoch days (days since
+     * 1970-01-01), large arrays are split in chunks calculated in parallel
+     * by the executor, null to use the calling thread only.
+     * @since 1.4.0
+     */
+    public double[] yearDiffActActIcma(final int[] startEpochDays, final int[] endEpochDays, final int couponsPerYear, final ExecutorService executor) {
+        return EpochDayPeriodCount.yearDiffActActIcma(startEpochDays, endEpochDays, couponsPerYear, executor);
+    }
+
+    /**
+     * ACT/ACT ICMA with the end of month rule: if endOfMonth and the end
+     * date is the last day of its month, every coupon date is the last day
+     * of its month (e.g. 2020-08-31, 2021-02-28) instead of having its day
+     * of month capped (2020-08-28, 2021-02-28).
+     *
+     * @param start
+     *            the start date
+     * @param end
+     *            the end date, a coupon date
+     * @param couponsPerYear
+     *            the coupon frequency: 1, 2, 3, 4, 6 or 12.
+     * @param endOfMonth
+     *            true if the coupon dates follow the end of month rule.
+     * @return number of years between end and start, negative if end is
+     *         before start.
+     * @throws IllegalArgumentException
+     *             if the frequency does not divide a year in whole months.
+     * @see #yearDiffActActIcma(Object, Object, int)
+     * @since 1.4.0
+     */
+    public abstract double yearDiffActActIcma(final E start, final E end, final int couponsPerYear, final boolean endOfMonth);
+
+    /**
+     * ACT/ACT ICMA with the end of month rule for each pair of dates given
+     * as epoch days.
+     * @since 1.4.0
+     */
+    public double[] yearDiffActActIcma(final int[] startEpochDays, final int[] endEpochDays, final int couponsPerYear, final boolean endOfMonth,
+            final ExecutorService executor) {
+        return EpochDayPeriodCount.yearDiffActActIcma(startEpochDays, endEpochDays, couponsPerYear, endOfMonth, executor);
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,164 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * An immutable and stateless equivalent of the {@link DateCalculator}: all
+ * methods take the date to work from and return a new date, nothing is held
+ * between calls so one instance can be shared by many threads.
+ * <p>
+ * The results are the same as a DateCalculator with the same holidays,
+ * WorkingWeek and HolidayHandler whose start date is set to the given date.
+ * Dates are handled at day precision, e.g. a time of day is not kept for
+ * Calendar or Date.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public interface BusinessDayEngine<E> extends NonWorkingDayChecker<E> {
+
+    /**
+     * @return the holidays used by this engine.
+     */
+    HolidayCalendar<E> getHolidayCalendar();
+
+    /**
+     * @return the WorkingWeek used by this engine.
+     */
+    WorkingWeek getWorkingWeek();
+
+    /**
+     * @return the converter between E and epoch days used by this engine.
+     * @since 1.4.0
+     */
+    EpochDayConverter<E> getEpochDayConverter();
+
+    /**
+     * @return the type of the HolidayHandler (see {@link HolidayHandlerType}),
+     *         null if dates are never adjusted.
+     */
+    String getHolidayHandlerType();
+
+    /**
+     * @return an engine with the same holidays and WorkingWeek but a
+     *         different HolidayHandler.
+     */
+    BusinessDayEngine<E> withHolidayHandler(HolidayHandler<E> holidayHandler);
+
+    /**
+     * Adjusts the date according to the HolidayHandler if it falls on a
+     * non-working day.
+     *
+     * @return the adjusted date, the same date if there is no HolidayHandler.
+     */
+    E adjust(E date);
+
+    /**
+     * Moves the adjusted date by a number of business days, as
+     * {@link DateCalculator#moveByBusinessDays(int)} would.
+     *
+     * @throws IllegalArgumentException
+     *             if the direction is not allowed by the HolidayHandler.
+     */
+    E addBusinessDays(E date, int businessDays);
+
+    /**
+     * Moves the adjusted date by a tenor, as
+     * {@link DateCalculator#moveByTenor(Tenor, int)} would.
+     *
+     * @param spotLag
+     *            number of business days to spot.
+     */
+    E addTenor(E date, Tenor tenor, int spotLag);
+
+    /**
+     * Calculates the date for each tenor from the same date, the spot date
+     * being calculated only once.
+     *
+     * @return the dates in the same order as the tenors.
+     */
+    List<E> calculateTenorDates(E date, List<Tenor> tenors, int spotLag);
+
+    /**
+     * Calculates the date for each tenor from each start date, the spot date
+     * being calculated once per start date.
+     *
+     * @param executor
+     *            runs chunks of start dates in parallel, null to use the
+     *            calling thread only.
+     * @return a matrix with one row per start date and one column per tenor.
+     */
+    TenorDateMatrix<E> calculateTenorDates(List<E> startDates, List<Tenor> tenors, int spotLag, ExecutorService executor);
+
+    /**
+     * Counts the working days d such that start &lt;= d &lt; end.
+     *
+     * @return the number of working days, negative if end is before start.
+     */
+    int businessDaysBetween(E start, E end);
+
+    /**
+     * Provides the index of the working days of this engine, e.g. to count
+     * business days between epoch days without any conversion.
+     *
+     * @return an index covering at least both epoch days.
+     * @throws IndexOutOfBoundsException
+     *             if a day is outside the boundaries of the holidays.
+     */
+    BusinessDayIndex getBusinessDayIndex(int fromEpochDay, int toEpochDay);
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,315 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.BACKWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_FOLLOWING;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PRECEDING;
+
+/**
+ * Immutable index of the working days between 2 epoch days (inclusive) for a
+ * given WorkingWeek and set of holidays. It holds the cumulative number of
+ * working days per calendar day and the ordered working days so that moving
+ * by N business days or counting business days is a couple of array lookups.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class BusinessDayIndex {
+    /** Returned when the index cannot answer, e.g. the date is outside the index. */
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    /**
+     * Number of days (about 10 years) covered either side of the holidays and
+     * requested dates when a calendar has no boundaries.
+     */
+    public static final int DEFAULT_WINDOW_DAYS = 3660;
+
+    private static final int MONTHS_IN_YEAR = 12;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    private final int firstDay;
+
+    private final int lastDay;
+
+    /** cumulative[i] = number of working days in [firstDay, firstDay + i). */
+    private final int[] cumulative;
+
+    /** all working days in ascending order. */
+    private final int[] workingDays;
+
+    /**
+     * followingBreaks[k] = number of working days before workingDays[k] from
+     * which a Modified Following step would not reach the next working day.
+     */
+    private final int[] followingBreaks;
+
+    /**
+     * precedingBreaks[k] = number of working days before workingDays[k] from
+     * which a Modified Preceding step would not reach the previous working
+     * day.
+     */
+    private final int[] precedingBreaks;
+
+    /**
+     * @param firstDay
+     *            first epoch day covered (inclusive)
+     * @param lastDay
+     *            last epoch day covered (inclusive)
+     * @param workingWeek
+     *            the working week
+     * @param holidays
+     *            the holidays, those outside the range are ignored.
+     */
+    public BusinessDayIndex(final int firstDay, final int lastDay, final WorkingWeek workingWeek, final EpochDayBitSet holidays) {
+        if (lastDay < firstDay) {
+            throw new IllegalArgumentException("lastDay " + lastDay + " cannot be before firstDay " + firstDay);
+        }
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        final int span = lastDay - firstDay + 1;
+        cumulative = new int[span + 1];
+        // month (as year * 12 + month) of each day, from firstDay - 1 to lastDay + 1
+        final int[] months = new int[span + 2];
+        final int[] days = new int[span];
+        int count = 0;
+        int year = EpochDayUtil.getYear(firstDay - 1);
+        int month = EpochDayUtil.getMonth(firstDay - 1);
+        int dayOfMonth = EpochDayUtil.getDayOfMonth(firstDay - 1);
+        int dayOfWeek = EpochDayUtil.getCalendarDayOfWeek(firstDay - 1);
+        months[0] = year * MONTHS_IN_YEAR + month;
+        for (int i = 1; i < months.length; i++) {
+            if (++dayOfMonth > EpochDayUtil.lengthOfMonth(year, month)) {
+                dayOfMonth = 1;
+                if (++month > MONTHS_IN_YEAR) {
+                    month = 1;
+                    year++;
+                }
+            }
+            dayOfWeek = dayOfWeek % DAYS_IN_WEEK + 1;
+            months[i] = year * MONTHS_IN_YEAR + month;
+            if (i <= span) {
+                final int day = firstDay + i - 1;
+                if (workingWeek.isWorkingDayFromCalendar(dayOfWeek) && !holidays.contains(day)) {
+                    days[count++] = day;
+                }
+                cumulative[i] = count;
+            }
+        }
+        workingDays = new int[count];
+        System.arraycopy(days, 0, workingDays, 0, count);
+
+        followingBreaks = new int[count + 1];
+        precedingBreaks = new int[count + 1];
+        for (int k = 0; k < count; k++) {
+            // index in months of a day is (day - firstDay + 1)
+            final int offset = workingDays[k] - firstDay + 1;
+            final boolean followingBreak = k == count - 1 || months[workingDays[k + 1] - firstDay + 1] != months[offset + 1];
+            final boolean precedingBreak = k == 0 || months[workingDays[k - 1] - firstDay + 1] != months[offset - 1];
+            followingBreaks[k + 1] = followingBreaks[k] + (followingBreak ? 1 : 0);
+            precedingBreaks[k + 1] = precedingBreaks[k] + (precedingBreak ? 1 : 0);
+        }
+    }
+
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    public int getLastDay() {
+        return lastDay;
+    }
+
+    /**
+     * @return true if the epoch day is within the index.
+     */
+    public boolean covers(final int epochDay) {
+        return epochDay >= firstDay && epochDay <= lastDay;
+    }
+
+    /**
+     * @return true if the epoch day is a working day, it must be covered by
+     *         the index.
+     */
+    public boolean isWorkingDay(final int epochDay) {
+        final int offset = checkedOffset(epochDay);
+        return cumulative[offset + 1] != cumulative[offset];
+    }
+
+    /**
+     * @return the first working day on or after the epoch day, NOT_FOUND if
+     *         the day is not covered or there is no such day in the index.
+     */
+    public int nextWorkingDay(final int epochDay) {
+        return covers(epochDay) ? workingDayAt(cumulative[epochDay - firstDay]) : NOT_FOUND;
+    }
+
+    /**
+     * @return the last working day on or before the epoch day, NOT_FOUND if
+     *         the day is not covered or there is no such day in the index.
+     */
+    public int previousWorkingDay(final int epochDay) {
+        return covers(epochDay) ? workingDayAt(cumulative[epochDay - firstDay + 1] - 1) : NOT_FOUND;
+    }
+
+    /**
+     * @return the number of working days in [from, to), negative if to is
+     *         before from; both days must be covered by the index (to may be
+     *         lastDay + 1).
+     */
+    public int countWorkingDays(final int from, final int to) {
+        return cumulative[checkedOffset(to, 1)] - cumulative[checkedOffset(from, 1)];
+    }
+
+    /**
+     * Moves by a number of business days the same way as the
+     * AbstractDateCalculator would, step by step with the given holiday
+     * handler type.
+     *
+     * @param epochDay
+     *            the starting day
+     * @param businessDays
+     *            number of business days to move, may be negative.
+     * @param holidayHandlerType
+     *            the type of {@link HolidayHandler}, null if none.
+     * @return the resulting epoch day or {@link #NOT_FOUND} if the index
+     *         cannot calculate it (outside the index or unknown handler).
+     */
+    public int moveByBusinessDays(final int epochDay, final int businessDays, final String holidayHandlerType) {
+        if (!covers(epochDay)) {
+            return NOT_FOUND;
+        }
+        if (businessDays == 0) {
+            return epochDay;
+        }
+        if (holidayHandlerType == null) {
+            final long target = (long) epochDay + businessDays;
+            return target >= firstDay && target <= lastDay ? (int) target : NOT_FOUND;
+        }
+        final int offset = epochDay - firstDay;
+        if (FORWARD.equals(holidayHandlerType) || BACKWARD.equals(holidayHandlerType) || FORWARD_UNLESS_MOVING_BACK.equals(holidayHandlerType)) {
+            return businessDays >= 0 ? workingDayAt(cumulative[offset + 1] + businessDays - 1) : workingDayAt(cumulative[offset] + businessDays);
+        }
+        final boolean working = cumulative[offset + 1] != cumulative[offset];
+        if (working && MODIFIED_FOLLOWING.equals(holidayHandlerType) && businessDays >= 0) {
+            final int rank = cumulative[offset];
+            if (rank + businessDays < workingDays.length && followingBreaks[rank + businessDays] == followingBreaks[rank]) {
+                return workingDays[rank + businessDays];
+            }
+        } else if (working && MODIFIED_PRECEDING.equals(holidayHandlerType) && businessDays <= 0) {
+            final int rank = cumulative[offset];
+            if (rank + businessDays >= 0 && precedingBreaks[rank + 1] == precedingBreaks[rank + businessDays + 1]) {
+                return workingDays[rank + businessDays];
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Adjusts the epoch day the same way as the HolidayHandler of that type
+     * would if the date was moved forward, e.g. a Forward Unless Moving Back
+     * handler moves to the next working day.
+     *
+     * @param epochDay
+     *            the day to adjust
+     * @param holidayHandlerType
+     *            the type of {@link HolidayHandler}, null if none.
+     * @return the adjusted epoch day, the same day if it is a working day or
+     *         there is no handler, {@link #NOT_FOUND} if the index cannot
+     *         calculate it (outside the index or unknown handler).
+     */
+    public int adjust(final int epochDay, final String holidayHandlerType) {
+        if (!covers(epochDay)) {
+            return NOT_FOUND;
+        }
+        if (holidayHandlerType == null) {
+            return epochDay;
+        }
+        if (FORWARD.equals(holidayHandlerType) || FORWARD_UNLESS_MOVING_BACK.equals(holidayHandlerType)) {
+            return nextWorkingDay(epochDay);
+        } else if (BACKWARD.equals(holidayHandlerType)) {
+            return previousWorkingDay(epochDay);
+        } else if (MODIFIED_FOLLOWING.equals(holidayHandlerType)) {
+            return inSameMonth(epochDay, nextWorkingDay(epochDay), previousWorkingDay(epochDay));
+        } else if (MODIFIED_PRECEDING.equals(holidayHandlerType)) {
+            return inSameMonth(epochDay, previousWorkingDay(epochDay), nextWorkingDay(epochDay));
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return the preferred working day if it is in the same month as the
+     *         epoch day, otherwise the other one if it is.
+     */
+    private static int inSameMonth(final int epochDay, final int preferred, final int other) {
+        final int month = EpochDayUtil.getMonth(epochDay);
+        if (preferred != NOT_FOUND && EpochDayUtil.getMonth(preferred) == month) {
+            return preferred;
+        }
+        return other != NOT_FOUND && EpochDayUtil.getMonth(other) == month ? other : NOT_FOUND;
+    }
+
+    private int workingDayAt(final int position) {
+        return position >= 0 && position < workingDays.length ? workingDays[position] : NOT_FOUND;
+    }
+
+    private int checkedOffset(final int epochDay) {
+        return checkedOffset(epochDay, 0);
+    }
+
+    private int checkedOffset(final int epochDay, final int extra) {
+        if (epochDay < firstDay || epochDay > lastDay + extra) {
+            throw new IndexOutOfBoundsException("Epoch day " + epochDay + " is outside the index [" + firstDay + "," + lastDay + "]");
+        }
+        return epochDay - firstDay;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,83 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.Calendar;
+
+/**
+ * Epoch day converter for <code>Calendar</code>, it uses the year, month and
+ * day fields of the calendar so the time and TimeZone are irrelevant.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class CalendarEpochDayConverter implements EpochDayConverter<Calendar> {
+    private static final long serialVersionUID = 2380734569218837165L;
+
+    public static final CalendarEpochDayConverter INSTANCE = new CalendarEpochDayConverter();
+
+    private CalendarEpochDayConverter() {
+    }
+
+    public int toEpochDay(final Calendar date) {
+        return EpochDayUtil.toEpochDay(date.get(Calendar.YEAR), date.get(Calendar.MONTH) + 1, date.get(Calendar.DAY_OF_MONTH));
+    }
+
+    public Calendar fromEpochDay(final int epochDay) {
+        final Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(EpochDayUtil.getYear(epochDay), EpochDayUtil.getMonth(epochDay) - 1, EpochDayUtil.getDayOfMonth(epochDay));
+        return cal;
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,241 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable view over several holiday calendars, a date is a holiday if it
+ * is a holiday in any (union) or all (intersection) of the underlying
+ * calendars. Nothing is copied, <code>isHoliday</code> simply queries each
+ * calendar in turn; the set of holidays is only built if requested.
+ * <p>
+ * The underlying calendars should be immutable (e.g. registered with a
+ * {@link KitCalculatorsFactory}), as the view reflects any change made to them.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public final class CombinedHolidayCalendar<E> implements HolidayCalendar<E> {
+    private static final long serialVersionUID = 4712399123456417362L;
+
+    private final boolean union;
+
+    private final List<HolidayCalendar<E>> calendars;
+
+    private final E earlyBoundary;
+
+    private final E lateBoundary;
+
+    private transient volatile Set<E> holidays;
+
+    private transient volatile long holidaysVersion;
+
+    private CombinedHolidayCalendar(final boolean union, final List<HolidayCalendar<E>> calendars, final E earlyBoundary, final E lateBoundary) {
+        this.union = union;
+        this.earlyBoundary = earlyBoundary;
+        this.lateBoundary = lateBoundary;
+
+        final List<HolidayCalendar<E>> flat = new ArrayList<HolidayCalendar<E>>(calendars.size());
+        for (final HolidayCalendar<E> calendar : calendars) {
+            if (calendar instanceof CombinedHolidayCalendar && ((CombinedHolidayCalendar<E>) calendar).union == union) {
+                flat.addAll(((CombinedHolidayCalendar<E>) calendar).calendars);
+            } else if (calendar != null) {
+                flat.add(calendar);
+            }
+        }
+        this.calendars = Collections.unmodifiableList(flat);
+    }
+
+    /**
+     * @param calendars
+     *            the calendars to combine, null entries are ignored.
+     * @param earlyBoundary
+     *            the early boundary of the combined calendar
+     * @param lateBoundary
+     *            the late boundary of the combined calendar
+     * @return a view where a date is a holiday if it is a holiday in ANY of
+     *         the calendars.
+     */
+    public static <E> CombinedHolidayCalendar<E> union(final List<HolidayCalendar<E>> calendars, final E earlyBoundary, final E lateBoundary) {
+        return new CombinedHolidayCalendar<E>(true, calendars, earlyBoundary, lateBoundary);
+    }
+
+    /**
+     * @param calendars
+     *            the calendars to combine, null entries are ignored.
+     * @param earlyBoundary
+     *            the early boundary of the combined calendar
+     * @param lateBoundary
+     *            the late boundary of the combined calendar
+     * @return a view where a date is a holiday if it is a holiday in ALL of
+     *         the calendars.
+     */
+    public static <E> CombinedHolidayCalendar<E> intersection(final List<HolidayCalendar<E>> calendars, final E earlyBoundary, final E lateBoundary) {
+        return new CombinedHolidayCalendar<E>(false, calendars, earlyBoundary, lateBoundary);
+    }
+
+    /**
+     * @return true if this is a union, false if it is an intersection.
+     */
+    public boolean isUnion() {
+        return union;
+    }
+
+    /**
+     * @return the unmodifiable list of underlying calendars.
+     */
+    public List<HolidayCalendar<E>> getCalendars() {
+        return calendars;
+    }
+
+    public boolean isHoliday(final E date) {
+        if (date == null || calendars.isEmpty()) {
+            return false;
+        }
+        for (final HolidayCalendar<E> calendar : calendars) {
+            if (calendar.isHoliday(date) == union) {
+                return union;
+            }
+        }
+        return !union;
+    }
+
+    /**
+     * @return the unmodifiable set of holidays, built on the first call and
+     *         again once a {@link VersionedHolidayCalendar} has a new version.
+     */
+    public Set<E> getHolidays() {
+        final long version = VersionedHolidayCalendar.versionOf(this);
+        Set<E> result = version == holidaysVersion ? holidays : null;
+        if (result == null) {
+            result = Collections.unmodifiableSet(union ? buildUnion() : buildIntersection());
+            holidays = result;
+            holidaysVersion = version;
+        }
+        return result;
+    }
+
+    // a date from a later calendar is skipped if an earlier one already
+    // has it, the calendars decide what the same day means.
+    private Set<E> buildUnion() {
+        final Set<E> result = new LinkedHashSet<E>();
+        for (int i = 0; i < calendars.size(); i++) {
+            final Set<E> dates = calendars.get(i).getHolidays();
+            if (dates != null) {
+                for (final E date : dates) {
+                    if (!isHolidayInAnyBefore(i, date)) {
+                        result.add(date);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean isHolidayInAnyBefore(final int index, final E date) {
+        for (int i = 0; i < index; i++) {
+            if (calendars.get(i).isHoliday(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Set<E> buildIntersection() {
+        final Set<E> result = new LinkedHashSet<E>();
+        if (!calendars.isEmpty() && calendars.get(0).getHolidays() != null) {
+            for (final E date : calendars.get(0).getHolidays()) {
+                if (isHoliday(date)) {
+                    result.add(date);
+                }
+            }
+        }
+        return result;
+    }
+
+    public E getEarlyBoundary() {
+        return earlyBoundary;
+    }
+
+    public E getLateBoundary() {
+        return lateBoundary;
+    }
+
+    /**
+     * @throws UnsupportedOperationException a combined calendar is a read only view.
+     */
+    public HolidayCalendar<E> setHolidays(final Set<E> holidays) {
+        throw new UnsupportedOperationException("You cannot modify the holidays of a combined calendar, you need to use a new HolidayCalendar.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException a combined calendar is a read only view.
+     */
+    public HolidayCalendar<E> setEarlyBoundary(final E earlyBoundary) {
+        throw new UnsupportedOperationException("You cannot modify the early boundary, you need to use a new HolidayCalendar.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException a combined calendar is a read only view.
+     */
+    public HolidayCalendar<E> setLateBoundary(final E lateBoundary) {
+        throw new UnsupportedOperationException("You cannot modify the late boundary, you need to use a new HolidayCalendar.");
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -1,6 +1,7 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
 
@@ -44,6 +45,81 @@ public interface CurrencyDateCalculator<E> {
      */
     List<E> calculateTenorDates(E startDate, List<Tenor> tenors);
 
+    /**
+     * Calculate the Tenor Dates for many start dates, the Spot Date being calculated once per start date.
+     * @param startDates the start dates which may be adjusted for the ccy pair if enabled.
+     * @param tenors the list of tenors ('chronological order is not mandatory)
+     * @param executor runs chunks of start dates in parallel, null to use the calling thread only.
+     * @return a matrix with one row per start date and one column per Tenor.
+     * @since 1.4.0
+     */
+    TenorDateMatrix<E> calculateTenorDates(List<E> startDates, List<Tenor> tenors, ExecutorService executor);
+
+    /**
+     * Calculate the Spot Date for a start date given as an epoch day, without creating any date object.
+     * @param startEpochDay the number of days since 1970-01-01 of the start date, which may be adjusted for the ccy pair if enabled.
+     * @return the Spot Date as an epoch day.
+     * @throws UnsupportedOperationException if this calculator has no EpochDayConverter.
+     * @since 1.4.0
+     */
+    int calculateSpotDate(int startEpochDay);
+
+    /**
+     * Calculate the Tenor Date for a start date given as an epoch day, without creating any date object.
+     * @param startEpochDay the number of days since 1970-01-01 of the start date, which may be adjusted for the ccy pair if enabled.
+     * @param tenor e.g. 1M
+     * @return the Tenor Date as an epoch day.
+     * @throws UnsupportedOperationException if this calculator has no EpochDayConverter.
+     * @since 1.4.0
+     */
+    int calculateTenorDate(int startEpochDay, Tenor tenor);
+
+    /**
+     * Calculate the Spot Dates for many start dates given as epoch days.
+     * @param startEpochDays the start dates as epoch days.
+     * @return a new array with the Spot Date of each start date (same order).
+     * @throws UnsupportedOperationException if this calculator has no EpochDayConverter.
+     * @since 1.4.0
+     */
+    int[] calculateSpotDates(int[] startEpochDays);
+
+    /**
+     * Calculate the Tenor Dates for many start dates given as epoch days.
+     * @param startEpochDays the start dates as epoch days.
+     * @param tenor e.g. 1M
+     * @return a new array with the Tenor Date of each start date (same order).
+     * @throws UnsupportedOperationException if this calculator has no EpochDayConverter.
+     * @since 1.4.0
+     */
+    int[] calculateTenorDates(int[] startEpochDays, Tenor tenor);
+
+    /**
+     * Precomputes the Tenor Dates for a rolling window of trade dates.
+     * @param firstTradeDate the first trade date of the window.
+     * @param tradeDays the number of trade dates (calendar days) in the window, e.g. 731 for 2 years.
+     * @param tenors the tenors of the grid, e.g. StandardTenor.getAll().
+     * @return a grid that can be rolled forward every day.
+     * @throws UnsupportedOperationException if this calculator has no EpochDayConverter.
+     * @since 1.4.0
+     */
+    TenorDateGrid<E> createTenorDateGrid(E firstTradeDate, int tradeDays, List<Tenor> tenors);
+
+    /**
+     * Counts the business days for the currency pair between 2 dates, a
+     * business day being a working day for both currencies and, unless broken
+     * dates are allowed, the crossCcy.
+     *
+     * @param start
+     *            the start date (included)
+     * @param end
+     *            the end date (excluded)
+     * @return the number of business days d such that start &lt;= d &lt; end,
+     *         or minus the number of business days d such that end &lt;= d
+     *         &lt; start if end is before start.
+     * @since 1.4.0
+     */
+    int businessDaysBetween(E start, E end);
+
     String getName();
 
     String getCcy1();
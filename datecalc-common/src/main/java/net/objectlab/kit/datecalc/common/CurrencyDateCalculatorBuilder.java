@@ -3,6 +3,8 @@ package net.objectlab.kit.datecalc.common;
 import java.io.Serializable;
 
 import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
+import net.objectlab.kit.datecalc.common.ccy.NonWorkingDayMaskCache;
+import net.objectlab.kit.datecalc.common.ccy.SpotDateCache;
 
 /**
  * Provides enough information to create an immutable CurrencyDateCalculator.
@@ -31,9 +33,9 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
     private String ccy1;
     private String ccy2;
     private String crossCcy = CurrencyDateCalculator.USD_CODE;
-    private HolidayCalendar<E> ccy1Calendar = new DefaultHolidayCalendar<E>();
-    private HolidayCalendar<E> ccy2Calendar = new DefaultHolidayCalendar<E>();
-    private HolidayCalendar<E> crossCcyCalendar = new DefaultHolidayCalendar<E>();
+    private HolidayCalendar<E> ccy1Calendar = ImmutableHolidayCalendar.snapshot(new DefaultHolidayCalendar<E>());
+    private HolidayCalendar<E> ccy2Calendar = ImmutableHolidayCalendar.snapshot(new DefaultHolidayCalendar<E>());
+    private HolidayCalendar<E> crossCcyCalendar = ImmutableHolidayCalendar.snapshot(new DefaultHolidayCalendar<E>());
     private HolidayHandler<E> tenorHolidayHandler;
     private WorkingWeek ccy1Week;
     private WorkingWeek ccy2Week;
@@ -42,6 +44,8 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
     private boolean brokenDateAllowed;
     private boolean adjustStartDateWithCurrencyPair = true;
     private SpotLag spotLag = SpotLag.T_2;
+    private int spotDateCacheCapacity = SpotDateCache.DEFAULT_CAPACITY;
+    private NonWorkingDayMaskCache nonWorkingDayMaskCache;
 
     /**
      * Default values are:
@@ -53,6 +57,7 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
      * <li>brokenDateAllowed = false</li>
      * <li>adjustStartDateWithCurrencyPair = true</li>
      * <li>spotLag = SpotLag.T_2</li>
+     * <li>spotDateCacheCapacity = 1024</li>
      * </ul>
      */
     public CurrencyDateCalculatorBuilder() {
@@ -65,6 +70,7 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
      * <li>ccy1Week or ccy2Week missing</li>
      * <li>spotLag is missing</li>
      * <li>tenorHolidayHandler is missing</li>
+     * <li>spotDateCacheCapacity is negative</li>
      * <li>If brokenDate is not allowed, we need crossCcy, crossCcyWeek and crossCcyCalendar.</li>
      * </ul>
      */
@@ -96,6 +102,9 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
         if (spotLag == null) {
             append(b, "spotLag is required");
         }
+        if (spotDateCacheCapacity < 0) {
+            append(b, "spotDateCacheCapacity cannot be negative");
+        }
         if (tenorHolidayHandler == null) {
             append(b, "tenorHolidayHandler is required");
         }
@@ -193,6 +202,37 @@ public class CurrencyDateCalculatorBuilder<E extends Serializable> {
         return this;
     }
 
+    public NonWorkingDayMaskCache getNonWorkingDayMaskCache() {
+        return nonWorkingDayMaskCache;
+    }
+
+    /**
+     * The cache used to share the NonWorkingDayMask with other calculators,
+     * set by the factory; if null the calculator builds its own mask.
+     * @param nonWorkingDayMaskCache the cache of the factory
+     * @return the builder
+     * @since 1.4.0
+     */
+    public CurrencyDateCalculatorBuilder<E> nonWorkingDayMaskCache(final NonWorkingDayMaskCache nonWorkingDayMaskCache) {
+        this.nonWorkingDayMaskCache = nonWorkingDayMaskCache;
+        return this;
+    }
+
+    public int getSpotDateCacheCapacity() {
+        return spotDateCacheCapacity;
+    }
+
+    /**
+     * The calculator keeps the Spot Date of the most recent start dates, a
+     * start date is cached in the slot given by its day modulo the capacity.
+     * @param spotDateCacheCapacity default 1024, 0 to disable the cache
+     * @return the builder
+     */
+    public CurrencyDateCalculatorBuilder<E> spotDateCacheCapacity(final int spotDateCacheCapacity) {
+        this.spotDateCacheCapacity = spotDateCacheCapacity;
+        return this;
+    }
+
     /**
      * If true, then the calculator can return a SpotDate/TenorDate where the cross currency is NOT a trading date (e.g. July 4 for EUR/GBP which
      * usually would be skipped).
@@ -0,0 +1,143 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
+import net.objectlab.kit.datecalc.common.ccy.DefaultCurrencyCalculatorConfig;
+
+/**
+ * The default CurrencyDateCalculators of a factory, per ccy1, ccy2 and spot
+ * lag. A calculator is immutable so it is shared until the config it was
+ * built with changes or the cache is cleared; a lookup does not allocate.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+final class CurrencyDateCalculatorCache<E> {
+    private static final int SPOT_LAGS = SpotLag.values().length;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, AtomicReferenceArray<Entry<E>>>> calculators =
+            new ConcurrentHashMap<String, ConcurrentMap<String, AtomicReferenceArray<Entry<E>>>>();
+
+    private volatile long generation;
+
+    /**
+     * @return the cached calculator, null if none or if it was built with
+     *         another config or version of the config.
+     */
+    CurrencyDateCalculator<E> get(final String ccy1, final String ccy2, final SpotLag spotLag, final CurrencyCalculatorConfig config) {
+        final ConcurrentMap<String, AtomicReferenceArray<Entry<E>>> byCcy2 = calculators.get(ccy1);
+        final AtomicReferenceArray<Entry<E>> bySpotLag = byCcy2 != null ? byCcy2.get(ccy2) : null;
+        final Entry<E> entry = bySpotLag != null ? bySpotLag.get(spotLag.ordinal()) : null;
+        return entry != null && entry.config == config && entry.configVersion == versionOf(config) ? entry.calculator : null;
+    }
+
+    /**
+     * @return a number changed by every clear, to be given to put.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Caches the calculator unless the cache was cleared since the given
+     * generation, i.e. while the calculator was being built.
+     */
+    void put(final String ccy1, final String ccy2, final SpotLag spotLag, final CurrencyCalculatorConfig config,
+            final CurrencyDateCalculator<E> calculator, final long builtGeneration) {
+        ConcurrentMap<String, AtomicReferenceArray<Entry<E>>> byCcy2 = calculators.get(ccy1);
+        if (byCcy2 == null) {
+            final ConcurrentMap<String, AtomicReferenceArray<Entry<E>>> created = new ConcurrentHashMap<String, AtomicReferenceArray<Entry<E>>>();
+            byCcy2 = calculators.putIfAbsent(ccy1, created);
+            if (byCcy2 == null) {
+                byCcy2 = created;
+            }
+        }
+        AtomicReferenceArray<Entry<E>> bySpotLag = byCcy2.get(ccy2);
+        if (bySpotLag == null) {
+            final AtomicReferenceArray<Entry<E>> created = new AtomicReferenceArray<Entry<E>>(SPOT_LAGS);
+            bySpotLag = byCcy2.putIfAbsent(ccy2, created);
+            if (bySpotLag == null) {
+                bySpotLag = created;
+            }
+        }
+        bySpotLag.set(spotLag.ordinal(), new Entry<E>(config, versionOf(config), calculator));
+        if (generation != builtGeneration) {
+            bySpotLag.set(spotLag.ordinal(), null);
+        }
+    }
+
+    synchronized void clear() {
+        generation++;
+        calculators.clear();
+    }
+
+    private static long versionOf(final CurrencyCalculatorConfig config) {
+        return config instanceof DefaultCurrencyCalculatorConfig ? ((DefaultCurrencyCalculatorConfig) config).getVersion() : 0L;
+    }
+
+    private static final class Entry<E> {
+        private final CurrencyCalculatorConfig config;
+
+        private final long configVersion;
+
+        private final CurrencyDateCalculator<E> calculator;
+
+        private Entry(final CurrencyCalculatorConfig config, final long configVersion, final CurrencyDateCalculator<E> calculator) {
+            this.config = config;
+            this.configVersion = configVersion;
+            this.calculator = calculator;
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -189,13 +189,69 @@ public interface DateCalculator<E> extends BaseCalculator<E> {
      */
     DateCalculator<E> moveByBusinessDays(int businessDays);
 
+    /**
+     * Enables (or disables) the use of a precomputed index of working days
+     * (for the holiday calendar and WorkingWeek, within the calendar
+     * boundaries) so that moveByBusinessDays jumps straight to the resulting
+     * date instead of moving one day at a time. The results are the same, the
+     * index is rebuilt if the holiday calendar or WorkingWeek change. Disabled
+     * by default.
+     *
+     * @param enabled
+     *            true to use the index.
+     * @return the current DateCalculator
+     * @since 1.4.0
+     */
+    DateCalculator<E> setBusinessDayIndexEnabled(boolean enabled);
+
+    /**
+     * @return true if moveByBusinessDays uses the precomputed index of
+     *         working days.
+     * @since 1.4.0
+     */
+    boolean isBusinessDayIndexEnabled();
+
+    /**
+     * Provides an immutable BusinessDayEngine with the current holidays,
+     * WorkingWeek and HolidayHandler of this calculator; unlike the
+     * calculator, it can be shared between threads.
+     *
+     * @return the engine, rebuilt when the holidays, WorkingWeek or
+     *         HolidayHandler change.
+     * @throws UnsupportedOperationException
+     *             if the date type has no EpochDayConverter.
+     * @since 1.4.0
+     */
+    BusinessDayEngine<E> getBusinessDayEngine();
+
+    /**
+     * Counts the business days between 2 dates using a precomputed index of
+     * working days, it does not change the current business date. The count
+     * includes the start date (if a working day) and excludes the end date,
+     * as used by BUS/252; if both dates are working days, it is the number of
+     * moveByBusinessDays(1) required to go from start to end.
+     *
+     * @param start
+     *            the start date (included)
+     * @param end
+     *            the end date (excluded)
+     * @return the number of working days d such that start &lt;= d &lt; end,
+     *         or minus the number of working days d such that end &lt;= d
+     *         &lt; start if end is before start.
+     * @exception IndexOutOfBoundsException
+     *                if a date is outside the holiday calendar boundaries.
+     * @since 1.4.0
+     */
+    int businessDaysBetween(E start, E end);
+
     /**
      * Allows DateCalculators to be combined into a new one, the startDate and
      * currentBusinessDate will be the ones from the existing calendar (not the
      * parameter one). The name will be combined name1+"/"+calendar.getName().
      * If the Calendars have Early or Late boundaries, the result is the
      * narrowest interval (e.g. the later Early boundary and the earliest
-     * Late boundary).
+     * Late boundary). The holidays are not copied, the new calculator uses a
+     * {@link CombinedHolidayCalendar} view over both calendars.
      *
      * @param calculator
      *            return the same DateCalculator if calendar is null or the
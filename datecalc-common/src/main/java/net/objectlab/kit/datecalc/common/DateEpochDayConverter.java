@@ -0,0 +1,92 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Epoch day converter for <code>Date</code>, the day is the one seen in the
+ * given TimeZone (the default one unless specified), consistent with
+ * {@link Utils#getCal(Date)}.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class DateEpochDayConverter implements EpochDayConverter<Date> {
+    private static final long serialVersionUID = -4171309498123540553L;
+
+    private final TimeZone timeZone;
+
+    public DateEpochDayConverter() {
+        this(TimeZone.getDefault());
+    }
+
+    public DateEpochDayConverter(final TimeZone timeZone) {
+        this.timeZone = (TimeZone) timeZone.clone();
+    }
+
+    public int toEpochDay(final Date date) {
+        final long millis = date.getTime();
+        return EpochDayUtil.fromLocalMillis(millis + timeZone.getOffset(millis));
+    }
+
+    public Date fromEpochDay(final int epochDay) {
+        final Calendar cal = Calendar.getInstance(timeZone);
+        cal.clear();
+        cal.set(EpochDayUtil.getYear(epochDay), EpochDayUtil.getMonth(epochDay) - 1, EpochDayUtil.getDayOfMonth(epochDay));
+        return cal.getTime();
+    }
+
+    public TimeZone getTimeZone() {
+        return (TimeZone) timeZone.clone();
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,464 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.BACKWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.FORWARD;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_FOLLOWING;
+import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PRECEDING;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Default {@link BusinessDayEngine}, it works on epoch days via an
+ * {@link EpochDayConverter} so it does not depend on the date type; the
+ * HolidayHandler is only given a date to adjust. Moving by business days uses
+ * a {@link BusinessDayIndex}, built on first use and rebuilt if a date falls
+ * outside of it.
+ * <p>
+ * The HolidayCalendar and HolidayHandler must not be modified once given to
+ * the engine (registered calendars and the handlers of the kit are fine).
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public final class DefaultBusinessDayEngine<E extends Serializable> implements BusinessDayEngine<E>, WorkingDayJumpTable<E> {
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static final int MONTHS_IN_YEAR = 12;
+
+    private final HolidayCalendar<E> holidayCalendar;
+
+    private final WorkingWeek workingWeek;
+
+    private final HolidayHandler<E> holidayHandler;
+
+    private final EpochDayConverter<E> converter;
+
+    private final boolean hasEarlyBoundary;
+
+    private final int earlyBoundary;
+
+    private final boolean hasLateBoundary;
+
+    private final int lateBoundary;
+
+    private volatile BusinessDayIndex businessDayIndex;
+
+    /**
+     * @param holidayCalendar
+     *            the holidays, null for none.
+     * @param workingWeek
+     *            the working week, null for the default (Monday to Friday).
+     * @param holidayHandler
+     *            the handler used to adjust dates, null for none.
+     * @param converter
+     *            the converter for the date type, mandatory.
+     */
+    public DefaultBusinessDayEngine(final HolidayCalendar<E> holidayCalendar, final WorkingWeek workingWeek, final HolidayHandler<E> holidayHandler,
+            final EpochDayConverter<E> converter) {
+        this(holidayCalendar, workingWeek, holidayHandler, converter, null);
+    }
+
+    private DefaultBusinessDayEngine(final HolidayCalendar<E> holidayCalendar, final WorkingWeek workingWeek, final HolidayHandler<E> holidayHandler,
+            final EpochDayConverter<E> converter, final BusinessDayIndex businessDayIndex) {
+        if (converter == null) {
+            throw new IllegalArgumentException("A BusinessDayEngine requires an EpochDayConverter");
+        }
+        this.converter = converter;
+        this.holidayCalendar = holidayCalendar != null ? holidayCalendar : new ImmutableHolidayCalendar<E>(new DefaultHolidayCalendar<E>(null, null,
+                null, converter));
+        this.workingWeek = workingWeek != null ? workingWeek : WorkingWeek.DEFAULT;
+        this.holidayHandler = holidayHandler;
+        this.businessDayIndex = businessDayIndex;
+
+        final E early = this.holidayCalendar.getEarlyBoundary();
+        hasEarlyBoundary = early != null;
+        earlyBoundary = hasEarlyBoundary ? converter.toEpochDay(early) : Integer.MIN_VALUE;
+        final E late = this.holidayCalendar.getLateBoundary();
+        hasLateBoundary = late != null;
+        lateBoundary = hasLateBoundary ? converter.toEpochDay(late) : Integer.MAX_VALUE;
+    }
+
+    public HolidayCalendar<E> getHolidayCalendar() {
+        return holidayCalendar;
+    }
+
+    public WorkingWeek getWorkingWeek() {
+        return workingWeek;
+    }
+
+    public EpochDayConverter<E> getEpochDayConverter() {
+        return converter;
+    }
+
+    public String getHolidayHandlerType() {
+        return holidayHandler != null ? holidayHandler.getType() : null;
+    }
+
+    /**
+     * The BusinessDayIndex built so far is shared with the new engine.
+     */
+    public DefaultBusinessDayEngine<E> withHolidayHandler(final HolidayHandler<E> handler) {
+        return new DefaultBusinessDayEngine<E>(holidayCalendar, workingWeek, handler, converter, businessDayIndex);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException
+     *             if the date is outside the boundaries of the holidays.
+     */
+    public boolean isNonWorkingDay(final E date) {
+        if (date == null) {
+            return false;
+        }
+        final int day = converter.toEpochDay(date);
+        checkBoundary(day, date);
+        return !workingWeek.isWorkingDayFromCalendar(EpochDayUtil.getCalendarDayOfWeek(day)) || holidayCalendar.isHoliday(date);
+    }
+
+    public E adjust(final E date) {
+        return adjust(date, 0);
+    }
+
+    public int daysToWorkingDay(final E date, final int increment) {
+        final int day = tableDay(date);
+        if (day == BusinessDayIndex.NOT_FOUND) {
+            return BusinessDayIndex.NOT_FOUND;
+        }
+        final int target = workingDay(indexCovering(day, day), day, increment);
+        return target != BusinessDayIndex.NOT_FOUND ? target - day : BusinessDayIndex.NOT_FOUND;
+    }
+
+    public int daysToWorkingDayInMonth(final E date, final int increment) {
+        final int day = tableDay(date);
+        if (day == BusinessDayIndex.NOT_FOUND) {
+            return BusinessDayIndex.NOT_FOUND;
+        }
+        final BusinessDayIndex index = indexCovering(day, day);
+        final int month = EpochDayUtil.getMonth(day);
+        int target = workingDay(index, day, increment);
+        if (target != BusinessDayIndex.NOT_FOUND && EpochDayUtil.getMonth(target) != month) {
+            // switch direction
+            target = workingDay(index, day, increment < 0 ? 1 : -1);
+            if (target != BusinessDayIndex.NOT_FOUND && EpochDayUtil.getMonth(target) != month) {
+                target = BusinessDayIndex.NOT_FOUND;
+            }
+        }
+        return target != BusinessDayIndex.NOT_FOUND ? target - day : BusinessDayIndex.NOT_FOUND;
+    }
+
+    private static int workingDay(final BusinessDayIndex index, final int day, final int increment) {
+        return increment < 0 ? index.previousWorkingDay(day) : index.nextWorkingDay(day);
+    }
+
+    /**
+     * @return the epoch day of the date, NOT_FOUND if it is outside the
+     *         boundaries so that the caller checks it day by day.
+     */
+    private int tableDay(final E date) {
+        if (date == null) {
+            return BusinessDayIndex.NOT_FOUND;
+        }
+        final int day = converter.toEpochDay(date);
+        return hasEarlyBoundary && day < earlyBoundary || hasLateBoundary && day > lateBoundary ? BusinessDayIndex.NOT_FOUND : day;
+    }
+
+    public E addBusinessDays(final E date, final int businessDays) {
+        checkHolidayHandlerDirection(getHolidayHandlerType(), businessDays);
+        final E start = adjust(date);
+        if (businessDays == 0) {
+            return start;
+        }
+
+        final int from = converter.toEpochDay(start);
+        final int to = indexCovering(from, from).moveByBusinessDays(from, businessDays, getHolidayHandlerType());
+        if (to != BusinessDayIndex.NOT_FOUND) {
+            return converter.fromEpochDay(to);
+        }
+
+        final int step = businessDays < 0 ? -1 : 1;
+        E current = start;
+        for (int i = Math.abs(businessDays); i > 0; i--) {
+            current = addDays(current, step);
+        }
+        return current;
+    }
+
+    public E addTenor(final E date, final Tenor tenor, final int spotLag) {
+        if (tenor == null) {
+            throw new IllegalArgumentException("Tenor cannot be null");
+        }
+        final E start = adjust(date);
+        return applyTenor(tenor, isFromSpot(tenor) ? addBusinessDays(start, spotLag) : start);
+    }
+
+    public List<E> calculateTenorDates(final E date, final List<Tenor> tenors, final int spotLag) {
+        if (tenors == null) {
+            return Collections.emptyList();
+        }
+        final List<E> list = new ArrayList<E>(tenors.size());
+        final E start = adjust(date);
+        E spot = null;
+        for (final Tenor tenor : tenors) {
+            if (tenor == null) {
+                throw new IllegalArgumentException("Tenor cannot be null");
+            }
+            if (isFromSpot(tenor)) {
+                if (spot == null) {
+                    spot = addBusinessDays(start, spotLag);
+                }
+                list.add(applyTenor(tenor, spot));
+            } else {
+                list.add(applyTenor(tenor, start));
+            }
+        }
+        return list;
+    }
+
+    public TenorDateMatrix<E> calculateTenorDates(final List<E> startDates, final List<Tenor> tenors, final int spotLag,
+            final ExecutorService executor) {
+        return TenorDateMatrix.calculate(startDates, tenors, new TenorDateMatrix.RowCalculator<E>() {
+            public List<E> calculateTenorDates(final E startDate, final List<Tenor> rowTenors) {
+                return DefaultBusinessDayEngine.this.calculateTenorDates(startDate, rowTenors, spotLag);
+            }
+        }, executor);
+    }
+
+    /**
+     * Moves by business days with the index only, used by the calculators
+     * which then move their own date by the difference.
+     *
+     * @return the epoch day reached or {@link BusinessDayIndex#NOT_FOUND}.
+     */
+    int moveByBusinessDays(final int epochDay, final int businessDays) {
+        return indexCovering(epochDay, epochDay).moveByBusinessDays(epochDay, businessDays, getHolidayHandlerType());
+    }
+
+    public int businessDaysBetween(final E start, final E end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end dates cannot be null");
+        }
+        final int from = converter.toEpochDay(start);
+        final int to = converter.toEpochDay(end);
+        checkBoundary(from, start);
+        checkBoundary(to, end);
+        if (to >= from) {
+            return indexCovering(from, to).countWorkingDays(from, to);
+        }
+        return -indexCovering(to, from).countWorkingDays(to, from);
+    }
+
+    private static boolean isFromSpot(final Tenor tenor) {
+        return tenor.getCode() != TenorCode.OVERNIGHT && tenor.getCode() != TenorCode.TOM_NEXT;
+    }
+
+    private E applyTenor(final Tenor tenor, final E date) {
+        switch (tenor.getCode()) {
+        case OVERNIGHT:
+        case SPOT_NEXT:
+            return addDays(date, 1);
+        case TOM_NEXT:
+            return addDays(addDays(date, 1), 1);
+        case SPOT:
+            return date;
+        case DAY:
+            return addDays(date, tenor.getUnits());
+        case WEEK:
+            return addDays(date, tenor.getUnits() * DAYS_IN_WEEK);
+        case MONTH:
+            return addMonths(date, tenor.getUnits());
+        case YEAR:
+            return addMonths(date, tenor.getUnits() * MONTHS_IN_YEAR);
+        default:
+            throw new UnsupportedOperationException("Sorry not yet...");
+        }
+    }
+
+    /** same as DateCalculator.moveByDays */
+    private E addDays(final E date, final int days) {
+        final int day = converter.toEpochDay(date) + days;
+        return adjust(converter.fromEpochDay(day), day, days);
+    }
+
+    /** same as DateCalculator.moveByMonths */
+    private E addMonths(final E date, final int months) {
+        final int day = EpochDayUtil.plusMonths(converter.toEpochDay(date), months);
+        return adjust(converter.fromEpochDay(day), day, months);
+    }
+
+    private E adjust(final E date, final int increment) {
+        if (date == null) {
+            return null;
+        }
+        return adjust(date, converter.toEpochDay(date), increment);
+    }
+
+    private E adjust(final E date, final int day, final int increment) {
+        checkBoundary(day, date);
+        if (holidayHandler == null) {
+            return date;
+        }
+        return holidayHandler.moveCurrentDate(new Cursor<E>(this, date, increment));
+    }
+
+    /**
+     * @param date
+     *            the date of the day for the error message, null to convert
+     *            the day.
+     */
+    private void checkBoundary(final int day, final E date) {
+        if (hasEarlyBoundary && day < earlyBoundary) {
+            throw new IndexOutOfBoundsException((date != null ? date : converter.fromEpochDay(day)) + " is before the early boundary "
+                    + holidayCalendar.getEarlyBoundary());
+        }
+        if (hasLateBoundary && day > lateBoundary) {
+            throw new IndexOutOfBoundsException((date != null ? date : converter.fromEpochDay(day)) + " is after the late boundary "
+                    + holidayCalendar.getLateBoundary());
+        }
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException
+     *             if a day is outside the boundaries of the holidays.
+     */
+    public BusinessDayIndex getBusinessDayIndex(final int fromEpochDay, final int toEpochDay) {
+        checkBoundary(fromEpochDay, null);
+        checkBoundary(toEpochDay, null);
+        return indexCovering(Math.min(fromEpochDay, toEpochDay), Math.max(fromEpochDay, toEpochDay));
+    }
+
+    /**
+     * The index covers the holiday calendar boundaries or, if not defined,
+     * a window around the holidays, the given days and the range of the
+     * previous index so that alternating between distant days does not
+     * rebuild it each time.
+     */
+    private BusinessDayIndex indexCovering(final int fromDay, final int toDay) {
+        final BusinessDayIndex index = businessDayIndex;
+        if (index != null && index.covers(fromDay) && index.covers(toDay)) {
+            return index;
+        }
+        final EpochDayBitSet holidays = EpochDayBitSet.of(converter, holidayCalendar);
+        int first = holidays.isEmpty() ? fromDay : Math.min(fromDay, holidays.getFirstDay());
+        int last = holidays.isEmpty() ? toDay : Math.max(toDay, holidays.getLastDay());
+        first = hasEarlyBoundary ? earlyBoundary : first - BusinessDayIndex.DEFAULT_WINDOW_DAYS;
+        last = hasLateBoundary ? lateBoundary : last + BusinessDayIndex.DEFAULT_WINDOW_DAYS;
+        if (index != null) {
+            first = Math.min(first, index.getFirstDay());
+            last = Math.max(last, index.getLastDay());
+        }
+
+        final BusinessDayIndex newIndex = new BusinessDayIndex(first, Math.max(first, last), workingWeek, holidays);
+        businessDayIndex = newIndex;
+        return newIndex;
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if the HolidayHandler does not allow moving in that
+     *             direction.
+     */
+    static void checkHolidayHandlerDirection(final String holidayHandlerType, final int businessDays) {
+        if (businessDays > 0 && (BACKWARD.equals(holidayHandlerType) || MODIFIED_PRECEDING.equals(holidayHandlerType))) {
+            throw new IllegalArgumentException(
+                    "A " + MODIFIED_PRECEDING + " or " + BACKWARD + " does not allow positive steps for moveByBusinessDays");
+        } else if (businessDays < 0 && (FORWARD.equals(holidayHandlerType) || MODIFIED_FOLLOWING.equals(holidayHandlerType))) {
+            throw new IllegalArgumentException(
+                    "A " + MODIFIED_FOLLOWING + " or " + FORWARD + " does not allow negative steps for moveByBusinessDays");
+        }
+    }
+
+    /**
+     * The date and increment given to the HolidayHandler, one per adjustment
+     * so that the engine itself holds no state.
+     */
+    private static final class Cursor<E extends Serializable> implements BaseCalculator<E>, WorkingDayJumpTable<E> {
+        private final DefaultBusinessDayEngine<E> engine;
+
+        private final E date;
+
+        private final int increment;
+
+        private Cursor(final DefaultBusinessDayEngine<E> engine, final E date, final int increment) {
+            this.engine = engine;
+            this.date = date;
+            this.increment = increment;
+        }
+
+        public E getCurrentBusinessDate() {
+            return date;
+        }
+
+        public int getCurrentIncrement() {
+            return increment;
+        }
+
+        public boolean isNonWorkingDay(final E day) {
+            return engine.isNonWorkingDay(day);
+        }
+
+        public int daysToWorkingDay(final E day, final int direction) {
+            return engine.daysToWorkingDay(day, direction);
+        }
+
+        public int daysToWorkingDayInMonth(final E day, final int direction) {
+            return engine.daysToWorkingDayInMonth(day, direction);
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -33,28 +33,36 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.TreeMap;
 
 /**
+ * Holiday calendar storing its holidays as a bitset of epoch days, checking a
+ * holiday is a single bit test. The conversion from date to epoch day is done
+ * by an {@link EpochDayConverter}, one is detected for Calendar and Date if not
+ * given.
+ *
  * @author $LastChangedBy: marchy $
  *
  */
 public class DefaultHolidayCalendar<E extends Serializable> implements HolidayCalendar<E> {
-    private static final long serialVersionUID = -8558686840806739645L;
+    private static final long serialVersionUID = -2271453428862573203L;
 
     /**
-     * Changed to a Map of String to E, given the JODA issue 
+     * Holidays are keyed by epoch day, which also avoids the JODA issue
      * http://joda-interest.219941.n2.nabble.com/LocalDate-equals-method-bug-td7572429.html
      * @since 1.4.0
      */
-    private Map<String, E> holidays;
+    private EpochDayBitSet holidayDays = EpochDayBitSet.EMPTY;
+
+    /** one instance per day, as given by the user, unmodifiable. */
+    private Set<E> holidays = Collections.emptySet();
+
+    private EpochDayConverter<E> converter;
 
     private E earlyBoundary;
 
@@ -62,11 +70,21 @@ public class DefaultHolidayCalendar<E extends Serializable> implements HolidayCa
 
     public DefaultHolidayCalendar() {
         super();
-        holidays = Collections.emptyMap();
     }
 
     public DefaultHolidayCalendar(final Set<E> holidays, final E earlyBoundary, final E lateBoundary) {
+        this(holidays, earlyBoundary, lateBoundary, null);
+    }
+
+    /**
+     * @param converter
+     *            the converter to epoch day, if null one will be detected
+     *            from the type of the holidays.
+     * @since 1.4.0
+     */
+    public DefaultHolidayCalendar(final Set<E> holidays, final E earlyBoundary, final E lateBoundary, final EpochDayConverter<E> converter) {
         super();
+        this.converter = converter;
         setHolidays(holidays);
 
         this.earlyBoundary = earlyBoundary;
@@ -74,8 +92,7 @@ public class DefaultHolidayCalendar<E extends Serializable> implements HolidayCa
     }
 
     public DefaultHolidayCalendar(final Set<E> holidays) {
-        super();
-        setHolidays(holidays);
+        this(holidays, null, null, null);
     }
 
     /*
@@ -87,13 +104,12 @@ public class DefaultHolidayCalendar<E extends Serializable> implements HolidayCa
         return earlyBoundary;
     }
 
-    /*
-     * (non-Javadoc)
-     *
-     * @see net.objectlab.kit.datecalc.common.HolidayCalendar#getHolidays()
+    /**
+     * @return an unmodifiable view of the holidays (one per day), built once
+     *         when the holidays are set.
      */
     public Set<E> getHolidays() {
-        return new HashSet<E>(holidays.values());
+        return holidays;
     }
 
     /*
@@ -121,17 +137,25 @@ public class DefaultHolidayCalendar<E extends Serializable> implements HolidayCa
      * @see net.objectlab.kit.datecalc.common.HolidayCalendar#setHolidays(java.util.Set)
      */
     public final HolidayCalendar<E> setHolidays(final Set<E> holidays) {
-
-        if (holidays == null) {
-            this.holidays = Collections.emptyMap();
+        if (holidays == null || holidays.isEmpty()) {
+            this.holidays = Collections.emptySet();
+            this.holidayDays = EpochDayBitSet.EMPTY;
             return this;
         }
 
-        final Map<String, E> newSet = new TreeMap<String, E>();
+        final int[] days = new int[holidays.size()];
+        final Set<E> uniqueHolidays = new LinkedHashSet<E>();
+        final Set<Integer> seen = new HashSet<Integer>();
+        int count = 0;
         for (final E e : holidays) {
-            newSet.put(toString(e), e);
+            final int day = getConverter(e).toEpochDay(e);
+            if (seen.add(Integer.valueOf(day))) {
+                days[count++] = day;
+                uniqueHolidays.add(e);
+            }
         }
-        this.holidays = Collections.unmodifiableMap(newSet);
+        this.holidayDays = EpochDayBitSet.of(days);
+        this.holidays = Collections.unmodifiableSet(uniqueHolidays);
         return this;
     }
 
@@ -146,16 +170,47 @@ public class DefaultHolidayCalendar<E extends Serializable> implements HolidayCa
     }
 
     public boolean isHoliday(final E date) {
-        return holidays.containsKey(toString(date));
+        return date != null && !holidayDays.isEmpty() && holidayDays.contains(converter.toEpochDay(date));
     }
 
-    private String toString(final E date) {
-        if (date instanceof Calendar) {
-            return new SimpleDateFormat("yyyy-MM-dd").format(((Calendar) date).getTime());
-        } else if (date instanceof Date) {
-            return new SimpleDateFormat("yyyy-MM-dd").format(date);
-        }
+    /**
+     * @param epochDay
+     *            number of days since 1970-01-01
+     * @return true if that day is a holiday.
+     * @since 1.4.0
+     */
+    public boolean isHoliday(final int epochDay) {
+        return holidayDays.contains(epochDay);
+    }
 
-        return date != null ? date.toString() : "";
+    /**
+     * @return the immutable set of holidays as epoch days.
+     * @since 1.4.0
+     */
+    public EpochDayBitSet getHolidayDays() {
+        return holidayDays;
+    }
+
+    /**
+     * @return the converter used to map a date to an epoch day, null if none
+     *         given and no holiday set yet.
+     * @since 1.4.0
+     */
+    public EpochDayConverter<E> getEpochDayConverter() {
+        return converter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private EpochDayConverter<E> getConverter(final E date) {
+        if (converter == null) {
+            if (date instanceof Calendar) {
+                converter = (EpochDayConverter<E>) (EpochDayConverter<?>) CalendarEpochDayConverter.INSTANCE;
+            } else if (date instanceof Date) {
+                converter = (EpochDayConverter<E>) (EpochDayConverter<?>) new DateEpochDayConverter();
+            } else {
+                converter = new IsoStringEpochDayConverter<E>();
+            }
+        }
+        return converter;
     }
 }
@@ -0,0 +1,252 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Immutable set of epoch days stored as a bitset covering the range between
+ * the first and last day; membership is a single bit test without any
+ * allocation.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class EpochDayBitSet implements Serializable {
+    private static final long serialVersionUID = -2754181618437213312L;
+
+    private static final int ADDRESS_BITS = 6;
+
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS;
+
+    public static final EpochDayBitSet EMPTY = new EpochDayBitSet(0, new long[0], 0);
+
+    private final int firstDay;
+
+    private final long[] words;
+
+    private final int size;
+
+    private EpochDayBitSet(final int firstDay, final long[] words, final int size) {
+        this.firstDay = firstDay;
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * @param epochDays
+     *            the days to include, duplicates are ignored.
+     * @return a new set containing the given days.
+     */
+    public static EpochDayBitSet of(final int... epochDays) {
+        if (epochDays == null || epochDays.length == 0) {
+            return EMPTY;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (final int day : epochDays) {
+            min = Math.min(min, day);
+            max = Math.max(max, day);
+        }
+        final long[] words = new long[((max - min) >>> ADDRESS_BITS) + 1];
+        int size = 0;
+        for (final int day : epochDays) {
+            final int offset = day - min;
+            final long mask = 1L << offset;
+            final int index = offset >>> ADDRESS_BITS;
+            if ((words[index] & mask) == 0) {
+                words[index] |= mask;
+                size++;
+            }
+        }
+        return new EpochDayBitSet(min, words, size);
+    }
+
+    /**
+     * @param words
+     *            the bits starting at the first day, not copied.
+     */
+    static EpochDayBitSet of(final int firstDay, final long[] words, final int size) {
+        return size == 0 ? EMPTY : new EpochDayBitSet(firstDay, words, size);
+    }
+
+    /**
+     * @param converter
+     *            the converter for the dates
+     * @param dates
+     *            the dates to include, may be null.
+     * @return a new set containing the epoch days of the given dates.
+     */
+    public static <E> EpochDayBitSet of(final EpochDayConverter<E> converter, final Collection<E> dates) {
+        if (dates == null || dates.isEmpty()) {
+            return EMPTY;
+        }
+        final int[] days = new int[dates.size()];
+        int i = 0;
+        for (final E date : dates) {
+            days[i++] = converter.toEpochDay(date);
+        }
+        return of(days);
+    }
+
+    /**
+     * Reads the epoch days straight from a calendar that has them (memory
+     * mapped, rule based or a DefaultHolidayCalendar, or a union of them)
+     * instead of converting its set of holidays.
+     *
+     * @param converter
+     *            the converter for the dates
+     * @param calendar
+     *            the calendar, may be null.
+     * @return a set containing the epoch days of the holidays.
+     */
+    public static <E> EpochDayBitSet of(final EpochDayConverter<E> converter, final ReadOnlyHolidayCalendar<E> calendar) {
+        final ReadOnlyHolidayCalendar<E> current = calendar instanceof VersionedHolidayCalendar ? ((VersionedHolidayCalendar<E>) calendar)
+                .getCurrent() : calendar;
+        if (current instanceof RuleBasedHolidayCalendar) {
+            return ((RuleBasedHolidayCalendar<?>) current).getHolidayDays();
+        }
+        if (current instanceof MappedHolidayCalendar) {
+            return ((MappedHolidayCalendar<?>) current).getHolidayDays();
+        }
+        if (current != null && current.getClass() == DefaultHolidayCalendar.class) {
+            return ((DefaultHolidayCalendar<?>) current).getHolidayDays();
+        }
+        if (current instanceof CombinedHolidayCalendar && ((CombinedHolidayCalendar<E>) current).isUnion()) {
+            EpochDayBitSet result = EMPTY;
+            for (final HolidayCalendar<E> cal : ((CombinedHolidayCalendar<E>) current).getCalendars()) {
+                result = result.union(of(converter, cal));
+            }
+            return result;
+        }
+        return of(converter, current != null ? current.getHolidays() : null);
+    }
+
+    /**
+     * @return a new set containing the days of this set and the other one.
+     */
+    public EpochDayBitSet union(final EpochDayBitSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        final int[] mine = toArray();
+        final int[] others = other.toArray();
+        final int[] days = new int[mine.length + others.length];
+        System.arraycopy(mine, 0, days, 0, mine.length);
+        System.arraycopy(others, 0, days, mine.length, others.length);
+        return of(days);
+    }
+
+    /**
+     * @return true if the epoch day is part of this set.
+     */
+    public boolean contains(final int epochDay) {
+        final int offset = epochDay - firstDay;
+        if (offset < 0) {
+            return false;
+        }
+        final int index = offset >>> ADDRESS_BITS;
+        return index < words.length && (words[index] & 1L << offset) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the smallest epoch day in this set, meaningless if empty.
+     */
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return the largest epoch day in this set, meaningless if empty.
+     */
+    public int getLastDay() {
+        if (size == 0) {
+            return firstDay;
+        }
+        final int lastIndex = words.length - 1;
+        return firstDay + lastIndex * BITS_PER_WORD + BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(words[lastIndex]);
+    }
+
+    /**
+     * @return the bits, starting at the first day; not copied so it must not
+     *         be modified.
+     */
+    long[] getWords() {
+        return words;
+    }
+
+    /**
+     * @return the epoch days of this set in ascending order.
+     */
+    public int[] toArray() {
+        final int[] days = new int[size];
+        int pos = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                days[pos++] = firstDay + i * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return days;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
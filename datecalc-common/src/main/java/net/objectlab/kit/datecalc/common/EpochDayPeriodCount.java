@@ -0,0 +1,424 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import static net.objectlab.kit.datecalc.common.EpochDayUtil.packedDayOfMonth;
+import static net.objectlab.kit.datecalc.common.EpochDayUtil.packedMonth;
+import static net.objectlab.kit.datecalc.common.EpochDayUtil.packedYear;
+import static net.objectlab.kit.datecalc.common.EpochDayUtil.toYearMonthDay;
+import static net.objectlab.kit.datecalc.common.PeriodCountCalculator.MONTHS_IN_YEAR;
+import static net.objectlab.kit.datecalc.common.PeriodCountCalculator.MONTH_30_DAYS;
+import static net.objectlab.kit.datecalc.common.PeriodCountCalculator.MONTH_31_DAYS;
+import static net.objectlab.kit.datecalc.common.PeriodCountCalculator.YEAR_252_0;
+import static net.objectlab.kit.datecalc.common.PeriodCountCalculator.YEAR_360;
+import static net.objectlab.kit.datecalc.common.PeriodCountCalculator.YEAR_360_0;
+import static net.objectlab.kit.datecalc.common.PeriodCountCalculator.YEAR_365_0;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The day and year differences of the PeriodCountCalculators computed on
+ * epoch days with integer arithmetic only, one pair of dates at a time or
+ * for whole arrays of start and end dates. The results are the same as the
+ * calculators for a start date before or on the end date, whatever the type
+ * of date; nothing is allocated per pair of dates.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class EpochDayPeriodCount {
+    /** Below this many pairs of dates per chunk, the arrays are not split. */
+    private static final int MIN_CHUNK_SIZE = 16384;
+
+    private static final int FEBRUARY = 2;
+
+    private EpochDayPeriodCount() {
+    }
+
+    /**
+     * @return the number of days between the epoch days, following the
+     *         basis.
+     * @see PeriodCountCalculator#dayDiff(Object, Object, PeriodCountBasis)
+     */
+    public static int dayDiff(final int startEpochDay, final int endEpochDay, final PeriodCountBasis basis) {
+        switch (basis) {
+        case CONV_30_360:
+            return diffConv30v360(startEpochDay, endEpochDay);
+        case CONV_360E_ISDA:
+            return diff360EIsda(startEpochDay, endEpochDay);
+        case CONV_360E_ISMA:
+            return diff360EIsma(startEpochDay, endEpochDay);
+        case BUS_252:
+            throw unsupported(basis);
+        default:
+            return endEpochDay - startEpochDay;
+        }
+    }
+
+    /**
+     * @return the number of years (or fraction) between the epoch days,
+     *         following the basis.
+     * @see PeriodCountCalculator#yearDiff(Object, Object, PeriodCountBasis)
+     */
+    public static double yearDiff(final int startEpochDay, final int endEpochDay, final PeriodCountBasis basis) {
+        switch (basis) {
+        case ACT_ACT:
+            return diffActAct(startEpochDay, endEpochDay);
+        case CONV_30_360:
+        case CONV_360E_ISDA:
+        case CONV_360E_ISMA:
+        case ACT_360:
+            return dayDiff(startEpochDay, endEpochDay, basis) / YEAR_360_0;
+        case ACT_365:
+            return (endEpochDay - startEpochDay) / YEAR_365_0;
+        default:
+            throw unsupported(basis);
+        }
+    }
+
+    /**
+     * @return the exception thrown by the calculators for a basis that needs
+     *         more than the 2 dates (BUS_252 and ACT_ACT_ICMA).
+     */
+    public static UnsupportedOperationException unsupported(final PeriodCountBasis basis) {
+        return new UnsupportedOperationException("Sorry " + basis + " needs more than the 2 dates, see yearDiffBus252 and yearDiffActActIcma");
+    }
+
+    /**
+     * BUS/252 between the epoch days.
+     *
+     * @param index
+     *            the working days, covering both days.
+     * @return the number of business days d such that start &lt;= d &lt; end,
+     *         divided by 252.
+     * @throws IndexOutOfBoundsException
+     *             if a day is not covered by the index.
+     */
+    public static double yearDiffBus252(final int startEpochDay, final int endEpochDay, final BusinessDayIndex index) {
+        return index.countWorkingDays(startEpochDay, endEpochDay) / YEAR_252_0;
+    }
+
+    /**
+     * ACT/ACT ICMA between the epoch days, the end day being a coupon date.
+     *
+     * @see AbstractPeriodCountCalculator#yearDiffActActIcma(Object, Object, int)
+     */
+    public static double yearDiffActActIcma(final int startEpochDay, final int endEpochDay, final int couponsPerYear) {
+        return yearDiffActActIcma(startEpochDay, endEpochDay, couponsPerYear, false);
+    }
+
+    /**
+     * ACT/ACT ICMA between the epoch days, the end day being a coupon date
+     * and, if endOfMonth and the end day is the last day of its month, all
+     * coupon dates being the last day of their month.
+     *
+     * @see AbstractPeriodCountCalculator#yearDiffActActIcma(Object, Object, int,
+     *      boolean)
+     */
+    public static double yearDiffActActIcma(final int startEpochDay, final int endEpochDay, final int couponsPerYear, final boolean endOfMonth) {
+        return diffActActIcma(startEpochDay, endEpochDay, couponsPerYear, checkCouponsPerYear(couponsPerYear), endOfMonth);
+    }
+
+    /**
+     * ACT/ACT ISDA between the epoch days: the days in each calendar year
+     * over the length of that year, also within a single year (where the
+     * ACT_ACT basis of yearDiff gives 0).
+     */
+    public static double yearDiffActActIsda(final int startEpochDay, final int endEpochDay) {
+        final int startYear = EpochDayUtil.getYear(startEpochDay);
+        final int endYear = EpochDayUtil.getYear(endEpochDay);
+        final int daysToEndOfStartYear = EpochDayUtil.toEpochDay(startYear + 1, 1, 1) - startEpochDay;
+        final int daysFromStartOfEndYear = endEpochDay - EpochDayUtil.toEpochDay(endYear, 1, 1);
+        return (double) daysToEndOfStartYear / lengthOfYear(startYear) + (endYear - startYear - 1.0) + (double) daysFromStartOfEndYear
+                / lengthOfYear(endYear);
+    }
+
+    /**
+     * BUS/252 for each pair of epoch days, the index is asked once to the
+     * engine for the whole range of days.
+     *
+     * @throws IndexOutOfBoundsException
+     *             if a day is outside the boundaries of the holidays.
+     */
+    public static double[] yearDiffBus252(final int[] startEpochDays, final int[] endEpochDays, final BusinessDayEngine<?> businessDays,
+            final ExecutorService executor) {
+        checkArguments(startEpochDays, endEpochDays, PeriodCountBasis.BUS_252);
+        if (businessDays == null) {
+            throw new IllegalArgumentException("businessDays cannot be null");
+        }
+        final double[] diffs = new double[startEpochDays.length];
+        if (diffs.length == 0) {
+            return diffs;
+        }
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int i = 0; i < diffs.length; i++) {
+            first = Math.min(first, Math.min(startEpochDays[i], endEpochDays[i]));
+            last = Math.max(last, Math.max(startEpochDays[i], endEpochDays[i]));
+        }
+        final BusinessDayIndex index = businessDays.getBusinessDayIndex(first, last);
+        ParallelChunks.run(diffs.length, MIN_CHUNK_SIZE, executor, new ParallelChunks.Task() {
+            public void run(final int fromIndex, final int toIndex) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    diffs[i] = yearDiffBus252(startEpochDays[i], endEpochDays[i], index);
+                }
+            }
+        }, "the year differences");
+        return diffs;
+    }
+
+    /**
+     * ACT/ACT ICMA for each pair of epoch days, the end days being coupon
+     * dates.
+     */
+    public static double[] yearDiffActActIcma(final int[] startEpochDays, final int[] endEpochDays, final int couponsPerYear,
+            final ExecutorService executor) {
+        return yearDiffActActIcma(startEpochDays, endEpochDays, couponsPerYear, false, executor);
+    }
+
+    /**
+     * ACT/ACT ICMA for each pair of epoch days, the end days being coupon
+     * dates, following the end of month rule if endOfMonth.
+     */
+    public static double[] yearDiffActActIcma(final int[] startEpochDays, final int[] endEpochDays, final int couponsPerYear,
+            final boolean endOfMonth, final ExecutorService executor) {
+        checkArguments(startEpochDays, endEpochDays, PeriodCountBasis.ACT_ACT_ICMA);
+        final int months = checkCouponsPerYear(couponsPerYear);
+        final double[] diffs = new double[startEpochDays.length];
+        ParallelChunks.run(diffs.length, MIN_CHUNK_SIZE, executor, new ParallelChunks.Task() {
+            public void run(final int fromIndex, final int toIndex) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    diffs[i] = diffActActIcma(startEpochDays[i], endEpochDays[i], couponsPerYear, months, endOfMonth);
+                }
+            }
+        }, "the year differences");
+        return diffs;
+    }
+
+    /**
+     * @param startEpochDays
+     *            the start dates as epoch days.
+     * @param endEpochDays
+     *            the end dates as epoch days, same length as the start
+     *            dates.
+     * @param basis
+     *            the basis to use.
+     * @param executor
+     *            splits large arrays in chunks calculated in parallel, null
+     *            to use the calling thread only.
+     * @return the number of days between each start and end date.
+     */
+    public static int[] dayDiff(final int[] startEpochDays, final int[] endEpochDays, final PeriodCountBasis basis, final ExecutorService executor) {
+        checkArguments(startEpochDays, endEpochDays, basis);
+        final int[] diffs = new int[startEpochDays.length];
+        ParallelChunks.run(diffs.length, MIN_CHUNK_SIZE, executor, new ParallelChunks.Task() {
+            public void run(final int fromIndex, final int toIndex) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    diffs[i] = dayDiff(startEpochDays[i], endEpochDays[i], basis);
+                }
+            }
+        }, "the day differences");
+        return diffs;
+    }
+
+    /**
+     * @param startEpochDays
+     *            the start dates as epoch days.
+     * @param endEpochDays
+     *            the end dates as epoch days, same length as the start
+     *            dates.
+     * @param basis
+     *            the basis to use.
+     * @param executor
+     *            splits large arrays in chunks calculated in parallel, null
+     *            to use the calling thread only.
+     * @return the number of years (or fraction) between each start and end
+     *         date.
+     */
+    public static double[] yearDiff(final int[] startEpochDays, final int[] endEpochDays, final PeriodCountBasis basis,
+            final ExecutorService executor) {
+        checkArguments(startEpochDays, endEpochDays, basis);
+        final double[] diffs = new double[startEpochDays.length];
+        ParallelChunks.run(diffs.length, MIN_CHUNK_SIZE, executor, new ParallelChunks.Task() {
+            public void run(final int fromIndex, final int toIndex) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    diffs[i] = yearDiff(startEpochDays[i], endEpochDays[i], basis);
+                }
+            }
+        }, "the year differences");
+        return diffs;
+    }
+
+    private static void checkArguments(final int[] startEpochDays, final int[] endEpochDays, final PeriodCountBasis basis) {
+        if (startEpochDays == null || endEpochDays == null) {
+            throw new IllegalArgumentException("startEpochDays and endEpochDays cannot be null");
+        }
+        if (startEpochDays.length != endEpochDays.length) {
+            throw new IllegalArgumentException("startEpochDays and endEpochDays must have the same length: " + startEpochDays.length + " and "
+                    + endEpochDays.length);
+        }
+        if (basis == null) {
+            throw new IllegalArgumentException("basis cannot be null");
+        }
+    }
+
+    private static int diffConv30v360(final int startEpochDay, final int endEpochDay) {
+        final int start = toYearMonthDay(startEpochDay);
+        final int end = toYearMonthDay(endEpochDay);
+        int dayStart = packedDayOfMonth(start);
+        int dayEnd = packedDayOfMonth(end);
+        if (dayEnd == MONTH_31_DAYS && dayStart >= MONTH_30_DAYS) {
+            dayEnd = MONTH_30_DAYS;
+        }
+        if (dayStart == MONTH_31_DAYS) {
+            dayStart = MONTH_30_DAYS;
+        }
+        return diff360(start, end, dayStart, dayEnd);
+    }
+
+    // See https://en.wikipedia.org/wiki/Day_count_convention#30E.2F360_ISDA
+    private static int diff360EIsda(final int startEpochDay, final int endEpochDay) {
+        if (startEpochDay == endEpochDay) {
+            return 0;
+        }
+        final int start = toYearMonthDay(startEpochDay);
+        final int end = toYearMonthDay(endEpochDay);
+        int dayStart = packedDayOfMonth(start);
+        int dayEnd = packedDayOfMonth(end);
+        if (EpochDayUtil.lengthOfMonth(packedYear(start), packedMonth(start)) == dayStart) {
+            dayStart = MONTH_30_DAYS;
+        }
+        if (packedMonth(end) != FEBRUARY && EpochDayUtil.lengthOfMonth(packedYear(end), packedMonth(end)) == dayEnd) {
+            dayEnd = MONTH_30_DAYS;
+        }
+        return diff360(start, end, dayStart, dayEnd);
+    }
+
+    private static int diff360EIsma(final int startEpochDay, final int endEpochDay) {
+        final int start = toYearMonthDay(startEpochDay);
+        final int end = toYearMonthDay(endEpochDay);
+        int dayStart = packedDayOfMonth(start);
+        int dayEnd = packedDayOfMonth(end);
+        if (dayEnd == MONTH_31_DAYS) {
+            dayEnd = MONTH_30_DAYS;
+        }
+        if (dayStart == MONTH_31_DAYS) {
+            dayStart = MONTH_30_DAYS;
+        }
+        return diff360(start, end, dayStart, dayEnd);
+    }
+
+    private static int diff360(final int start, final int end, final int dayStart, final int dayEnd) {
+        return (packedYear(end) - packedYear(start)) * YEAR_360 + (packedMonth(end) - packedMonth(start)) * MONTH_30_DAYS + dayEnd - dayStart;
+    }
+
+    /**
+     * As the calculators, the fraction is only calculated for dates in
+     * different years.
+     */
+    private static double diffActAct(final int startEpochDay, final int endEpochDay) {
+        if (EpochDayUtil.getYear(startEpochDay) == EpochDayUtil.getYear(endEpochDay)) {
+            return 0.0;
+        }
+        return yearDiffActActIsda(startEpochDay, endEpochDay);
+    }
+
+    /**
+     * @return the number of months in a coupon period.
+     */
+    private static int checkCouponsPerYear(final int couponsPerYear) {
+        if (couponsPerYear <= 0 || MONTHS_IN_YEAR % couponsPerYear != 0) {
+            throw new IllegalArgumentException("couponsPerYear must be 1, 2, 3, 4, 6 or 12, not " + couponsPerYear);
+        }
+        return MONTHS_IN_YEAR / couponsPerYear;
+    }
+
+    /**
+     * The coupon dates are end - k * months, the periods after the start are
+     * counted from the number of months between the dates and the first,
+     * partial, period is the one containing the start.
+     */
+    private static double diffActActIcma(final int startEpochDay, final int endEpochDay, final int couponsPerYear, final int months,
+            final boolean endOfMonth) {
+        if (endEpochDay < startEpochDay) {
+            return -diffActActIcma(endEpochDay, startEpochDay, couponsPerYear, months, endOfMonth);
+        }
+        final int start = toYearMonthDay(startEpochDay);
+        final int end = toYearMonthDay(endEpochDay);
+        final boolean monthEnds = endOfMonth && packedDayOfMonth(end) == EpochDayUtil.lengthOfMonth(packedYear(end), packedMonth(end));
+        int periods = ((packedYear(end) - packedYear(start)) * MONTHS_IN_YEAR + packedMonth(end) - packedMonth(start)) / months;
+        while (periods > 0 && couponDate(endEpochDay, -months * periods, monthEnds) <= startEpochDay) {
+            periods--;
+        }
+        while (couponDate(endEpochDay, -months * (periods + 1), monthEnds) > startEpochDay) {
+            periods++;
+        }
+        final int periodEnd = couponDate(endEpochDay, -months * periods, monthEnds);
+        final int periodStart = couponDate(endEpochDay, -months * (periods + 1), monthEnds);
+        return (double) periods / couponsPerYear + (double) (periodEnd - startEpochDay) / ((periodEnd - periodStart) * couponsPerYear);
+    }
+
+    /**
+     * @return the coupon date months after the end day, the last day of its
+     *         month if monthEnds.
+     */
+    private static int couponDate(final int endEpochDay, final int months, final boolean monthEnds) {
+        final int day = EpochDayUtil.plusMonths(endEpochDay, months);
+        if (!monthEnds) {
+            return day;
+        }
+        final int yearMonthDay = toYearMonthDay(day);
+        return day + EpochDayUtil.lengthOfMonth(packedYear(yearMonthDay), packedMonth(yearMonthDay)) - packedDayOfMonth(yearMonthDay);
+    }
+
+    private static int lengthOfYear(final int year) {
+        return EpochDayUtil.isLeapYear(year) ? 366 : 365;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
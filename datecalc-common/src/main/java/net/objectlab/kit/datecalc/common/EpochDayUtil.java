@@ -0,0 +1,235 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.Calendar;
+
+/**
+ * Pure integer arithmetic on epoch days (number of days since 1970-01-01 in
+ * the proleptic Gregorian calendar), it does not allocate and does not depend
+ * on any TimeZone.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class EpochDayUtil {
+    private static final int DAYS_PER_ERA = 146097;
+
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    private static final int YEARS_PER_ERA = 400;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static final int MONTHS_IN_YEAR = 12;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private EpochDayUtil() {
+    }
+
+    /**
+     * @param year
+     *            the year, e.g. 2006
+     * @param month
+     *            the month from 1 (January) to 12 (December)
+     * @param dayOfMonth
+     *            the day of the month from 1 to 31
+     * @return the epoch day for that date.
+     */
+    public static int toEpochDay(final int year, final int month, final int dayOfMonth) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - YEARS_PER_ERA + 1) / YEARS_PER_ERA;
+        final int yearOfEra = y - era * YEARS_PER_ERA;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @return the year for the given epoch day.
+     */
+    public static int getYear(final int epochDay) {
+        final int shifted = epochDay + DAYS_0000_TO_1970;
+        final int era = (shifted >= 0 ? shifted : shifted - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+        final int dayOfEra = shifted - era * DAYS_PER_ERA;
+        final int yearOfEra = yearOfEra(dayOfEra);
+        final int month = monthFromMarch(dayOfEra - dayOfYearStart(yearOfEra));
+        return yearOfEra + era * YEARS_PER_ERA + (month >= 10 ? 1 : 0);
+    }
+
+    /**
+     * @return the month (1 to 12) for the given epoch day.
+     */
+    public static int getMonth(final int epochDay) {
+        final int dayOfEra = dayOfEra(epochDay);
+        final int monthFromMarch = monthFromMarch(dayOfEra - dayOfYearStart(yearOfEra(dayOfEra)));
+        return monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+    }
+
+    /**
+     * @return the day of the month (1 to 31) for the given epoch day.
+     */
+    public static int getDayOfMonth(final int epochDay) {
+        final int dayOfEra = dayOfEra(epochDay);
+        final int dayOfYear = dayOfEra - dayOfYearStart(yearOfEra(dayOfEra));
+        return dayOfYear - (153 * monthFromMarch(dayOfYear) + 2) / 5 + 1;
+    }
+
+    /**
+     * The year, month and day of month of an epoch day in a single
+     * conversion, packed as <code>year &lt;&lt; 9 | month &lt;&lt; 5 | day</code>
+     * for the years within 4 million years of 1970; see
+     * {@link #packedYear(int)}, {@link #packedMonth(int)} and
+     * {@link #packedDayOfMonth(int)}.
+     */
+    static int toYearMonthDay(final int epochDay) {
+        final int shifted = epochDay + DAYS_0000_TO_1970;
+        final int era = (shifted >= 0 ? shifted : shifted - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+        final int dayOfEra = shifted - era * DAYS_PER_ERA;
+        final int yearOfEra = yearOfEra(dayOfEra);
+        final int dayOfYear = dayOfEra - dayOfYearStart(yearOfEra);
+        final int monthFromMarch = monthFromMarch(dayOfYear);
+        final int year = yearOfEra + era * YEARS_PER_ERA + (monthFromMarch >= 10 ? 1 : 0);
+        final int month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+        return year << 9 | month << 5 | dayOfYear - (153 * monthFromMarch + 2) / 5 + 1;
+    }
+
+    static int packedYear(final int yearMonthDay) {
+        return yearMonthDay >> 9;
+    }
+
+    static int packedMonth(final int yearMonthDay) {
+        return yearMonthDay >> 5 & 0xF;
+    }
+
+    static int packedDayOfMonth(final int yearMonthDay) {
+        return yearMonthDay & 0x1F;
+    }
+
+    /**
+     * @return the day of week for the given epoch day, using the
+     *         <code>Calendar.DAY_OF_WEEK</code> constants (Sunday=1 to
+     *         Saturday=7) as used by {@link WorkingWeek}.
+     */
+    public static int getCalendarDayOfWeek(final int epochDay) {
+        return floorMod(epochDay + Calendar.THURSDAY - 1, DAYS_IN_WEEK) + 1;
+    }
+
+    /**
+     * @return the epoch day of the same day of month, months later, the day
+     *         of month being capped to the last day of the resulting month.
+     */
+    public static int plusMonths(final int epochDay, final int months) {
+        final long monthCount = getYear(epochDay) * (long) MONTHS_IN_YEAR + getMonth(epochDay) - 1 + months;
+        final int year = (int) floorDiv(monthCount, MONTHS_IN_YEAR);
+        final int month = (int) (monthCount - year * (long) MONTHS_IN_YEAR) + 1;
+        return toEpochDay(year, month, Math.min(getDayOfMonth(epochDay), lengthOfMonth(year, month)));
+    }
+
+    /**
+     * @return the number of days in the given month (1 to 12) of the year.
+     */
+    public static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+        case 2:
+            return isLeapYear(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    public static boolean isLeapYear(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % YEARS_PER_ERA == 0);
+    }
+
+    /**
+     * @param millis
+     *            an instant in milliseconds, already shifted to the local
+     *            time (ie UTC millis + TimeZone offset)
+     * @return the epoch day of that local instant.
+     */
+    public static int fromLocalMillis(final long millis) {
+        return (int) floorDiv(millis, MILLIS_PER_DAY);
+    }
+
+    public static long floorDiv(final long value, final long divisor) {
+        final long q = value / divisor;
+        return q * divisor != value && (value ^ divisor) < 0 ? q - 1 : q;
+    }
+
+    public static int floorMod(final int value, final int divisor) {
+        final int mod = value % divisor;
+        return mod != 0 && (mod ^ divisor) < 0 ? mod + divisor : mod;
+    }
+
+    private static int dayOfEra(final int epochDay) {
+        final int shifted = epochDay + DAYS_0000_TO_1970;
+        final int era = (shifted >= 0 ? shifted : shifted - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+        return shifted - era * DAYS_PER_ERA;
+    }
+
+    private static int yearOfEra(final int dayOfEra) {
+        return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / (DAYS_PER_ERA - 1)) / 365;
+    }
+
+    private static int dayOfYearStart(final int yearOfEra) {
+        return 365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100;
+    }
+
+    private static int monthFromMarch(final int dayOfYear) {
+        return (5 * dayOfYear + 2) / 153;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
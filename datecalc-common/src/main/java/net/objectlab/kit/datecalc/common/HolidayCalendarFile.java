@@ -0,0 +1,245 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A file of holiday calendars written by {@link HolidayCalendarFileWriter}
+ * and memory mapped, the calendars are served directly from the mapped
+ * bitsets so that hundreds of calendars can be made available without
+ * building a set of dates for each of them.
+ * <p>
+ * The file starts with a header (magic number, format version, number of
+ * calendars and offset of the bitsets) followed by a directory entry per
+ * calendar (UTF-8 name, early and late boundaries, first day, number of
+ * holidays, offset and number of words as epoch days) and then the bitsets,
+ * one long per 64 days, aligned on 8 bytes. All ints and longs are big endian.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ * @see KitCalculatorsFactory#registerHolidays(HolidayCalendarFile)
+ */
+public final class HolidayCalendarFile {
+    static final int MAGIC = 0x4F4C4843;
+
+    static final int FORMAT_VERSION = 1;
+
+    static final int NO_BOUNDARY = Integer.MIN_VALUE;
+
+    static final String CHARSET = "UTF-8";
+
+    /** magic number, format version, number of calendars and offset of the bitsets. */
+    private static final int HEADER_SIZE = 16;
+
+    /** the 6 ints of a directory entry after its name. */
+    private static final int ENTRY_SIZE = 24;
+
+    private static final int WORD_SIZE = 8;
+
+    private final File file;
+
+    private final Map<String, Entry> entries;
+
+    private HolidayCalendarFile(final File file, final Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Maps the file in memory, the directory is read straight away but the
+     * holidays are only read when used.
+     *
+     * @param file
+     *            a file created by {@link HolidayCalendarFileWriter}.
+     * @return the mapped file.
+     * @throws IOException
+     *             if the file cannot be read, is not a holiday calendar file
+     *             or is truncated or corrupt.
+     */
+    public static HolidayCalendarFile map(final File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        final ByteBuffer buffer;
+        try {
+            final FileChannel channel = raf.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Holiday calendar file larger than 2GB: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            raf.close();
+        }
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a holiday calendar file: " + file);
+        }
+        final int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported holiday calendar file version " + version + ": " + file);
+        }
+        final int count = buffer.getInt();
+        final int dataStart = buffer.getInt();
+        if (count < 0 || dataStart < HEADER_SIZE || dataStart > buffer.capacity() || dataStart % WORD_SIZE != 0) {
+            throw corrupt(file, "invalid header, " + count + " calendars with bitsets at " + dataStart + " in " + buffer.capacity() + " bytes");
+        }
+        buffer.position(dataStart);
+        final LongBuffer words = buffer.slice().asLongBuffer();
+        // the directory ends where the bitsets start
+        buffer.position(HEADER_SIZE).limit(dataStart);
+
+        final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < 2) {
+                throw corrupt(file, "directory truncated at calendar " + i + " of " + count);
+            }
+            final byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            if (buffer.remaining() < name.length + ENTRY_SIZE) {
+                throw corrupt(file, "directory truncated at calendar " + i + " of " + count);
+            }
+            buffer.get(name);
+            final int earlyBoundary = buffer.getInt();
+            final int lateBoundary = buffer.getInt();
+            final int firstDay = buffer.getInt();
+            final int size = buffer.getInt();
+            final int wordOffset = buffer.getInt();
+            final int wordCount = buffer.getInt();
+            if (wordOffset < 0 || wordCount < 0 || (long) wordOffset + wordCount > words.capacity() || size < 0
+                    || size > (long) wordCount * Long.SIZE) {
+                throw corrupt(file, "calendar " + new String(name, CHARSET) + " has " + size + " holidays in " + wordCount + " words at "
+                        + wordOffset + " but the file has " + words.capacity() + " words");
+            }
+            words.limit(wordOffset + wordCount).position(wordOffset);
+            entries.put(new String(name, CHARSET), new Entry(earlyBoundary, lateBoundary, firstDay, size, words.slice()));
+            words.clear();
+        }
+        return new HolidayCalendarFile(file, entries);
+    }
+
+    private static IOException corrupt(final File file, final String message) {
+        return new IOException("Corrupt holiday calendar file " + file + ": " + message);
+    }
+
+    /**
+     * @return the mapped file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the calendar names in the order they were written.
+     */
+    public Set<String> getCalendarNames() {
+        return entries.keySet();
+    }
+
+    /**
+     * @return true if the file contains a calendar with that name.
+     */
+    public boolean containsCalendar(final String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Provides a read only calendar reading the mapped holidays, it does not
+     * copy the holidays.
+     *
+     * @param name
+     *            the calendar name
+     * @param converter
+     *            the converter for the dates of the calendar.
+     * @return the calendar or null if the file does not contain that name.
+     */
+    public <E extends Serializable> HolidayCalendar<E> getHolidayCalendar(final String name, final EpochDayConverter<E> converter) {
+        if (converter == null) {
+            throw new IllegalArgumentException("converter cannot be null");
+        }
+        final Entry entry = entries.get(name);
+        if (entry == null) {
+            return null;
+        }
+        return new MappedHolidayCalendar<E>(entry.words.duplicate(), entry.firstDay, entry.size, toDate(converter, entry.earlyBoundary), toDate(
+                converter, entry.lateBoundary), converter);
+    }
+
+    private static <E> E toDate(final EpochDayConverter<E> converter, final int epochDay) {
+        return epochDay != NO_BOUNDARY ? converter.fromEpochDay(epochDay) : null;
+    }
+
+    private static final class Entry {
+        private final int earlyBoundary;
+
+        private final int lateBoundary;
+
+        private final int firstDay;
+
+        private final int size;
+
+        private final LongBuffer words;
+
+        private Entry(final int earlyBoundary, final int lateBoundary, final int firstDay, final int size, final LongBuffer words) {
+            this.earlyBoundary = earlyBoundary;
+            this.lateBoundary = lateBoundary;
+            this.firstDay = firstDay;
+            this.size = size;
+            this.words = words;
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
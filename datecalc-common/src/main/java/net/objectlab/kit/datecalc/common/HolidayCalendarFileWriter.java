@@ -0,0 +1,177 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes holiday calendars in the binary format read by
+ * {@link HolidayCalendarFile}, typically once when the holidays change so
+ * that the applications can map the file at startup.
+ *
+ * <pre>
+ * new HolidayCalendarFileWriter&lt;LocalDate&gt;(converter)
+ *     .add(&quot;GBP&quot;, gbpCalendar)
+ *     .add(&quot;USD&quot;, usdCalendar)
+ *     .write(new File(&quot;holidays.bin&quot;));
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public class HolidayCalendarFileWriter<E> {
+    private static final int HEADER_BYTES = 16;
+
+    private static final int BYTES_PER_WORD = 8;
+
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private final EpochDayConverter<E> converter;
+
+    private final Map<String, ReadOnlyHolidayCalendar<E>> calendars = new LinkedHashMap<String, ReadOnlyHolidayCalendar<E>>();
+
+    /**
+     * @param converter
+     *            the converter for the dates of the calendars.
+     */
+    public HolidayCalendarFileWriter(final EpochDayConverter<E> converter) {
+        if (converter == null) {
+            throw new IllegalArgumentException("converter cannot be null");
+        }
+        this.converter = converter;
+    }
+
+    /**
+     * @param name
+     *            the calendar name, must be unique in the file.
+     * @param calendar
+     *            the holidays and boundaries, a null calendar is written as
+     *            an empty one.
+     * @return this writer
+     */
+    public HolidayCalendarFileWriter<E> add(final String name, final ReadOnlyHolidayCalendar<E> calendar) {
+        if (name == null) {
+            throw new IllegalArgumentException("name cannot be null");
+        }
+        if (calendars.containsKey(name)) {
+            throw new IllegalArgumentException("Calendar " + name + " already added");
+        }
+        calendars.put(name, calendar);
+        return this;
+    }
+
+    /**
+     * Writes all the calendars added so far, replacing the file if it exists.
+     *
+     * @throws IOException
+     *             if the file cannot be written.
+     */
+    public void write(final File file) throws IOException {
+        final EpochDayBitSet[] holidays = new EpochDayBitSet[calendars.size()];
+        final ByteArrayOutputStream directoryBytes = new ByteArrayOutputStream();
+        final DataOutputStream directory = new DataOutputStream(directoryBytes);
+        int wordOffset = 0;
+        int i = 0;
+        for (final Map.Entry<String, ReadOnlyHolidayCalendar<E>> entry : calendars.entrySet()) {
+            final ReadOnlyHolidayCalendar<E> calendar = entry.getValue();
+            final EpochDayBitSet days = EpochDayBitSet.of(converter, calendar);
+            final byte[] name = entry.getKey().getBytes(HolidayCalendarFile.CHARSET);
+            if (name.length > MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("Calendar name too long: " + entry.getKey());
+            }
+            final int wordCount = days.getWords().length;
+            directory.writeShort(name.length);
+            directory.write(name);
+            directory.writeInt(calendar != null ? toEpochDay(calendar.getEarlyBoundary()) : HolidayCalendarFile.NO_BOUNDARY);
+            directory.writeInt(calendar != null ? toEpochDay(calendar.getLateBoundary()) : HolidayCalendarFile.NO_BOUNDARY);
+            directory.writeInt(days.getFirstDay());
+            directory.writeInt(days.size());
+            directory.writeInt(wordOffset);
+            directory.writeInt(wordCount);
+            holidays[i++] = days;
+            wordOffset += wordCount;
+        }
+        directory.flush();
+
+        final int directoryEnd = HEADER_BYTES + directoryBytes.size();
+        final int padding = (BYTES_PER_WORD - directoryEnd % BYTES_PER_WORD) % BYTES_PER_WORD;
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(HolidayCalendarFile.MAGIC);
+            out.writeInt(HolidayCalendarFile.FORMAT_VERSION);
+            out.writeInt(calendars.size());
+            out.writeInt(directoryEnd + padding);
+            directoryBytes.writeTo(out);
+            out.write(new byte[padding]);
+            for (final EpochDayBitSet days : holidays) {
+                for (final long word : days.getWords()) {
+                    out.writeLong(word);
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private int toEpochDay(final E date) {
+        return date != null ? converter.toEpochDay(date) : HolidayCalendarFile.NO_BOUNDARY;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
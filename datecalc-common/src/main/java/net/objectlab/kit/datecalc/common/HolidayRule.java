@@ -0,0 +1,270 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+
+/**
+ * A rule generating at most one holiday per year: a fixed date, the nth
+ * weekday of a month or a date relative to Easter Sunday, optionally moved
+ * by a {@link WeekendSubstitution} and restricted to a range of years.
+ * <p>
+ * A rule is immutable, the <code>with...</code> methods return a new rule.
+ * </p>
+ *
+ * <pre>
+ * HolidayRule.fixed(12, 25).withSubstitution(WeekendSubstitution.FOLLOWING) // Christmas
+ * HolidayRule.nthWeekday(5, Calendar.MONDAY, -1) // last Monday of May
+ * HolidayRule.easter(-2) // Good Friday
+ * HolidayRule.fixed(6, 19).withYears(2021, HolidayRule.ALL_YEARS) // from 2021
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class HolidayRule implements Serializable {
+    private static final long serialVersionUID = -6387260186155372431L;
+
+    /** No limit for the first or last year of a rule. */
+    public static final int ALL_YEARS = 0;
+
+    private static final int FIXED = 0;
+
+    private static final int NTH_WEEKDAY = 1;
+
+    private static final int EASTER = 2;
+
+    private static final int MONTHS_IN_YEAR = 12;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static final int MAX_WEEKS_IN_MONTH = 5;
+
+    private final int kind;
+
+    private final int month;
+
+    private final int day;
+
+    private final int n;
+
+    private final WeekendSubstitution substitution;
+
+    private final int firstYear;
+
+    private final int lastYear;
+
+    private HolidayRule(final int kind, final int month, final int day, final int n, final WeekendSubstitution substitution, final int firstYear,
+            final int lastYear) {
+        this.kind = kind;
+        this.month = month;
+        this.day = day;
+        this.n = n;
+        this.substitution = substitution;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+    }
+
+    /**
+     * @param month
+     *            1 for January to 12 for December.
+     * @param dayOfMonth
+     *            1 to 31, the rule does not generate any holiday in a year
+     *            without that date (e.g. 29 Feb).
+     * @return a rule for the same date every year.
+     */
+    public static HolidayRule fixed(final int month, final int dayOfMonth) {
+        checkMonth(month);
+        if (dayOfMonth < 1 || dayOfMonth > EpochDayUtil.lengthOfMonth(2000, month)) {
+            throw new IllegalArgumentException("Invalid day of month " + dayOfMonth + " for month " + month);
+        }
+        return new HolidayRule(FIXED, month, dayOfMonth, 0, WeekendSubstitution.NONE, ALL_YEARS, ALL_YEARS);
+    }
+
+    /**
+     * @param month
+     *            1 for January to 12 for December.
+     * @param dayOfWeek
+     *            a java.util.Calendar day of week (Calendar.MONDAY...).
+     * @param n
+     *            1 for the first one in the month, 2 for the second... -1 for
+     *            the last one, -2 for the one before... a year without it
+     *            (5th Monday) does not have the holiday.
+     * @return a rule for the nth weekday of a month.
+     */
+    public static HolidayRule nthWeekday(final int month, final int dayOfWeek, final int n) {
+        checkMonth(month);
+        if (dayOfWeek < 1 || dayOfWeek > DAYS_IN_WEEK) {
+            throw new IllegalArgumentException("Invalid day of week " + dayOfWeek);
+        }
+        if (n == 0 || Math.abs(n) > MAX_WEEKS_IN_MONTH) {
+            throw new IllegalArgumentException("Invalid week of month " + n);
+        }
+        return new HolidayRule(NTH_WEEKDAY, month, dayOfWeek, n, WeekendSubstitution.NONE, ALL_YEARS, ALL_YEARS);
+    }
+
+    /**
+     * @param offset
+     *            the number of days from (Western) Easter Sunday, e.g. -2
+     *            for Good Friday, 1 for Easter Monday.
+     * @return a rule for a date relative to Easter.
+     */
+    public static HolidayRule easter(final int offset) {
+        return new HolidayRule(EASTER, 0, offset, 0, WeekendSubstitution.NONE, ALL_YEARS, ALL_YEARS);
+    }
+
+    /**
+     * @return a copy of this rule using the given substitution.
+     */
+    public HolidayRule withSubstitution(final WeekendSubstitution weekendSubstitution) {
+        if (weekendSubstitution == null) {
+            throw new IllegalArgumentException("WeekendSubstitution cannot be null");
+        }
+        return new HolidayRule(kind, month, day, n, weekendSubstitution, firstYear, lastYear);
+    }
+
+    /**
+     * @param first
+     *            the first year of the rule, or ALL_YEARS.
+     * @param last
+     *            the last year of the rule, or ALL_YEARS.
+     * @return a copy of this rule only applying to these years.
+     */
+    public HolidayRule withYears(final int first, final int last) {
+        if (first != ALL_YEARS && last != ALL_YEARS && first > last) {
+            throw new IllegalArgumentException("First year " + first + " is after last year " + last);
+        }
+        return new HolidayRule(kind, month, day, n, substitution, first, last);
+    }
+
+    public WeekendSubstitution getSubstitution() {
+        return substitution;
+    }
+
+    /**
+     * @param year
+     *            the year
+     * @return the epoch day of the holiday for that year before any
+     *         substitution, BusinessDayIndex.NOT_FOUND if the rule does not
+     *         apply to that year.
+     */
+    public int getEpochDay(final int year) {
+        if (firstYear != ALL_YEARS && year < firstYear || lastYear != ALL_YEARS && year > lastYear) {
+            return BusinessDayIndex.NOT_FOUND;
+        }
+        switch (kind) {
+        case FIXED:
+            return day <= EpochDayUtil.lengthOfMonth(year, month) ? EpochDayUtil.toEpochDay(year, month, day) : BusinessDayIndex.NOT_FOUND;
+        case NTH_WEEKDAY:
+            return nthWeekday(year);
+        default:
+            return easterSunday(year) + day;
+        }
+    }
+
+    private int nthWeekday(final int year) {
+        final int result;
+        if (n > 0) {
+            final int first = EpochDayUtil.toEpochDay(year, month, 1);
+            result = first + EpochDayUtil.floorMod(day - EpochDayUtil.getCalendarDayOfWeek(first), DAYS_IN_WEEK) + (n - 1) * DAYS_IN_WEEK;
+        } else {
+            final int last = EpochDayUtil.toEpochDay(year, month, EpochDayUtil.lengthOfMonth(year, month));
+            result = last - EpochDayUtil.floorMod(EpochDayUtil.getCalendarDayOfWeek(last) - day, DAYS_IN_WEEK) + (n + 1) * DAYS_IN_WEEK;
+        }
+        return EpochDayUtil.getMonth(result) == month ? result : BusinessDayIndex.NOT_FOUND;
+    }
+
+    /**
+     * Anonymous Gregorian algorithm (Meeus/Jones/Butcher).
+     */
+    static int easterSunday(final int year) {
+        final int a = year % 19;
+        final int b = year / 100;
+        final int c = year % 100;
+        final int d = b / 4;
+        final int e = b % 4;
+        final int f = (b + 8) / 25;
+        final int g = (b - f + 1) / 3;
+        final int h = (19 * a + b - d - g + 15) % 30;
+        final int i = c / 4;
+        final int k = c % 4;
+        final int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        final int m = (a + 11 * h + 22 * l) / 451;
+        final int easterMonth = (h + l - 7 * m + 114) / 31;
+        final int easterDay = (h + l - 7 * m + 114) % 31 + 1;
+        return EpochDayUtil.toEpochDay(year, easterMonth, easterDay);
+    }
+
+    private static void checkMonth(final int month) {
+        if (month < 1 || month > MONTHS_IN_YEAR) {
+            throw new IllegalArgumentException("Invalid month " + month);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+        switch (kind) {
+        case FIXED:
+            b.append("Fixed ").append(month).append('-').append(day);
+            break;
+        case NTH_WEEKDAY:
+            b.append("Weekday ").append(day).append(" #").append(n).append(" of ").append(month);
+            break;
+        default:
+            b.append("Easter ").append(day >= 0 ? "+" : "").append(day);
+        }
+        b.append(' ').append(substitution);
+        if (firstYear != ALL_YEARS || lastYear != ALL_YEARS) {
+            b.append(" [").append(firstYear).append(',').append(lastYear).append(']');
+        }
+        return b.toString();
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
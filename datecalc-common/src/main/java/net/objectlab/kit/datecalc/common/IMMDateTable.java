@@ -0,0 +1,191 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * The sorted table of the quarterly IMM dates (3rd Wednesday of March, June,
+ * September and December) as epoch days, shared by all the IMM calculators
+ * since the IMM dates do not depend on the date type.
+ * <p>
+ * The table starts in March and holds 4 dates per year so the month of a
+ * date is known from its index; it is extended by whole years when a lookup
+ * gets too close to one of its ends. A table is immutable, an extension
+ * builds a new one and publishes it so the lookups never lock.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+final class IMMDateTable {
+    private static final int FIRST_YEAR = 1990;
+
+    private static final int LAST_YEAR = 2060;
+
+    private static final int YEARS_PER_EXTENSION = 50;
+
+    private static final int IMM_PER_YEAR = 4;
+
+    private static final int MONTHS_IN_QUARTER = 3;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    /** enough IMM dates either side of a lookup for an annual jump. */
+    private static final int MARGIN_DAYS = 2 * 366;
+
+    private static volatile Table table = new Table(FIRST_YEAR, LAST_YEAR);
+
+    private IMMDateTable() {
+    }
+
+    /**
+     * @return true if the epoch day is a quarterly IMM date.
+     */
+    static boolean isIMMDate(final int epochDay) {
+        return Arrays.binarySearch(covering(epochDay).days, epochDay) >= 0;
+    }
+
+    /**
+     * @param requestNextIMM
+     *            true for the first IMM date strictly after the epoch day,
+     *            false for the last one strictly before it.
+     * @param epochDay
+     *            the start date as an epoch day.
+     * @param period
+     *            the period, an annual jump goes 4 IMM dates past the
+     *            quarterly one.
+     * @return the next or previous IMM date as an epoch day.
+     */
+    static int getNextIMMDate(final boolean requestNextIMM, final int epochDay, final IMMPeriod period) {
+        final int[] days = covering(epochDay).days;
+        final int found = Arrays.binarySearch(days, epochDay);
+        final int step = requestNextIMM ? 1 : -1;
+        int index;
+        if (found >= 0) {
+            index = found + step;
+        } else {
+            index = requestNextIMM ? -found - 1 : -found - 2;
+        }
+
+        switch (period) {
+        case BI_ANNUALY_JUN_DEC:
+            // even indices are March and September
+            if (index % 2 == 0) {
+                index += step;
+            }
+            break;
+
+        case BI_ANNUALY_MAR_SEP:
+            if (index % 2 != 0) {
+                index += step;
+            }
+            break;
+
+        case ANNUALLY:
+            index += step * IMM_PER_YEAR;
+            break;
+
+        case QUARTERLY:
+        default:
+            break;
+        }
+        return days[index];
+    }
+
+    private static Table covering(final int epochDay) {
+        final Table current = table;
+        if (current.covers(epochDay)) {
+            return current;
+        }
+        return extend(epochDay);
+    }
+
+    private static synchronized Table extend(final int epochDay) {
+        Table current = table;
+        if (!current.covers(epochDay)) {
+            final int year = EpochDayUtil.getYear(epochDay);
+            current = new Table(Math.min(current.firstYear, year - YEARS_PER_EXTENSION), Math.max(current.lastYear, year + YEARS_PER_EXTENSION));
+            table = current;
+        }
+        return current;
+    }
+
+    private static final class Table {
+        private final int firstYear;
+
+        private final int lastYear;
+
+        private final int[] days;
+
+        private Table(final int firstYear, final int lastYear) {
+            this.firstYear = firstYear;
+            this.lastYear = lastYear;
+            days = new int[(lastYear - firstYear + 1) * IMM_PER_YEAR];
+            int index = 0;
+            for (int year = firstYear; year <= lastYear; year++) {
+                for (int month = MONTHS_IN_QUARTER; month <= IMM_PER_YEAR * MONTHS_IN_QUARTER; month += MONTHS_IN_QUARTER) {
+                    days[index++] = thirdWednesday(year, month);
+                }
+            }
+        }
+
+        private boolean covers(final int epochDay) {
+            return days[0] + MARGIN_DAYS <= epochDay && epochDay + MARGIN_DAYS <= days[days.length - 1];
+        }
+
+        private static int thirdWednesday(final int year, final int month) {
+            final int first = EpochDayUtil.toEpochDay(year, month, 1);
+            final int toWednesday = (Calendar.WEDNESDAY - EpochDayUtil.getCalendarDayOfWeek(first) + DAYS_IN_WEEK) % DAYS_IN_WEEK;
+            return first + toWednesday + 2 * DAYS_IN_WEEK;
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
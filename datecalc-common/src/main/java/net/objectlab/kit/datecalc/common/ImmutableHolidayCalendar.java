@@ -17,6 +17,7 @@
  */
 package net.objectlab.kit.datecalc.common;
 
+import java.io.Serializable;
 import java.util.Set;
 
 /**
@@ -31,9 +32,38 @@ public class ImmutableHolidayCalendar<E> implements HolidayCalendar<E> {
 
     private final HolidayCalendar<E> delegate;
 
+    private final boolean snapshot;
+
     public ImmutableHolidayCalendar(final HolidayCalendar<E> delegate) {
+        this(delegate, false);
+    }
+
+    private ImmutableHolidayCalendar(final HolidayCalendar<E> delegate, final boolean snapshot) {
         super();
         this.delegate = delegate;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Copies the holidays and boundaries of the calendar, so that later changes
+     * to it are not seen by the returned calendar.
+     *
+     * @param calendar the calendar to copy
+     * @return an immutable calendar over a private copy
+     * @since 1.4.0
+     */
+    public static <E extends Serializable> ImmutableHolidayCalendar<E> snapshot(final HolidayCalendar<E> calendar) {
+        return new ImmutableHolidayCalendar<E>(new DefaultHolidayCalendar<E>(calendar.getHolidays(), calendar.getEarlyBoundary(), calendar
+                .getLateBoundary()), true);
+    }
+
+    /**
+     * @return true if this calendar was built by {@link #snapshot(HolidayCalendar)},
+     *         its holidays can then never change.
+     * @since 1.4.0
+     */
+    public boolean isSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -0,0 +1,91 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+/**
+ * Fallback converter for date types without a dedicated converter, it relies
+ * on <code>toString()</code> returning an ISO yyyy-MM-dd date (as JODA and
+ * JDK8 LocalDate do); it can only convert one way.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+final class IsoStringEpochDayConverter<E> implements EpochDayConverter<E> {
+    private static final long serialVersionUID = 6012416839312744410L;
+
+    private static final int RADIX = 10;
+
+    public int toEpochDay(final E date) {
+        final String iso = date.toString();
+        final int monthDash = iso.indexOf('-', 1);
+        final int dayDash = monthDash > 0 ? iso.indexOf('-', monthDash + 1) : -1;
+        if (dayDash < 0) {
+            throw new IllegalArgumentException("[" + iso + "] is not an ISO date (yyyy-MM-dd)");
+        }
+        return EpochDayUtil.toEpochDay(parse(iso, 0, monthDash), parse(iso, monthDash + 1, dayDash), parse(iso, dayDash + 1, Math.min(iso.length(), dayDash + 3)));
+    }
+
+    public E fromEpochDay(final int epochDay) {
+        throw new UnsupportedOperationException("Cannot create a date from an epoch day without a specific EpochDayConverter");
+    }
+
+    private static int parse(final String iso, final int start, final int end) {
+        final boolean negative = iso.charAt(start) == '-';
+        int value = 0;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            final int digit = Character.digit(iso.charAt(i), RADIX);
+            if (digit < 0) {
+                throw new IllegalArgumentException("[" + iso + "] is not an ISO date (yyyy-MM-dd)");
+            }
+            value = value * RADIX + digit;
+        }
+        return negative ? -value : value;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
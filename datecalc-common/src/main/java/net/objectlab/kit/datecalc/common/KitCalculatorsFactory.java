@@ -33,7 +33,9 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
 
@@ -93,6 +95,21 @@ public interface KitCalculatorsFactory<E extends Serializable> {
      */
     CurrencyDateCalculator<E> getDefaultCurrencyDateCalculator(String ccy1, String ccy2, SpotLag spotLag);
 
+    /**
+     * Value dates a batch of trades, the default CurrencyDateCalculator of
+     * each currency pair and spot lag being built once for the whole batch.
+     * On JDK 8, a Stream can be given as <code>stream::iterator</code>.
+     *
+     * @param requests
+     *            the trades, read once in order.
+     * @param executor
+     *            value dates chunks of trades in parallel, null to use the
+     *            calling thread only.
+     * @return the value date of each trade, in the same order as the trades.
+     * @since 1.4.0
+     */
+    List<E> calculateValueDates(Iterable<ValueDateRequest<E>> requests, ExecutorService executor);
+
     /**
      * Use this method register a specific currency config, if not provided then the DefaultCurrencyCalculatorConfig will be given.
      * @param config that specifies the set of currencies subject to USD T+1.
@@ -117,7 +134,57 @@ public interface KitCalculatorsFactory<E extends Serializable> {
     DateCalculator<E> getDateCalculator(String name, String holidayHandlerType);
 
     /**
-     * Use this method to register a holidays calendar.
+     * Provides an immutable BusinessDayEngine for a given calendar name and
+     * type of handling, the same instance is returned until a calendar is
+     * registered or unregistered and it can be shared between threads.
+     *
+     * @param name
+     *            calendar name (holidays set interested in). If there is no
+     *            set of holidays with that name, the engine will work on
+     *            Weekend only.
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @return a BusinessDayEngine
+     * @exception IllegalArgumentException
+     *                if the type is not null or a valid value.
+     * @since 1.4.0
+     */
+    BusinessDayEngine<E> getBusinessDayEngine(String name, String holidayHandlerType);
+
+    /**
+     * Provides a DateCalculator for a given name and type of handling that is
+     * confined to the calling thread: the same instance is returned to the
+     * same thread until a calendar is registered or unregistered, other
+     * threads get their own instance. It avoids creating a calculator per
+     * request; the caller must set the start date before using it and must
+     * not change its calendar, handler or working week nor give it to another
+     * thread.
+     *
+     * @param name
+     *            calendar name (holidays set interested in).
+     * @param holidayHandlerType
+     *            typically one of the value of HolidayHandlerType or null.
+     * @return the DateCalculator of the calling thread.
+     * @exception IllegalArgumentException
+     *                if the type is not null or a valid value.
+     * @since 1.4.0
+     */
+    DateCalculator<E> getThreadLocalDateCalculator(String name, String holidayHandlerType);
+
+    /**
+     * Releases the DateCalculators given to the calling thread by
+     * {@link #getThreadLocalDateCalculator(String, String)}; a pooled thread
+     * otherwise keeps them, and their calendars, until it asks again after a
+     * calendar is registered or unregistered.
+     *
+     * @since 1.4.0
+     */
+    void removeThreadLocalDateCalculators();
+
+    /**
+     * Use this method to register a holidays calendar, a
+     * {@link RuleBasedHolidayCalendar} is registered without copying its
+     * holidays.
      *
      * @param calendarName
      *            the calendar name to register these holidays under.
@@ -126,6 +193,16 @@ public interface KitCalculatorsFactory<E extends Serializable> {
      */
     KitCalculatorsFactory<E> registerHolidays(String calendarName, HolidayCalendar<E> holidaysCalendar);
 
+    /**
+     * Use this method to register all the calendars of a memory mapped file,
+     * under the names they were written with.
+     *
+     * @param calendarFile
+     *            a file written by {@link HolidayCalendarFileWriter}.
+     * @since 1.4.0
+     */
+    KitCalculatorsFactory<E> registerHolidays(HolidayCalendarFile calendarFile);
+
     /**
      * @return true if the holiday calendar name is registered.
      */
@@ -136,6 +213,30 @@ public interface KitCalculatorsFactory<E extends Serializable> {
      */
     HolidayCalendar<E> getHolidayCalendar(String calendarName);
 
+    /**
+     * Provides the registered calendar as a versioned handle, registering
+     * holidays again under the same name publishes a new version in the same
+     * handle.
+     *
+     * @return the versioned calendar, null if the name is not registered.
+     * @since 1.4.0
+     */
+    VersionedHolidayCalendar<E> getVersionedHolidayCalendar(String calendarName);
+
+    /**
+     * Provides a read only view combining several registered calendars, a day
+     * being a holiday if it is a holiday in any of them. The holidays are not
+     * copied and the view is cached for the same list of names until a
+     * calendar is registered or unregistered.
+     *
+     * @param calendarNames
+     *            the names of the registered calendars, unknown names are
+     *            ignored.
+     * @return the combined calendar, null if none of the names is registered.
+     * @since 1.4.0
+     */
+    HolidayCalendar<E> getCombinedHolidayCalendar(String... calendarNames);
+
     /**
      * @return an immutable set of registered calendar names
      */
@@ -176,9 +277,10 @@ public interface KitCalculatorsFactory<E extends Serializable> {
     IMMDateCalculator<E> getIMMDateCalculator();
 
     /**
-     * Create a new holiday handler of given type
+     * Provides the holiday handler of given type, handlers are stateless and
+     * the same instance is returned for a given type.
      * @param holidayHandlerType
-     * @return a new handler
+     * @return the handler
      * @throws IllegalArgumentException if the holidayHandlerType is unsupported
      * @since 1.4.0
      */
@@ -0,0 +1,183 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.nio.LongBuffer;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A read only calendar whose holidays are a bitset in a memory mapped
+ * {@link HolidayCalendarFile}, the set of dates is only built if requested.
+ * It is serialized as a copy of its holidays.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+final class MappedHolidayCalendar<E extends Serializable> implements HolidayCalendar<E> {
+    private static final long serialVersionUID = 2883019874529165421L;
+
+    private static final int ADDRESS_BITS = 6;
+
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS;
+
+    private final transient LongBuffer words;
+
+    private final int firstDay;
+
+    private final int size;
+
+    private final E earlyBoundary;
+
+    private final E lateBoundary;
+
+    private final EpochDayConverter<E> converter;
+
+    private transient volatile Set<E> holidays;
+
+    MappedHolidayCalendar(final LongBuffer words, final int firstDay, final int size, final E earlyBoundary, final E lateBoundary,
+            final EpochDayConverter<E> converter) {
+        this.words = words;
+        this.firstDay = firstDay;
+        this.size = size;
+        this.earlyBoundary = earlyBoundary;
+        this.lateBoundary = lateBoundary;
+        this.converter = converter;
+    }
+
+    public boolean isHoliday(final E date) {
+        return date != null && size > 0 && isHoliday(converter.toEpochDay(date));
+    }
+
+    /**
+     * @return true if the epoch day is a holiday, without converting it.
+     */
+    public boolean isHoliday(final int epochDay) {
+        final int offset = epochDay - firstDay;
+        if (offset < 0) {
+            return false;
+        }
+        final int index = offset >>> ADDRESS_BITS;
+        // absolute get, the buffer can be shared by several threads
+        return index < words.limit() && (words.get(index) & 1L << offset) != 0;
+    }
+
+    /**
+     * @return the unmodifiable set of holidays, built on the first call.
+     */
+    public Set<E> getHolidays() {
+        Set<E> result = holidays;
+        if (result == null) {
+            final Set<E> dates = new LinkedHashSet<E>();
+            for (int i = 0; i < words.limit(); i++) {
+                long word = words.get(i);
+                while (word != 0) {
+                    dates.add(converter.fromEpochDay(firstDay + i * BITS_PER_WORD + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+            result = Collections.unmodifiableSet(dates);
+            holidays = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return a copy of the mapped bitset, without converting any date.
+     */
+    EpochDayBitSet getHolidayDays() {
+        final long[] copy = new long[words.limit()];
+        words.duplicate().get(copy);
+        return EpochDayBitSet.of(firstDay, copy, size);
+    }
+
+    public E getEarlyBoundary() {
+        return earlyBoundary;
+    }
+
+    public E getLateBoundary() {
+        return lateBoundary;
+    }
+
+    /**
+     * @throws UnsupportedOperationException a mapped calendar is read only.
+     */
+    public HolidayCalendar<E> setHolidays(final Set<E> holidays) {
+        throw new UnsupportedOperationException("You cannot modify the holidays, you need to use a new HolidayCalendar.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException a mapped calendar is read only.
+     */
+    public HolidayCalendar<E> setEarlyBoundary(final E earlyBoundary) {
+        throw new UnsupportedOperationException("You cannot modify the early boundary, you need to use a new HolidayCalendar.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException a mapped calendar is read only.
+     */
+    public HolidayCalendar<E> setLateBoundary(final E lateBoundary) {
+        throw new UnsupportedOperationException("You cannot modify the late boundary, you need to use a new HolidayCalendar.");
+    }
+
+    /**
+     * The mapped buffer cannot be serialized, the holidays are copied.
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return new ImmutableHolidayCalendar<E>(new DefaultHolidayCalendar<E>(getHolidays(), earlyBoundary, lateBoundary, converter));
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
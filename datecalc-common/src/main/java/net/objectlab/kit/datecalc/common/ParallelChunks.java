@@ -0,0 +1,137 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a task over the indices of a batch in chunks, in parallel if an
+ * ExecutorService is given, and waits for all the chunks; the first failure
+ * cancels the other chunks and is rethrown.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+final class ParallelChunks {
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private ParallelChunks() {
+    }
+
+    /**
+     * The work done on a chunk, each chunk writes its own range of indices.
+     */
+    interface Task {
+        void run(int fromIndex, int toIndex);
+    }
+
+    /**
+     * @param size
+     *            the number of items in the batch.
+     * @param minChunkSize
+     *            the smallest chunk worth giving to another thread.
+     * @param executor
+     *            runs the chunks, null to use the calling thread only.
+     * @param task
+     *            the work done on each chunk.
+     * @param what
+     *            what is calculated, for the error messages.
+     */
+    static void run(final int size, final int minChunkSize, final ExecutorService executor, final Task task, final String what) {
+        final int chunkCount = executor == null ? 1 : Math.min(size / minChunkSize, Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR);
+        if (chunkCount <= 1) {
+            task.run(0, size);
+            return;
+        }
+
+        final List<Future<Object>> futures = new ArrayList<Future<Object>>(chunkCount);
+        final int chunkSize = (size + chunkCount - 1) / chunkCount;
+        for (int from = 0; from < size; from += chunkSize) {
+            final int fromIndex = from;
+            final int toIndex = Math.min(size, from + chunkSize);
+            futures.add(executor.submit(new Callable<Object>() {
+                public Object call() {
+                    task.run(fromIndex, toIndex);
+                    return null;
+                }
+            }));
+        }
+
+        try {
+            for (final Future<Object> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(futures);
+            throw new IllegalStateException("Interrupted while calculating " + what, e);
+        } catch (final ExecutionException e) {
+            cancel(futures);
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to calculate " + what, cause);
+        }
+    }
+
+    private static void cancel(final List<Future<Object>> futures) {
+        for (final Future<Object> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
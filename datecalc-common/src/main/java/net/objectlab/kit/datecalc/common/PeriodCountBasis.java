@@ -92,7 +92,28 @@ public enum PeriodCountBasis {
      * the day count fraction is equal to the number of days between the last
      * payment date and the next date divided by 365.
      */
-    ACT_365
+    ACT_365,
+
+    /**
+     * Business/252, the Brazilian convention: the number of business days
+     * between the two dates (start included, end excluded) divided by 252.
+     * It needs the holidays so it is calculated by
+     * {@link AbstractPeriodCountCalculator#yearDiffBus252(Object, Object, BusinessDayEngine)}.
+     *
+     * @since 1.4.0
+     */
+    BUS_252,
+
+    /**
+     * Actual/Actual ICMA (ISMA-99), used for most bonds: each coupon period
+     * counts for 1 / frequency and a part of a period is its actual number
+     * of days divided by the actual number of days in the period and the
+     * frequency. It needs the coupon frequency so it is calculated by
+     * {@link AbstractPeriodCountCalculator#yearDiffActActIcma(Object, Object, int)}.
+     *
+     * @since 1.4.0
+     */
+    ACT_ACT_ICMA
 }
 
 /*
@@ -52,6 +52,8 @@ public interface PeriodCountCalculator<E> {
 
     double YEAR_360_0 = 360.0;
 
+    double YEAR_252_0 = 252.0;
+
     int MONTH_31_DAYS = 31;
 
     int MONTH_30_DAYS = 30;
@@ -0,0 +1,428 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read only calendar whose holidays are generated from a list of
+ * {@link HolidayRule} rather than given as a set of dates. The holidays of a
+ * year are generated the first time a date of that year is checked and only
+ * the most recently used years are kept, as sorted epoch days; the set of
+ * dates is only built if requested.
+ * <p>
+ * The rules are applied in order for each year, a rule with
+ * {@link WeekendSubstitution#FOLLOWING} moves over the holidays generated by
+ * the previous ones, so Christmas must come before Boxing Day.
+ * </p>
+ * <p>
+ * The boundaries are 1 Jan of the first year and 31 Dec of the last year.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public final class RuleBasedHolidayCalendar<E extends Serializable> implements HolidayCalendar<E> {
+    private static final long serialVersionUID = -1915012460392856843L;
+
+    /** Number of years kept by default. */
+    public static final int DEFAULT_CACHED_YEARS = 8;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    private final List<HolidayRule> rules;
+
+    private final boolean[] workingDays;
+
+    private final int firstYear;
+
+    private final int lastYear;
+
+    private final int firstDay;
+
+    private final int lastDay;
+
+    private final int maxCachedYears;
+
+    private final EpochDayConverter<E> converter;
+
+    private final transient YearCache years;
+
+    private transient volatile YearHolidays lastYearUsed;
+
+    private transient volatile EpochDayBitSet holidayDays;
+
+    private transient volatile Set<E> holidays;
+
+    /**
+     * Uses WorkingWeek.DEFAULT for the substitutions and keeps
+     * DEFAULT_CACHED_YEARS years.
+     */
+    public RuleBasedHolidayCalendar(final List<HolidayRule> rules, final int firstYear, final int lastYear, final EpochDayConverter<E> converter) {
+        this(rules, WorkingWeek.DEFAULT, firstYear, lastYear, DEFAULT_CACHED_YEARS, converter);
+    }
+
+    /**
+     * @param rules
+     *            the rules, applied in order.
+     * @param week
+     *            the working week used by the weekend substitutions.
+     * @param firstYear
+     *            the first year covered by this calendar.
+     * @param lastYear
+     *            the last year covered by this calendar.
+     * @param maxCachedYears
+     *            the maximum number of years kept, the least recently used
+     *            one is dropped.
+     * @param converter
+     *            the converter for E.
+     */
+    public RuleBasedHolidayCalendar(final List<HolidayRule> rules, final WorkingWeek week, final int firstYear, final int lastYear,
+            final int maxCachedYears, final EpochDayConverter<E> converter) {
+        this(copy(rules), toWorkingDays(week), firstYear, lastYear, maxCachedYears, converter);
+    }
+
+    private RuleBasedHolidayCalendar(final List<HolidayRule> rules, final boolean[] workingDays, final int firstYear, final int lastYear,
+            final int maxCachedYears, final EpochDayConverter<E> converter) {
+        if (converter == null) {
+            throw new IllegalArgumentException("EpochDayConverter cannot be null");
+        }
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("First year " + firstYear + " is after last year " + lastYear);
+        }
+        if (maxCachedYears < 1) {
+            throw new IllegalArgumentException("At least one year must be cached, not " + maxCachedYears);
+        }
+        this.rules = rules;
+        this.workingDays = workingDays;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.firstDay = EpochDayUtil.toEpochDay(firstYear, 1, 1);
+        this.lastDay = EpochDayUtil.toEpochDay(lastYear + 1, 1, 1) - 1;
+        this.maxCachedYears = maxCachedYears;
+        this.converter = converter;
+        this.years = new YearCache(maxCachedYears);
+    }
+
+    private static List<HolidayRule> copy(final List<HolidayRule> rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Rules cannot be null");
+        }
+        final List<HolidayRule> copy = new ArrayList<HolidayRule>(rules);
+        if (copy.contains(null)) {
+            throw new IllegalArgumentException("Rules cannot contain null");
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static boolean[] toWorkingDays(final WorkingWeek week) {
+        if (week == null || week.getWorkingDays() == 0) {
+            throw new IllegalArgumentException("The WorkingWeek must have at least one working day");
+        }
+        final boolean[] days = new boolean[DAYS_IN_WEEK];
+        for (int dayOfWeek = 1; dayOfWeek <= DAYS_IN_WEEK; dayOfWeek++) {
+            days[dayOfWeek - 1] = week.isWorkingDayFromCalendar(dayOfWeek);
+        }
+        return days;
+    }
+
+    public boolean isHoliday(final E date) {
+        return date != null && isHoliday(converter.toEpochDay(date));
+    }
+
+    /**
+     * @return true if the epoch day is a holiday, generating its year if
+     *         needed.
+     */
+    public boolean isHoliday(final int epochDay) {
+        if (epochDay < firstDay || epochDay > lastDay) {
+            return false;
+        }
+        return Arrays.binarySearch(getYear(EpochDayUtil.getYear(epochDay)), epochDay) >= 0;
+    }
+
+    /**
+     * @return the sorted epoch days of the holidays of that year.
+     */
+    private int[] getYear(final int year) {
+        final YearHolidays last = lastYearUsed;
+        if (last != null && last.year == year) {
+            return last.days;
+        }
+        int[] days;
+        synchronized (years) {
+            days = years.get(year);
+            if (days == null) {
+                days = generate(year);
+                years.put(year, days);
+            }
+        }
+        lastYearUsed = new YearHolidays(year, days);
+        return days;
+    }
+
+    /**
+     * A substitution can move a holiday to the previous or next year (1 Jan
+     * on a Saturday), so the rules of the years around are applied too.
+     */
+    private int[] generate(final int year) {
+        final int start = Math.max(firstDay, EpochDayUtil.toEpochDay(year, 1, 1));
+        final int end = Math.min(lastDay, EpochDayUtil.toEpochDay(year + 1, 1, 1) - 1);
+        final int[] days = new int[rules.size() * 3];
+        int count = 0;
+        for (int ruleYear = year - 1; ruleYear <= year + 1; ruleYear++) {
+            for (final int day : applyRules(ruleYear)) {
+                if (day >= start && day <= end) {
+                    days[count++] = day;
+                }
+            }
+        }
+        Arrays.sort(days, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || days[unique - 1] != days[i]) {
+                days[unique++] = days[i];
+            }
+        }
+        return trim(days, unique);
+    }
+
+    private int[] applyRules(final int year) {
+        final int[] days = new int[rules.size()];
+        int count = 0;
+        for (final HolidayRule rule : rules) {
+            int day = rule.getEpochDay(year);
+            if (day == BusinessDayIndex.NOT_FOUND) {
+                continue;
+            }
+            switch (rule.getSubstitution()) {
+            case FOLLOWING:
+                while (!isWorkingDay(day) || contains(days, count, day)) {
+                    day++;
+                }
+                break;
+            case NEAREST:
+                if (!isWorkingDay(day)) {
+                    day = nearestWorkingDay(day);
+                }
+                break;
+            default:
+                break;
+            }
+            days[count++] = day;
+        }
+        return trim(days, count);
+    }
+
+    private int nearestWorkingDay(final int day) {
+        for (int distance = 1;; distance++) {
+            if (isWorkingDay(day + distance)) {
+                return day + distance;
+            }
+            if (isWorkingDay(day - distance)) {
+                return day - distance;
+            }
+        }
+    }
+
+    private boolean isWorkingDay(final int epochDay) {
+        return workingDays[EpochDayUtil.getCalendarDayOfWeek(epochDay) - 1];
+    }
+
+    private static int[] trim(final int[] days, final int count) {
+        final int[] result = new int[count];
+        System.arraycopy(days, 0, result, 0, count);
+        return result;
+    }
+
+    private static boolean contains(final int[] days, final int count, final int day) {
+        for (int i = 0; i < count; i++) {
+            if (days[i] == day) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of years currently kept.
+     */
+    int getCachedYearCount() {
+        synchronized (years) {
+            return years.size();
+        }
+    }
+
+    /**
+     * @return the holidays of all the years as epoch days, without keeping
+     *         the years nor converting any date.
+     */
+    public EpochDayBitSet getHolidayDays() {
+        EpochDayBitSet result = holidayDays;
+        if (result == null) {
+            final List<int[]> allYears = new ArrayList<int[]>();
+            int size = 0;
+            for (int year = firstYear; year <= lastYear; year++) {
+                final int[] days = generate(year);
+                allYears.add(days);
+                size += days.length;
+            }
+            final int[] all = new int[size];
+            int i = 0;
+            for (final int[] days : allYears) {
+                System.arraycopy(days, 0, all, i, days.length);
+                i += days.length;
+            }
+            result = EpochDayBitSet.of(all);
+            holidayDays = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the unmodifiable set of holidays of all the years, built on
+     *         the first call.
+     */
+    public Set<E> getHolidays() {
+        Set<E> result = holidays;
+        if (result == null) {
+            final Set<E> dates = new LinkedHashSet<E>();
+            for (final int day : getHolidayDays().toArray()) {
+                dates.add(converter.fromEpochDay(day));
+            }
+            result = Collections.unmodifiableSet(dates);
+            holidays = result;
+        }
+        return result;
+    }
+
+    public List<HolidayRule> getRules() {
+        return rules;
+    }
+
+    public E getEarlyBoundary() {
+        return converter.fromEpochDay(firstDay);
+    }
+
+    public E getLateBoundary() {
+        return converter.fromEpochDay(lastDay);
+    }
+
+    /**
+     * @throws UnsupportedOperationException a rule based calendar is read only.
+     */
+    public HolidayCalendar<E> setHolidays(final Set<E> holidays) {
+        throw new UnsupportedOperationException("You cannot modify the holidays, you need to use a new HolidayCalendar.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException a rule based calendar is read only.
+     */
+    public HolidayCalendar<E> setEarlyBoundary(final E earlyBoundary) {
+        throw new UnsupportedOperationException("You cannot modify the early boundary, you need to use a new HolidayCalendar.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException a rule based calendar is read only.
+     */
+    public HolidayCalendar<E> setLateBoundary(final E lateBoundary) {
+        throw new UnsupportedOperationException("You cannot modify the late boundary, you need to use a new HolidayCalendar.");
+    }
+
+    /**
+     * The generated years are not serialized.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return new RuleBasedHolidayCalendar<E>(rules, workingDays, firstYear, lastYear, maxCachedYears, converter);
+    }
+
+    private static final class YearHolidays {
+        private final int year;
+
+        private final int[] days;
+
+        private YearHolidays(final int year, final int[] days) {
+            this.year = year;
+            this.days = days;
+        }
+    }
+
+    /**
+     * Least recently used years, access must be synchronized.
+     */
+    private static final class YearCache extends LinkedHashMap<Integer, int[]> {
+        private static final long serialVersionUID = 4206581722154738512L;
+
+        private final int maxYears;
+
+        private YearCache(final int maxYears) {
+            super(maxYears * 2, 0.75f, true);
+            this.maxYears = maxYears;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, int[]> eldest) {
+            return size() > maxYears;
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
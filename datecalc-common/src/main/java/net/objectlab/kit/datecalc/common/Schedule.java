@@ -0,0 +1,170 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+
+/**
+ * An immutable coupon or roll schedule calculated by a
+ * {@link ScheduleGenerator}, held in primitive arrays: the period boundaries
+ * as epoch days, unadjusted and adjusted with the accrual HolidayHandler,
+ * the payment date and the year fraction of each period.
+ * <p>
+ * Period p accrues from the adjusted date p to the adjusted date p + 1, the
+ * boundaries go from 0 (start date) to getPeriodCount() (end date).
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class Schedule implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] unadjustedDates;
+
+    private final int[] adjustedDates;
+
+    private final int[] paymentDates;
+
+    private final double[] yearFractions;
+
+    private final boolean initialStub;
+
+    private final boolean finalStub;
+
+    Schedule(final int[] unadjustedDates, final int[] adjustedDates, final int[] paymentDates, final double[] yearFractions,
+            final boolean initialStub, final boolean finalStub) {
+        this.unadjustedDates = unadjustedDates;
+        this.adjustedDates = adjustedDates;
+        this.paymentDates = paymentDates;
+        this.yearFractions = yearFractions;
+        this.initialStub = initialStub;
+        this.finalStub = finalStub;
+    }
+
+    public int getPeriodCount() {
+        return paymentDates.length;
+    }
+
+    /**
+     * @param index
+     *            from 0 (start date) to getPeriodCount() (end date).
+     * @return the period boundary as rolled, before any adjustment.
+     */
+    public int getUnadjustedDate(final int index) {
+        return unadjustedDates[index];
+    }
+
+    /**
+     * @param index
+     *            from 0 (start date) to getPeriodCount() (end date).
+     * @return the period boundary adjusted with the accrual HolidayHandler.
+     */
+    public int getAdjustedDate(final int index) {
+        return adjustedDates[index];
+    }
+
+    /**
+     * @return the payment date of the period as an epoch day.
+     */
+    public int getPaymentDate(final int period) {
+        return paymentDates[period];
+    }
+
+    /**
+     * @return the year fraction of the period, following the basis of the
+     *         generator.
+     */
+    public double getYearFraction(final int period) {
+        return yearFractions[period];
+    }
+
+    /**
+     * @return true if the first period is irregular (short or long).
+     */
+    public boolean hasInitialStub() {
+        return initialStub;
+    }
+
+    /**
+     * @return true if the last period is irregular (short or long).
+     */
+    public boolean hasFinalStub() {
+        return finalStub;
+    }
+
+    /**
+     * @return a copy of the unadjusted period boundaries.
+     */
+    public int[] getUnadjustedDates() {
+        return unadjustedDates.clone();
+    }
+
+    /**
+     * @return a copy of the adjusted period boundaries.
+     */
+    public int[] getAdjustedDates() {
+        return adjustedDates.clone();
+    }
+
+    /**
+     * @return a copy of the payment dates, one per period.
+     */
+    public int[] getPaymentDates() {
+        return paymentDates.clone();
+    }
+
+    /**
+     * @return a copy of the year fractions, one per period.
+     */
+    public double[] getYearFractions() {
+        return yearFractions.clone();
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,344 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Generates coupon or roll schedules in one pass on epoch days: the period
+ * boundaries are rolled from the start or end date by the frequency, adjusted
+ * for the accrual and the payment with the working days of a
+ * {@link BusinessDayIndex} and each period gets its year fraction, see
+ * {@link Schedule}. The year fractions are calculated on the adjusted dates,
+ * ACT_ACT being ACT/ACT ISDA (split by calendar year), except for
+ * ACT_ACT_ICMA: each regular period is 1 / frequency and a stub is measured
+ * on its unadjusted dates against the notional periods rolled beyond it.
+ * <p>
+ * A generator is immutable and can be shared by many threads, a batch of
+ * schedules can be split in chunks and run by an {@link ExecutorService}.
+ * </p>
+ *
+ * <pre>
+ * ScheduleGenerator&lt;LocalDate&gt; generator = new ScheduleGenerator&lt;LocalDate&gt;(builder);
+ * Schedule schedule = generator.generate(startDate, maturityDate);
+ * List&lt;LocalDate&gt; paymentDates = generator.toDates(schedule.getPaymentDates());
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ */
+public final class ScheduleGenerator<E extends Serializable> {
+    /** Below this many schedules per chunk, the batch is not split. */
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static final int MONTHS_IN_YEAR = 12;
+
+    private final BusinessDayEngine<E> businessDayEngine;
+
+    private final Tenor frequency;
+
+    /** the months of a period, 0 if the period is a number of days. */
+    private final int months;
+
+    private final int days;
+
+    private final StubConvention stubConvention;
+
+    private final boolean endOfMonth;
+
+    private final String accrualHolidayHandlerType;
+
+    private final String paymentHolidayHandlerType;
+
+    private final int paymentLag;
+
+    private final PeriodCountBasis periodCountBasis;
+
+    /**
+     * @throws IllegalArgumentException
+     *             if the builder is not valid.
+     */
+    public ScheduleGenerator(final ScheduleGeneratorBuilder<E> builder) {
+        builder.checkValidity();
+        businessDayEngine = builder.getBusinessDayEngine();
+        frequency = builder.getFrequency();
+        months = builder.getFrequencyMonths();
+        days = frequency.getCode() == TenorCode.WEEK ? frequency.getUnits() * DAYS_IN_WEEK : frequency.getUnits();
+        stubConvention = builder.getStubConvention();
+        endOfMonth = builder.isEndOfMonth();
+        accrualHolidayHandlerType = builder.getAccrualHolidayHandlerType();
+        paymentHolidayHandlerType = builder.getPaymentHolidayHandlerType();
+        paymentLag = builder.getPaymentLag();
+        periodCountBasis = builder.getPeriodCountBasis();
+    }
+
+    public Tenor getFrequency() {
+        return frequency;
+    }
+
+    public StubConvention getStubConvention() {
+        return stubConvention;
+    }
+
+    public PeriodCountBasis getPeriodCountBasis() {
+        return periodCountBasis;
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if a date is null, the start is not before the end or the
+     *             stub convention is NONE and the dates are not a whole
+     *             number of periods apart.
+     * @throws IndexOutOfBoundsException
+     *             if a date cannot be adjusted within the boundaries of the
+     *             holidays.
+     */
+    public Schedule generate(final E start, final E end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end dates cannot be null");
+        }
+        final EpochDayConverter<E> converter = businessDayEngine.getEpochDayConverter();
+        return generate(converter.toEpochDay(start), converter.toEpochDay(end));
+    }
+
+    /**
+     * @see #generate(Serializable, Serializable)
+     */
+    public Schedule generate(final int startEpochDay, final int endEpochDay) {
+        checkDates(startEpochDay, endEpochDay);
+        return generate(startEpochDay, endEpochDay, businessDayEngine.getBusinessDayIndex(startEpochDay, endEpochDay));
+    }
+
+    /**
+     * Generates the schedule of each pair of start and end dates, the working
+     * days are indexed once for the whole batch.
+     *
+     * @param executor
+     *            runs chunks of schedules in parallel, null to use the calling
+     *            thread only.
+     * @return the schedules in the same order as the dates.
+     * @see #generate(Serializable, Serializable)
+     */
+    public Schedule[] generate(final int[] startEpochDays, final int[] endEpochDays, final ExecutorService executor) {
+        if (startEpochDays == null || endEpochDays == null) {
+            throw new IllegalArgumentException("startEpochDays and endEpochDays cannot be null");
+        }
+        if (startEpochDays.length != endEpochDays.length) {
+            throw new IllegalArgumentException("Expected as many end dates as start dates " + startEpochDays.length + " but got "
+                    + endEpochDays.length);
+        }
+        final Schedule[] schedules = new Schedule[startEpochDays.length];
+        if (schedules.length == 0) {
+            return schedules;
+        }
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int i = 0; i < schedules.length; i++) {
+            checkDates(startEpochDays[i], endEpochDays[i]);
+            first = Math.min(first, startEpochDays[i]);
+            last = Math.max(last, endEpochDays[i]);
+        }
+        final BusinessDayIndex index = businessDayEngine.getBusinessDayIndex(first, last);
+
+        ParallelChunks.run(schedules.length, MIN_CHUNK_SIZE, executor, new ParallelChunks.Task() {
+            public void run(final int fromIndex, final int toIndex) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    schedules[i] = generate(startEpochDays[i], endEpochDays[i], index);
+                }
+            }
+        }, "the schedules");
+        return schedules;
+    }
+
+    /**
+     * @return the dates for the epoch days, e.g. the payment dates of a
+     *         schedule.
+     */
+    public List<E> toDates(final int[] epochDays) {
+        final EpochDayConverter<E> converter = businessDayEngine.getEpochDayConverter();
+        final List<E> dates = new ArrayList<E>(epochDays.length);
+        for (final int day : epochDays) {
+            dates.add(converter.fromEpochDay(day));
+        }
+        return dates;
+    }
+
+    private static void checkDates(final int startEpochDay, final int endEpochDay) {
+        if (startEpochDay >= endEpochDay) {
+            throw new IllegalArgumentException("The start " + startEpochDay + " must be before the end " + endEpochDay);
+        }
+    }
+
+    private Schedule generate(final int start, final int end, final BusinessDayIndex index) {
+        final boolean backward = stubConvention != StubConvention.SHORT_FINAL && stubConvention != StubConvention.LONG_FINAL;
+        final int anchor = backward ? end : start;
+        final int direction = backward ? -1 : 1;
+        final boolean monthEnd = endOfMonth && months > 0 && isLastDayOfMonth(anchor);
+
+        // number of periods if the stub is a period of its own
+        int count = 1;
+        while (backward ? roll(anchor, -count, monthEnd) > start : roll(anchor, count, monthEnd) < end) {
+            count++;
+        }
+        final boolean stub = roll(anchor, direction * count, monthEnd) != (backward ? start : end);
+        if (stub && stubConvention == StubConvention.NONE) {
+            throw new IllegalArgumentException("The start " + start + " and end " + end + " are not a whole number of " + frequency + " apart");
+        }
+        final boolean longStub = stub && count > 1 && (stubConvention == StubConvention.LONG_INITIAL || stubConvention == StubConvention.LONG_FINAL);
+        final int periods = longStub ? count - 1 : count;
+
+        final int[] unadjusted = new int[periods + 1];
+        unadjusted[0] = start;
+        unadjusted[periods] = end;
+        for (int i = 1; i < periods; i++) {
+            // a long stub skips the regular date next to the start or end
+            unadjusted[i] = backward ? roll(anchor, i - periods, monthEnd) : roll(anchor, i, monthEnd);
+        }
+
+        final int[] adjusted = new int[periods + 1];
+        for (int i = 0; i <= periods; i++) {
+            adjusted[i] = adjust(index, unadjusted[i], accrualHolidayHandlerType);
+        }
+        final int[] payments = new int[periods];
+        final double[] yearFractions = new double[periods];
+        for (int p = 0; p < periods; p++) {
+            payments[p] = pay(index, unadjusted[p + 1]);
+            if (periodCountBasis != PeriodCountBasis.ACT_ACT_ICMA) {
+                yearFractions[p] = yearFraction(index, adjusted[p], adjusted[p + 1]);
+            } else if (stub && p == (backward ? 0 : periods - 1)) {
+                // the roll date of the stub next to the regular periods
+                yearFractions[p] = stubIcma(anchor, backward ? 1 - periods : periods - 1, direction, monthEnd, unadjusted[p], unadjusted[p + 1]);
+            } else {
+                yearFractions[p] = (double) months / MONTHS_IN_YEAR;
+            }
+        }
+        return new Schedule(unadjusted, adjusted, payments, yearFractions, stub && backward, stub && !backward);
+    }
+
+    /**
+     * @return the date a number of periods from the anchor, each one
+     *         calculated from the anchor so the day of month does not drift.
+     */
+    private int roll(final int anchor, final int periods, final boolean monthEnd) {
+        if (months == 0) {
+            return anchor + periods * days;
+        }
+        final int day = EpochDayUtil.plusMonths(anchor, periods * months);
+        if (monthEnd) {
+            return day - EpochDayUtil.getDayOfMonth(day) + EpochDayUtil.lengthOfMonth(EpochDayUtil.getYear(day), EpochDayUtil.getMonth(day));
+        }
+        return day;
+    }
+
+    private static boolean isLastDayOfMonth(final int epochDay) {
+        return EpochDayUtil.getDayOfMonth(epochDay) == EpochDayUtil.lengthOfMonth(EpochDayUtil.getYear(epochDay), EpochDayUtil.getMonth(epochDay));
+    }
+
+    private int pay(final BusinessDayIndex index, final int periodEnd) {
+        final int day = adjust(index, periodEnd, paymentHolidayHandlerType);
+        if (paymentLag == 0) {
+            return day;
+        }
+        return found(index.moveByBusinessDays(day, paymentLag, HolidayHandlerType.FORWARD), day, index);
+    }
+
+    private static int adjust(final BusinessDayIndex index, final int day, final String holidayHandlerType) {
+        return found(index.adjust(day, holidayHandlerType), day, index);
+    }
+
+    private static int found(final int result, final int day, final BusinessDayIndex index) {
+        if (result == BusinessDayIndex.NOT_FOUND) {
+            throw new IndexOutOfBoundsException("Cannot adjust the epoch day " + day + " within the working days [" + index.getFirstDay() + ","
+                    + index.getLastDay() + "]");
+        }
+        return result;
+    }
+
+    private double yearFraction(final BusinessDayIndex index, final int start, final int end) {
+        switch (periodCountBasis) {
+        case BUS_252:
+            return EpochDayPeriodCount.yearDiffBus252(start, end, index);
+        case ACT_ACT:
+            return EpochDayPeriodCount.yearDiffActActIsda(start, end);
+        default:
+            return EpochDayPeriodCount.yearDiff(start, end, periodCountBasis);
+        }
+    }
+
+    /**
+     * ACT/ACT ICMA of a stub on its unadjusted dates: the days in each
+     * notional period, rolled from the anchor beyond the regular periods,
+     * over the days of that period times the frequency.
+     *
+     * @param roll
+     *            the number of periods from the anchor of the stub date next
+     *            to the regular periods.
+     */
+    private double stubIcma(final int anchor, final int roll, final int direction, final boolean monthEnd, final int start, final int end) {
+        double fraction = 0.0;
+        int rolls = roll;
+        int from = roll(anchor, rolls, monthEnd);
+        while (direction < 0 ? from > start : from < end) {
+            rolls += direction;
+            final int to = roll(anchor, rolls, monthEnd);
+            final int accrued = direction < 0 ? Math.min(from, end) - Math.max(to, start) : Math.min(to, end) - Math.max(from, start);
+            fraction += (double) accrued * months / (Math.abs(to - from) * MONTHS_IN_YEAR);
+            from = to;
+        }
+        return fraction;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,294 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+
+/**
+ * Provides enough information to create an immutable ScheduleGenerator.
+ *
+ * <pre>
+    ScheduleGeneratorBuilder&lt;LocalDate&gt; builder = new ScheduleGeneratorBuilder&lt;LocalDate&gt;() //
+            .businessDayEngine(factory.getBusinessDayEngine("GBP", null)) // the holidays and working week
+            .frequency(StandardTenor.T_6M) // semi-annual periods
+            .stubConvention(StubConvention.SHORT_INITIAL) // default, roll back from the end date
+            .endOfMonth(true) // roll month end to month end
+            .accrualHolidayHandlerType(HolidayHandlerType.MODIFIED_FOLLOWING) // default
+            .paymentHolidayHandlerType(HolidayHandlerType.MODIFIED_FOLLOWING) // default
+            .paymentLag(2) // pay 2 business days after the end of the period
+            .periodCountBasis(PeriodCountBasis.ACT_365);
+    ScheduleGenerator&lt;LocalDate&gt; generator = new ScheduleGenerator&lt;LocalDate&gt;(builder);
+ * </pre>
+ *
+ * @param <E> JDK Date/Calendar, JDK8 LocalDate or Joda LocalDate
+ * @since 1.4.0
+ */
+public class ScheduleGeneratorBuilder<E extends Serializable> {
+    private static final int MONTHS_IN_YEAR = 12;
+
+    private BusinessDayEngine<E> businessDayEngine;
+    private Tenor frequency;
+    private StubConvention stubConvention = StubConvention.SHORT_INITIAL;
+    private boolean endOfMonth;
+    private String accrualHolidayHandlerType = HolidayHandlerType.MODIFIED_FOLLOWING;
+    private String paymentHolidayHandlerType = HolidayHandlerType.MODIFIED_FOLLOWING;
+    private int paymentLag;
+    private PeriodCountBasis periodCountBasis = PeriodCountBasis.ACT_360;
+
+    /**
+     * Default values are:
+     * <ul>
+     * <li>stubConvention = SHORT_INITIAL</li>
+     * <li>endOfMonth = false</li>
+     * <li>accrualHolidayHandlerType = modifiedFollowing</li>
+     * <li>paymentHolidayHandlerType = modifiedFollowing</li>
+     * <li>paymentLag = 0</li>
+     * <li>periodCountBasis = ACT_360</li>
+     * </ul>
+     */
+    public ScheduleGeneratorBuilder() {
+    }
+
+    /**
+     * Checks the builder and throws an IllegalArgumentException if there are issues e.g.
+     * <ul>
+     * <li>businessDayEngine missing</li>
+     * <li>frequency missing or not a number of days, weeks, months or years</li>
+     * <li>stubConvention or periodCountBasis missing</li>
+     * <li>an unknown holiday handler type</li>
+     * <li>paymentLag is negative</li>
+     * <li>ACT_ACT_ICMA with a frequency that does not divide the year in whole months</li>
+     * </ul>
+     */
+    public void checkValidity() {
+        final StringBuilder b = new StringBuilder();
+        if (businessDayEngine == null) {
+            b.append("businessDayEngine is required");
+        }
+        if (frequency == null) {
+            append(b, "frequency is required");
+        } else if (!isPeriodic(frequency)) {
+            append(b, "frequency must be a positive number of days, weeks, months or years (" + frequency + ")");
+        }
+        if (stubConvention == null) {
+            append(b, "stubConvention is required");
+        }
+        if (!isKnown(accrualHolidayHandlerType)) {
+            append(b, "unknown accrualHolidayHandlerType " + accrualHolidayHandlerType);
+        }
+        if (!isKnown(paymentHolidayHandlerType)) {
+            append(b, "unknown paymentHolidayHandlerType " + paymentHolidayHandlerType);
+        }
+        if (paymentLag < 0) {
+            append(b, "paymentLag cannot be negative");
+        }
+        if (periodCountBasis == null) {
+            append(b, "periodCountBasis is required");
+        } else if (periodCountBasis == PeriodCountBasis.ACT_ACT_ICMA && frequency != null && isPeriodic(frequency)
+                && (getFrequencyMonths() == 0 || MONTHS_IN_YEAR % getFrequencyMonths() != 0)) {
+            append(b, "ACT_ACT_ICMA requires a frequency dividing the year in whole months (" + frequency + ")");
+        }
+        if (b.length() > 0) {
+            throw new IllegalArgumentException(b.toString());
+        }
+    }
+
+    private static void append(final StringBuilder b, final String string) {
+        if (b.length() > 0) {
+            b.append(",");
+        }
+        b.append(string);
+    }
+
+    private static boolean isPeriodic(final Tenor tenor) {
+        final TenorCode code = tenor.getCode();
+        return code != null && code.acceptUnits() && tenor.getUnits() > 0;
+    }
+
+    private static boolean isKnown(final String holidayHandlerType) {
+        return holidayHandlerType == null || HolidayHandlerType.FORWARD.equals(holidayHandlerType)
+                || HolidayHandlerType.BACKWARD.equals(holidayHandlerType) || HolidayHandlerType.MODIFIED_FOLLOWING.equals(holidayHandlerType)
+                || HolidayHandlerType.MODIFIED_PRECEDING.equals(holidayHandlerType)
+                || HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK.equals(holidayHandlerType);
+    }
+
+    /**
+     * @return the number of months in a period, 0 if the frequency is a
+     *         number of days or weeks (or not set).
+     */
+    int getFrequencyMonths() {
+        if (frequency == null) {
+            return 0;
+        }
+        switch (frequency.getCode()) {
+        case MONTH:
+            return frequency.getUnits();
+        case YEAR:
+            return frequency.getUnits() * MONTHS_IN_YEAR;
+        default:
+            return 0;
+        }
+    }
+
+    public BusinessDayEngine<E> getBusinessDayEngine() {
+        return businessDayEngine;
+    }
+
+    public Tenor getFrequency() {
+        return frequency;
+    }
+
+    public StubConvention getStubConvention() {
+        return stubConvention;
+    }
+
+    public boolean isEndOfMonth() {
+        return endOfMonth;
+    }
+
+    public String getAccrualHolidayHandlerType() {
+        return accrualHolidayHandlerType;
+    }
+
+    public String getPaymentHolidayHandlerType() {
+        return paymentHolidayHandlerType;
+    }
+
+    public int getPaymentLag() {
+        return paymentLag;
+    }
+
+    public PeriodCountBasis getPeriodCountBasis() {
+        return periodCountBasis;
+    }
+
+    /**
+     * The holidays and working week used to adjust the dates, the
+     * HolidayHandler of the engine is not used.
+     * @param businessDayEngine e.g. from KitCalculatorsFactory.getBusinessDayEngine
+     * @return the builder
+     */
+    public ScheduleGeneratorBuilder<E> businessDayEngine(final BusinessDayEngine<E> businessDayEngine) {
+        this.businessDayEngine = businessDayEngine;
+        return this;
+    }
+
+    /**
+     * The length of a regular period.
+     * @param frequency a number of days, weeks, months or years e.g. 3M
+     * @return the builder
+     */
+    public ScheduleGeneratorBuilder<E> frequency(final Tenor frequency) {
+        this.frequency = frequency;
+        return this;
+    }
+
+    /**
+     * Where the irregular period goes if the start and end dates are not a whole number of periods apart.
+     * @param stubConvention default SHORT_INITIAL
+     * @return the builder
+     */
+    public ScheduleGeneratorBuilder<E> stubConvention(final StubConvention stubConvention) {
+        this.stubConvention = stubConvention;
+        return this;
+    }
+
+    /**
+     * If true and the date the periods are rolled from is the last day of its month, all the monthly dates are rolled to the last day
+     * of their month (e.g. 28 Feb, 31 May, 31 Aug...). Ignored for days and weeks.
+     * @param endOfMonth default false
+     * @return the builder
+     */
+    public ScheduleGeneratorBuilder<E> endOfMonth(final boolean endOfMonth) {
+        this.endOfMonth = endOfMonth;
+        return this;
+    }
+
+    /**
+     * The type of HolidayHandler (see {@link HolidayHandlerType}) used to adjust the period boundaries.
+     * @param accrualHolidayHandlerType default modifiedFollowing, null for unadjusted accrual periods
+     * @return the builder
+     */
+    public ScheduleGeneratorBuilder<E> accrualHolidayHandlerType(final String accrualHolidayHandlerType) {
+        this.accrualHolidayHandlerType = accrualHolidayHandlerType;
+        return this;
+    }
+
+    /**
+     * The type of HolidayHandler (see {@link HolidayHandlerType}) used to adjust the end of each period into its payment date.
+     * @param paymentHolidayHandlerType default modifiedFollowing, null for none
+     * @return the builder
+     */
+    public ScheduleGeneratorBuilder<E> paymentHolidayHandlerType(final String paymentHolidayHandlerType) {
+        this.paymentHolidayHandlerType = paymentHolidayHandlerType;
+        return this;
+    }
+
+    /**
+     * The number of business days between the end of a period, adjusted with the payment HolidayHandler, and its payment.
+     * @param paymentLag default 0
+     * @return the builder
+     */
+    public ScheduleGeneratorBuilder<E> paymentLag(final int paymentLag) {
+        this.paymentLag = paymentLag;
+        return this;
+    }
+
+    /**
+     * The basis of the year fractions of the accrual periods, BUS_252 uses the holidays of the engine, ACT_ACT is ACT/ACT ISDA (split
+     * by calendar year) and ACT_ACT_ICMA uses the frequency and the unadjusted dates.
+     * @param periodCountBasis default ACT_360
+     * @return the builder
+     */
+    public ScheduleGeneratorBuilder<E> periodCountBasis(final PeriodCountBasis periodCountBasis) {
+        this.periodCountBasis = periodCountBasis;
+        return this;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,89 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+/**
+ * Defines where a {@link ScheduleGenerator} puts the irregular period (stub)
+ * when the start and end dates are not a whole number of periods apart.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public enum StubConvention {
+    /**
+     * The dates are rolled back from the end date, the first period is
+     * shorter than a regular one.
+     */
+    SHORT_INITIAL,
+
+    /**
+     * The dates are rolled back from the end date, the stub is merged with
+     * the first regular period which becomes longer than a regular one.
+     */
+    LONG_INITIAL,
+
+    /**
+     * The dates are rolled forward from the start date, the last period is
+     * shorter than a regular one.
+     */
+    SHORT_FINAL,
+
+    /**
+     * The dates are rolled forward from the start date, the stub is merged
+     * with the last regular period which becomes longer than a regular one.
+     */
+    LONG_FINAL,
+
+    /**
+     * No stub allowed, the start and end dates must be a whole number of
+     * periods apart.
+     */
+    NONE
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
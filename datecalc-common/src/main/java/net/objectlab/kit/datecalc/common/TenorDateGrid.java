@@ -0,0 +1,325 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Tenor Dates of a CurrencyDateCalculator precomputed for a rolling
+ * window of trade dates, a lookup inside the window is an array read.
+ * <p>
+ * The dates are kept as epoch days in a ring buffer indexed by the trade
+ * date, rolling the window forward only calculates the trade dates that
+ * enter it. A roll publishes a new copy of the buffer so the lookups never
+ * lock and always see a consistent window; if a holiday calendar of the
+ * calculator gets a new version (see {@link VersionedHolidayCalendar}) the
+ * whole window is calculated again on the next lookup.
+ * </p>
+ * <p>
+ * A Tenor Date read from the window is the trade date moved by the number of
+ * days to it by the {@link DateMover} of the calculator, so a
+ * <code>Date</code> or <code>Calendar</code> keeps the time of day of the
+ * trade date, as if calculated by the calculator.
+ * </p>
+ *
+ * <pre>
+ * TenorDateGrid&lt;LocalDate&gt; grid = calculator.createTenorDateGrid(today, 731, StandardTenor.getAll());
+ * LocalDate date = grid.getTenorDate(today, StandardTenor.T_3M);
+ * // the next day
+ * grid.rollTo(today.plusDays(1));
+ * </pre>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public final class TenorDateGrid<E> {
+    private final CurrencyDateCalculator<E> calculator;
+
+    private final EpochDayConverter<E> converter;
+
+    private final DateMover<E> dateMover;
+
+    private final List<Tenor> tenors;
+
+    private final Map<Tenor, Integer> columns = new HashMap<Tenor, Integer>();
+
+    private final int tradeDays;
+
+    private volatile Window window;
+
+    /**
+     * Moves a trade date by a number of days to one of its Tenor Dates,
+     * typically the way the currency calculator moves its dates.
+     */
+    public interface DateMover<E> {
+        /**
+         * @return the date moved by that number of days (positive or 0).
+         */
+        E plusDays(E date, int days);
+    }
+
+    /**
+     * Calculates the Tenor Dates for tradeDays trade dates starting at
+     * firstTradeDate, the Tenor Dates being converted from their epoch days.
+     *
+     * @param tenors
+     *            the tenors (columns) of the grid, a duplicate tenor is
+     *            looked up in its first column.
+     */
+    public TenorDateGrid(final CurrencyDateCalculator<E> calculator, final EpochDayConverter<E> converter, final List<Tenor> tenors,
+            final E firstTradeDate, final int tradeDays) {
+        this(calculator, converter, null, tenors, firstTradeDate, tradeDays);
+    }
+
+    /**
+     * Calculates the Tenor Dates for tradeDays trade dates starting at
+     * firstTradeDate.
+     *
+     * @param dateMover
+     *            moves a trade date to its Tenor Dates, null to convert them
+     *            from their epoch days.
+     * @param tenors
+     *            the tenors (columns) of the grid, a duplicate tenor is
+     *            looked up in its first column.
+     */
+    public TenorDateGrid(final CurrencyDateCalculator<E> calculator, final EpochDayConverter<E> converter, final DateMover<E> dateMover,
+            final List<Tenor> tenors, final E firstTradeDate, final int tradeDays) {
+        if (calculator == null || converter == null || tenors == null || firstTradeDate == null) {
+            throw new IllegalArgumentException("calculator, converter, tenors and firstTradeDate are required");
+        }
+        if (tradeDays <= 0) {
+            throw new IllegalArgumentException("tradeDays must be positive " + tradeDays);
+        }
+        this.calculator = calculator;
+        this.converter = converter;
+        this.dateMover = dateMover;
+        this.tenors = Collections.unmodifiableList(new ArrayList<Tenor>(tenors));
+        this.tradeDays = tradeDays;
+        for (int i = this.tenors.size() - 1; i >= 0; i--) {
+            final Tenor tenor = this.tenors.get(i);
+            if (tenor == null) {
+                throw new IllegalArgumentException("Tenor cannot be null");
+            }
+            columns.put(tenor, Integer.valueOf(i));
+        }
+        window = calculate(converter.toEpochDay(firstTradeDate), getCalendarsVersion());
+    }
+
+    /**
+     * Moves the window so that it starts at that trade date, only the trade
+     * dates that were not in the window are calculated.
+     */
+    public void rollTo(final E firstTradeDate) {
+        rollTo(converter.toEpochDay(firstTradeDate));
+    }
+
+    /**
+     * @param firstTradeDay
+     *            the epoch day of the first trade date of the window.
+     */
+    public synchronized void rollTo(final int firstTradeDay) {
+        final Window current = window;
+        final long version = getCalendarsVersion();
+        if (current.version != version) {
+            window = calculate(firstTradeDay, version);
+        } else if (current.firstDay != firstTradeDay) {
+            final int[] dates = current.dates.clone();
+            final int lastDay = firstTradeDay + tradeDays - 1;
+            for (int day = firstTradeDay; day <= lastDay; day++) {
+                if (!current.covers(day, tradeDays)) {
+                    calculateRow(dates, day);
+                }
+            }
+            window = new Window(firstTradeDay, version, dates);
+        }
+    }
+
+    /**
+     * @return the Tenor Date, read from the grid if the trade date is in the
+     *         window or calculated otherwise.
+     * @throws IllegalArgumentException
+     *             if the tenor is not part of the grid.
+     */
+    public E getTenorDate(final E tradeDate, final Tenor tenor) {
+        final int column = getColumn(tenor);
+        final int day = converter.toEpochDay(tradeDate);
+        final Window current = getWindow();
+        if (!current.covers(day, tradeDays)) {
+            return calculator.calculateTenorDate(tradeDate, tenor);
+        }
+        return plusDays(tradeDate, day, current.dates[index(day, column)]);
+    }
+
+    /**
+     * @return the Tenor Dates for all tenors of the grid, in the same order.
+     */
+    public List<E> getTenorDates(final E tradeDate) {
+        final int day = converter.toEpochDay(tradeDate);
+        final Window current = getWindow();
+        if (!current.covers(day, tradeDays)) {
+            return calculator.calculateTenorDates(tradeDate, tenors);
+        }
+        final List<E> dates = new ArrayList<E>(tenors.size());
+        for (int column = 0; column < tenors.size(); column++) {
+            dates.add(plusDays(tradeDate, day, current.dates[index(day, column)]));
+        }
+        return dates;
+    }
+
+    /**
+     * @param tradeDay
+     *            the epoch day of the trade date
+     * @param column
+     *            the index of the tenor in {@link #getTenors()}
+     * @return the epoch day of the Tenor Date.
+     * @throws IndexOutOfBoundsException
+     *             if the trade date is not in the window.
+     */
+    public int getTenorEpochDay(final int tradeDay, final int column) {
+        final Window current = getWindow();
+        if (!current.covers(tradeDay, tradeDays) || column < 0 || column >= tenors.size()) {
+            throw new IndexOutOfBoundsException("Trade day " + tradeDay + " and column " + column + " are not in the grid");
+        }
+        return current.dates[index(tradeDay, column)];
+    }
+
+    /**
+     * @return true if the trade date is in the window.
+     */
+    public boolean covers(final E tradeDate) {
+        return window.covers(converter.toEpochDay(tradeDate), tradeDays);
+    }
+
+    public E getFirstTradeDate() {
+        return converter.fromEpochDay(window.firstDay);
+    }
+
+    public int getTradeDays() {
+        return tradeDays;
+    }
+
+    public List<Tenor> getTenors() {
+        return tenors;
+    }
+
+    public CurrencyDateCalculator<E> getCalculator() {
+        return calculator;
+    }
+
+    private Window getWindow() {
+        final Window current = window;
+        if (current.version != getCalendarsVersion()) {
+            rollTo(current.firstDay);
+            return window;
+        }
+        return current;
+    }
+
+    private E plusDays(final E tradeDate, final int tradeDay, final int epochDay) {
+        return dateMover != null ? dateMover.plusDays(tradeDate, epochDay - tradeDay) : converter.fromEpochDay(epochDay);
+    }
+
+    private int getColumn(final Tenor tenor) {
+        final Integer column = tenor != null ? columns.get(tenor) : null;
+        if (column == null) {
+            throw new IllegalArgumentException("Tenor " + tenor + " is not part of the grid " + tenors);
+        }
+        return column.intValue();
+    }
+
+    private int index(final int day, final int column) {
+        return EpochDayUtil.floorMod(day, tradeDays) * tenors.size() + column;
+    }
+
+    private long getCalendarsVersion() {
+        return VersionedHolidayCalendar.versionOf(calculator.getCcy1Calendar()) + VersionedHolidayCalendar.versionOf(calculator.getCcy2Calendar())
+                + VersionedHolidayCalendar.versionOf(calculator.getCrossCcyCalendar());
+    }
+
+    private Window calculate(final int firstDay, final long version) {
+        final int[] dates = new int[tradeDays * tenors.size()];
+        for (int day = firstDay; day < firstDay + tradeDays; day++) {
+            calculateRow(dates, day);
+        }
+        return new Window(firstDay, version, dates);
+    }
+
+    private void calculateRow(final int[] dates, final int day) {
+        for (int column = 0; column < tenors.size(); column++) {
+            dates[index(day, column)] = calculator.calculateTenorDate(day, tenors.get(column));
+        }
+    }
+
+    private static final class Window {
+        private final int firstDay;
+
+        private final long version;
+
+        private final int[] dates;
+
+        private Window(final int firstDay, final long version, final int[] dates) {
+            this.firstDay = firstDay;
+            this.version = version;
+            this.dates = dates;
+        }
+
+        private boolean covers(final int day, final int tradeDays) {
+            return day >= firstDay && day - firstDay < tradeDays;
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
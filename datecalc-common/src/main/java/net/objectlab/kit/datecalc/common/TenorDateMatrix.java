@@ -0,0 +1,194 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A dense, immutable matrix of tenor dates: one row per start date, one
+ * column per tenor. The dates are held in a single array in row order.
+ * <p>
+ * Rows are independent from each other so the calculation can be split in
+ * chunks of rows and run by an {@link ExecutorService}, e.g. a fixed thread
+ * pool or the common ForkJoinPool on JDK 8.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public final class TenorDateMatrix<E> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Below this many rows per chunk, the matrix is not split. */
+    private static final int MIN_CHUNK_SIZE = 32;
+
+    private final List<E> startDates;
+
+    private final List<Tenor> tenors;
+
+    private final Object[] dates;
+
+    /**
+     * Calculates the tenor dates of a single row, typically
+     * {@link BusinessDayEngine#calculateTenorDates(Object, List, int)} or
+     * {@link CurrencyDateCalculator#calculateTenorDates(Object, List)}. It
+     * will be called by several threads if an ExecutorService is used.
+     */
+    public interface RowCalculator<E> {
+        /**
+         * @return the dates in the same order as the tenors.
+         */
+        List<E> calculateTenorDates(E startDate, List<Tenor> tenors);
+    }
+
+    private TenorDateMatrix(final List<E> startDates, final List<Tenor> tenors, final Object[] dates) {
+        this.startDates = startDates;
+        this.tenors = tenors;
+        this.dates = dates;
+    }
+
+    /**
+     * Calculates the matrix.
+     *
+     * @param startDates
+     *            the start date of each row.
+     * @param tenors
+     *            the tenor of each column.
+     * @param rowCalculator
+     *            calculates the dates of one row.
+     * @param executor
+     *            runs chunks of rows in parallel, null to calculate all rows
+     *            in the calling thread.
+     * @return the matrix of tenor dates.
+     */
+    public static <E> TenorDateMatrix<E> calculate(final List<E> startDates, final List<Tenor> tenors, final RowCalculator<E> rowCalculator,
+            final ExecutorService executor) {
+        if (startDates == null || tenors == null || rowCalculator == null) {
+            throw new IllegalArgumentException("startDates, tenors and rowCalculator cannot be null");
+        }
+        final List<E> rows = Collections.unmodifiableList(new ArrayList<E>(startDates));
+        final List<Tenor> columns = Collections.unmodifiableList(new ArrayList<Tenor>(tenors));
+        final Object[] dates = new Object[rows.size() * columns.size()];
+
+        ParallelChunks.run(rows.size(), MIN_CHUNK_SIZE, executor, new ParallelChunks.Task() {
+            public void run(final int fromRow, final int toRow) {
+                calculateRows(rows, columns, rowCalculator, dates, fromRow, toRow);
+            }
+        }, "the tenor dates");
+        return new TenorDateMatrix<E>(rows, columns, dates);
+    }
+
+    private static <E> void calculateRows(final List<E> rows, final List<Tenor> columns, final RowCalculator<E> rowCalculator,
+            final Object[] dates, final int fromRow, final int toRow) {
+        final int columnCount = columns.size();
+        for (int row = fromRow; row < toRow; row++) {
+            final List<E> rowDates = rowCalculator.calculateTenorDates(rows.get(row), columns);
+            if (rowDates.size() != columnCount) {
+                throw new IllegalStateException("Expected " + columnCount + " dates for " + rows.get(row) + " but got " + rowDates.size());
+            }
+            System.arraycopy(rowDates.toArray(), 0, dates, row * columnCount, columnCount);
+        }
+    }
+
+    public List<E> getStartDates() {
+        return startDates;
+    }
+
+    public List<Tenor> getTenors() {
+        return tenors;
+    }
+
+    public int getRowCount() {
+        return startDates.size();
+    }
+
+    public int getColumnCount() {
+        return tenors.size();
+    }
+
+    /**
+     * @param row
+     *            the index of the start date.
+     * @param column
+     *            the index of the tenor.
+     * @return the tenor date.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(final int row, final int column) {
+        if (row < 0 || row >= getRowCount() || column < 0 || column >= getColumnCount()) {
+            throw new IndexOutOfBoundsException("No date at row " + row + ", column " + column);
+        }
+        return (E) dates[row * getColumnCount() + column];
+    }
+
+    /**
+     * @return the tenor dates of the given start date, in the same order as
+     *         the tenors.
+     */
+    @SuppressWarnings("unchecked")
+    public List<E> getRow(final int row) {
+        if (row < 0 || row >= getRowCount()) {
+            throw new IndexOutOfBoundsException("No row " + row);
+        }
+        final int columnCount = getColumnCount();
+        final Object[] rowDates = new Object[columnCount];
+        System.arraycopy(dates, row * columnCount, rowDates, 0, columnCount);
+        return Collections.unmodifiableList((List<E>) Arrays.asList(rowDates));
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,116 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Value dates a batch of trades: the trades are grouped by currency pair and
+ * spot lag so that each CurrencyDateCalculator is built once, then chunks of
+ * trades are value dated, in parallel if an ExecutorService is given, and the
+ * value dates are returned in the order of the trades.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+final class ValueDateBatch {
+    /** Below this many trades per chunk, the batch is not split. */
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private ValueDateBatch() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E extends Serializable> List<E> calculate(final KitCalculatorsFactory<E> factory, final Iterable<ValueDateRequest<E>> requests,
+            final ExecutorService executor) {
+        if (requests == null) {
+            throw new IllegalArgumentException("requests cannot be null");
+        }
+        final List<ValueDateRequest<E>> trades = new ArrayList<ValueDateRequest<E>>();
+        final List<CurrencyDateCalculator<E>> calculators = new ArrayList<CurrencyDateCalculator<E>>();
+        final Map<String, CurrencyDateCalculator<E>> calculatorsByPair = new HashMap<String, CurrencyDateCalculator<E>>();
+        for (final ValueDateRequest<E> trade : requests) {
+            if (trade == null) {
+                throw new IllegalArgumentException("requests cannot contain null");
+            }
+            final String pair = trade.getCcy1() + "." + trade.getCcy2() + "." + trade.getSpotLag();
+            CurrencyDateCalculator<E> calculator = calculatorsByPair.get(pair);
+            if (calculator == null) {
+                calculator = factory.getDefaultCurrencyDateCalculator(trade.getCcy1(), trade.getCcy2(), trade.getSpotLag());
+                calculatorsByPair.put(pair, calculator);
+            }
+            trades.add(trade);
+            calculators.add(calculator);
+        }
+
+        final Object[] valueDates = new Object[trades.size()];
+        ParallelChunks.run(trades.size(), MIN_CHUNK_SIZE, executor, new ParallelChunks.Task() {
+            public void run(final int fromIndex, final int toIndex) {
+                calculate(trades, calculators, valueDates, fromIndex, toIndex);
+            }
+        }, "the value dates");
+        return Collections.unmodifiableList((List<E>) (List<?>) Arrays.asList(valueDates));
+    }
+
+    private static <E> void calculate(final List<ValueDateRequest<E>> trades, final List<CurrencyDateCalculator<E>> calculators,
+            final Object[] valueDates, final int fromIndex, final int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            final ValueDateRequest<E> trade = trades.get(i);
+            valueDates[i] = calculators.get(i).calculateTenorDate(trade.getTradeDate(), trade.getTenor());
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,125 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+
+/**
+ * An immutable trade to value date: a currency pair with its spot lag, a
+ * trade date and a tenor.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public final class ValueDateRequest<E> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String ccy1;
+
+    private final String ccy2;
+
+    private final SpotLag spotLag;
+
+    private final E tradeDate;
+
+    private final Tenor tenor;
+
+    /**
+     * @param ccy1
+     *            first currency of the pair.
+     * @param ccy2
+     *            second currency of the pair.
+     * @param spotLag
+     *            the number of days between tradeDate and spotDate.
+     * @param tradeDate
+     *            the trade date.
+     * @param tenor
+     *            the tenor, e.g. StandardTenor.SPOT or StandardTenor.T_1M.
+     */
+    public ValueDateRequest(final String ccy1, final String ccy2, final SpotLag spotLag, final E tradeDate, final Tenor tenor) {
+        if (ccy1 == null || ccy2 == null || spotLag == null || tradeDate == null || tenor == null) {
+            throw new IllegalArgumentException("ccy1, ccy2, spotLag, tradeDate and tenor cannot be null");
+        }
+        this.ccy1 = ccy1;
+        this.ccy2 = ccy2;
+        this.spotLag = spotLag;
+        this.tradeDate = tradeDate;
+        this.tenor = tenor;
+    }
+
+    public String getCcy1() {
+        return ccy1;
+    }
+
+    public String getCcy2() {
+        return ccy2;
+    }
+
+    public SpotLag getSpotLag() {
+        return spotLag;
+    }
+
+    public E getTradeDate() {
+        return tradeDate;
+    }
+
+    public Tenor getTenor() {
+        return tenor;
+    }
+
+    @Override
+    public String toString() {
+        return ccy1 + "." + ccy2 + " " + spotLag + " " + tradeDate + " " + tenor;
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
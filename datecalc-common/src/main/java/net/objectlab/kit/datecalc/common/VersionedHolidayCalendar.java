@@ -0,0 +1,241 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A read only handle on a registered holiday calendar whose content can be
+ * replaced by a new version whilst calculators are using it. Each version is
+ * immutable and is published atomically so a calculator sees either the old
+ * or the new holidays but never a mix of both; calculators that cache
+ * derived data (e.g. a business day index) compare {@link #getVersion()} and
+ * rebuild when it changes.
+ * <p>
+ * The handle also keeps some timing information on the loads so that the
+ * cost of intraday reloads can be monitored.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public final class VersionedHolidayCalendar<E> implements HolidayCalendar<E> {
+    private static final long serialVersionUID = -3286213307751364213L;
+
+    private final String name;
+
+    private final AtomicReference<Version<E>> current = new AtomicReference<Version<E>>();
+
+    VersionedHolidayCalendar(final String name, final HolidayCalendar<E> calendar, final long loadNanos) {
+        this.name = name;
+        current.set(new Version<E>(calendar, 1, loadNanos, loadNanos));
+    }
+
+    /**
+     * Atomically replaces the current calendar.
+     *
+     * @param calendar
+     *            the new, immutable, calendar.
+     * @param loadNanos
+     *            the time taken to build it.
+     * @return the new version number.
+     */
+    long publish(final HolidayCalendar<E> calendar, final long loadNanos) {
+        while (true) {
+            final Version<E> previous = current.get();
+            final Version<E> next = new Version<E>(calendar, previous.version + 1, loadNanos, previous.totalLoadNanos + loadNanos);
+            if (current.compareAndSet(previous, next)) {
+                return next.version;
+            }
+        }
+    }
+
+    /**
+     * @return the name under which this calendar is registered.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the current immutable calendar, use it when several calls
+     *         must see the same version.
+     */
+    public HolidayCalendar<E> getCurrent() {
+        return current.get().calendar;
+    }
+
+    /**
+     * @return the version number, 1 for the first registration and
+     *         incremented by each new registration under the same name.
+     */
+    public long getVersion() {
+        return current.get().version;
+    }
+
+    /**
+     * @return the number of times this calendar has been loaded, same as the
+     *         version.
+     */
+    public long getLoadCount() {
+        return current.get().version;
+    }
+
+    /**
+     * @return the time (System.currentTimeMillis) at which the current
+     *         version was published.
+     */
+    public long getPublishedTimeMillis() {
+        return current.get().publishedTimeMillis;
+    }
+
+    /**
+     * @return the time taken to build the current version, in nanoseconds.
+     */
+    public long getLastLoadNanos() {
+        return current.get().loadNanos;
+    }
+
+    /**
+     * @return the cumulated time taken to build all versions, in
+     *         nanoseconds.
+     */
+    public long getTotalLoadNanos() {
+        return current.get().totalLoadNanos;
+    }
+
+    /**
+     * Provides a number that changes whenever a versioned calendar used by
+     * the given calendar publishes a new version, looking through
+     * {@link CombinedHolidayCalendar}.
+     *
+     * @return the sum of the versions of the underlying versioned calendars,
+     *         0 if there is none.
+     */
+    public static long versionOf(final ReadOnlyHolidayCalendar<?> calendar) {
+        if (calendar instanceof VersionedHolidayCalendar) {
+            return ((VersionedHolidayCalendar<?>) calendar).getVersion();
+        }
+        long version = 0;
+        if (calendar instanceof CombinedHolidayCalendar) {
+            for (final HolidayCalendar<?> cal : ((CombinedHolidayCalendar<?>) calendar).getCalendars()) {
+                version += versionOf(cal);
+            }
+        }
+        return version;
+    }
+
+    public boolean isHoliday(final E date) {
+        return getCurrent().isHoliday(date);
+    }
+
+    public Set<E> getHolidays() {
+        return getCurrent().getHolidays();
+    }
+
+    public E getEarlyBoundary() {
+        return getCurrent().getEarlyBoundary();
+    }
+
+    public E getLateBoundary() {
+        return getCurrent().getLateBoundary();
+    }
+
+    /**
+     * @throws UnsupportedOperationException register a new version with the
+     *             factory instead.
+     */
+    public HolidayCalendar<E> setHolidays(final Set<E> holidays) {
+        throw new UnsupportedOperationException("You cannot modify the holidays, register a new version with the factory.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException register a new version with the
+     *             factory instead.
+     */
+    public HolidayCalendar<E> setEarlyBoundary(final E earlyBoundary) {
+        throw new UnsupportedOperationException("You cannot modify the early boundary, register a new version with the factory.");
+    }
+
+    /**
+     * @throws UnsupportedOperationException register a new version with the
+     *             factory instead.
+     */
+    public HolidayCalendar<E> setLateBoundary(final E lateBoundary) {
+        throw new UnsupportedOperationException("You cannot modify the late boundary, register a new version with the factory.");
+    }
+
+    private static final class Version<E> implements Serializable {
+        private static final long serialVersionUID = 6251760380514093284L;
+
+        private final HolidayCalendar<E> calendar;
+
+        private final long version;
+
+        private final long loadNanos;
+
+        private final long totalLoadNanos;
+
+        private final long publishedTimeMillis = System.currentTimeMillis();
+
+        private Version(final HolidayCalendar<E> calendar, final long version, final long loadNanos, final long totalLoadNanos) {
+            this.calendar = calendar;
+            this.version = version;
+            this.loadNanos = loadNanos;
+            this.totalLoadNanos = totalLoadNanos;
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
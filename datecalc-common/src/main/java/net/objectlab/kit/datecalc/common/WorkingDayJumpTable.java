@@ -0,0 +1,94 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+/**
+ * A NonWorkingDayChecker that can jump straight to the nearest working day
+ * using precomputed tables (see {@link BusinessDayIndex}) rather than checking
+ * each day. The holiday handlers use it when the checker they are given
+ * implements it, and fall back to checking day by day when it returns
+ * {@link BusinessDayIndex#NOT_FOUND}.
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ *
+ * @param <E>
+ *            a representation of a date, typically JDK: Date, Calendar;
+ *            Joda:LocalDate, YearMonthDay
+ */
+public interface WorkingDayJumpTable<E> extends NonWorkingDayChecker<E> {
+    /**
+     * @param date
+     *            the date to adjust.
+     * @param increment
+     *            negative to look on or before the date, otherwise on or
+     *            after it.
+     * @return the number of days from the date to the nearest working day in
+     *         that direction (0 if the date is a working day), or
+     *         BusinessDayIndex.NOT_FOUND if the date or that working day is
+     *         outside the table.
+     */
+    int daysToWorkingDay(E date, int increment);
+
+    /**
+     * Same as daysToWorkingDay but staying in the month of the date, the
+     * direction being reversed if the nearest working day is in another
+     * month (Modified Following or Modified Preceding).
+     *
+     * @param date
+     *            the date to adjust.
+     * @param increment
+     *            negative to look on or before the date first, otherwise on
+     *            or after it.
+     * @return the number of days to the working day, or
+     *         BusinessDayIndex.NOT_FOUND if the table cannot provide it.
+     */
+    int daysToWorkingDayInMonth(E date, int increment);
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
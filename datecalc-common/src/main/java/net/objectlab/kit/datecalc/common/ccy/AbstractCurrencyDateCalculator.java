@@ -3,18 +3,28 @@ package net.objectlab.kit.datecalc.common.ccy;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculator;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
 import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
+import net.objectlab.kit.datecalc.common.EpochDayBitSet;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayUtil;
 import net.objectlab.kit.datecalc.common.HolidayCalendar;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.ImmutableHolidayCalendar;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
 import net.objectlab.kit.datecalc.common.ReadOnlyHolidayCalendar;
+import net.objectlab.kit.datecalc.common.RuleBasedHolidayCalendar;
 import net.objectlab.kit.datecalc.common.SpotLag;
 import net.objectlab.kit.datecalc.common.Tenor;
 import net.objectlab.kit.datecalc.common.TenorCode;
+import net.objectlab.kit.datecalc.common.TenorDateGrid;
+import net.objectlab.kit.datecalc.common.TenorDateMatrix;
+import net.objectlab.kit.datecalc.common.VersionedHolidayCalendar;
 import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 /**
@@ -40,6 +50,16 @@ import net.objectlab.kit.datecalc.common.WorkingWeek;
  * For example, if the trade date is a Monday and a USD holiday falls on the Tuesday,
  * then the spot date for EUR/USD will be the Wednesday, but the spot date for USD/MXN will be the Thursday.
  *
+ * <h3>Epoch days</h3>
+ * If the implementation provides an EpochDayConverter, the Spot and Tenor Dates are calculated on epoch days (int)
+ * and the date based methods only convert the start date and move it by the resulting number of days.
+ * The non working days of the pair and the crossCcy are then fused in a {@link NonWorkingDayMask}, built when the
+ * calculator is created and shared through the {@link NonWorkingDayMaskCache} of the factory with the calculators
+ * using the same calendars. The mask is only used if each calendar is a {@link VersionedHolidayCalendar}, a
+ * {@link RuleBasedHolidayCalendar} or an {@link ImmutableHolidayCalendar#snapshot(HolidayCalendar) snapshot}; any
+ * other calendar could change or override isHoliday, so the calculator then asks the calendars for each day, as
+ * without an EpochDayConverter.
+ *
  * @since 1.4.0
  */
 public abstract class AbstractCurrencyDateCalculator<E extends Serializable> implements CurrencyDateCalculator<E>, NonWorkingDayChecker<E> {
@@ -60,29 +80,60 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
     private final boolean useCrossCcyOnT_1ForCcy2;
     private final boolean adjustStartDateWithCcy1Ccy2;
     private final SpotLag spotLag;
+    private volatile BusinessDayIndex businessDayIndex;
+    private volatile long businessDayIndexVersion;
+    private final SpotDateCache spotDateCache;
+    private final NonWorkingDayMaskCache nonWorkingDayMaskCache;
+    private volatile NonWorkingDayMask nonWorkingDayMask;
+    private final boolean nonWorkingDayMaskUsed;
 
     protected AbstractCurrencyDateCalculator(final CurrencyDateCalculatorBuilder<E> builder) {
         builder.checkValidity();
         this.ccy1 = builder.getCcy1();
         this.ccy2 = builder.getCcy2();
         this.crossCcy = builder.getCrossCcy();
-        this.ccy1HolidayCalendar = new ImmutableHolidayCalendar<E>(
-                builder.getCcy1Calendar() != null ? builder.getCcy1Calendar() : new DefaultHolidayCalendar<E>());
-        this.ccy2HolidayCalendar = new ImmutableHolidayCalendar<E>(
-                builder.getCcy2Calendar() != null ? builder.getCcy2Calendar() : new DefaultHolidayCalendar<E>());
-        this.crossCcyHolidayCalendar = new ImmutableHolidayCalendar<E>(
-                builder.getCrossCcyCalendar() != null ? builder.getCrossCcyCalendar() : new DefaultHolidayCalendar<E>());
+        this.ccy1HolidayCalendar = readOnly(builder.getCcy1Calendar());
+        this.ccy2HolidayCalendar = readOnly(builder.getCcy2Calendar());
+        this.crossCcyHolidayCalendar = readOnly(builder.getCrossCcyCalendar());
         this.holidayHandler = builder.getTenorHolidayHandler();
         this.ccy1Week = builder.getCcy1Week();
         this.ccy2Week = builder.getCcy2Week();
         this.crossCcyWeek = builder.getCrossCcyWeek();
         this.brokenDateAllowed = builder.isBrokenDateAllowed();
         this.spotLag = builder.getSpotLag();
+        this.spotDateCache = builder.getSpotDateCacheCapacity() > 0 ? new SpotDateCache(builder.getSpotDateCacheCapacity()) : null;
+        this.nonWorkingDayMaskCache = builder.getNonWorkingDayMaskCache();
         this.adjustStartDateWithCcy1Ccy2 = builder.isAdjustStartDateWithCurrencyPair();
         this.useCrossCcyOnT_1ForCcy1 = builder.getCurrencyCalculatorConfig() != null
                 && builder.getCurrencyCalculatorConfig().getCurrenciesSubjectToCrossCcyForT1(crossCcy).contains(ccy1);
         this.useCrossCcyOnT_1ForCcy2 = builder.getCurrencyCalculatorConfig() != null
                 && builder.getCurrencyCalculatorConfig().getCurrenciesSubjectToCrossCcyForT1(crossCcy).contains(ccy2);
+        this.nonWorkingDayMaskUsed = isSnapshot(builder.getCcy1Calendar()) && isSnapshot(builder.getCcy2Calendar())
+                && isSnapshot(builder.getCrossCcyCalendar());
+        final EpochDayConverter<E> converter = getMaskConverter();
+        if (converter != null) {
+            this.nonWorkingDayMask = buildNonWorkingDayMask(converter, getCalendarsVersion());
+        }
+    }
+
+    /**
+     * @return true if the holidays of the calendar can only change with a new
+     *         version and isHoliday is not overridden.
+     */
+    private static boolean isSnapshot(final HolidayCalendar<?> calendar) {
+        return calendar == null || calendar instanceof VersionedHolidayCalendar || calendar instanceof RuleBasedHolidayCalendar
+                || (calendar.getClass() == ImmutableHolidayCalendar.class && ((ImmutableHolidayCalendar<?>) calendar).isSnapshot());
+    }
+
+    /**
+     * A versioned calendar is kept as is so that a new version registered
+     * with the factory is picked up.
+     */
+    private static <E extends Serializable> HolidayCalendar<E> readOnly(final HolidayCalendar<E> calendar) {
+        if (calendar instanceof VersionedHolidayCalendar || calendar instanceof RuleBasedHolidayCalendar) {
+            return calendar;
+        }
+        return new ImmutableHolidayCalendar<E>(calendar != null ? calendar : new DefaultHolidayCalendar<E>());
     }
 
     public boolean isUseCrossCcyOnT1ForCcy1() {
@@ -155,7 +206,15 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
         return !ww.isWorkingDayFromCalendar(calendarWeekDay(date)) || calendar != null && calendar.isHoliday(date);
     }
 
+    /**
+     * A single bit test on the NonWorkingDayMask if this calculator uses one.
+     */
     public boolean isNonWorkingDay(final E date) {
+        final EpochDayConverter<E> converter = getMaskConverter();
+        if (converter != null) {
+            return getNonWorkingDayMask(converter).isNonWorkingDay(converter.toEpochDay(date), brokenDateAllowed ? NonWorkingDayMask.CCY_PAIR
+                    : NonWorkingDayMask.CCY_PAIR_AND_CROSS_CCY);
+        }
         return isNonWorkingDay(date, ccy1Week, ccy1HolidayCalendar) || isNonWorkingDay(date, ccy2Week, ccy2HolidayCalendar)
                 || !brokenDateAllowed && isNonWorkingDay(date, crossCcyWeek, crossCcyHolidayCalendar);
     }
@@ -193,7 +252,73 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
         return date;
     }
 
+    /**
+     * @return the cache of Spot Dates per start date, null if disabled.
+     */
+    public SpotDateCache getSpotDateCache() {
+        return spotDateCache;
+    }
+
+    /**
+     * The Spot Date is calculated on epoch days if this calculator uses a
+     * NonWorkingDayMask.
+     */
     public E calculateSpotDate(final E startDate) {
+        final EpochDayConverter<E> converter = getMaskConverter();
+        if (converter == null) {
+            return calculateSpotDateDayByDay(startDate);
+        }
+        final int day = converter.toEpochDay(startDate);
+        return plusDays(startDate, calculateSpotDate(day, getNonWorkingDayMask(converter)) - day);
+    }
+
+    public int calculateSpotDate(final int startEpochDay) {
+        final EpochDayConverter<E> converter = requireEpochDayConverter();
+        if (!nonWorkingDayMaskUsed) {
+            return converter.toEpochDay(calculateSpotDateDayByDay(converter.fromEpochDay(startEpochDay)));
+        }
+        return calculateSpotDate(startEpochDay, getNonWorkingDayMask(converter));
+    }
+
+    public int[] calculateSpotDates(final int[] startEpochDays) {
+        final EpochDayConverter<E> converter = requireEpochDayConverter();
+        final int[] spotDays = new int[startEpochDays.length];
+        if (!nonWorkingDayMaskUsed) {
+            for (int i = 0; i < startEpochDays.length; i++) {
+                spotDays[i] = converter.toEpochDay(calculateSpotDateDayByDay(converter.fromEpochDay(startEpochDays[i])));
+            }
+            return spotDays;
+        }
+        final NonWorkingDayMask mask = getNonWorkingDayMask(converter);
+        for (int i = 0; i < startEpochDays.length; i++) {
+            spotDays[i] = calculateSpotDate(startEpochDays[i], mask);
+        }
+        return spotDays;
+    }
+
+    /**
+     * The Spot Date is cached per start date (as the number of days from the
+     * start date).
+     */
+    private int calculateSpotDate(final int startDay, final NonWorkingDayMask mask) {
+        if (spotDateCache == null) {
+            return calculateSpotDateDayByDay(startDay, mask);
+        }
+        final int offset = spotDateCache.get(startDay, mask.getVersion());
+        if (offset >= 0) {
+            return startDay + offset;
+        }
+        final int spotDay = calculateSpotDateDayByDay(startDay, mask);
+        spotDateCache.put(startDay, spotDay - startDay, mask.getVersion());
+        return spotDay;
+    }
+
+    private long getCalendarsVersion() {
+        return VersionedHolidayCalendar.versionOf(ccy1HolidayCalendar) + VersionedHolidayCalendar.versionOf(ccy2HolidayCalendar)
+                + VersionedHolidayCalendar.versionOf(crossCcyHolidayCalendar);
+    }
+
+    private E calculateSpotDateDayByDay(final E startDate) {
         E date = startDate;
         if (adjustStartDateWithCcy1Ccy2 || spotLag == SpotLag.T_0) {
             date = adjustToNextWorkingDateForCcyPairIfRequired(startDate);
@@ -249,12 +374,58 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
             throw new IllegalArgumentException("Tenor cannot be null");
         }
 
-        TenorCode tenorCode = tenor.getCode();
-        E date = startDate;
-        if (tenorCode != TenorCode.OVERNIGHT && tenorCode != TenorCode.TOM_NEXT /*&& spotLag != 0*/) {
-            // get to the Spot date first:
-            date = calculateSpotDate(date);
+        final EpochDayConverter<E> converter = getMaskConverter();
+        if (converter != null) {
+            final int day = converter.toEpochDay(startDate);
+            return plusDays(startDate, calculateTenorDate(day, tenor, getNonWorkingDayMask(converter)) - day);
+        }
+
+        // get to the Spot date first:
+        return calculateTenorDate(startDate, isFromSpot(tenor) ? calculateSpotDate(startDate) : startDate, tenor);
+    }
+
+    public int calculateTenorDate(final int startEpochDay, final Tenor tenor) {
+        if (tenor == null) {
+            throw new IllegalArgumentException("Tenor cannot be null");
         }
+        final EpochDayConverter<E> converter = requireEpochDayConverter();
+        if (!nonWorkingDayMaskUsed) {
+            return converter.toEpochDay(calculateTenorDate(converter.fromEpochDay(startEpochDay), tenor));
+        }
+        return calculateTenorDate(startEpochDay, tenor, getNonWorkingDayMask(converter));
+    }
+
+    public int[] calculateTenorDates(final int[] startEpochDays, final Tenor tenor) {
+        if (tenor == null) {
+            throw new IllegalArgumentException("Tenor cannot be null");
+        }
+        final EpochDayConverter<E> converter = requireEpochDayConverter();
+        final int[] tenorDays = new int[startEpochDays.length];
+        if (!nonWorkingDayMaskUsed) {
+            for (int i = 0; i < startEpochDays.length; i++) {
+                tenorDays[i] = converter.toEpochDay(calculateTenorDate(converter.fromEpochDay(startEpochDays[i]), tenor));
+            }
+            return tenorDays;
+        }
+        final NonWorkingDayMask mask = getNonWorkingDayMask(converter);
+        for (int i = 0; i < startEpochDays.length; i++) {
+            tenorDays[i] = calculateTenorDate(startEpochDays[i], tenor, mask);
+        }
+        return tenorDays;
+    }
+
+    private int calculateTenorDate(final int startDay, final Tenor tenor, final NonWorkingDayMask mask) {
+        // get to the Spot date first:
+        return calculateTenorDate(startDay, isFromSpot(tenor) ? calculateSpotDate(startDay, mask) : startDay, tenor, mask);
+    }
+
+    private static boolean isFromSpot(final Tenor tenor) {
+        return tenor.getCode() != TenorCode.OVERNIGHT && tenor.getCode() != TenorCode.TOM_NEXT /*&& spotLag != 0*/;
+    }
+
+    private E calculateTenorDate(final E startDate, final E spotDate, final Tenor tenor) {
+        TenorCode tenorCode = tenor.getCode();
+        final E date = isFromSpot(tenor) ? spotDate : startDate;
         int unit = tenor.getUnits();
         if (tenorCode == TenorCode.WEEK) {
             tenorCode = TenorCode.DAY;
@@ -312,11 +483,308 @@ public abstract class AbstractCurrencyDateCalculator<E extends Serializable> imp
 
     protected abstract E addMonths(E calc, int unit);
 
+    /**
+     * Moves a date by a number of days, used to return the date based results
+     * of the epoch day calculations; implementations should override this
+     * default, which moves day by day.
+     *
+     * @param date
+     *            the start date.
+     * @param days
+     *            the number of days (positive or 0).
+     * @return the date moved by that number of days.
+     */
+    protected E plusDays(final E date, final int days) {
+        E calc = date;
+        for (int i = 0; i < days; i++) {
+            calc = calculateNextDay(calc);
+        }
+        return calc;
+    }
+
+    /**
+     * Provides the converter used to index the business days of the currency
+     * pair.
+     *
+     * @return the converter for E, null if none (default).
+     */
+    protected EpochDayConverter<E> getEpochDayConverter() {
+        return null;
+    }
+
+    /**
+     * @return the converter if the NonWorkingDayMask is used, null otherwise.
+     */
+    private EpochDayConverter<E> getMaskConverter() {
+        return nonWorkingDayMaskUsed ? getEpochDayConverter() : null;
+    }
+
+    private EpochDayConverter<E> requireEpochDayConverter() {
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        if (converter == null) {
+            throw new UnsupportedOperationException("Epoch day calculations require an EpochDayConverter for " + getClass().getName());
+        }
+        return converter;
+    }
+
+    public int businessDaysBetween(final E start, final E end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end dates cannot be null");
+        }
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        if (converter == null) {
+            throw new UnsupportedOperationException("businessDaysBetween requires an EpochDayConverter for " + getClass().getName());
+        }
+        final int from = converter.toEpochDay(start);
+        final int to = converter.toEpochDay(end);
+        if (!nonWorkingDayMaskUsed) {
+            return to >= from ? countBusinessDays(converter, from, to) : -countBusinessDays(converter, to, from);
+        }
+        if (to >= from) {
+            return getBusinessDayIndex(converter, from, to).countWorkingDays(from, to);
+        }
+        return -getBusinessDayIndex(converter, to, from).countWorkingDays(to, from);
+    }
+
+    /**
+     * @return the number of business days in [from, to), asking the
+     *         calendars for each day.
+     */
+    private int countBusinessDays(final EpochDayConverter<E> converter, final int from, final int to) {
+        int count = 0;
+        for (int day = from; day < to; day++) {
+            if (!isNonWorkingDay(converter.fromEpochDay(day))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The index combines the working weeks and holidays of both currencies
+     * and, unless broken dates are allowed, the crossCcy; it is rebuilt if
+     * the requested days are outside it or if a new version of a calendar
+     * has been published.
+     */
+    private BusinessDayIndex getBusinessDayIndex(final EpochDayConverter<E> converter, final int fromDay, final int toDay) {
+        final long version = getCalendarsVersion();
+        final boolean sameVersion = version == businessDayIndexVersion;
+        BusinessDayIndex index = businessDayIndex;
+        if (index == null || !sameVersion || !index.covers(fromDay) || !index.covers(toDay)) {
+            EpochDayBitSet holidays = EpochDayBitSet.of(converter, ccy1HolidayCalendar).union(EpochDayBitSet.of(converter, ccy2HolidayCalendar));
+            WorkingWeek week = ccy1Week.intersection(ccy2Week);
+            if (!brokenDateAllowed) {
+                holidays = holidays.union(EpochDayBitSet.of(converter, crossCcyHolidayCalendar));
+                week = week.intersection(crossCcyWeek);
+            }
+            final int first = (holidays.isEmpty() ? fromDay : Math.min(fromDay, holidays.getFirstDay())) - BusinessDayIndex.DEFAULT_WINDOW_DAYS;
+            final int last = (holidays.isEmpty() ? toDay : Math.max(toDay, holidays.getLastDay())) + BusinessDayIndex.DEFAULT_WINDOW_DAYS;
+            index = new BusinessDayIndex(first, last, week, holidays);
+            businessDayIndex = index;
+            businessDayIndexVersion = version;
+        }
+        return index;
+    }
+
+    /**
+     * The Spot Date is calculated once for all tenors.
+     */
     public List<E> calculateTenorDates(final E startDate, final List<Tenor> tenors) {
-        final List<E> results = new ArrayList<E>();
+        final EpochDayConverter<E> converter = getMaskConverter();
+        if (converter != null) {
+            return calculateTenorDates(startDate, tenors, converter);
+        }
+        final List<E> results = new ArrayList<E>(tenors.size());
+        E spotDate = null;
         for (final Tenor tenor : tenors) {
-            results.add(calculateTenorDate(startDate, tenor));
+            if (tenor == null) {
+                throw new IllegalArgumentException("Tenor cannot be null");
+            }
+            if (spotDate == null && isFromSpot(tenor)) {
+                spotDate = calculateSpotDate(startDate);
+            }
+            results.add(calculateTenorDate(startDate, spotDate, tenor));
+        }
+        return results;
+    }
+
+    private List<E> calculateTenorDates(final E startDate, final List<Tenor> tenors, final EpochDayConverter<E> converter) {
+        final NonWorkingDayMask mask = getNonWorkingDayMask(converter);
+        final int startDay = converter.toEpochDay(startDate);
+        final List<E> results = new ArrayList<E>(tenors.size());
+        int spotDay = startDay;
+        boolean spotCalculated = false;
+        for (final Tenor tenor : tenors) {
+            if (tenor == null) {
+                throw new IllegalArgumentException("Tenor cannot be null");
+            }
+            if (!spotCalculated && isFromSpot(tenor)) {
+                spotDay = calculateSpotDate(startDay, mask);
+                spotCalculated = true;
+            }
+            results.add(plusDays(startDate, calculateTenorDate(startDay, spotDay, tenor, mask) - startDay));
         }
         return results;
     }
+
+    public TenorDateGrid<E> createTenorDateGrid(final E firstTradeDate, final int tradeDays, final List<Tenor> tenors) {
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        if (converter == null) {
+            throw new UnsupportedOperationException("A TenorDateGrid requires an EpochDayConverter for " + getClass().getName());
+        }
+        return new TenorDateGrid<E>(this, converter, new TenorDateGrid.DateMover<E>() {
+            public E plusDays(final E date, final int days) {
+                return AbstractCurrencyDateCalculator.this.plusDays(date, days);
+            }
+        }, tenors, firstTradeDate, tradeDays);
+    }
+
+    public TenorDateMatrix<E> calculateTenorDates(final List<E> startDates, final List<Tenor> tenors, final ExecutorService executor) {
+        return TenorDateMatrix.calculate(startDates, tenors, new TenorDateMatrix.RowCalculator<E>() {
+            public List<E> calculateTenorDates(final E startDate, final List<Tenor> rowTenors) {
+                return AbstractCurrencyDateCalculator.this.calculateTenorDates(startDate, rowTenors);
+            }
+        }, executor);
+    }
+
+    // -----------------------------------------------------------------------
+    //
+    // Epoch day calculations, same rules as the date based ones.
+    //
+    // -----------------------------------------------------------------------
+
+    /**
+     * @return the fused non working days of ccy1, ccy2 and the crossCcy
+     *         for the current version of the calendars, null if this
+     *         calculator has no EpochDayConverter or a calendar that is
+     *         neither versioned nor rule based.
+     */
+    public NonWorkingDayMask getNonWorkingDayMask() {
+        final EpochDayConverter<E> converter = getMaskConverter();
+        return converter != null ? getNonWorkingDayMask(converter) : null;
+    }
+
+    /**
+     * The mask is only rebuilt (or taken from the factory's cache) if a new
+     * version of a calendar is published.
+     */
+    private NonWorkingDayMask getNonWorkingDayMask(final EpochDayConverter<E> converter) {
+        final long version = getCalendarsVersion();
+        NonWorkingDayMask mask = nonWorkingDayMask;
+        if (mask == null || mask.getVersion() != version) {
+            mask = buildNonWorkingDayMask(converter, version);
+            nonWorkingDayMask = mask;
+        }
+        return mask;
+    }
+
+    private NonWorkingDayMask buildNonWorkingDayMask(final EpochDayConverter<E> converter, final long version) {
+        return nonWorkingDayMaskCache != null ? nonWorkingDayMaskCache.get(this, converter, version) : NonWorkingDayMask.of(this, converter, version);
+    }
+
+    private static int nextWorkingDay(final int startDay, final NonWorkingDayMask mask, final int flag) {
+        int day = startDay;
+        while (mask.isNonWorkingDay(day, flag)) {
+            day++;
+        }
+        return day;
+    }
+
+    private int calculateSpotDateDayByDay(final int startDay, final NonWorkingDayMask mask) {
+        int day = startDay;
+        if (adjustStartDateWithCcy1Ccy2 || spotLag == SpotLag.T_0) {
+            day = nextWorkingDay(startDay, mask, NonWorkingDayMask.CCY_PAIR);
+        }
+
+        final int spotDay = Math.max(calculateCcySpot(ccy1, day, NonWorkingDayMask.CCY1, NonWorkingDayMask.CCY1_WEEKEND, mask),
+                calculateCcySpot(ccy2, day, NonWorkingDayMask.CCY2, NonWorkingDayMask.CCY2_WEEKEND, mask));
+
+        return nextWorkingDay(spotDay, mask, brokenDateAllowed ? NonWorkingDayMask.CCY_PAIR : NonWorkingDayMask.CCY_PAIR_AND_CROSS_CCY);
+    }
+
+    private int calculateCcySpot(final String ccy, final int day, final int ccyFlag, final int ccyWeekendFlag, final NonWorkingDayMask mask) {
+        int calcSpot = day;
+
+        if (spotLag != SpotLag.T_0) {
+            if (spotLag == SpotLag.T_2) {
+                // crossCcy does not impact T+1
+                calcSpot = nextWorkingDay(calcSpot + 1, mask, crossCcy.equalsIgnoreCase(ccy) ? ccyWeekendFlag : ccyFlag);
+
+                if (useCrossCcyOnT_1ForCcy1 && ccy1.equals(ccy) || useCrossCcyOnT_1ForCcy2 && ccy2.equals(ccy)) {
+                    // move if USD is holiday
+                    calcSpot = nextWorkingDay(calcSpot, mask, NonWorkingDayMask.CROSS_CCY);
+                    // check that it is still ok for the original ccy
+                    calcSpot = nextWorkingDay(calcSpot, mask, ccyFlag);
+                }
+            }
+
+            // calculate T+2
+            calcSpot = nextWorkingDay(calcSpot + 1, mask, ccyFlag);
+        }
+        return calcSpot;
+    }
+
+    private int calculateTenorDate(final int startDay, final int spotDay, final Tenor tenor, final NonWorkingDayMask mask) {
+        TenorCode tenorCode = tenor.getCode();
+        final int day = isFromSpot(tenor) ? spotDay : startDay;
+        int unit = tenor.getUnits();
+        if (tenorCode == TenorCode.WEEK) {
+            tenorCode = TenorCode.DAY;
+            unit *= DAYS_IN_WEEK;
+        }
+
+        if (tenorCode == TenorCode.YEAR) {
+            tenorCode = TenorCode.MONTH;
+            unit *= MONTHS_IN_YEAR;
+        }
+
+        switch (tenorCode) {
+        case OVERNIGHT:
+        case SPOT_NEXT:
+            return adjustForCcyPairIfRequired(day + 1, mask);
+        case TOM_NEXT:
+            return adjustForCcyPairIfRequired(day + 2, mask);
+        case SPOT:
+            return day;
+        case DAY:
+            return adjustForCcyPairIfRequired(day + Math.max(unit, 0), mask);
+        case MONTH:
+            return adjustForCcyPairIfRequired(EpochDayUtil.plusMonths(day, unit), mask);
+        default:
+            throw new UnsupportedOperationException("Sorry not yet...");
+        }
+    }
+
+    /**
+     * The tenor holiday handler is always used forward, the standard types
+     * are applied on epoch days, any other handler is given a date.
+     */
+    private int adjustForCcyPairIfRequired(final int startDay, final NonWorkingDayMask mask) {
+        final String type = holidayHandler.getType();
+        final int flag = brokenDateAllowed ? NonWorkingDayMask.CCY_PAIR : NonWorkingDayMask.CCY_PAIR_AND_CROSS_CCY;
+        if (HolidayHandlerType.MODIFIED_FOLLOWING.equals(type) || HolidayHandlerType.MODIFIED_PRECEDING.equals(type)) {
+            return adjustModifiedFollowing(startDay, mask, flag);
+        }
+        if (HolidayHandlerType.FORWARD.equals(type) || HolidayHandlerType.BACKWARD.equals(type)
+                || HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK.equals(type)) {
+            return nextWorkingDay(startDay, mask, flag);
+        }
+        final EpochDayConverter<E> converter = getEpochDayConverter();
+        return converter.toEpochDay(holidayHandler.adjustDate(converter.fromEpochDay(startDay), 1, this));
+    }
+
+    private static int adjustModifiedFollowing(final int startDay, final NonWorkingDayMask mask, final int flag) {
+        int day = startDay;
+        int step = 1;
+        final int month = EpochDayUtil.getMonth(startDay);
+        while (mask.isNonWorkingDay(day, flag)) {
+            day += step;
+            if (month != EpochDayUtil.getMonth(day)) {
+                // switch direction and go back
+                step *= -1;
+                day += step;
+            }
+        }
+        return day;
+    }
 }
@@ -21,6 +21,7 @@ import net.objectlab.kit.datecalc.common.WorkingWeek;
 public class DefaultCurrencyCalculatorConfig implements CurrencyCalculatorConfig {
     private Map<String, Set<String>> currenciesSubjectToCrossCcyForT1 = new HashMap<String, Set<String>>();
     private Map<String, WorkingWeek> workingWeeks = new HashMap<String, WorkingWeek>();
+    private volatile long version;
 
     public DefaultCurrencyCalculatorConfig() {
         super();
@@ -49,6 +50,7 @@ public class DefaultCurrencyCalculatorConfig implements CurrencyCalculatorConfig
             copy.putAll(currenciesSubjectToCrossCcyForT1);
         }
         this.currenciesSubjectToCrossCcyForT1 = copy;
+        version++;
     }
 
     /**
@@ -58,6 +60,16 @@ public class DefaultCurrencyCalculatorConfig implements CurrencyCalculatorConfig
         final Map<String, WorkingWeek> ww = new HashMap<String, WorkingWeek>();
         ww.putAll(workingWeeks);
         this.workingWeeks = ww;
+        version++;
+    }
+
+    /**
+     * @return a number incremented each time a setter replaces part of the config, used by the factories to know
+     * if a cached calculator is still valid.
+     * @since 1.4.0
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
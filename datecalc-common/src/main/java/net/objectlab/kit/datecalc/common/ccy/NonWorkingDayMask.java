@@ -0,0 +1,161 @@
+package net.objectlab.kit.datecalc.common.ccy;
+
+import java.io.Serializable;
+
+import net.objectlab.kit.datecalc.common.EpochDayBitSet;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayUtil;
+
+/**
+ * The non working days of a currency pair and its crossCcy, fused in one
+ * byte of flags per epoch day so that any check done by the currency
+ * calculator is a single bit test.
+ * <p>
+ * The flags combine the working week and the holidays: a day is flagged
+ * {@link #CCY_PAIR} if it is not a working day for ccy1 or ccy2 and
+ * {@link #CCY_PAIR_AND_CROSS_CCY} if it is not a working day for any of
+ * them. Outside the range of the holidays only the working weeks apply and
+ * the flags come from the day of the week.
+ * </p>
+ * <p>
+ * A mask is immutable and built for a version of the calendars; the
+ * calculators of a factory using the same calendars and working weeks share
+ * it through the factory's {@link NonWorkingDayMaskCache} and replace it when
+ * a new version of a calendar is published.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class NonWorkingDayMask {
+    /** Not a working day for ccy1. */
+    public static final int CCY1 = 1;
+
+    /** Not a working day for ccy2. */
+    public static final int CCY2 = 1 << 1;
+
+    /** Not a working day for the crossCcy. */
+    public static final int CROSS_CCY = 1 << 2;
+
+    /** Not a working day for ccy1 or ccy2. */
+    public static final int CCY_PAIR = 1 << 3;
+
+    /** Not a working day for ccy1, ccy2 or the crossCcy. */
+    public static final int CCY_PAIR_AND_CROSS_CCY = 1 << 4;
+
+    /** Not in the working week of ccy1, whatever its holidays. */
+    public static final int CCY1_WEEKEND = 1 << 5;
+
+    /** Not in the working week of ccy2, whatever its holidays. */
+    public static final int CCY2_WEEKEND = 1 << 6;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    private final long version;
+
+    private final int firstDay;
+
+    private final byte[] days;
+
+    private final byte[] weekDays;
+
+    private NonWorkingDayMask(final long version, final int firstDay, final byte[] days, final byte[] weekDays) {
+        this.version = version;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.weekDays = weekDays;
+    }
+
+    /**
+     * Builds the mask from the calendars and working weeks of the calculator.
+     *
+     * @param version
+     *            the version of the calendars.
+     */
+    static <E extends Serializable> NonWorkingDayMask of(final AbstractCurrencyDateCalculator<E> calculator, final EpochDayConverter<E> converter,
+            final long version) {
+        final EpochDayBitSet ccy1 = EpochDayBitSet.of(converter, calculator.getCcy1Calendar());
+        final EpochDayBitSet ccy2 = EpochDayBitSet.of(converter, calculator.getCcy2Calendar());
+        final EpochDayBitSet crossCcy = EpochDayBitSet.of(converter, calculator.getCrossCcyCalendar());
+
+        final byte[] weekDays = new byte[DAYS_IN_WEEK];
+        for (int dayOfWeek = 1; dayOfWeek <= DAYS_IN_WEEK; dayOfWeek++) {
+            int flags = 0;
+            if (!calculator.getCcy1Week().isWorkingDayFromCalendar(dayOfWeek)) {
+                flags |= CCY1 | CCY1_WEEKEND | CCY_PAIR | CCY_PAIR_AND_CROSS_CCY;
+            }
+            if (!calculator.getCcy2Week().isWorkingDayFromCalendar(dayOfWeek)) {
+                flags |= CCY2 | CCY2_WEEKEND | CCY_PAIR | CCY_PAIR_AND_CROSS_CCY;
+            }
+            if (calculator.getCrossCcyWeek() != null && !calculator.getCrossCcyWeek().isWorkingDayFromCalendar(dayOfWeek)) {
+                flags |= CROSS_CCY | CCY_PAIR_AND_CROSS_CCY;
+            }
+            weekDays[dayOfWeek - 1] = (byte) flags;
+        }
+
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (final EpochDayBitSet holidays : new EpochDayBitSet[] { ccy1, ccy2, crossCcy }) {
+            if (!holidays.isEmpty()) {
+                first = Math.min(first, holidays.getFirstDay());
+                last = Math.max(last, holidays.getLastDay());
+            }
+        }
+        if (first > last) {
+            return new NonWorkingDayMask(version, 0, new byte[0], weekDays);
+        }
+        final byte[] days = new byte[last - first + 1];
+        for (int day = first; day <= last; day++) {
+            int flags = weekDays[EpochDayUtil.getCalendarDayOfWeek(day) - 1];
+            if (ccy1.contains(day)) {
+                flags |= CCY1 | CCY_PAIR | CCY_PAIR_AND_CROSS_CCY;
+            }
+            if (ccy2.contains(day)) {
+                flags |= CCY2 | CCY_PAIR | CCY_PAIR_AND_CROSS_CCY;
+            }
+            if (crossCcy.contains(day)) {
+                flags |= CROSS_CCY | CCY_PAIR_AND_CROSS_CCY;
+            }
+            days[day - first] = (byte) flags;
+        }
+        return new NonWorkingDayMask(version, first, days, weekDays);
+    }
+
+    /**
+     * @param epochDay
+     *            the number of days since 1970-01-01
+     * @param flag
+     *            one or more of the flags of this class.
+     * @return true if any of the given flags is set for that day.
+     */
+    public boolean isNonWorkingDay(final int epochDay, final int flag) {
+        final int index = epochDay - firstDay;
+        if (index >= 0 && index < days.length) {
+            return (days[index] & flag) != 0;
+        }
+        return (weekDays[EpochDayUtil.getCalendarDayOfWeek(epochDay) - 1] & flag) != 0;
+    }
+
+    /**
+     * @return the version of the calendars used to build this mask.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the first day covered by holidays, the working weeks apply
+     *         before it.
+     */
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return the last day covered by holidays, the working weeks apply
+     *         after it.
+     */
+    public int getLastDay() {
+        return firstDay + days.length - 1;
+    }
+}
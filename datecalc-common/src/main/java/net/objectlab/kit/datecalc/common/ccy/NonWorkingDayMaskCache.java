@@ -0,0 +1,126 @@
+package net.objectlab.kit.datecalc.common.ccy;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
+import net.objectlab.kit.datecalc.common.ReadOnlyHolidayCalendar;
+import net.objectlab.kit.datecalc.common.VersionedHolidayCalendar;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+/**
+ * The NonWorkingDayMasks of a factory, shared by its currency calculators
+ * using the same registered calendars, versions and working weeks.
+ * <p>
+ * A mask is only cached if each calendar is a registered
+ * {@link VersionedHolidayCalendar}; a calculator built with any other
+ * calendar, even an empty one, gets its own mask. The factory clears the cache
+ * whenever a calendar is registered or unregistered so it never holds on to
+ * a calendar that is no longer registered.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class NonWorkingDayMaskCache {
+    private final ConcurrentMap<Key, NonWorkingDayMask> masks = new ConcurrentHashMap<Key, NonWorkingDayMask>();
+
+    /**
+     * @return the cached mask for the calendars and working weeks of the
+     *         calculator, built if needed.
+     */
+    <E extends Serializable> NonWorkingDayMask get(final AbstractCurrencyDateCalculator<E> calculator, final EpochDayConverter<E> converter,
+            final long version) {
+        final Key key = Key.of(calculator);
+        if (key == null) {
+            return NonWorkingDayMask.of(calculator, converter, version);
+        }
+        final NonWorkingDayMask existing = masks.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        final NonWorkingDayMask mask = NonWorkingDayMask.of(calculator, converter, version);
+        final NonWorkingDayMask previous = masks.putIfAbsent(key, mask);
+        return previous != null ? previous : mask;
+    }
+
+    public void clear() {
+        masks.clear();
+    }
+
+    /**
+     * @return the number of cached masks.
+     */
+    public int size() {
+        return masks.size();
+    }
+
+    /**
+     * The registered calendars, their versions and the working days of ccy1,
+     * ccy2 and the crossCcy.
+     */
+    private static final class Key {
+        private final ReadOnlyHolidayCalendar<?>[] calendars;
+
+        private final long[] versions;
+
+        private final byte[] workingDays;
+
+        private final int hashCode;
+
+        private Key(final ReadOnlyHolidayCalendar<?>[] calendars, final long[] versions, final byte[] workingDays) {
+            this.calendars = calendars;
+            this.versions = versions;
+            this.workingDays = workingDays;
+            int hash = Arrays.hashCode(versions) * 31 + Arrays.hashCode(workingDays);
+            for (final ReadOnlyHolidayCalendar<?> calendar : calendars) {
+                hash = hash * 31 + System.identityHashCode(calendar);
+            }
+            this.hashCode = hash;
+        }
+
+        /**
+         * @return the key, null if a calendar is not a
+         *         VersionedHolidayCalendar: without a version there is no way
+         *         to tell that its holidays have not changed.
+         */
+        private static Key of(final AbstractCurrencyDateCalculator<?> calculator) {
+            final ReadOnlyHolidayCalendar<?>[] calendars = new ReadOnlyHolidayCalendar<?>[] { calculator.getCcy1Calendar(),
+                    calculator.getCcy2Calendar(), calculator.getCrossCcyCalendar() };
+            final long[] versions = new long[calendars.length];
+            for (int i = 0; i < calendars.length; i++) {
+                if (!(calendars[i] instanceof VersionedHolidayCalendar)) {
+                    return null;
+                }
+                versions[i] = ((VersionedHolidayCalendar<?>) calendars[i]).getVersion();
+            }
+            return new Key(calendars, versions, new byte[] { workingDays(calculator.getCcy1Week()), workingDays(calculator.getCcy2Week()),
+                    workingDays(calculator.getCrossCcyWeek()) });
+        }
+
+        private static byte workingDays(final WorkingWeek week) {
+            return week != null ? week.getWorkingDays() : 0;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            for (int i = 0; i < calendars.length; i++) {
+                if (calendars[i] != other.calendars[i]) {
+                    return false;
+                }
+            }
+            return Arrays.equals(versions, other.versions) && Arrays.equals(workingDays, other.workingDays);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package net.objectlab.kit.datecalc.common.ccy;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock free cache of the number of days between a start date and
+ * its Spot Date, keyed by the epoch day of the start date.
+ * <p>
+ * The cache is direct mapped: a start date always goes in the same slot
+ * (epoch day modulo the capacity), so consecutive trade dates never evict
+ * each other and a lookup is a single array read. Each slot packs the epoch
+ * day and the offset in one long so a reader never sees half an entry.
+ * The entries are dropped when the version of the holiday calendars changes.
+ * </p>
+ * <p>
+ * The hit and miss counters are off by default, once enabled every lookup
+ * updates a shared counter so they are meant for diagnostics only.
+ * </p>
+ *
+ * @author Benoit Xhenseval
+ * @since 1.4.0
+ */
+public final class SpotDateCache implements Serializable {
+    private static final long serialVersionUID = 4417226911508826164L;
+
+    /** Default number of start dates, a bit less than 3 years. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final long EMPTY = 0L;
+
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+    private final int mask;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile boolean statisticsEnabled;
+
+    private volatile Slots slots;
+
+    /**
+     * @param capacity
+     *            the maximum number of start dates, rounded up to a power of
+     *            two.
+     */
+    public SpotDateCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        slots = new Slots(0, size);
+    }
+
+    /**
+     * @param epochDay
+     *            the start date
+     * @param version
+     *            the current version of the holiday calendars
+     * @return the number of days to the Spot Date, -1 if not cached.
+     */
+    public int get(final int epochDay, final long version) {
+        final Slots current = slots;
+        if (current.version == version) {
+            final long entry = current.entries.get(epochDay & mask);
+            if (entry != EMPTY && (int) (entry >> Integer.SIZE) == epochDay) {
+                if (statisticsEnabled) {
+                    hits.incrementAndGet();
+                }
+                return (int) (entry & OFFSET_MASK) - 1;
+            }
+        }
+        if (statisticsEnabled) {
+            misses.incrementAndGet();
+        }
+        return -1;
+    }
+
+    /**
+     * @param epochDay
+     *            the start date
+     * @param offset
+     *            the number of days to the Spot Date, 0 or more.
+     * @param version
+     *            the version of the holiday calendars used to calculate it
+     */
+    public void put(final int epochDay, final int offset, final long version) {
+        Slots current = slots;
+        if (current.version != version) {
+            current = new Slots(version, mask + 1);
+            slots = current;
+        }
+        // offset + 1 so that an entry is never EMPTY
+        current.entries.set(epochDay & mask, (long) epochDay << Integer.SIZE | offset + 1);
+    }
+
+    /**
+     * Removes all entries, the counters are kept.
+     */
+    public void clear() {
+        slots = new Slots(slots.version, mask + 1);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @param enabled
+     *            true to count the hits and misses from now on.
+     */
+    public void setStatisticsEnabled(final boolean enabled) {
+        statisticsEnabled = enabled;
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    /**
+     * @return the number of lookups that found the start date whilst the
+     *         statistics were enabled.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups that did not find the start date whilst
+     *         the statistics were enabled.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static final class Slots implements Serializable {
+        private static final long serialVersionUID = -5094357727106470223L;
+
+        private final long version;
+
+        private final AtomicLongArray entries;
+
+        private Slots(final long version, final int size) {
+            this.version = version;
+            this.entries = new AtomicLongArray(size);
+        }
+    }
+}
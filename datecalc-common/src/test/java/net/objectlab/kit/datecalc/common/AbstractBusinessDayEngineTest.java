@@ -0,0 +1,312 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks that the BusinessDayEngine gives the same results as the
+ * DateCalculator.
+ */
+public abstract class AbstractBusinessDayEngineTest<E extends Serializable> extends AbstractDateTestCase<E> {
+
+    private static final int[] STEPS = { 0, 1, 3, 22 };
+
+    private static final String CALENDAR = "ENGINE";
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        registerHolidays(CALENDAR, createEngineTestCalendar());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        getDateCalculatorFactory().unregisterHolidayCalendar(CALENDAR);
+        super.tearDown();
+    }
+
+    public void testAddBusinessDaysForward() {
+        checkAddBusinessDays(HolidayHandlerType.FORWARD, 1);
+    }
+
+    public void testAddBusinessDaysBackward() {
+        checkAddBusinessDays(HolidayHandlerType.BACKWARD, -1);
+    }
+
+    public void testAddBusinessDaysForwardUnlessMovingBack() {
+        checkAddBusinessDays(HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK, 1);
+        checkAddBusinessDays(HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK, -1);
+    }
+
+    public void testAddBusinessDaysModifiedFollowing() {
+        checkAddBusinessDays(HolidayHandlerType.MODIFIED_FOLLOWING, 1);
+    }
+
+    public void testAddBusinessDaysModifiedPreceding() {
+        checkAddBusinessDays(HolidayHandlerType.MODIFIED_PRECEDING, -1);
+    }
+
+    public void testAddBusinessDaysNoHandler() {
+        checkAddBusinessDays(null, 1);
+        checkAddBusinessDays(null, -1);
+    }
+
+    public void testInvalidDirection() {
+        try {
+            getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, HolidayHandlerType.FORWARD).addBusinessDays(newDate("2006-08-24"), -1);
+            fail("Forward engine should not move back");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testTenorsForward() {
+        checkTenors(HolidayHandlerType.FORWARD);
+    }
+
+    public void testTenorsModifiedFollowing() {
+        checkTenors(HolidayHandlerType.MODIFIED_FOLLOWING);
+    }
+
+    public void testTenorsNoHandler() {
+        checkTenors(null);
+    }
+
+    public void testTenorDateMatrix() {
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, HolidayHandlerType.MODIFIED_FOLLOWING);
+        final List<Tenor> tenors = createTenors();
+        final List<E> startDates = new ArrayList<E>();
+        for (int day = EpochDayUtil.toEpochDay(2006, 1, 2); day < EpochDayUtil.toEpochDay(2007, 1, 1); day++) {
+            startDates.add(newDate(toIsoDate(day)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final TenorDateMatrix<E> matrix = engine.calculateTenorDates(startDates, tenors, 2, executor);
+            assertEquals("Rows", startDates.size(), matrix.getRowCount());
+            assertEquals("Columns", tenors.size(), matrix.getColumnCount());
+            for (int row = 0; row < startDates.size(); row++) {
+                assertEquals("From " + startDates.get(row), engine.calculateTenorDates(startDates.get(row), tenors, 2), matrix.getRow(row));
+            }
+            assertEquals("Same in one thread", matrix.getRow(100), engine.calculateTenorDates(startDates, tenors, 2, null).getRow(100));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testTenorDateMatrixBoundary() {
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, HolidayHandlerType.FORWARD);
+        final List<E> startDates = new ArrayList<E>();
+        startDates.add(newDate("2006-08-24"));
+        startDates.add(newDate("2005-12-30"));
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            engine.calculateTenorDates(startDates, createTenors(), 2, executor);
+            fail("Before the early boundary");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testAdjust() {
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, HolidayHandlerType.MODIFIED_FOLLOWING);
+        checkDate("Working day", engine.adjust(newDate("2006-08-24")), "2006-08-24");
+        checkDate("Holiday", engine.adjust(newDate("2006-08-28")), "2006-08-29");
+        checkDate("Month end", engine.adjust(newDate("2006-09-30")), "2006-09-29");
+        assertTrue("Holiday", engine.isNonWorkingDay(newDate("2006-08-28")));
+        assertTrue("Weekend", engine.isNonWorkingDay(newDate("2006-08-27")));
+        assertFalse("Working day", engine.isNonWorkingDay(newDate("2006-08-29")));
+
+        final BusinessDayEngine<E> noHandler = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, null);
+        checkDate("No handler", noHandler.adjust(newDate("2006-08-28")), "2006-08-28");
+        assertEquals("Business days", 3, noHandler.businessDaysBetween(newDate("2006-08-24"), newDate("2006-08-30")));
+    }
+
+    public void testBoundary() {
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, HolidayHandlerType.FORWARD);
+        try {
+            engine.adjust(newDate("2005-12-31"));
+            fail("Before the early boundary");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    public void testFactoryEngineIsCached() {
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, HolidayHandlerType.FORWARD);
+        assertSame("Cached", engine, getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, HolidayHandlerType.FORWARD));
+        assertEquals("Type", HolidayHandlerType.FORWARD, engine.getHolidayHandlerType());
+
+        registerHolidays(CALENDAR, createUSHolidayCalendar());
+        final BusinessDayEngine<E> updated = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, HolidayHandlerType.FORWARD);
+        assertNotSame("New calendar", engine, updated);
+        assertTrue("US holiday", updated.isNonWorkingDay(newDate("2006-07-04")));
+    }
+
+    public void testCalculatorEngine() {
+        final DateCalculator<E> calc = newCalculator(HolidayHandlerType.FORWARD, "2006-08-24");
+        final BusinessDayEngine<E> engine = calc.getBusinessDayEngine();
+        assertSame("Same engine", engine, calc.getBusinessDayEngine());
+        checkDate("Thu + 2", engine.addBusinessDays(newDate("2006-08-24"), 2), "2006-08-29");
+        checkDate("Calculator not moved", calc, "2006-08-24");
+
+        calc.setHolidayCalendar(null);
+        final BusinessDayEngine<E> noHoliday = calc.getBusinessDayEngine();
+        assertNotSame("New engine", engine, noHoliday);
+        checkDate("Thu + 2 no holiday", noHoliday.addBusinessDays(newDate("2006-08-24"), 2), "2006-08-28");
+        checkDate("Thu + 2 unchanged", engine.addBusinessDays(newDate("2006-08-24"), 2), "2006-08-29");
+    }
+
+    public void testIndexExtendsPreviousRange() {
+        final DateCalculator<E> calc = newCalculator(HolidayHandlerType.FORWARD, "2006-08-24");
+        calc.setHolidayCalendar(null);
+        final BusinessDayEngine<E> engine = calc.getBusinessDayEngine();
+        final int near = EpochDayUtil.toEpochDay(2006, 8, 24);
+        final int far = EpochDayUtil.toEpochDay(2060, 1, 5);
+
+        final BusinessDayIndex nearIndex = engine.getBusinessDayIndex(near, near);
+        assertFalse("Far day outside the window", nearIndex.covers(far));
+        final BusinessDayIndex farIndex = engine.getBusinessDayIndex(far, far);
+        assertTrue("Previous range kept", farIndex.covers(near));
+        assertSame("Not rebuilt", farIndex, engine.getBusinessDayIndex(near, near));
+        assertSame("Not rebuilt", farIndex, engine.getBusinessDayIndex(far, far));
+    }
+
+    private void checkAddBusinessDays(final String holidayHandlerType, final int direction) {
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, holidayHandlerType);
+        final int end = EpochDayUtil.toEpochDay(2007, 1, 1);
+        // without handler the calculators do not check the boundaries on each
+        // step, so stay clear of the early boundary when moving back.
+        final int first = holidayHandlerType == null && direction < 0 ? EpochDayUtil.toEpochDay(2006, 3, 1) : EpochDayUtil.toEpochDay(2006, 1, 2);
+        for (int day = first; day < end; day++) {
+            final String start = toIsoDate(day);
+            for (final int step : STEPS) {
+                final Object expected = move(newCalculator(holidayHandlerType, start), step * direction);
+                Object actual;
+                try {
+                    actual = engine.addBusinessDays(newDate(start), step * direction);
+                } catch (final IndexOutOfBoundsException e) {
+                    actual = e.getClass();
+                }
+                assertEquals(holidayHandlerType + " from " + start + " by " + step * direction, expected, actual);
+            }
+        }
+    }
+
+    private void checkTenors(final String holidayHandlerType) {
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, holidayHandlerType);
+        final List<Tenor> tenors = createTenors();
+
+        final int end = EpochDayUtil.toEpochDay(2007, 1, 1);
+        for (int day = EpochDayUtil.toEpochDay(2006, 1, 2); day < end; day++) {
+            final String start = toIsoDate(day);
+            final List<E> expected = new ArrayList<E>();
+            for (final Tenor tenor : tenors) {
+                expected.add(newCalculator(holidayHandlerType, start).moveByTenor(tenor, 2).getCurrentBusinessDate());
+            }
+            assertEquals(holidayHandlerType + " from " + start, expected, engine.calculateTenorDates(newDate(start), tenors, 2));
+            assertEquals(holidayHandlerType + " 3M from " + start, expected.get(7), engine.addTenor(newDate(start), StandardTenor.T_3M, 2));
+            assertEquals(holidayHandlerType + " calculator from " + start, expected, newCalculator(holidayHandlerType, start).calculateTenorDates(
+                    tenors, 2));
+        }
+    }
+
+    private List<Tenor> createTenors() {
+        final List<Tenor> tenors = new ArrayList<Tenor>();
+        tenors.add(StandardTenor.OVERNIGHT);
+        tenors.add(new Tenor(0, TenorCode.TOM_NEXT));
+        tenors.add(StandardTenor.SPOT);
+        tenors.add(new Tenor(0, TenorCode.SPOT_NEXT));
+        tenors.add(new Tenor(3, TenorCode.DAY));
+        tenors.add(StandardTenor.T_1W);
+        tenors.add(StandardTenor.T_1M);
+        tenors.add(StandardTenor.T_3M);
+        tenors.add(StandardTenor.T_1Y);
+        return tenors;
+    }
+
+    private Object move(final DateCalculator<E> calc, final int businessDays) {
+        try {
+            return calc.moveByBusinessDays(businessDays).getCurrentBusinessDate();
+        } catch (final IndexOutOfBoundsException e) {
+            return e.getClass();
+        }
+    }
+
+    private DateCalculator<E> newCalculator(final String holidayHandlerType, final String start) {
+        final DateCalculator<E> calc = newDateCalculator(CALENDAR, holidayHandlerType);
+        calc.setStartDate(newDate(start));
+        return calc;
+    }
+
+    /**
+     * UK holidays plus some at the start/end of months to exercise the
+     * modified handlers.
+     */
+    private HolidayCalendar<E> createEngineTestCalendar() {
+        final Set<E> holidays = createUKHolidays();
+        holidays.add(newDate("2006-03-31"));
+        holidays.add(newDate("2006-06-01"));
+        holidays.add(newDate("2006-06-02"));
+        return new DefaultHolidayCalendar<E>(holidays, newDate("2006-01-01"), newDate("2020-12-31"));
+    }
+
+    private static String toIsoDate(final int epochDay) {
+        return String.format("%04d-%02d-%02d", EpochDayUtil.getYear(epochDay), EpochDayUtil.getMonth(epochDay), EpochDayUtil.getDayOfMonth(epochDay));
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -0,0 +1,220 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.Calendar;
+import java.util.Set;
+
+/**
+ * Checks that the indexed moveByBusinessDays gives the same results as the
+ * step by step algorithm.
+ */
+public abstract class AbstractBusinessDayIndexTest<E extends Serializable> extends AbstractDateTestCase<E> {
+
+    private static final int[] STEPS = { 1, 3, 22, 130 };
+
+    public void testForward() {
+        checkSameAsStepByStep(HolidayHandlerType.FORWARD, 1);
+    }
+
+    public void testBackward() {
+        checkSameAsStepByStep(HolidayHandlerType.BACKWARD, -1);
+    }
+
+    public void testForwardUnlessMovingBack() {
+        checkSameAsStepByStep(HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK, 1);
+        checkSameAsStepByStep(HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK, -1);
+    }
+
+    public void testModifiedFollowing() {
+        checkSameAsStepByStep(HolidayHandlerType.MODIFIED_FOLLOWING, 1);
+    }
+
+    public void testModifiedPreceding() {
+        checkSameAsStepByStep(HolidayHandlerType.MODIFIED_PRECEDING, -1);
+    }
+
+    public void testNoHandler() {
+        checkSameAsStepByStep(null, 1);
+        checkSameAsStepByStep(null, -1);
+    }
+
+    public void testIndexRebuiltOnWorkingWeekChange() {
+        final DateCalculator<E> indexed = newCalculator(HolidayHandlerType.FORWARD, createIndexTestCalendar(), "2006-08-24");
+        indexed.setBusinessDayIndexEnabled(true);
+        checkDate("Thu + 2", indexed.moveByBusinessDays(2), "2006-08-29");
+
+        indexed.setWorkingWeek(getWorkingWeek(WorkingWeek.DEFAULT.withWorkingDayFromCalendar(true, Calendar.SATURDAY)));
+        indexed.setStartDate(newDate("2006-08-24"));
+        checkDate("Thu + 2 with Saturday", indexed.moveByBusinessDays(2), "2006-08-26");
+    }
+
+    public void testIndexRebuiltOnHolidayCalendarChange() {
+        final DateCalculator<E> indexed = newCalculator(HolidayHandlerType.FORWARD, createIndexTestCalendar(), "2006-08-24");
+        indexed.setBusinessDayIndexEnabled(true);
+        checkDate("Thu + 2", indexed.moveByBusinessDays(2), "2006-08-29");
+
+        indexed.setHolidayCalendar(null);
+        indexed.setStartDate(newDate("2006-08-24"));
+        checkDate("Thu + 2 no holiday", indexed.moveByBusinessDays(2), "2006-08-28");
+    }
+
+    public void testBusinessDaysBetween() {
+        final DateCalculator<E> calc = newCalculator(HolidayHandlerType.FORWARD, createIndexTestCalendar(), "2006-08-24");
+        assertEquals("Same day", 0, calc.businessDaysBetween(newDate("2006-08-24"), newDate("2006-08-24")));
+        assertEquals("Thu to Wed", 3, calc.businessDaysBetween(newDate("2006-08-24"), newDate("2006-08-30")));
+        assertEquals("Wed to Thu", -3, calc.businessDaysBetween(newDate("2006-08-30"), newDate("2006-08-24")));
+        assertEquals("Sat to Tue", 0, calc.businessDaysBetween(newDate("2006-08-26"), newDate("2006-08-29")));
+        assertEquals("Year 2006", 254, calc.businessDaysBetween(newDate("2006-01-01"), newDate("2007-01-01")));
+    }
+
+    public void testBusinessDaysBetweenSameAsDayByDay() {
+        final DateCalculator<E> calc = newCalculator(HolidayHandlerType.FORWARD, createIndexTestCalendar(), "2006-01-02");
+        final int end = EpochDayUtil.toEpochDay(2007, 1, 1);
+        for (int from = EpochDayUtil.toEpochDay(2006, 1, 1); from < end; from += 11) {
+            final E start = newDate(toIsoDate(from));
+            int expected = 0;
+            for (int to = from; to < end; to++) {
+                final E date = newDate(toIsoDate(to));
+                assertEquals("From " + start + " to " + date, expected, calc.businessDaysBetween(start, date));
+                assertEquals("From " + date + " to " + start, -expected, calc.businessDaysBetween(date, start));
+                if (!calc.isNonWorkingDay(date)) {
+                    expected++;
+                }
+            }
+        }
+    }
+
+    public void testBusinessDaysBetweenWithNullDate() {
+        final DateCalculator<E> calc = newCalculator(HolidayHandlerType.FORWARD, createIndexTestCalendar(), "2006-08-24");
+        try {
+            calc.businessDaysBetween(null, newDate("2006-08-24"));
+            fail("null start date should throw IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testAdjustSameAsDayByDay() {
+        final String[] types = { HolidayHandlerType.FORWARD, HolidayHandlerType.BACKWARD, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK,
+                HolidayHandlerType.MODIFIED_FOLLOWING, HolidayHandlerType.MODIFIED_PRECEDING };
+        final HolidayCalendar<E> holidays = createIndexTestCalendar();
+        final int end = EpochDayUtil.toEpochDay(2007, 1, 1);
+        for (final String type : types) {
+            final DateCalculator<E> dayByDay = newCalculator(type, holidays, "2006-01-02");
+            final DateCalculator<E> indexed = newCalculator(type, holidays, "2006-01-02").setBusinessDayIndexEnabled(true);
+            final BusinessDayEngine<E> engine = indexed.getBusinessDayEngine();
+            for (int day = EpochDayUtil.toEpochDay(2006, 1, 3); day < end; day++) {
+                final E date = newDate(toIsoDate(day));
+                final E expected = dayByDay.setStartDate(date).getCurrentBusinessDate();
+                assertEquals(type + " adjust " + date, expected, indexed.setStartDate(date).getCurrentBusinessDate());
+                assertEquals(type + " engine adjust " + date, expected, engine.adjust(date));
+            }
+        }
+    }
+
+    public void testAdjustOutsideIndexChecksDayByDay() {
+        final DateCalculator<E> indexed = newCalculator(HolidayHandlerType.FORWARD, createIndexTestCalendar(), "2006-08-24")
+                .setBusinessDayIndexEnabled(true);
+        final WorkingDayJumpTable<E> table = (WorkingDayJumpTable<E>) indexed;
+        assertEquals("Sat to Tue", 3, table.daysToWorkingDay(newDate("2006-08-26"), 1));
+        assertEquals("Sat to Fri", -1, table.daysToWorkingDay(newDate("2006-08-26"), -1));
+        assertEquals("Fri 31 Mar to Thu 30", -1, table.daysToWorkingDayInMonth(newDate("2006-03-31"), 1));
+        assertEquals("Before the early boundary", BusinessDayIndex.NOT_FOUND, table.daysToWorkingDay(newDate("2005-12-31"), 1));
+        assertEquals("Index disabled", BusinessDayIndex.NOT_FOUND,
+                ((WorkingDayJumpTable<E>) indexed.setBusinessDayIndexEnabled(false)).daysToWorkingDay(newDate("2006-08-26"), 1));
+    }
+
+    private void checkSameAsStepByStep(final String holidayHandlerType, final int direction) {
+        final HolidayCalendar<E> holidays = createIndexTestCalendar();
+        final int end = EpochDayUtil.toEpochDay(2007, 1, 1);
+        for (int day = EpochDayUtil.toEpochDay(2006, 1, 2); day < end; day++) {
+            final String start = toIsoDate(day);
+            for (final int step : STEPS) {
+                final DateCalculator<E> stepByStep = newCalculator(holidayHandlerType, holidays, start);
+                final DateCalculator<E> indexed = newCalculator(holidayHandlerType, holidays, start).setBusinessDayIndexEnabled(true);
+                assertEquals(holidayHandlerType + " from " + start + " by " + step * direction, move(stepByStep, step * direction),
+                        move(indexed, step * direction));
+            }
+        }
+    }
+
+    private Object move(final DateCalculator<E> calc, final int businessDays) {
+        try {
+            return calc.moveByBusinessDays(businessDays).getCurrentBusinessDate();
+        } catch (final IndexOutOfBoundsException e) {
+            return e.getClass();
+        }
+    }
+
+    private DateCalculator<E> newCalculator(final String holidayHandlerType, final HolidayCalendar<E> holidays, final String start) {
+        final DateCalculator<E> calc = newDateCalculator("bla", holidayHandlerType);
+        calc.setHolidayCalendar(holidays);
+        calc.setStartDate(newDate(start));
+        return calc;
+    }
+
+    /**
+     * UK holidays plus some at the start/end of months to exercise the
+     * modified handlers.
+     */
+    private HolidayCalendar<E> createIndexTestCalendar() {
+        final Set<E> holidays = createUKHolidays();
+        holidays.add(newDate("2006-03-31"));
+        holidays.add(newDate("2006-06-01"));
+        holidays.add(newDate("2006-06-02"));
+        return new DefaultHolidayCalendar<E>(holidays, newDate("2006-01-01"), newDate("2020-12-31"));
+    }
+
+    private static String toIsoDate(final int epochDay) {
+        return String.format("%04d-%02d-%02d", EpochDayUtil.getYear(epochDay), EpochDayUtil.getMonth(epochDay), EpochDayUtil.getDayOfMonth(epochDay));
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -33,10 +33,22 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import junit.framework.Assert;
+import net.objectlab.kit.datecalc.common.ccy.AbstractCurrencyDateCalculator;
+import net.objectlab.kit.datecalc.common.ccy.CurrencyCalculatorConfig;
+import net.objectlab.kit.datecalc.common.ccy.DefaultCurrencyCalculatorConfig;
+import net.objectlab.kit.datecalc.common.ccy.NonWorkingDayMask;
+import net.objectlab.kit.datecalc.common.ccy.SpotDateCache;
 
 public abstract class AbstractCurrencyDateCalculatorTest<E extends Serializable> extends AbstractDateTestCase<E> {
 
@@ -123,6 +135,379 @@ public abstract class AbstractCurrencyDateCalculatorTest<E extends Serializable>
         checkDate("Spot from " + newDate("2006-07-03"), cal.calculateSpotDate(newDate("2006-07-03")), "2006-07-05"); // Mon->Wed
     }
 
+    public void testBusinessDaysBetweenEurGbp() {
+        final CurrencyDateCalculator<E> cal = newCurrencyCalculator("EUR", "GBP");
+        Assert.assertEquals("Fri->Wed (use USD!)", 2, cal.businessDaysBetween(newDate("2006-06-30"), newDate("2006-07-05")));
+        Assert.assertEquals("Wed->Fri (use USD!)", -2, cal.businessDaysBetween(newDate("2006-07-05"), newDate("2006-06-30")));
+        Assert.assertEquals("GBP holiday", 2, cal.businessDaysBetween(newDate("2006-08-25"), newDate("2006-08-30")));
+        Assert.assertEquals("EUR+GBP holidays", 3, cal.businessDaysBetween(newDate("2006-12-21"), newDate("2006-12-28")));
+    }
+
+    public void testBusinessDaysBetweenEurGbpButDoNotUseUsd() {
+        final CurrencyDateCalculator<E> cal = getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_2).brokenDateAllowed(true));
+        Assert.assertEquals("Fri->Wed (do NOT use USD!)", 3, cal.businessDaysBetween(newDate("2006-06-30"), newDate("2006-07-05")));
+    }
+
+    public void testNewHolidayVersionSeenByExistingCalculator() {
+        final CurrencyDateCalculator<E> cal = newCurrencyCalculator("EUR", "GBP");
+        Assert.assertEquals("GBP holiday", 2, cal.businessDaysBetween(newDate("2006-08-25"), newDate("2006-08-30")));
+
+        getDateCalculatorFactory().registerHolidays("GBP", new DefaultHolidayCalendar<E>(new HashSet<E>(), newDate("2006-01-01"), newDate("2020-12-31")));
+        Assert.assertEquals("no GBP holiday", 3, cal.businessDaysBetween(newDate("2006-08-25"), newDate("2006-08-30")));
+        checkDate("Spot no longer skips GBP holiday", cal.calculateSpotDate(newDate("2006-08-24")), "2006-08-28");
+    }
+
+    public void testNonWorkingDayMaskShared() {
+        final AbstractCurrencyDateCalculator<E> cal = (AbstractCurrencyDateCalculator<E>) newCurrencyCalculator("EUR", "GBP");
+        final AbstractCurrencyDateCalculator<E> broken = (AbstractCurrencyDateCalculator<E>) getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_2).brokenDateAllowed(true));
+        final NonWorkingDayMask mask = cal.getNonWorkingDayMask();
+        Assert.assertSame("same pair", mask, broken.getNonWorkingDayMask());
+
+        final int bankHoliday = EpochDayUtil.toEpochDay(2006, 8, 28);
+        Assert.assertTrue("GBP holiday", mask.isNonWorkingDay(bankHoliday, NonWorkingDayMask.CCY2));
+        Assert.assertFalse("not EUR holiday", mask.isNonWorkingDay(bankHoliday, NonWorkingDayMask.CCY1));
+        Assert.assertTrue("pair", mask.isNonWorkingDay(bankHoliday, NonWorkingDayMask.CCY_PAIR));
+        final int independenceDay = EpochDayUtil.toEpochDay(2006, 7, 4);
+        Assert.assertFalse("USD holiday", mask.isNonWorkingDay(independenceDay, NonWorkingDayMask.CCY_PAIR));
+        Assert.assertTrue("USD holiday", mask.isNonWorkingDay(independenceDay, NonWorkingDayMask.CROSS_CCY));
+        Assert.assertTrue("USD holiday", mask.isNonWorkingDay(independenceDay, NonWorkingDayMask.CCY_PAIR_AND_CROSS_CCY));
+        Assert.assertTrue("crossCcy", cal.isNonWorkingDay(newDate("2006-07-04")));
+        Assert.assertFalse("broken date allowed", broken.isNonWorkingDay(newDate("2006-07-04")));
+        Assert.assertTrue("Saturday after the holidays", mask.isNonWorkingDay(EpochDayUtil.toEpochDay(2030, 1, 5), NonWorkingDayMask.CCY_PAIR));
+        Assert.assertFalse("Monday after the holidays", mask.isNonWorkingDay(EpochDayUtil.toEpochDay(2030, 1, 7),
+                NonWorkingDayMask.CCY_PAIR_AND_CROSS_CCY));
+
+        getDateCalculatorFactory().registerHolidays("GBP", new DefaultHolidayCalendar<E>(new HashSet<E>(), newDate("2006-01-01"), newDate("2020-12-31")));
+        final NonWorkingDayMask newMask = cal.getNonWorkingDayMask();
+        Assert.assertNotSame("new GBP version", mask, newMask);
+        Assert.assertFalse("no GBP holiday", newMask.isNonWorkingDay(bankHoliday, NonWorkingDayMask.CCY2));
+        Assert.assertSame("still shared", newMask, broken.getNonWorkingDayMask());
+    }
+
+    public void testNonWorkingDayMaskCachedPerCalendars() {
+        final AbstractCurrencyDateCalculator<E> cal = (AbstractCurrencyDateCalculator<E>) newCurrencyCalculator("EUR", "GBP");
+        final NonWorkingDayMask mask = cal.getNonWorkingDayMask();
+        final CurrencyDateCalculatorBuilder<E> custom = getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_2)
+                .ccy2Calendar(createUKHolidayCalendar());
+        final AbstractCurrencyDateCalculator<E> custom1 = (AbstractCurrencyDateCalculator<E>) getDateCalculatorFactory()
+                .buildCurrencyDateCalculator(custom);
+        final AbstractCurrencyDateCalculator<E> custom2 = (AbstractCurrencyDateCalculator<E>) getDateCalculatorFactory()
+                .buildCurrencyDateCalculator(custom);
+        Assert.assertNull("not a registered calendar", custom1.getNonWorkingDayMask());
+        Assert.assertNull("no mask", custom2.getNonWorkingDayMask());
+        Assert.assertTrue("GBP holiday", custom1.isNonWorkingDay(newDate("2006-08-28")));
+        Assert.assertSame("registered pair still cached", mask, ((AbstractCurrencyDateCalculator<E>) getDateCalculatorFactory()
+                .buildCurrencyDateCalculator(getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_1)))
+                .getNonWorkingDayMask());
+
+        // no holidays registered for ZAR
+        final AbstractCurrencyDateCalculator<E> zar = (AbstractCurrencyDateCalculator<E>) newCurrencyCalculator("EUR", "ZAR");
+        final AbstractCurrencyDateCalculator<E> zarBroken = (AbstractCurrencyDateCalculator<E>) getDateCalculatorFactory()
+                .buildCurrencyDateCalculator(getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "ZAR", SpotLag.T_2)
+                        .brokenDateAllowed(true));
+        Assert.assertNotSame("ZAR calendar not versioned", zar.getNonWorkingDayMask(), zarBroken.getNonWorkingDayMask());
+        Assert.assertFalse("no ZAR holiday", zarBroken.getNonWorkingDayMask().isNonWorkingDay(EpochDayUtil.toEpochDay(2006, 8, 28),
+                NonWorkingDayMask.CCY2));
+    }
+
+    /*
+     *       June 2021
+     * Su Mo Tu We Th Fr Sa
+     *        1  2  3  4  5
+     *  6  7  8  9 10 11 12
+     */
+    public void testCalendarOverridingIsHolidayIsAskedEachDay() {
+        newCurrencyCalculator("EUR", "GBP");
+        final EpochDayConverter<E> converter = ((AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory()).getEpochDayConverter();
+        final HolidayCalendar<E> mondays = new DefaultHolidayCalendar<E>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean isHoliday(final E date) {
+                return EpochDayUtil.getCalendarDayOfWeek(converter.toEpochDay(date)) == java.util.Calendar.MONDAY;
+            }
+        };
+        final CurrencyDateCalculator<E> cal = getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_2).ccy2Calendar(mondays));
+
+        checkDate("Fri -> Wed, GBP Monday holiday", cal.calculateSpotDate(newDate("2021-06-04")), "2021-06-09");
+        Assert.assertEquals("epoch day", EpochDayUtil.toEpochDay(2021, 6, 9), cal.calculateSpotDate(EpochDayUtil.toEpochDay(2021, 6, 4)));
+        checkDate("1W from spot", cal.calculateTenorDate(newDate("2021-06-04"), StandardTenor.T_1W), "2021-06-16");
+        Assert.assertEquals("Fri to Fri", 4, cal.businessDaysBetween(newDate("2021-06-04"), newDate("2021-06-11")));
+    }
+
+    public void testChangedCalendarIsSeen() {
+        newCurrencyCalculator("EUR", "GBP");
+        final DefaultHolidayCalendar<E> gbp = new DefaultHolidayCalendar<E>(new HashSet<E>(), newDate("2021-01-01"), newDate("2021-12-31"));
+        final CurrencyDateCalculator<E> cal = getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_2).ccy2Calendar(gbp));
+        final CurrencyDateCalculator<E> snapshot = getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_2).ccy2Calendar(
+                        ImmutableHolidayCalendar.snapshot(gbp)));
+        Assert.assertNotNull("snapshot masked", ((AbstractCurrencyDateCalculator<E>) snapshot).getNonWorkingDayMask());
+        checkDate("Fri -> Tue", cal.calculateSpotDate(newDate("2021-06-04")), "2021-06-08");
+
+        gbp.setHolidays(new HashSet<E>(Arrays.asList(newDate("2021-06-07"))));
+        checkDate("Fri -> Wed, new GBP holiday", cal.calculateSpotDate(newDate("2021-06-04")), "2021-06-09");
+        checkDate("Fri -> Tue, snapshot unchanged", snapshot.calculateSpotDate(newDate("2021-06-04")), "2021-06-08");
+        Assert.assertEquals("epoch days", EpochDayUtil.toEpochDay(2021, 6, 9), cal.calculateSpotDates(new int[] { EpochDayUtil.toEpochDay(2021,
+                6, 4) })[0]);
+    }
+
+    public void testSpotDateCache() {
+        final CurrencyDateCalculator<E> cal = newCurrencyCalculator("EUR", "GBP");
+        final SpotDateCache cache = ((AbstractCurrencyDateCalculator<E>) cal).getSpotDateCache();
+        Assert.assertNotNull("enabled by default", cache);
+        Assert.assertEquals("capacity", SpotDateCache.DEFAULT_CAPACITY, cache.getCapacity());
+        Assert.assertFalse("no statistics by default", cache.isStatisticsEnabled());
+        checkDate("Wed->Fri", cal.calculateSpotDate(newDate("2006-08-23")), "2006-08-25");
+        Assert.assertEquals("not counted", 0, cache.getMisses());
+        cache.setStatisticsEnabled(true);
+
+        checkDate("Thu->Tue (GBP holiday)", cal.calculateSpotDate(newDate("2006-08-24")), "2006-08-29");
+        Assert.assertEquals("miss", 1, cache.getMisses());
+        checkDate("Thu->Tue (cached)", cal.calculateSpotDate(newDate("2006-08-24")), "2006-08-29");
+        checkDate("Thu->Tue (tenor)", cal.calculateTenorDate(newDate("2006-08-24"), StandardTenor.SPOT), "2006-08-29");
+        Assert.assertEquals("hits", 2, cache.getHits());
+        Assert.assertEquals("still one miss", 1, cache.getMisses());
+
+        getDateCalculatorFactory().registerHolidays("GBP", new DefaultHolidayCalendar<E>(new HashSet<E>(), newDate("2006-01-01"), newDate("2020-12-31")));
+        checkDate("Thu->Mon (new GBP calendar)", cal.calculateSpotDate(newDate("2006-08-24")), "2006-08-28");
+        Assert.assertEquals("invalidated", 2, cache.getMisses());
+    }
+
+    public void testSpotDateCacheSameAsDayByDay() {
+        final CurrencyDateCalculator<E> cached = newCurrencyCalculator("EUR", "MXN");
+        final CurrencyDateCalculator<E> notCached = getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "MXN", SpotLag.T_2).spotDateCacheCapacity(0));
+        Assert.assertNull("disabled", ((AbstractCurrencyDateCalculator<E>) notCached).getSpotDateCache());
+        final SpotDateCache cache = ((AbstractCurrencyDateCalculator<E>) cached).getSpotDateCache();
+        cache.setStatisticsEnabled(true);
+        final int end = EpochDayUtil.toEpochDay(2007, 1, 1);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int day = EpochDayUtil.toEpochDay(2006, 1, 1); day < end; day++) {
+                final E start = newDate(String.format("%04d-%02d-%02d", EpochDayUtil.getYear(day), EpochDayUtil.getMonth(day), EpochDayUtil
+                        .getDayOfMonth(day)));
+                Assert.assertEquals("Spot from " + start, notCached.calculateSpotDate(start), cached.calculateSpotDate(start));
+            }
+        }
+        Assert.assertEquals("second pass from the cache", 365, cache.getHits());
+    }
+
+    public void testEpochDaySpotAndTenorDates() {
+        final CurrencyDateCalculator<E> cal = newCurrencyCalculator("EUR", "MXN");
+        Assert.assertEquals("Spot from Fri (use USD!)", EpochDayUtil.toEpochDay(2006, 7, 5), cal.calculateSpotDate(EpochDayUtil.toEpochDay(2006, 6, 30)));
+        Assert.assertEquals("Spot from Sun", EpochDayUtil.toEpochDay(2006, 7, 6), cal.calculateSpotDate(EpochDayUtil.toEpochDay(2006, 7, 2)));
+        Assert.assertEquals("Spot from Mon", EpochDayUtil.toEpochDay(2006, 7, 6), cal.calculateSpotDate(EpochDayUtil.toEpochDay(2006, 7, 3)));
+
+        checkEpochDays(cal);
+        checkEpochDays(newCurrencyCalculator("EUR", "GBP"));
+        checkEpochDays(newCurrencyCalculator(CurrencyDateCalculator.USD_CODE, "JOD"));
+        checkEpochDays(getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_1).brokenDateAllowed(true)));
+    }
+
+    public void testEpochDayWithOtherHolidayHandler() {
+        final CurrencyDateCalculatorBuilder<E> builder = getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP",
+                SpotLag.T_2);
+        newCurrencyCalculator("EUR", "GBP");
+        final CurrencyDateCalculator<E> standard = getDateCalculatorFactory().buildCurrencyDateCalculator(builder);
+        final HolidayHandler<E> handler = builder.getTenorHolidayHandler();
+        final CurrencyDateCalculator<E> other = getDateCalculatorFactory().buildCurrencyDateCalculator(
+                builder.tenorHolidayHandler(new HolidayHandler<E>() {
+                    public E moveCurrentDate(final BaseCalculator<E> calculator) {
+                        return handler.moveCurrentDate(calculator);
+                    }
+
+                    public E adjustDate(final E startDate, final int increment, final NonWorkingDayChecker<E> checker) {
+                        return handler.adjustDate(startDate, increment, checker);
+                    }
+
+                    public String getType() {
+                        return "other";
+                    }
+                }));
+        final int[] startDays = new int[365];
+        for (int i = 0; i < startDays.length; i++) {
+            startDays[i] = EpochDayUtil.toEpochDay(2006, 1, 1) + i;
+        }
+        for (final Tenor tenor : StandardTenor.getAll()) {
+            assertTrue("Tenor " + tenor, Arrays.equals(standard.calculateTenorDates(startDays, tenor), other.calculateTenorDates(startDays,
+                    tenor)));
+        }
+    }
+
+    private void checkEpochDays(final CurrencyDateCalculator<E> cal) {
+        final EpochDayConverter<E> converter = ((AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory()).getEpochDayConverter();
+        final int[] startDays = new int[365];
+        for (int i = 0; i < startDays.length; i++) {
+            startDays[i] = EpochDayUtil.toEpochDay(2006, 1, 1) + i;
+        }
+        final int[] spotDays = cal.calculateSpotDates(startDays);
+        for (int i = 0; i < startDays.length; i++) {
+            final E start = converter.fromEpochDay(startDays[i]);
+            Assert.assertEquals(cal.getName() + " Spot from " + start, converter.toEpochDay(cal.calculateSpotDate(start)), spotDays[i]);
+            Assert.assertEquals(cal.getName() + " Spot from " + start, spotDays[i], cal.calculateSpotDate(startDays[i]));
+        }
+        for (final Tenor tenor : StandardTenor.getAll()) {
+            final int[] tenorDays = cal.calculateTenorDates(startDays, tenor);
+            for (int i = 0; i < startDays.length; i++) {
+                final E start = converter.fromEpochDay(startDays[i]);
+                Assert.assertEquals(cal.getName() + " " + tenor + " from " + start, converter.toEpochDay(cal.calculateTenorDate(start, tenor)),
+                        tenorDays[i]);
+                Assert.assertEquals(cal.getName() + " " + tenor + " from " + start, tenorDays[i], cal.calculateTenorDate(startDays[i], tenor));
+            }
+        }
+    }
+
+    public void testTenorDateGrid() {
+        final CurrencyDateCalculator<E> cal = newCurrencyCalculator("EUR", "GBP");
+        final TenorDateGrid<E> grid = cal.createTenorDateGrid(newDate("2006-08-01"), 45, StandardTenor.getAll());
+        checkGrid(cal, grid, "2006-08-01", 45);
+        Assert.assertFalse("before", grid.covers(newDate("2006-07-31")));
+        Assert.assertFalse("after", grid.covers(newDate("2006-09-15")));
+        checkDate("outside the window", grid.getTenorDate(newDate("2006-12-21"), StandardTenor.SPOT), "2006-12-27");
+        Assert.assertEquals("int API", EpochDayUtil.toEpochDay(2006, 8, 29), grid.getTenorEpochDay(EpochDayUtil.toEpochDay(2006, 8, 24), 1));
+        try {
+            grid.getTenorEpochDay(EpochDayUtil.toEpochDay(2006, 12, 21), 1);
+            fail("outside the window");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        grid.rollTo(newDate("2006-08-20"));
+        checkDate("first trade date", grid.getFirstTradeDate(), "2006-08-20");
+        checkGrid(cal, grid, "2006-08-20", 45);
+        grid.rollTo(newDate("2006-12-01"));
+        checkGrid(cal, grid, "2006-12-01", 45);
+        grid.rollTo(newDate("2006-11-25"));
+        checkGrid(cal, grid, "2006-11-25", 45);
+
+        getDateCalculatorFactory().registerHolidays("GBP", new DefaultHolidayCalendar<E>(new HashSet<E>(), newDate("2006-01-01"), newDate("2020-12-31")));
+        grid.rollTo(newDate("2006-08-01"));
+        checkDate("new GBP calendar", grid.getTenorDate(newDate("2006-08-24"), StandardTenor.SPOT), "2006-08-28");
+        checkGrid(cal, grid, "2006-08-01", 45);
+
+        try {
+            grid.getTenorDate(newDate("2006-08-24"), new Tenor(11, TenorCode.MONTH));
+            fail("not in the grid");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private void checkGrid(final CurrencyDateCalculator<E> cal, final TenorDateGrid<E> grid, final String firstTradeDate, final int tradeDays) {
+        final int first = EpochDayUtil.toEpochDay(Integer.parseInt(firstTradeDate.substring(0, 4)), Integer.parseInt(firstTradeDate.substring(5, 7)),
+                Integer.parseInt(firstTradeDate.substring(8)));
+        for (int day = first; day < first + tradeDays; day++) {
+            final E tradeDate = newDate(String.format("%04d-%02d-%02d", EpochDayUtil.getYear(day), EpochDayUtil.getMonth(day), EpochDayUtil
+                    .getDayOfMonth(day)));
+            Assert.assertTrue("covers " + tradeDate, grid.covers(tradeDate));
+            Assert.assertEquals("Row " + tradeDate, cal.calculateTenorDates(tradeDate, grid.getTenors()), grid.getTenorDates(tradeDate));
+            for (final Tenor tenor : grid.getTenors()) {
+                Assert.assertEquals(tenor + " from " + tradeDate, cal.calculateTenorDate(tradeDate, tenor), grid.getTenorDate(tradeDate, tenor));
+            }
+        }
+    }
+
+    public void testTenorDateMatrixEurGbp() {
+        final CurrencyDateCalculator<E> cal = newCurrencyCalculator("EUR", "GBP");
+        final List<Tenor> tenors = new ArrayList<Tenor>();
+        tenors.add(StandardTenor.OVERNIGHT);
+        tenors.add(StandardTenor.SPOT);
+        tenors.add(StandardTenor.T_1W);
+        tenors.add(StandardTenor.T_1M);
+        tenors.add(StandardTenor.T_1Y);
+        final List<E> startDates = new ArrayList<E>();
+        for (int day = EpochDayUtil.toEpochDay(2006, 6, 1); day < EpochDayUtil.toEpochDay(2007, 1, 1); day++) {
+            startDates.add(newDate(String.format("%04d-%02d-%02d", EpochDayUtil.getYear(day), EpochDayUtil.getMonth(day),
+                    EpochDayUtil.getDayOfMonth(day))));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final TenorDateMatrix<E> parallel = cal.calculateTenorDates(startDates, tenors, executor);
+            final TenorDateMatrix<E> sequential = cal.calculateTenorDates(startDates, tenors, null);
+            Assert.assertEquals("Rows", startDates.size(), parallel.getRowCount());
+            Assert.assertEquals("Columns", tenors.size(), parallel.getColumnCount());
+            for (int row = 0; row < startDates.size(); row++) {
+                Assert.assertEquals("Row " + startDates.get(row), sequential.getRow(row), parallel.getRow(row));
+                for (int column = 0; column < tenors.size(); column++) {
+                    Assert.assertEquals(tenors.get(column) + " from " + startDates.get(row),
+                            cal.calculateTenorDate(startDates.get(row), tenors.get(column)), parallel.get(row, column));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // Fri->Wed (use USD!)
+        checkDate("Spot from 2006-06-30", cal.calculateTenorDates(startDates, tenors, null).get(29, 1), "2006-07-05");
+    }
+
+    public void testDefaultCurrencyDateCalculatorCached() {
+        final CurrencyDateCalculator<E> cal = newCurrencyCalculator("EUR", "GBP");
+        Assert.assertSame("cached", cal, getDateCalculatorFactory().getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2));
+        Assert.assertNotSame("other spot lag", cal, getDateCalculatorFactory().getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_1));
+        Assert.assertNotSame("other pair", cal, getDateCalculatorFactory().getDefaultCurrencyDateCalculator("GBP", "EUR", SpotLag.T_2));
+
+        getDateCalculatorFactory().registerHolidays("GBP", createUKHolidayCalendar());
+        final CurrencyDateCalculator<E> afterRegister = getDateCalculatorFactory().getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2);
+        Assert.assertNotSame("calendar registered", cal, afterRegister);
+
+        final CurrencyCalculatorConfig original = getDateCalculatorFactory().getCurrencyCalculatorConfig();
+        try {
+            final DefaultCurrencyCalculatorConfig config = new DefaultCurrencyCalculatorConfig();
+            getDateCalculatorFactory().setCurrencyCalculatorConfig(config);
+            final CurrencyDateCalculator<E> newConfig = getDateCalculatorFactory().getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2);
+            Assert.assertNotSame("config replaced", afterRegister, newConfig);
+            Assert.assertSame("cached", newConfig, getDateCalculatorFactory().getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2));
+
+            final Map<String, WorkingWeek> weeks = new HashMap<String, WorkingWeek>();
+            weeks.put("GBP", WorkingWeek.ARABIC_WEEK);
+            config.setWorkingWeeks(weeks);
+            final CurrencyDateCalculator<E> modified = getDateCalculatorFactory().getDefaultCurrencyDateCalculator("EUR", "GBP", SpotLag.T_2);
+            Assert.assertNotSame("config modified", newConfig, modified);
+            Assert.assertSame("new week", WorkingWeek.ARABIC_WEEK, modified.getCcy2Week());
+        } finally {
+            getDateCalculatorFactory().setCurrencyCalculatorConfig(original);
+        }
+    }
+
+    public void testCalculateValueDates() {
+        newCurrencyCalculator("EUR", "GBP");
+        final String[][] pairs = new String[][] { { "EUR", "GBP" }, { "EUR", "MXN" }, { CurrencyDateCalculator.USD_CODE, "JOD" } };
+        final List<Tenor> tenors = StandardTenor.getAll();
+        final List<ValueDateRequest<E>> trades = new ArrayList<ValueDateRequest<E>>();
+        int i = 0;
+        for (int day = EpochDayUtil.toEpochDay(2006, 6, 1); day < EpochDayUtil.toEpochDay(2007, 1, 1); day++) {
+            final E tradeDate = newDate(String.format("%04d-%02d-%02d", EpochDayUtil.getYear(day), EpochDayUtil.getMonth(day),
+                    EpochDayUtil.getDayOfMonth(day)));
+            for (final String[] pair : pairs) {
+                trades.add(new ValueDateRequest<E>(pair[0], pair[1], i % 5 == 0 ? SpotLag.T_1 : SpotLag.T_2, tradeDate, tenors.get(i % tenors.size())));
+                i++;
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<E> parallel = getDateCalculatorFactory().calculateValueDates(trades, executor);
+            final List<E> sequential = getDateCalculatorFactory().calculateValueDates(trades, null);
+            Assert.assertEquals("Value dates", trades.size(), parallel.size());
+            Assert.assertEquals("Same results", sequential, parallel);
+            for (int t = 0; t < trades.size(); t++) {
+                final ValueDateRequest<E> trade = trades.get(t);
+                final CurrencyDateCalculator<E> cal = getDateCalculatorFactory().getDefaultCurrencyDateCalculator(trade.getCcy1(), trade.getCcy2(),
+                        trade.getSpotLag());
+                Assert.assertEquals(trade.toString(), cal.calculateTenorDate(trade.getTradeDate(), trade.getTenor()), parallel.get(t));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue("no trade", getDateCalculatorFactory().calculateValueDates(new ArrayList<ValueDateRequest<E>>(), null).isEmpty());
+    }
+
     public void testCrossEurGbpButDoNotAdjustStartDate() {
         final CurrencyDateCalculator<E> cal = getDateCalculatorFactory().buildCurrencyDateCalculator(getDateCalculatorFactory()
                 .getDefaultCurrencyDateCalculatorBuilder("EUR", "GBP", SpotLag.T_2).adjustStartDateWithCurrencyPair(false).brokenDateAllowed(true));
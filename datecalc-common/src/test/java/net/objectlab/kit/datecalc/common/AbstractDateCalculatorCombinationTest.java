@@ -141,6 +141,28 @@ public abstract class AbstractDateCalculatorCombinationTest<E extends Serializab
         Assert.assertEquals("Late Boundary", newDate("2020-12-31"), combo.getHolidayCalendar().getLateBoundary());
     }
 
+    public void testCombinationIsAView() {
+        registerHolidays("UK", new DefaultHolidayCalendar<E>(createUKHolidays(), newDate("2006-01-01"), newDate("2099-12-31")));
+        registerHolidays("US", new DefaultHolidayCalendar<E>(createUSHolidays(), newDate("2005-01-01"), newDate("2100-12-31")));
+        final Set<E> other = Collections.singleton(newDate("2006-08-09"));
+        registerHolidays("OTHER", new DefaultHolidayCalendar<E>(other, newDate("2006-01-01"), newDate("2100-12-31")));
+        final DateCalculator<E> cal1 = newDateCalculator("US", HolidayHandlerType.FORWARD);
+        cal1.setStartDate(newDate("2006-08-08"));
+
+        final DateCalculator<E> combo = cal1.combine(newDateCalculator("UK", HolidayHandlerType.FORWARD)).combine(
+                newDateCalculator("OTHER", HolidayHandlerType.FORWARD));
+        Assert.assertEquals("Combo name", "US/UK/OTHER", combo.getName());
+        Assert.assertTrue("View", combo.getHolidayCalendar() instanceof CombinedHolidayCalendar);
+        Assert.assertEquals("Flattened", 3, ((CombinedHolidayCalendar<E>) combo.getHolidayCalendar()).getCalendars().size());
+        Assert.assertEquals("Holidays", 7, combo.getHolidayCalendar().getHolidays().size());
+        Assert.assertTrue("US holiday", combo.isNonWorkingDay(newDate("2006-07-04")));
+        Assert.assertTrue("UK holiday", combo.isNonWorkingDay(newDate("2006-08-28")));
+        Assert.assertTrue("Other holiday", combo.isNonWorkingDay(newDate("2006-08-09")));
+        Assert.assertEquals("Early Boundary", newDate("2006-01-01"), combo.getHolidayCalendar().getEarlyBoundary());
+        Assert.assertEquals("Late Boundary", newDate("2099-12-31"), combo.getHolidayCalendar().getLateBoundary());
+        getDateCalculatorFactory().unregisterHolidayCalendar("OTHER");
+    }
+
     public void testNullCombination() {
         registerHolidays("US", createUSHolidayCalendar());
         final DateCalculator<E> cal1 = newDateCalculator("US", HolidayHandlerType.FORWARD);
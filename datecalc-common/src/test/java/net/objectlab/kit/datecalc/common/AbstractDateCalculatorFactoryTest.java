@@ -33,7 +33,17 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.Assert;
 
@@ -209,6 +219,24 @@ public abstract class AbstractDateCalculatorFactoryTest<E extends Serializable>
         Assert.assertTrue("current date is weekend", cal1.isCurrentDateNonWorking());
     }
 
+    public void testCustomHolidayCalendarIsKept() {
+        final E custom = newDate("2006-08-08");
+        final HolidayCalendar<E> calendar = new DefaultHolidayCalendar<E>() {
+            private static final long serialVersionUID = 1L;
+
+            public boolean isHoliday(final E date) {
+                return custom.equals(date);
+            }
+        };
+        final DateCalculator<E> cal1 = getDateCalculatorFactory().getDateCalculator("bla", null);
+        cal1.setHolidayCalendar(calendar);
+
+        cal1.setCurrentBusinessDate(newDate("2006-08-08"));
+        Assert.assertTrue("custom holiday", cal1.isCurrentDateNonWorking());
+        cal1.setCurrentBusinessDate(newDate("2006-08-09"));
+        Assert.assertFalse("working day", cal1.isCurrentDateNonWorking());
+    }
+
     public void testHolidayCalendar() {
         final Set<E> uk = createUKHolidays();
         final HolidayCalendar<E> ukCal = new DefaultHolidayCalendar<E>(uk);
@@ -217,6 +245,269 @@ public abstract class AbstractDateCalculatorFactoryTest<E extends Serializable>
         assertNull("Early boundary", ukCal.getEarlyBoundary());
         assertNull("Late boundary", ukCal.getLateBoundary());
     }
+
+    public void testCombinedHolidayCalendar() {
+        getDateCalculatorFactory().registerHolidays("C_UK", createUKHolidayCalendar());
+        getDateCalculatorFactory().registerHolidays("C_US", createUSHolidayCalendar());
+
+        final HolidayCalendar<E> combined = getDateCalculatorFactory().getCombinedHolidayCalendar("C_UK", "C_US", "XX");
+        Assert.assertNotNull("combined", combined);
+        Assert.assertTrue("UK holiday", combined.isHoliday(newDate("2006-08-28")));
+        Assert.assertTrue("US holiday", combined.isHoliday(newDate("2006-07-04")));
+        Assert.assertTrue("UK and US holiday", combined.isHoliday(newDate("2006-12-25")));
+        Assert.assertFalse("Not a holiday", combined.isHoliday(newDate("2006-07-05")));
+        Assert.assertEquals("Holidays", 6, combined.getHolidays().size());
+        Assert.assertEquals("Early Boundary", newDate("2006-01-01"), combined.getEarlyBoundary());
+        Assert.assertEquals("Late Boundary", newDate("2020-12-31"), combined.getLateBoundary());
+
+        Assert.assertSame("cached", combined, getDateCalculatorFactory().getCombinedHolidayCalendar("C_UK", "C_US", "XX"));
+        Assert.assertNotSame("different tuple", combined, getDateCalculatorFactory().getCombinedHolidayCalendar("C_US", "C_UK"));
+        Assert.assertSame("single calendar", getDateCalculatorFactory().getHolidayCalendar("C_UK"), getDateCalculatorFactory()
+                .getCombinedHolidayCalendar("C_UK"));
+        Assert.assertNull("none registered", getDateCalculatorFactory().getCombinedHolidayCalendar("XX"));
+
+        getDateCalculatorFactory().registerHolidays("C_US", createUKHolidayCalendar());
+        final HolidayCalendar<E> updated = getDateCalculatorFactory().getCombinedHolidayCalendar("C_UK", "C_US", "XX");
+        Assert.assertNotSame("new registration", combined, updated);
+        Assert.assertFalse("Old US holiday", updated.isHoliday(newDate("2006-07-04")));
+
+        getDateCalculatorFactory().unregisterHolidayCalendar("C_UK").unregisterHolidayCalendar("C_US");
+        Assert.assertNull("unregistered", getDateCalculatorFactory().getCombinedHolidayCalendar("C_UK", "C_US", "XX"));
+    }
+
+    public void testNewVersionSeenByExistingCalculator() {
+        getDateCalculatorFactory().registerHolidays("V_UK", createUKHolidayCalendar());
+        getDateCalculatorFactory().registerHolidays("V_US", createUSHolidayCalendar());
+        final VersionedHolidayCalendar<E> versioned = getDateCalculatorFactory().getVersionedHolidayCalendar("V_UK");
+        Assert.assertNotNull("versioned", versioned);
+        Assert.assertSame("same handle", versioned, getDateCalculatorFactory().getHolidayCalendar("V_UK"));
+        Assert.assertEquals("first version", 1, versioned.getVersion());
+        Assert.assertEquals("name", "V_UK", versioned.getName());
+
+        final HolidayCalendar<E> firstVersion = versioned.getCurrent();
+        final HolidayCalendar<E> combined = getDateCalculatorFactory().getCombinedHolidayCalendar("V_UK", "V_US");
+        Assert.assertTrue("UK holiday in combined", combined.getHolidays().contains(newDate("2006-08-28")));
+        final DateCalculator<E> cal = getDateCalculatorFactory().getDateCalculator("V_UK", HolidayHandlerType.FORWARD);
+        cal.setBusinessDayIndexEnabled(true);
+        cal.setStartDate(newDate("2006-08-25"));
+        checkDate("Fri + 1, UK", cal.moveByBusinessDays(1), "2006-08-29");
+        Assert.assertEquals("Fri to Wed, UK", 2, cal.businessDaysBetween(newDate("2006-08-25"), newDate("2006-08-30")));
+
+        getDateCalculatorFactory().registerHolidays("V_UK", createUSHolidayCalendar());
+        Assert.assertSame("still same handle", versioned, getDateCalculatorFactory().getVersionedHolidayCalendar("V_UK"));
+        Assert.assertEquals("second version", 2, versioned.getVersion());
+        Assert.assertEquals("load count", 2, versioned.getLoadCount());
+        Assert.assertTrue("last load", versioned.getLastLoadNanos() >= 0);
+        Assert.assertTrue("total load", versioned.getTotalLoadNanos() >= versioned.getLastLoadNanos());
+        Assert.assertTrue("published", versioned.getPublishedTimeMillis() > 0);
+        Assert.assertTrue("old version unchanged", firstVersion.isHoliday(newDate("2006-08-28")));
+
+        Assert.assertFalse("new version", cal.isNonWorkingDay(newDate("2006-08-28")));
+        Assert.assertEquals("new boundary", newDate("2005-01-01"), cal.getHolidayCalendar().getEarlyBoundary());
+        cal.setStartDate(newDate("2006-08-25"));
+        checkDate("Fri + 1, new version", cal.moveByBusinessDays(1), "2006-08-28");
+        Assert.assertEquals("Fri to Wed, new version", 3, cal.businessDaysBetween(newDate("2006-08-25"), newDate("2006-08-30")));
+        Assert.assertFalse("new version in combined", combined.getHolidays().contains(newDate("2006-08-28")));
+
+        try {
+            versioned.setHolidays(null);
+            fail("A versioned calendar is read only");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+
+        getDateCalculatorFactory().unregisterHolidayCalendar("V_UK").unregisterHolidayCalendar("V_US");
+        Assert.assertNull("unregistered", getDateCalculatorFactory().getVersionedHolidayCalendar("V_UK"));
+    }
+
+    public void testHolidayHandlersShared() {
+        final String[] types = new String[] { HolidayHandlerType.FORWARD, HolidayHandlerType.BACKWARD, HolidayHandlerType.MODIFIED_FOLLOWING,
+                HolidayHandlerType.MODIFIED_PRECEDING, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK };
+        for (final String type : types) {
+            final HolidayHandler<E> handler = getDateCalculatorFactory().getHolidayHandler(type);
+            Assert.assertEquals("type", type, handler.getType());
+            Assert.assertSame("same handler " + type, handler, getDateCalculatorFactory().getHolidayHandler(type));
+        }
+        Assert.assertNull("no handler", getDateCalculatorFactory().getHolidayHandler(null));
+        Assert.assertNotSame("new calculator", getDateCalculatorFactory().getDateCalculator("bla", HolidayHandlerType.FORWARD),
+                getDateCalculatorFactory().getDateCalculator("bla", HolidayHandlerType.FORWARD));
+    }
+
+    public void testThreadLocalDateCalculator() throws Exception {
+        final KitCalculatorsFactory<E> factory = getDateCalculatorFactory();
+        try {
+            final DateCalculator<E> cal = factory.getThreadLocalDateCalculator("T_UK", HolidayHandlerType.FORWARD);
+            Assert.assertEquals("name", "T_UK", cal.getName());
+            Assert.assertEquals("type", HolidayHandlerType.FORWARD, cal.getHolidayHandlerType());
+            Assert.assertSame("same thread", cal, factory.getThreadLocalDateCalculator("T_UK", HolidayHandlerType.FORWARD));
+            Assert.assertNotSame("other type", cal, factory.getThreadLocalDateCalculator("T_UK", HolidayHandlerType.BACKWARD));
+            Assert.assertNotSame("other name", cal, factory.getThreadLocalDateCalculator("T_US", HolidayHandlerType.FORWARD));
+            Assert.assertNull("no handler", factory.getThreadLocalDateCalculator("T_UK", null).getHolidayHandlerType());
+            Assert.assertFalse("no holiday yet", cal.isNonWorkingDay(newDate("2006-08-28")));
+
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                final DateCalculator<E> other = executor.submit(new Callable<DateCalculator<E>>() {
+                    public DateCalculator<E> call() {
+                        return factory.getThreadLocalDateCalculator("T_UK", HolidayHandlerType.FORWARD);
+                    }
+                }).get();
+                Assert.assertNotSame("other thread", cal, other);
+            } finally {
+                executor.shutdown();
+            }
+
+            factory.registerHolidays("T_UK", createUKHolidayCalendar());
+            final DateCalculator<E> rebuilt = factory.getThreadLocalDateCalculator("T_UK", HolidayHandlerType.FORWARD);
+            Assert.assertNotSame("rebuilt after register", cal, rebuilt);
+            Assert.assertTrue("registered holiday", rebuilt.isNonWorkingDay(newDate("2006-08-28")));
+            rebuilt.setStartDate(newDate("2006-08-25"));
+            checkDate("Fri + 1", rebuilt.moveByBusinessDays(1), "2006-08-29");
+            Assert.assertSame("cached again", rebuilt, factory.getThreadLocalDateCalculator("T_UK", HolidayHandlerType.FORWARD));
+
+            factory.unregisterHolidayCalendar("T_UK");
+            final DateCalculator<E> afterUnregister = factory.getThreadLocalDateCalculator("T_UK", HolidayHandlerType.FORWARD);
+            Assert.assertNotSame("rebuilt after unregister", rebuilt, afterUnregister);
+
+            factory.removeThreadLocalDateCalculators();
+            Assert.assertNotSame("rebuilt after remove", afterUnregister, factory.getThreadLocalDateCalculator("T_UK", HolidayHandlerType.FORWARD));
+        } finally {
+            factory.unregisterHolidayCalendar("T_UK");
+        }
+    }
+
+    public void testHolidayCalendarSource() {
+        final CountingSource source = new CountingSource();
+        final AbstractKitCalculatorsFactory<E> factory = (AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory();
+        factory.setHolidayCalendarSource(source);
+        try {
+            Assert.assertFalse("not loaded yet", factory.isHolidayCalendarRegistered("L_UK"));
+            final DateCalculator<E> cal = factory.getDateCalculator("L_UK", HolidayHandlerType.FORWARD);
+            Assert.assertTrue("loaded holiday", cal.isNonWorkingDay(newDate("2006-08-28")));
+            Assert.assertTrue("registered", factory.isHolidayCalendarRegistered("L_UK"));
+            Assert.assertNotNull("cached", factory.getHolidayCalendar("L_UK"));
+            Assert.assertEquals("loaded once", 1, source.getLoads("L_UK"));
+
+            Assert.assertNull("unknown", factory.getHolidayCalendar("L_XX"));
+            Assert.assertNull("still unknown", factory.getHolidayCalendar("L_XX"));
+            Assert.assertEquals("no negative cache", 2, source.getLoads("L_XX"));
+        } finally {
+            factory.setHolidayCalendarSource(null);
+            factory.unregisterHolidayCalendar("L_UK");
+        }
+        Assert.assertNull("no source", factory.getHolidayCalendar("L_UK"));
+    }
+
+    public void testHolidayCalendarSourceUnknownNamesCached() {
+        final CountingSource source = new CountingSource();
+        final AbstractKitCalculatorsFactory<E> factory = (AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory();
+        factory.setHolidayCalendarSource(source, true);
+        try {
+            Assert.assertNull("unknown", factory.getHolidayCalendar("L_XX"));
+            Assert.assertNull("still unknown", factory.getCombinedHolidayCalendar("L_XX"));
+            Assert.assertEquals("asked once", 1, source.getLoads("L_XX"));
+
+            factory.registerHolidays("L_XX", createUSHolidayCalendar());
+            Assert.assertNotNull("registered", factory.getHolidayCalendar("L_XX"));
+            factory.unregisterHolidayCalendar("L_XX");
+            Assert.assertNull("unknown again", factory.getHolidayCalendar("L_XX"));
+            Assert.assertEquals("asked again after unregister", 2, source.getLoads("L_XX"));
+        } finally {
+            factory.setHolidayCalendarSource(null);
+            factory.unregisterHolidayCalendar("L_XX");
+        }
+    }
+
+    public void testHolidayCalendarSourceSingleLoad() throws Exception {
+        final CountingSource source = new CountingSource();
+        final AbstractKitCalculatorsFactory<E> factory = (AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory();
+        factory.setHolidayCalendarSource(source);
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<HolidayCalendar<E>>> results = new ArrayList<Future<HolidayCalendar<E>>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<HolidayCalendar<E>>() {
+                    public HolidayCalendar<E> call() throws Exception {
+                        start.await();
+                        return factory.getHolidayCalendar("L_UK");
+                    }
+                }));
+            }
+            start.countDown();
+            for (final Future<HolidayCalendar<E>> result : results) {
+                Assert.assertSame("same calendar", factory.getHolidayCalendar("L_UK"), result.get());
+            }
+            Assert.assertEquals("loaded once", 1, source.getLoads("L_UK"));
+        } finally {
+            executor.shutdown();
+            factory.setHolidayCalendarSource(null);
+            factory.unregisterHolidayCalendar("L_UK");
+        }
+    }
+
+    public void testHolidayCalendarSourceReentry() {
+        final AbstractKitCalculatorsFactory<E> factory = (AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory();
+        factory.setHolidayCalendarSource(new HolidayCalendarSource<E>() {
+            public HolidayCalendar<E> loadHolidayCalendar(final String calendarName) {
+                if ("L_UKUS".equals(calendarName)) {
+                    // combines two other calendars, loaded on the way
+                    return factory.getCombinedHolidayCalendar("L_UK", "L_US");
+                }
+                if ("L_UK".equals(calendarName)) {
+                    return createUKHolidayCalendar();
+                }
+                if ("L_US".equals(calendarName)) {
+                    return createUSHolidayCalendar();
+                }
+                // asks for itself
+                return factory.getHolidayCalendar(calendarName);
+            }
+        });
+        try {
+            final HolidayCalendar<E> combined = factory.getHolidayCalendar("L_UKUS");
+            Assert.assertTrue("UK holiday", combined.isHoliday(newDate("2006-08-28")));
+            Assert.assertTrue("US holiday", combined.isHoliday(newDate("2006-07-04")));
+
+            try {
+                factory.getHolidayCalendar("L_SELF");
+                Assert.fail("The source asks for the calendar it is loading");
+            } catch (final IllegalStateException e) {
+                // expected
+            }
+            Assert.assertFalse("not registered", factory.isHolidayCalendarRegistered("L_SELF"));
+        } finally {
+            factory.setHolidayCalendarSource(null);
+            factory.unregisterHolidayCalendar("L_UKUS");
+            factory.unregisterHolidayCalendar("L_UK");
+            factory.unregisterHolidayCalendar("L_US");
+        }
+    }
+
+    /**
+     * Knows L_UK only and counts the loads per name.
+     */
+    private class CountingSource implements HolidayCalendarSource<E> {
+        private final ConcurrentMap<String, AtomicInteger> loads = new ConcurrentHashMap<String, AtomicInteger>();
+
+        public HolidayCalendar<E> loadHolidayCalendar(final String calendarName) {
+            loads.putIfAbsent(calendarName, new AtomicInteger());
+            loads.get(calendarName).incrementAndGet();
+            try {
+                // gives a chance to other threads to ask for the same name
+                Thread.sleep(20);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "L_UK".equals(calendarName) ? createUKHolidayCalendar() : null;
+        }
+
+        int getLoads(final String calendarName) {
+            final AtomicInteger count = loads.get(calendarName);
+            return count != null ? count.get() : 0;
+        }
+    }
 }
 
 /*
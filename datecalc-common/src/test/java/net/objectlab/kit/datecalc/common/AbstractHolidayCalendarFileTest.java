@@ -0,0 +1,236 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import junit.framework.Assert;
+
+public abstract class AbstractHolidayCalendarFileTest<E extends Serializable> extends AbstractDateTestCase<E> {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("holidays", ".bin");
+        file.deleteOnExit();
+    }
+
+    public void testWriteAndMap() throws IOException {
+        newWriter().add("F_UK", createUKHolidayCalendar()).add("F_US", createUSHolidayCalendar()).add("F_NONE", null)
+                .add("F_NO_BOUNDARY", newHolidaysCalendar()).write(file);
+
+        final HolidayCalendarFile calendarFile = HolidayCalendarFile.map(file);
+        Assert.assertEquals("names in order", Arrays.asList("F_UK", "F_US", "F_NONE", "F_NO_BOUNDARY"), Arrays.asList(calendarFile
+                .getCalendarNames().toArray()));
+        Assert.assertTrue("contains", calendarFile.containsCalendar("F_UK"));
+        Assert.assertNull("unknown", calendarFile.getHolidayCalendar("XX", getConverter()));
+
+        final HolidayCalendar<E> uk = calendarFile.getHolidayCalendar("F_UK", getConverter());
+        Assert.assertEquals("UK holidays", createUKHolidays(), new HashSet<E>(uk.getHolidays()));
+        Assert.assertTrue("UK holiday", uk.isHoliday(newDate("2006-08-28")));
+        Assert.assertFalse("US holiday", uk.isHoliday(newDate("2006-07-04")));
+        Assert.assertFalse("before first holiday", uk.isHoliday(newDate("2005-12-26")));
+        Assert.assertFalse("after last holiday", uk.isHoliday(newDate("2007-12-26")));
+        Assert.assertEquals("early boundary", newDate("2006-01-01"), uk.getEarlyBoundary());
+        Assert.assertEquals("late boundary", newDate("2020-12-31"), uk.getLateBoundary());
+
+        final HolidayCalendar<E> us = calendarFile.getHolidayCalendar("F_US", getConverter());
+        Assert.assertEquals("US holidays", createUSHolidays(), new HashSet<E>(us.getHolidays()));
+        Assert.assertEquals("US early boundary", newDate("2005-01-01"), us.getEarlyBoundary());
+
+        final HolidayCalendar<E> none = calendarFile.getHolidayCalendar("F_NONE", getConverter());
+        Assert.assertTrue("no holiday", none.getHolidays().isEmpty());
+        Assert.assertFalse("not a holiday", none.isHoliday(newDate("2006-08-28")));
+        Assert.assertNull("no early boundary", none.getEarlyBoundary());
+
+        final HolidayCalendar<E> noBoundary = calendarFile.getHolidayCalendar("F_NO_BOUNDARY", getConverter());
+        Assert.assertEquals("holidays", newHolidaysSet(), new HashSet<E>(noBoundary.getHolidays()));
+        Assert.assertNull("no late boundary", noBoundary.getLateBoundary());
+    }
+
+    public void testMappedCalendarIsReadOnly() throws IOException {
+        newWriter().add("F_UK", createUKHolidayCalendar()).write(file);
+        final HolidayCalendar<E> uk = HolidayCalendarFile.map(file).getHolidayCalendar("F_UK", getConverter());
+        try {
+            uk.setHolidays(null);
+            fail("A mapped calendar is read only");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSerializedAsCopy() throws Exception {
+        newWriter().add("F_UK", createUKHolidayCalendar()).write(file);
+        final HolidayCalendar<E> uk = HolidayCalendarFile.map(file).getHolidayCalendar("F_UK", getConverter());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(uk);
+        out.close();
+        final HolidayCalendar<E> copy = (HolidayCalendar<E>) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        Assert.assertEquals("holidays", createUKHolidays(), new HashSet<E>(copy.getHolidays()));
+        Assert.assertTrue("holiday", copy.isHoliday(newDate("2006-08-28")));
+        Assert.assertEquals("late boundary", newDate("2020-12-31"), copy.getLateBoundary());
+    }
+
+    public void testRegisterWithFactory() throws IOException {
+        newWriter().add("F_UK", createUKHolidayCalendar()).add("F_US", createUSHolidayCalendar()).write(file);
+        getDateCalculatorFactory().registerHolidays(HolidayCalendarFile.map(file));
+        try {
+            Assert.assertTrue("registered", getDateCalculatorFactory().isHolidayCalendarRegistered("F_US"));
+
+            final DateCalculator<E> cal = getDateCalculatorFactory().getDateCalculator("F_UK", HolidayHandlerType.FORWARD);
+            cal.setStartDate(newDate("2006-08-25"));
+            checkDate("Fri + 1", cal.moveByBusinessDays(1), "2006-08-29");
+            Assert.assertEquals("Fri to Wed", 2, cal.businessDaysBetween(newDate("2006-08-25"), newDate("2006-08-30")));
+            Assert.assertEquals("engine", 2, getDateCalculatorFactory().getBusinessDayEngine("F_UK", HolidayHandlerType.FORWARD)
+                    .businessDaysBetween(newDate("2006-08-25"), newDate("2006-08-30")));
+
+            getDateCalculatorFactory().registerHolidays(HolidayCalendarFile.map(file));
+            Assert.assertEquals("new version", 2, getDateCalculatorFactory().getVersionedHolidayCalendar("F_UK").getVersion());
+        } finally {
+            getDateCalculatorFactory().unregisterHolidayCalendar("F_UK").unregisterHolidayCalendar("F_US");
+        }
+    }
+
+    public void testNotAHolidayCalendarFile() throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        out.write("GBP,2006-08-28\n".getBytes("UTF-8"));
+        out.close();
+        try {
+            HolidayCalendarFile.map(file);
+            fail("Not a holiday calendar file");
+        } catch (final IOException e) {
+            // expected
+        }
+    }
+
+    public void testTruncatedFile() throws IOException {
+        newWriter().add("F_UK", createUKHolidayCalendar()).add("F_US", createUSHolidayCalendar()).write(file);
+        final byte[] bytes = readFile();
+        // within the header, the directory and the bitsets
+        for (final int length : new int[] { 12, 20, 40, bytes.length - 8 }) {
+            writeFile(bytes, length);
+            try {
+                HolidayCalendarFile.map(file);
+                fail("Truncated to " + length + " bytes");
+            } catch (final IOException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testCorruptDirectory() throws IOException {
+        newWriter().add("F_UK", createUKHolidayCalendar()).write(file);
+        final byte[] bytes = readFile();
+        // a calendar count larger than the directory
+        bytes[11] = 2;
+        writeFile(bytes, bytes.length);
+        try {
+            HolidayCalendarFile.map(file);
+            fail("Corrupt calendar count");
+        } catch (final IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupt holiday calendar file"));
+        }
+    }
+
+    public void testDuplicateName() {
+        final HolidayCalendarFileWriter<E> writer = newWriter().add("F_UK", createUKHolidayCalendar());
+        try {
+            writer.add("F_UK", createUSHolidayCalendar());
+            fail("Duplicate name");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private byte[] readFile() throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            in.readFully(bytes);
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+
+    private void writeFile(final byte[] bytes, final int length) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes, 0, length);
+        } finally {
+            out.close();
+        }
+    }
+
+    private HolidayCalendarFileWriter<E> newWriter() {
+        return new HolidayCalendarFileWriter<E>(getConverter());
+    }
+
+    private EpochDayConverter<E> getConverter() {
+        return ((AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory()).getEpochDayConverter();
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -32,7 +32,9 @@
  */
 package net.objectlab.kit.datecalc.common;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import junit.framework.Assert;
 import junit.framework.TestCase;
@@ -156,6 +158,87 @@ public abstract class AbstractIMMDateTest<E> extends TestCase {
         Assert.assertEquals("From " + startDate + " period:" + period, parseDate("2007-06-20"), cal.getNextIMMDate(startDate, period));
     }
 
+    public void testIMMWithPeriodInIMMMonth() {
+        E startDate = parseDate("2006-03-01");
+        IMMPeriod period = IMMPeriod.BI_ANNUALY_JUN_DEC;
+        Assert.assertEquals("From " + startDate + " period:" + period, parseDate("2006-06-21"), cal.getNextIMMDate(startDate, period));
+        period = IMMPeriod.BI_ANNUALY_MAR_SEP;
+        Assert.assertEquals("From " + startDate + " period:" + period, parseDate("2006-03-15"), cal.getNextIMMDate(startDate, period));
+        period = IMMPeriod.ANNUALLY;
+        Assert.assertEquals("From " + startDate + " period:" + period, parseDate("2007-03-21"), cal.getNextIMMDate(startDate, period));
+
+        startDate = parseDate("2006-03-20");
+        period = IMMPeriod.BI_ANNUALY_JUN_DEC;
+        Assert.assertEquals("From " + startDate + " period:" + period, parseDate("2005-12-21"), cal.getPreviousIMMDate(startDate, period));
+        period = IMMPeriod.BI_ANNUALY_MAR_SEP;
+        Assert.assertEquals("From " + startDate + " period:" + period, parseDate("2006-03-15"), cal.getPreviousIMMDate(startDate, period));
+        period = IMMPeriod.ANNUALLY;
+        Assert.assertEquals("From " + startDate + " period:" + period, parseDate("2005-03-16"), cal.getPreviousIMMDate(startDate, period));
+    }
+
+    public void testIMMDateIterator() {
+        final E startDate = parseDate("2005-12-01");
+        final E endDate = parseDate("2055-12-21");
+        final AbstractIMMDateCalculator<E> calculator = (AbstractIMMDateCalculator<E>) cal;
+        for (final IMMPeriod period : IMMPeriod.values()) {
+            final List<E> imms = calculator.getIMMDates(startDate, endDate, period);
+            final Iterator<E> it = calculator.getIMMDateIterator(startDate, endDate, period);
+            for (final E imm : imms) {
+                assertTrue("period:" + period, it.hasNext());
+                assertEquals("period:" + period, imm, it.next());
+            }
+            assertFalse("period:" + period, it.hasNext());
+            try {
+                it.next();
+                fail("no more IMM dates");
+            } catch (final NoSuchElementException e) {
+                // ok
+            }
+        }
+
+        assertFalse("empty", calculator.getIMMDateIterator(parseDate("2006-03-16"), parseDate("2006-06-20"), IMMPeriod.QUARTERLY).hasNext());
+    }
+
+    public void testIMMDateIteratorWithoutEnd() {
+        final E startDate = parseDate("2006-03-16");
+        final AbstractIMMDateCalculator<E> calculator = (AbstractIMMDateCalculator<E>) cal;
+        final Iterator<E> it = calculator.getIMMDateIterator(startDate, IMMPeriod.QUARTERLY);
+        for (final E imm : calculator.getNextIMMDates(startDate, 5)) {
+            assertEquals(imm, it.next());
+        }
+
+        for (final IMMPeriod period : IMMPeriod.values()) {
+            final Iterator<E> dates = calculator.getIMMDateIterator(startDate, period);
+            E imm = startDate;
+            for (int i = 0; i < 200; i++) {
+                imm = calculator.getNextIMMDate(imm, period);
+                assertTrue("period:" + period, dates.hasNext());
+                assertEquals("period:" + period, imm, dates.next());
+            }
+        }
+
+        try {
+            it.remove();
+            fail("cannot remove IMM dates");
+        } catch (final UnsupportedOperationException e) {
+            // ok
+        }
+    }
+
+    public void testFarIMMDates() {
+        checkImm(cal, parseDate("1850-06-19"), true);
+        checkImm(cal, parseDate("1850-06-20"), false);
+        checkImm(cal, parseDate("2199-12-18"), true);
+
+        E startDate = parseDate("1900-01-01");
+        Assert.assertEquals("From " + startDate, parseDate("1900-03-21"), cal.getNextIMMDate(startDate));
+        Assert.assertEquals("From " + startDate, parseDate("1899-12-20"), cal.getPreviousIMMDate(startDate));
+
+        startDate = parseDate("2200-01-01");
+        Assert.assertEquals("From " + startDate, parseDate("2200-03-19"), cal.getNextIMMDate(startDate));
+        Assert.assertEquals("From " + startDate, parseDate("2199-12-18"), cal.getPreviousIMMDate(startDate));
+    }
+
     // -----------------------------------------------------------------------
     //
     // ObjectLab, world leaders in the design and development of bespoke
@@ -33,6 +33,11 @@
 package net.objectlab.kit.datecalc.common;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import junit.framework.Assert;
 import junit.framework.TestCase;
@@ -375,11 +380,15 @@ public abstract class AbstractPeriodCountCalculatorTest<E> extends TestCase {
         // end of set
     };
 
-    private PeriodCountCalculator<E> cal;
+    /** The bases calculated from the 2 dates only. */
+    private static final PeriodCountBasis[] DATES_ONLY = { PeriodCountBasis.CONV_30_360, PeriodCountBasis.CONV_360E_ISDA,
+            PeriodCountBasis.CONV_360E_ISMA, PeriodCountBasis.ACT_ACT, PeriodCountBasis.ACT_360, PeriodCountBasis.ACT_365 };
+
+    private AbstractPeriodCountCalculator<E> cal;
 
     @Override
     public void setUp() {
-        cal = getPeriodCountCalculator();
+        cal = (AbstractPeriodCountCalculator<E>) getPeriodCountCalculator();
     }
 
     public abstract PeriodCountCalculator<E> getPeriodCountCalculator();
@@ -388,6 +397,11 @@ public abstract class AbstractPeriodCountCalculatorTest<E> extends TestCase {
 
     public abstract E getDate();
 
+    /**
+     * @return an engine with the given holidays and the default WorkingWeek.
+     */
+    public abstract BusinessDayEngine<E> newBusinessDayEngine(Set<E> holidays);
+
     public void testSanity() {
         Assert.assertNotNull(cal);
     }
@@ -416,6 +430,233 @@ public abstract class AbstractPeriodCountCalculatorTest<E> extends TestCase {
         runtests(ACT_ACT);
     }
 
+    public void testEpochDaysAgainstTables() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (final String[][] tests : new String[][][] { CONV_360E_ISMA, CONV_360E_ISDA, CONV_30_360, ACT_365, ACT_360, ACT_ACT }) {
+                final PeriodCountBasis basis = PeriodCountBasis.valueOf(tests[0][3]);
+                final int[] starts = new int[tests.length];
+                final int[] ends = new int[tests.length];
+                for (int i = 0; i < tests.length; i++) {
+                    starts[i] = toEpochDay(tests[i][1]);
+                    ends[i] = toEpochDay(tests[i][2]);
+                }
+                final int[] dayDiffs = cal.dayDiff(starts, ends, basis);
+                final double[] yearDiffs = cal.yearDiff(starts, ends, basis, executor);
+                for (int i = 0; i < tests.length; i++) {
+                    final String name = tests[i][0] + " Basis:" + basis + " start:" + tests[i][1] + " End:" + tests[i][2];
+                    Assert.assertEquals(name + " dayDiff", Integer.parseInt(tests[i][4]), dayDiffs[i]);
+                    final BigDecimal yearDiff = new BigDecimal(yearDiffs[i]).setScale(6, BigDecimal.ROUND_HALF_UP);
+                    Assert.assertTrue(name + " yearDiff expected:" + tests[i][5] + " got:" + yearDiff, new BigDecimal(tests[i][5]).compareTo(yearDiff) == 0);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testEpochDaysSameAsDates() {
+        final Random random = new Random(1234L);
+        final int first = EpochDayUtil.toEpochDay(1995, 1, 1);
+        final int[] starts = new int[2000];
+        final int[] ends = new int[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = first + random.nextInt(365 * 20);
+            ends[i] = starts[i] + random.nextInt(365 * 12);
+        }
+        for (final PeriodCountBasis basis : DATES_ONLY) {
+            final int[] dayDiffs = cal.dayDiff(starts, ends, basis);
+            final double[] yearDiffs = cal.yearDiff(starts, ends, basis);
+            for (int i = 0; i < starts.length; i++) {
+                final E start = parseDate(toString(starts[i]));
+                final E end = parseDate(toString(ends[i]));
+                final String name = basis + " start:" + toString(starts[i]) + " End:" + toString(ends[i]);
+                Assert.assertEquals(name + " dayDiff", cal.dayDiff(start, end, basis), dayDiffs[i]);
+                Assert.assertEquals(name + " yearDiff", cal.yearDiff(start, end, basis), yearDiffs[i], 0.0);
+            }
+        }
+    }
+
+    public void testEpochDaysInParallel() {
+        final Random random = new Random(5678L);
+        final int[] starts = new int[100000];
+        final int[] ends = new int[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = random.nextInt(365 * 50);
+            ends[i] = starts[i] + random.nextInt(365 * 30);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final PeriodCountBasis basis : DATES_ONLY) {
+                final int[] dayDiffs = cal.dayDiff(starts, ends, basis, executor);
+                final double[] yearDiffs = cal.yearDiff(starts, ends, basis, executor);
+                for (int i = 0; i < starts.length; i++) {
+                    Assert.assertEquals(basis + " dayDiff " + i, EpochDayPeriodCount.dayDiff(starts[i], ends[i], basis), dayDiffs[i]);
+                    Assert.assertEquals(basis + " yearDiff " + i, EpochDayPeriodCount.yearDiff(starts[i], ends[i], basis), yearDiffs[i], 0.0);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testEpochDaysArguments() {
+        try {
+            cal.dayDiff(new int[1], new int[2], PeriodCountBasis.ACT_365);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            cal.yearDiff(null, new int[0], PeriodCountBasis.ACT_365);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            cal.yearDiff(new int[0], new int[0], null);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        Assert.assertEquals("empty", 0, cal.yearDiff(new int[0], new int[0], PeriodCountBasis.ACT_ACT).length);
+    }
+
+    public void testBus252() {
+        final Set<E> holidays = new HashSet<E>();
+        holidays.add(parseDate("2006-08-28"));
+        holidays.add(parseDate("2006-12-25"));
+        holidays.add(parseDate("2006-12-26"));
+        holidays.add(parseDate("2007-01-01"));
+        final BusinessDayEngine<E> engine = newBusinessDayEngine(holidays);
+
+        Assert.assertEquals("2 weeks less bank holiday", 9 / 252.0, cal.yearDiffBus252(parseDate("2006-08-21"), parseDate("2006-09-04"), engine), 0.0);
+        Assert.assertEquals("backward", -9 / 252.0, cal.yearDiffBus252(parseDate("2006-09-04"), parseDate("2006-08-21"), engine), 0.0);
+        Assert.assertEquals("same day", 0.0, cal.yearDiffBus252(parseDate("2006-08-28"), parseDate("2006-08-28"), engine), 0.0);
+        Assert.assertEquals("Xmas", 5 / 252.0, cal.yearDiffBus252(parseDate("2006-12-22"), parseDate("2007-01-03"), engine), 0.0);
+
+        final Random random = new Random(42L);
+        final int first = EpochDayUtil.toEpochDay(2006, 1, 1);
+        final int[] starts = new int[500];
+        final int[] ends = new int[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = first + random.nextInt(730);
+            ends[i] = first + random.nextInt(730);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final double[] diffs = cal.yearDiffBus252(starts, ends, engine, executor);
+            for (int i = 0; i < starts.length; i++) {
+                final E start = parseDate(toString(starts[i]));
+                final E end = parseDate(toString(ends[i]));
+                Assert.assertEquals("start:" + start + " end:" + end, cal.yearDiffBus252(start, end, engine), diffs[i], 0.0);
+                Assert.assertEquals("start:" + start + " end:" + end, engine.businessDaysBetween(start, end) / 252.0, diffs[i], 0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals("empty", 0, cal.yearDiffBus252(new int[0], new int[0], engine, null).length);
+    }
+
+    public void testActActIsda() {
+        final int start = EpochDayUtil.toEpochDay(2006, 8, 8);
+        Assert.assertEquals("within a year", 92 / 365.0, EpochDayPeriodCount.yearDiffActActIsda(start, EpochDayUtil.toEpochDay(2006, 11, 8)), 1e-15);
+        Assert.assertEquals("same day", 0.0, EpochDayPeriodCount.yearDiffActActIsda(start, start), 1e-15);
+        Assert.assertEquals("over a leap year end", 146 / 365.0 + 39 / 366.0, EpochDayPeriodCount.yearDiffActActIsda(start, EpochDayUtil
+                .toEpochDay(2008, 2, 9)) - 1.0, 1e-15);
+        for (int end = start; end < EpochDayUtil.toEpochDay(2010, 1, 1); end += 17) {
+            if (EpochDayUtil.getYear(end) != 2006) {
+                Assert.assertEquals("as ACT_ACT " + end, EpochDayPeriodCount.yearDiff(start, end, PeriodCountBasis.ACT_ACT), EpochDayPeriodCount
+                        .yearDiffActActIsda(start, end), 0.0);
+            }
+        }
+    }
+
+    public void testActActIcma() {
+        Assert.assertEquals("2 full semi annual periods", 1.0, cal.yearDiffActActIcma(parseDate("2006-01-15"), parseDate("2007-01-15"), 2), 0.0);
+        Assert.assertEquals("part of a semi annual period", 136 / 362.0,
+                cal.yearDiffActActIcma(parseDate("2006-03-01"), parseDate("2006-07-15"), 2), 0.0);
+        Assert.assertEquals("part and full period", 0.5 + 136 / 362.0,
+                cal.yearDiffActActIcma(parseDate("2006-03-01"), parseDate("2007-01-15"), 2), 1e-15);
+        Assert.assertEquals("quarterly from an end of month", 90 / 368.0,
+                cal.yearDiffActActIcma(parseDate("2006-11-30"), parseDate("2007-02-28"), 4), 0.0);
+        Assert.assertEquals("annual over a leap year", 2 + 60 / 366.0,
+                cal.yearDiffActActIcma(parseDate("2008-01-01"), parseDate("2010-03-01"), 1), 1e-15);
+        Assert.assertEquals("backward", -136 / 362.0, cal.yearDiffActActIcma(parseDate("2006-07-15"), parseDate("2006-03-01"), 2), 0.0);
+        Assert.assertEquals("same day", 0.0, cal.yearDiffActActIcma(parseDate("2006-07-15"), parseDate("2006-07-15"), 12), 0.0);
+
+        Assert.assertEquals("quarter between month ends", 0.25, cal.yearDiffActActIcma(parseDate("2020-03-31"), parseDate("2020-06-30"), 4, true),
+                0.0);
+        Assert.assertEquals("half year between month ends", 0.5, cal.yearDiffActActIcma(parseDate("2020-08-31"), parseDate("2021-02-28"), 2, true),
+                0.0);
+        Assert.assertEquals("part of a month end period", 0.5 + 31 / 368.0,
+                cal.yearDiffActActIcma(parseDate("2019-11-30"), parseDate("2020-06-30"), 4, true), 1e-15);
+        Assert.assertEquals("not a month end", 0.5, cal.yearDiffActActIcma(parseDate("2020-08-15"), parseDate("2021-02-15"), 2, true), 0.0);
+        Assert.assertEquals("no end of month rule", 90 / 368.0,
+                cal.yearDiffActActIcma(parseDate("2006-11-30"), parseDate("2007-02-28"), 4, false), 0.0);
+
+        for (final int couponsPerYear : new int[] { 0, 5, -2, 24 }) {
+            try {
+                cal.yearDiffActActIcma(parseDate("2006-03-01"), parseDate("2006-07-15"), couponsPerYear);
+                fail("Should have thrown IllegalArgumentException for " + couponsPerYear);
+            } catch (final IllegalArgumentException e) {
+                // expected
+            }
+        }
+
+        final Random random = new Random(43L);
+        final int first = EpochDayUtil.toEpochDay(1998, 1, 1);
+        final int[] starts = new int[1000];
+        final int[] ends = new int[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = first + random.nextInt(3650);
+            ends[i] = starts[i] + random.nextInt(3650);
+        }
+        for (final int couponsPerYear : new int[] { 1, 2, 4, 12 }) {
+            final double[] diffs = cal.yearDiffActActIcma(starts, ends, couponsPerYear, null);
+            for (int i = 0; i < starts.length; i++) {
+                final E start = parseDate(toString(starts[i]));
+                final E end = parseDate(toString(ends[i]));
+                Assert.assertEquals("start:" + start + " end:" + end, cal.yearDiffActActIcma(start, end, couponsPerYear), diffs[i], 0.0);
+            }
+            final double[] monthEnds = cal.yearDiffActActIcma(starts, ends, couponsPerYear, true, null);
+            for (int i = 0; i < starts.length; i++) {
+                final E start = parseDate(toString(starts[i]));
+                final E end = parseDate(toString(ends[i]));
+                Assert.assertEquals("start:" + start + " end:" + end, cal.yearDiffActActIcma(start, end, couponsPerYear, true), monthEnds[i], 0.0);
+            }
+        }
+    }
+
+    public void testBasesNeedingMoreThanDates() {
+        final E start = parseDate("2006-03-01");
+        final E end = parseDate("2006-07-15");
+        Assert.assertEquals("ICMA days", 136, cal.dayDiff(start, end, PeriodCountBasis.ACT_ACT_ICMA));
+        for (final PeriodCountBasis basis : new PeriodCountBasis[] { PeriodCountBasis.BUS_252, PeriodCountBasis.ACT_ACT_ICMA }) {
+            try {
+                cal.yearDiff(start, end, basis);
+                fail("Should have thrown UnsupportedOperationException for " + basis);
+            } catch (final UnsupportedOperationException e) {
+                // expected
+            }
+        }
+        try {
+            cal.dayDiff(start, end, PeriodCountBasis.BUS_252);
+            fail("Should have thrown UnsupportedOperationException");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    private static int toEpochDay(final String date) {
+        return EpochDayUtil.toEpochDay(Integer.parseInt(date.substring(0, 4)), Integer.parseInt(date.substring(5, 7)),
+                Integer.parseInt(date.substring(8, 10)));
+    }
+
+    private static String toString(final int epochDay) {
+        return String.format("%04d-%02d-%02d", EpochDayUtil.getYear(epochDay), EpochDayUtil.getMonth(epochDay), EpochDayUtil.getDayOfMonth(epochDay));
+    }
+
     private void runtests(final String[][] tests) {
         for (final String[] test : tests) {
             runtest(cal, test);
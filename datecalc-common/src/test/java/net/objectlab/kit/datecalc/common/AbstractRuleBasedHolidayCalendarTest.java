@@ -0,0 +1,213 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+public abstract class AbstractRuleBasedHolidayCalendarTest<E extends Serializable> extends AbstractDateTestCase<E> {
+
+    private static final List<HolidayRule> UK_RULES = Arrays.asList(HolidayRule.fixed(1, 1).withSubstitution(WeekendSubstitution.FOLLOWING),
+            HolidayRule.easter(-2), HolidayRule.easter(1), HolidayRule.nthWeekday(5, Calendar.MONDAY, 1),
+            HolidayRule.nthWeekday(5, Calendar.MONDAY, -1), HolidayRule.nthWeekday(8, Calendar.MONDAY, -1),
+            HolidayRule.fixed(12, 25).withSubstitution(WeekendSubstitution.FOLLOWING),
+            HolidayRule.fixed(12, 26).withSubstitution(WeekendSubstitution.FOLLOWING));
+
+    private static final List<HolidayRule> US_RULES = Arrays.asList(HolidayRule.fixed(1, 1).withSubstitution(WeekendSubstitution.NEAREST),
+            HolidayRule.fixed(6, 19).withSubstitution(WeekendSubstitution.NEAREST).withYears(2021, HolidayRule.ALL_YEARS),
+            HolidayRule.fixed(7, 4).withSubstitution(WeekendSubstitution.NEAREST), HolidayRule.nthWeekday(11, Calendar.THURSDAY, 4));
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        getDateCalculatorFactory().unregisterHolidayCalendar("RULES_UK");
+    }
+
+    public void testFixedEasterAndNthWeekday() {
+        final RuleBasedHolidayCalendar<E> uk = newCalendar(UK_RULES, 2006, 2030);
+        checkHolidays(uk, "2006-01-02", "2006-04-14", "2006-04-17", "2006-05-01", "2006-05-29", "2006-08-28", "2006-12-25", "2006-12-26",
+                "2024-03-29", "2024-04-01");
+        checkNotHolidays(uk, "2006-01-01", "2006-04-16", "2006-05-08", "2006-08-21", "2006-12-27", "2024-03-31");
+    }
+
+    public void testFollowingSubstitutionSkipsEarlierHolidays() {
+        final RuleBasedHolidayCalendar<E> uk = newCalendar(UK_RULES, 2006, 2030);
+        // Saturday 25 and Sunday 26
+        checkHolidays(uk, "2010-12-27", "2010-12-28");
+        checkNotHolidays(uk, "2010-12-25", "2010-12-26", "2010-12-29");
+        // Sunday 25 and Monday 26
+        checkHolidays(uk, "2011-12-26", "2011-12-27");
+        checkNotHolidays(uk, "2011-12-25", "2011-12-28");
+        // Saturday 1 Jan
+        checkHolidays(uk, "2011-01-03");
+    }
+
+    public void testNearestSubstitutionAndYears() {
+        final RuleBasedHolidayCalendar<E> us = newCalendar(US_RULES, 2019, 2023);
+        checkHolidays(us, "2020-07-03", "2021-07-05", "2021-06-18", "2023-11-23", "2021-12-31");
+        checkNotHolidays(us, "2020-06-19", "2020-07-04", "2021-07-04", "2022-01-01", "2022-01-03");
+        checkNotHolidays(us, "2018-07-04", "2024-07-04");
+        assertEquals("early", newDate("2019-01-01"), us.getEarlyBoundary());
+        assertEquals("late", newDate("2023-12-31"), us.getLateBoundary());
+    }
+
+    public void testCachedYearsAreBounded() {
+        final RuleBasedHolidayCalendar<E> uk = new RuleBasedHolidayCalendar<E>(UK_RULES, WorkingWeek.DEFAULT, 2006, 2030, 2, getConverter());
+        for (int year = 2006; year <= 2030; year++) {
+            assertTrue("Christmas " + year, uk.isHoliday(EpochDayUtil.toEpochDay(year, 12, 25)) || uk.isHoliday(EpochDayUtil.toEpochDay(year, 12, 27)));
+            assertTrue("kept " + year, uk.getCachedYearCount() <= 2);
+        }
+        checkHolidays(uk, "2006-08-28");
+        assertEquals("Holidays", 8 * 25, uk.getHolidays().size());
+        assertEquals("Holiday days", 8 * 25, uk.getHolidayDays().size());
+    }
+
+    public void testSameAsExplicitHolidays() {
+        final RuleBasedHolidayCalendar<E> rules = newCalendar(UK_RULES, 2006, 2030);
+        final HolidayCalendar<E> explicit = new DefaultHolidayCalendar<E>(rules.getHolidays(), rules.getEarlyBoundary(), rules.getLateBoundary());
+        final DateCalculator<E> fromRules = getDateCalculatorFactory().getDateCalculator("bla", HolidayHandlerType.FORWARD).setHolidayCalendar(rules);
+        final DateCalculator<E> fromSet = getDateCalculatorFactory().getDateCalculator("bla", HolidayHandlerType.FORWARD).setHolidayCalendar(explicit);
+        fromRules.setStartDate(newDate("2006-01-03"));
+        fromSet.setStartDate(newDate("2006-01-03"));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("Move " + i, fromSet.moveByBusinessDays(3).getCurrentBusinessDate(), fromRules.moveByBusinessDays(3).getCurrentBusinessDate());
+        }
+    }
+
+    public void testRegisteredAsIs() {
+        final RuleBasedHolidayCalendar<E> rules = newCalendar(UK_RULES, 2006, 2030);
+        getDateCalculatorFactory().registerHolidays("RULES_UK", rules);
+        assertSame("registered", rules, getDateCalculatorFactory().getVersionedHolidayCalendar("RULES_UK").getCurrent());
+
+        final DateCalculator<E> calc = getDateCalculatorFactory().getDateCalculator("RULES_UK", HolidayHandlerType.FORWARD);
+        calc.setStartDate(newDate("2010-12-24"));
+        checkDate("Fri + 1", calc.moveByBusinessDays(1), "2010-12-29");
+
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine("RULES_UK", HolidayHandlerType.FORWARD);
+        checkDate("Engine Fri + 1", engine.addBusinessDays(newDate("2010-12-24"), 1), "2010-12-29");
+    }
+
+    public void testCurrencyCalculator() {
+        final CurrencyDateCalculator<E> calc = getDateCalculatorFactory().buildCurrencyDateCalculator(
+                getDateCalculatorFactory().getDefaultCurrencyDateCalculatorBuilder("GBP", "CHF", SpotLag.T_2).ccy1Calendar(
+                        newCalendar(UK_RULES, 2006, 2030)));
+        checkDate("Spot Thu 23 Dec 2010", calc.calculateSpotDate(newDate("2010-12-23")), "2010-12-29");
+    }
+
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        final RuleBasedHolidayCalendar<E> uk = newCalendar(UK_RULES, 2006, 2030);
+        checkHolidays(uk, "2010-12-27");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(uk);
+        out.close();
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        @SuppressWarnings("unchecked")
+        final RuleBasedHolidayCalendar<E> copy = (RuleBasedHolidayCalendar<E>) in.readObject();
+        assertEquals("No year kept", 0, copy.getCachedYearCount());
+        checkHolidays(copy, "2010-12-27", "2010-12-28");
+        assertEquals("Rules", uk.getRules().size(), copy.getRules().size());
+    }
+
+    public void testInvalidRules() {
+        try {
+            HolidayRule.fixed(2, 30);
+            fail("30 Feb should throw IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            HolidayRule.nthWeekday(5, Calendar.MONDAY, 0);
+            fail("0th Monday should throw IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            newCalendar(UK_RULES, 2030, 2006);
+            fail("reversed years should throw IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            newCalendar(UK_RULES, 2006, 2030).setHolidays(null);
+            fail("read only calendar should throw UnsupportedOperationException");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    private RuleBasedHolidayCalendar<E> newCalendar(final List<HolidayRule> rules, final int firstYear, final int lastYear) {
+        return new RuleBasedHolidayCalendar<E>(rules, firstYear, lastYear, getConverter());
+    }
+
+    private void checkHolidays(final HolidayCalendar<E> calendar, final String... dates) {
+        for (final String date : dates) {
+            assertTrue(date + " is a holiday", calendar.isHoliday(newDate(date)));
+        }
+    }
+
+    private void checkNotHolidays(final HolidayCalendar<E> calendar, final String... dates) {
+        for (final String date : dates) {
+            assertFalse(date + " is not a holiday", calendar.isHoliday(newDate(date)));
+        }
+    }
+
+    private EpochDayConverter<E> getConverter() {
+        return ((AbstractKitCalculatorsFactory<E>) getDateCalculatorFactory()).getEpochDayConverter();
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
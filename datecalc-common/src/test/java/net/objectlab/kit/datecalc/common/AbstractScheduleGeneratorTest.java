@@ -0,0 +1,333 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks the rolls, stubs and adjustments of the ScheduleGenerator.
+ */
+public abstract class AbstractScheduleGeneratorTest<E extends Serializable> extends AbstractDateTestCase<E> {
+
+    private static final String CALENDAR = "SCHEDULE";
+
+    private static final double DELTA = 1e-12;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        registerHolidays(CALENDAR, createUKHolidayCalendar());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        getDateCalculatorFactory().unregisterHolidayCalendar(CALENDAR);
+        super.tearDown();
+    }
+
+    public void testShortInitialStub() {
+        final Schedule schedule = unadjusted(StandardTenor.T_3M, StubConvention.SHORT_INITIAL).generate(day("2006-02-01"), day("2007-01-15"));
+        checkDates("Short initial", schedule.getUnadjustedDates(), "2006-02-01", "2006-04-15", "2006-07-15", "2006-10-15", "2007-01-15");
+        assertTrue("initial stub", schedule.hasInitialStub());
+        assertFalse("final stub", schedule.hasFinalStub());
+        assertEquals("periods", 4, schedule.getPeriodCount());
+    }
+
+    public void testLongInitialStub() {
+        final Schedule schedule = unadjusted(StandardTenor.T_3M, StubConvention.LONG_INITIAL).generate(day("2006-02-01"), day("2007-01-15"));
+        checkDates("Long initial", schedule.getUnadjustedDates(), "2006-02-01", "2006-07-15", "2006-10-15", "2007-01-15");
+        assertTrue("initial stub", schedule.hasInitialStub());
+        assertFalse("final stub", schedule.hasFinalStub());
+    }
+
+    public void testShortFinalStub() {
+        final Schedule schedule = unadjusted(StandardTenor.T_3M, StubConvention.SHORT_FINAL).generate(day("2006-02-01"), day("2007-01-15"));
+        checkDates("Short final", schedule.getUnadjustedDates(), "2006-02-01", "2006-05-01", "2006-08-01", "2006-11-01", "2007-01-15");
+        assertFalse("initial stub", schedule.hasInitialStub());
+        assertTrue("final stub", schedule.hasFinalStub());
+    }
+
+    public void testLongFinalStub() {
+        final Schedule schedule = unadjusted(StandardTenor.T_3M, StubConvention.LONG_FINAL).generate(day("2006-02-01"), day("2007-01-15"));
+        checkDates("Long final", schedule.getUnadjustedDates(), "2006-02-01", "2006-05-01", "2006-08-01", "2007-01-15");
+        assertFalse("initial stub", schedule.hasInitialStub());
+        assertTrue("final stub", schedule.hasFinalStub());
+    }
+
+    public void testNoStub() {
+        for (final StubConvention stub : StubConvention.values()) {
+            final Schedule schedule = unadjusted(StandardTenor.T_3M, stub).generate(day("2006-01-15"), day("2007-01-15"));
+            checkDates(stub.toString(), schedule.getUnadjustedDates(), "2006-01-15", "2006-04-15", "2006-07-15", "2006-10-15", "2007-01-15");
+            assertFalse(stub + " initial stub", schedule.hasInitialStub());
+            assertFalse(stub + " final stub", schedule.hasFinalStub());
+        }
+
+        try {
+            unadjusted(StandardTenor.T_3M, StubConvention.NONE).generate(day("2006-02-01"), day("2007-01-15"));
+            fail("not a whole number of periods");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    public void testPeriodLongerThanSchedule() {
+        for (final StubConvention stub : new StubConvention[] { StubConvention.LONG_INITIAL, StubConvention.LONG_FINAL }) {
+            final Schedule schedule = unadjusted(StandardTenor.T_1Y, stub).generate(day("2006-02-01"), day("2006-05-01"));
+            checkDates(stub.toString(), schedule.getUnadjustedDates(), "2006-02-01", "2006-05-01");
+        }
+    }
+
+    public void testDaysAndWeeks() {
+        checkDates("2W", unadjusted(new Tenor(2, TenorCode.WEEK), StubConvention.SHORT_FINAL).generate(day("2006-08-01"), day("2006-09-01"))
+                .getUnadjustedDates(), "2006-08-01", "2006-08-15", "2006-08-29", "2006-09-01");
+        checkDates("10D", unadjusted(new Tenor(10, TenorCode.DAY), StubConvention.SHORT_INITIAL).generate(day("2006-08-01"), day("2006-08-25"))
+                .getUnadjustedDates(), "2006-08-01", "2006-08-05", "2006-08-15", "2006-08-25");
+    }
+
+    public void testEndOfMonth() {
+        final ScheduleGeneratorBuilder<E> builder = newBuilder(StandardTenor.T_3M).accrualHolidayHandlerType(null);
+        checkDates("Backward", new ScheduleGenerator<E>(builder).generate(day("2006-02-28"), day("2006-11-30")).getUnadjustedDates(),
+                "2006-02-28", "2006-05-30", "2006-08-30", "2006-11-30");
+        checkDates("Backward EOM", new ScheduleGenerator<E>(builder.endOfMonth(true)).generate(day("2006-02-28"), day("2006-11-30"))
+                .getUnadjustedDates(), "2006-02-28", "2006-05-31", "2006-08-31", "2006-11-30");
+
+        builder.stubConvention(StubConvention.SHORT_FINAL);
+        checkDates("Forward EOM", new ScheduleGenerator<E>(builder).generate(day("2006-02-28"), day("2006-11-30")).getUnadjustedDates(),
+                "2006-02-28", "2006-05-31", "2006-08-31", "2006-11-30");
+        final Schedule schedule = new ScheduleGenerator<E>(builder.endOfMonth(false)).generate(day("2006-02-28"), day("2006-11-30"));
+        checkDates("Forward", schedule.getUnadjustedDates(), "2006-02-28", "2006-05-28", "2006-08-28", "2006-11-28", "2006-11-30");
+        assertTrue("final stub", schedule.hasFinalStub());
+    }
+
+    public void testAdjustedAndPaymentDates() {
+        final ScheduleGenerator<E> generator = new ScheduleGenerator<E>(newBuilder(StandardTenor.T_1M).paymentLag(2));
+        final Schedule schedule = generator.generate(day("2006-06-30"), day("2006-12-30"));
+        checkDates("Unadjusted", schedule.getUnadjustedDates(), "2006-06-30", "2006-07-30", "2006-08-30", "2006-09-30", "2006-10-30",
+                "2006-11-30", "2006-12-30");
+        checkDates("Modified Following", schedule.getAdjustedDates(), "2006-06-30", "2006-07-31", "2006-08-30", "2006-09-29", "2006-10-30",
+                "2006-11-30", "2006-12-29");
+        checkDates("Payment", schedule.getPaymentDates(), "2006-08-02", "2006-09-01", "2006-10-03", "2006-11-01", "2006-12-04", "2007-01-02");
+        final int[] actualDays = { 31, 30, 30, 31, 31, 29 };
+        for (int p = 0; p < actualDays.length; p++) {
+            assertEquals("ACT/360 period " + p, actualDays[p] / 360.0, schedule.getYearFraction(p), DELTA);
+        }
+    }
+
+    public void testAdjustSameAsHolidayHandlers() {
+        final String[] types = { HolidayHandlerType.FORWARD, HolidayHandlerType.BACKWARD, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK,
+                HolidayHandlerType.MODIFIED_FOLLOWING, HolidayHandlerType.MODIFIED_PRECEDING };
+        for (final String type : types) {
+            final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, type);
+            final ScheduleGenerator<E> generator = new ScheduleGenerator<E>(newBuilder(new Tenor(1, TenorCode.DAY)).accrualHolidayHandlerType(type));
+            final Schedule schedule = generator.generate(day("2006-01-02"), day("2006-12-31"));
+            final List<E> dates = generator.toDates(schedule.getUnadjustedDates());
+            final List<E> adjusted = generator.toDates(schedule.getAdjustedDates());
+            for (int i = 0; i < dates.size(); i++) {
+                assertEquals(type + " " + dates.get(i), engine.adjust(dates.get(i)), adjusted.get(i));
+            }
+        }
+    }
+
+    public void testBasesNeedingMoreThanDates() {
+        final ScheduleGeneratorBuilder<E> builder = newBuilder(StandardTenor.T_6M);
+        final Schedule bus = new ScheduleGenerator<E>(builder.periodCountBasis(PeriodCountBasis.BUS_252)).generate(day("2006-06-15"),
+                day("2007-06-15"));
+        final BusinessDayEngine<E> engine = getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, null);
+        final ScheduleGenerator<E> generator = new ScheduleGenerator<E>(builder);
+        final List<E> adjusted = generator.toDates(bus.getAdjustedDates());
+        for (int p = 0; p < bus.getPeriodCount(); p++) {
+            assertEquals("BUS/252 period " + p, engine.businessDaysBetween(adjusted.get(p), adjusted.get(p + 1)) / 252.0, bus.getYearFraction(p),
+                    DELTA);
+        }
+
+        final Schedule icma = new ScheduleGenerator<E>(builder.periodCountBasis(PeriodCountBasis.ACT_ACT_ICMA).accrualHolidayHandlerType(null))
+                .generate(day("2006-06-15"), day("2008-06-15"));
+        for (int p = 0; p < icma.getPeriodCount(); p++) {
+            assertEquals("ICMA period " + p, 0.5, icma.getYearFraction(p), DELTA);
+        }
+    }
+
+    public void testActActYearFractions() {
+        final Schedule schedule = new ScheduleGenerator<E>(newBuilder(StandardTenor.T_3M).periodCountBasis(PeriodCountBasis.ACT_ACT)
+                .accrualHolidayHandlerType(null)).generate(day("2016-01-15"), day("2017-01-15"));
+        assertEquals("Q1 within a leap year", 91 / 366.0, schedule.getYearFraction(0), DELTA);
+        assertEquals("Q2 within a leap year", 91 / 366.0, schedule.getYearFraction(1), DELTA);
+        assertEquals("Q3 within a leap year", 92 / 366.0, schedule.getYearFraction(2), DELTA);
+        assertEquals("Q4 split by year", 78 / 366.0 + 14 / 365.0, schedule.getYearFraction(3), DELTA);
+    }
+
+    public void testActActIcmaYearFractions() {
+        final ScheduleGeneratorBuilder<E> builder = newBuilder(StandardTenor.T_3M).periodCountBasis(PeriodCountBasis.ACT_ACT_ICMA)
+                .accrualHolidayHandlerType(HolidayHandlerType.MODIFIED_FOLLOWING);
+        final Schedule shortInitial = new ScheduleGenerator<E>(builder).generate(day("2006-02-01"), day("2007-01-15"));
+        assertEquals("short initial stub", 73 / 360.0, shortInitial.getYearFraction(0), DELTA);
+        for (int p = 1; p < shortInitial.getPeriodCount(); p++) {
+            assertEquals("regular period " + p, 0.25, shortInitial.getYearFraction(p), 0.0);
+        }
+
+        final Schedule longInitial = new ScheduleGenerator<E>(builder.stubConvention(StubConvention.LONG_INITIAL)).generate(day("2006-02-01"),
+                day("2007-01-15"));
+        assertEquals("long initial stub", 0.25 + 73 / 360.0, longInitial.getYearFraction(0), DELTA);
+        assertEquals("regular period", 0.25, longInitial.getYearFraction(1), 0.0);
+
+        final Schedule shortFinal = new ScheduleGenerator<E>(builder.stubConvention(StubConvention.SHORT_FINAL)).generate(day("2006-02-01"),
+                day("2007-01-15"));
+        assertEquals("regular period", 0.25, shortFinal.getYearFraction(0), 0.0);
+        assertEquals("short final stub", 75 / 368.0, shortFinal.getYearFraction(shortFinal.getPeriodCount() - 1), DELTA);
+
+        final Schedule monthEnds = new ScheduleGenerator<E>(builder.stubConvention(StubConvention.SHORT_INITIAL).endOfMonth(true)).generate(
+                day("2016-03-31"), day("2017-02-28"));
+        assertEquals("stub from a month end", 61 / 368.0, monthEnds.getYearFraction(0), DELTA);
+        for (int p = 1; p < monthEnds.getPeriodCount(); p++) {
+            assertEquals("regular month end period " + p, 0.25, monthEnds.getYearFraction(p), 0.0);
+        }
+    }
+
+    public void testGenerateFromDates() {
+        final ScheduleGenerator<E> generator = new ScheduleGenerator<E>(newBuilder(StandardTenor.T_3M));
+        final Schedule schedule = generator.generate(newDate("2006-02-01"), newDate("2007-01-15"));
+        assertTrue("Same as epoch days", Arrays.equals(generator.generate(day("2006-02-01"), day("2007-01-15")).getAdjustedDates(),
+                schedule.getAdjustedDates()));
+        assertEquals("Payment date", newDate("2006-04-17"), generator.toDates(schedule.getPaymentDates()).get(0));
+    }
+
+    public void testBatchInParallel() throws Exception {
+        final ScheduleGenerator<E> generator = new ScheduleGenerator<E>(newBuilder(StandardTenor.T_6M).paymentLag(2).endOfMonth(true));
+        final int count = 1000;
+        final int[] starts = new int[count];
+        final int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = day("2006-01-02") + i;
+            ends[i] = EpochDayUtil.plusMonths(starts[i], 12 * (1 + i % 10)) + i % 7;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Schedule[] parallel = generator.generate(starts, ends, executor);
+            final Schedule[] sequential = generator.generate(starts, ends, null);
+            for (int i = 0; i < count; i++) {
+                final Schedule expected = generator.generate(starts[i], ends[i]);
+                for (final Schedule schedule : new Schedule[] { parallel[i], sequential[i] }) {
+                    assertTrue("unadjusted " + i, Arrays.equals(expected.getUnadjustedDates(), schedule.getUnadjustedDates()));
+                    assertTrue("adjusted " + i, Arrays.equals(expected.getAdjustedDates(), schedule.getAdjustedDates()));
+                    assertTrue("payment " + i, Arrays.equals(expected.getPaymentDates(), schedule.getPaymentDates()));
+                    assertTrue("year fractions " + i, Arrays.equals(expected.getYearFractions(), schedule.getYearFractions()));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals("empty batch", 0, generator.generate(new int[0], new int[0], null).length);
+    }
+
+    public void testInvalidArguments() {
+        checkInvalid(new ScheduleGeneratorBuilder<E>().frequency(StandardTenor.T_3M));
+        checkInvalid(newBuilder(null));
+        checkInvalid(newBuilder(StandardTenor.SPOT));
+        checkInvalid(newBuilder(new Tenor(0, TenorCode.MONTH)));
+        checkInvalid(newBuilder(StandardTenor.T_3M).paymentLag(-1));
+        checkInvalid(newBuilder(StandardTenor.T_3M).accrualHolidayHandlerType("sideways"));
+        checkInvalid(newBuilder(new Tenor(5, TenorCode.MONTH)).periodCountBasis(PeriodCountBasis.ACT_ACT_ICMA));
+        checkInvalid(newBuilder(StandardTenor.T_1W).periodCountBasis(PeriodCountBasis.ACT_ACT_ICMA));
+
+        final ScheduleGenerator<E> generator = new ScheduleGenerator<E>(newBuilder(StandardTenor.T_3M));
+        try {
+            generator.generate(day("2007-01-15"), day("2006-01-15"));
+            fail("start after end");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            generator.generate(new int[] { day("2006-01-15") }, new int[0], null);
+            fail("different lengths");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            generator.generate(day("2005-06-15"), day("2007-01-15"));
+            fail("before the early boundary");
+        } catch (final IndexOutOfBoundsException e) {
+            // ok
+        }
+    }
+
+    private void checkInvalid(final ScheduleGeneratorBuilder<E> builder) {
+        try {
+            new ScheduleGenerator<E>(builder);
+            fail("invalid builder");
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    private ScheduleGeneratorBuilder<E> newBuilder(final Tenor frequency) {
+        return new ScheduleGeneratorBuilder<E>().businessDayEngine(getDateCalculatorFactory().getBusinessDayEngine(CALENDAR, null)).frequency(
+                frequency);
+    }
+
+    private ScheduleGenerator<E> unadjusted(final Tenor frequency, final StubConvention stub) {
+        return new ScheduleGenerator<E>(newBuilder(frequency).stubConvention(stub).accrualHolidayHandlerType(null));
+    }
+
+    private static int day(final String isoDate) {
+        return EpochDayUtil.toEpochDay(Integer.parseInt(isoDate.substring(0, 4)), Integer.parseInt(isoDate.substring(5, 7)),
+                Integer.parseInt(isoDate.substring(8, 10)));
+    }
+
+    private static void checkDates(final String message, final int[] epochDays, final String... expected) {
+        assertEquals(message + " " + Arrays.toString(epochDays), expected.length, epochDays.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(message + " date " + i, day(expected[i]), epochDays[i]);
+        }
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
@@ -4,6 +4,7 @@ import static java.util.Calendar.APRIL;
 import static net.objectlab.kit.datecalc.common.Utils.getCal;
 
 import java.util.Calendar;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -43,4 +44,52 @@ public class DefaultHolidayCalendarTest extends TestCase {
         testHoliday.set(2010, APRIL, 22);
         assertFalse(holidayCalendar.isHoliday(testHoliday));
     }
+
+    public void testSameDayIsHeldOnce() {
+        final Set<Calendar> holidays = new HashSet<Calendar>();
+        holidays.add(getCal("2009-04-22"));
+        final Calendar afternoon = getCal("2009-04-22");
+        afternoon.set(Calendar.HOUR_OF_DAY, 15);
+        holidays.add(afternoon);
+
+        final HolidayCalendar<Calendar> holidayCalendar = new DefaultHolidayCalendar<Calendar>(holidays);
+        assertEquals(1, holidayCalendar.getHolidays().size());
+        assertTrue(holidayCalendar.isHoliday(afternoon));
+    }
+
+    public void testGetHolidaysIsUnmodifiable() {
+        final Set<Calendar> holidays = new HashSet<Calendar>();
+        holidays.add(getCal("2009-04-22"));
+
+        final HolidayCalendar<Calendar> holidayCalendar = new DefaultHolidayCalendar<Calendar>(holidays);
+        try {
+            holidayCalendar.getHolidays().add(getCal("2009-04-23"));
+            fail("Should not be able to modify the holidays");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals(1, holidayCalendar.getHolidays().size());
+        holidays.add(getCal("2009-04-23"));
+        assertFalse("Holidays should be a copy", holidayCalendar.isHoliday(getCal("2009-04-23")));
+    }
+
+    public void testDateHolidays() {
+        final Set<Date> holidays = new HashSet<Date>();
+        holidays.add(getCal("2009-04-22").getTime());
+        holidays.add(getCal("2009-12-25").getTime());
+
+        final DefaultHolidayCalendar<Date> holidayCalendar = new DefaultHolidayCalendar<Date>(holidays);
+        assertTrue(holidayCalendar.isHoliday(getCal("2009-12-25").getTime()));
+        assertFalse(holidayCalendar.isHoliday(getCal("2009-12-24").getTime()));
+        assertTrue(holidayCalendar.isHoliday(EpochDayUtil.toEpochDay(2009, 4, 22)));
+        assertFalse(holidayCalendar.isHoliday(EpochDayUtil.toEpochDay(2009, 4, 23)));
+        assertEquals(2, holidayCalendar.getHolidayDays().size());
+    }
+
+    public void testEmptyCalendar() {
+        final DefaultHolidayCalendar<Calendar> holidayCalendar = new DefaultHolidayCalendar<Calendar>();
+        assertFalse(holidayCalendar.isHoliday(getCal("2009-04-22")));
+        assertFalse(holidayCalendar.isHoliday((Calendar) null));
+        assertTrue(holidayCalendar.getHolidays().isEmpty());
+    }
 }
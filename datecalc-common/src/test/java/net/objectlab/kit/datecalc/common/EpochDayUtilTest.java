@@ -0,0 +1,115 @@
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ *
+ * $Id$
+ *
+ * Copyright 2006 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.objectlab.kit.datecalc.common;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+public class EpochDayUtilTest extends TestCase {
+
+    public void testKnownDays() {
+        assertEquals(0, EpochDayUtil.toEpochDay(1970, 1, 1));
+        assertEquals(-1, EpochDayUtil.toEpochDay(1969, 12, 31));
+        assertEquals(11016, EpochDayUtil.toEpochDay(2000, 2, 29));
+        assertEquals(Calendar.THURSDAY, EpochDayUtil.getCalendarDayOfWeek(0));
+        assertEquals(Calendar.WEDNESDAY, EpochDayUtil.getCalendarDayOfWeek(-1));
+    }
+
+    public void testAgainstGregorianCalendar() {
+        final Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(1900, Calendar.JANUARY, 1);
+        for (int epochDay = EpochDayUtil.toEpochDay(1900, 1, 1); epochDay < EpochDayUtil.toEpochDay(2101, 1, 1); epochDay++) {
+            final int year = cal.get(Calendar.YEAR);
+            final int month = cal.get(Calendar.MONTH) + 1;
+            final int day = cal.get(Calendar.DAY_OF_MONTH);
+            assertEquals(cal.getTime().toString(), epochDay, EpochDayUtil.toEpochDay(year, month, day));
+            assertEquals(year, EpochDayUtil.getYear(epochDay));
+            assertEquals(month, EpochDayUtil.getMonth(epochDay));
+            assertEquals(day, EpochDayUtil.getDayOfMonth(epochDay));
+            assertEquals(cal.get(Calendar.DAY_OF_WEEK), EpochDayUtil.getCalendarDayOfWeek(epochDay));
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    public void testYearMonthDay() {
+        for (int epochDay = EpochDayUtil.toEpochDay(-500, 1, 1); epochDay < EpochDayUtil.toEpochDay(2500, 1, 1); epochDay++) {
+            final int yearMonthDay = EpochDayUtil.toYearMonthDay(epochDay);
+            assertEquals(EpochDayUtil.getYear(epochDay), EpochDayUtil.packedYear(yearMonthDay));
+            assertEquals(EpochDayUtil.getMonth(epochDay), EpochDayUtil.packedMonth(yearMonthDay));
+            assertEquals(EpochDayUtil.getDayOfMonth(epochDay), EpochDayUtil.packedDayOfMonth(yearMonthDay));
+        }
+    }
+
+    public void testPlusMonths() {
+        assertEquals(EpochDayUtil.toEpochDay(2008, 2, 29), EpochDayUtil.plusMonths(EpochDayUtil.toEpochDay(2008, 1, 31), 1));
+        assertEquals(EpochDayUtil.toEpochDay(2007, 11, 30), EpochDayUtil.plusMonths(EpochDayUtil.toEpochDay(2008, 5, 30), -6));
+        assertEquals(EpochDayUtil.toEpochDay(2010, 2, 28), EpochDayUtil.plusMonths(EpochDayUtil.toEpochDay(2008, 2, 29), 24));
+    }
+
+    public void testBitSet() {
+        final EpochDayBitSet set = EpochDayBitSet.of(100, -5, 64, 100, 300);
+        assertEquals(4, set.size());
+        assertEquals(-5, set.getFirstDay());
+        assertEquals(300, set.getLastDay());
+        assertTrue(set.contains(-5));
+        assertTrue(set.contains(64));
+        assertFalse(set.contains(63));
+        assertFalse(set.contains(-6));
+        assertFalse(set.contains(301));
+        assertEquals(4, set.toArray().length);
+        assertEquals(100, set.toArray()[2]);
+        assertTrue(EpochDayBitSet.EMPTY.isEmpty());
+        assertFalse(EpochDayBitSet.EMPTY.contains(0));
+    }
+}
+
+/*
+ * ObjectLab, http://www.objectlab.co.uk/open is sponsoring the ObjectLab Kit.
+ *
+ * Based in London, we are world leaders in the design and development
+ * of bespoke applications for the securities financing markets.
+ *
+ * <a href="http://www.objectlab.co.uk/open">Click here to learn more about us</a>
+ *           ___  _     _           _   _          _
+ *          / _ \| |__ (_) ___  ___| |_| |    __ _| |__
+ *         | | | | '_ \| |/ _ \/ __| __| |   / _` | '_ \
+ *         | |_| | |_) | |  __/ (__| |_| |__| (_| | |_) |
+ *          \___/|_.__// |\___|\___|\__|_____\__,_|_.__/
+ *                   |__/
+ *
+ *                     www.ObjectLab.co.uk
+ */
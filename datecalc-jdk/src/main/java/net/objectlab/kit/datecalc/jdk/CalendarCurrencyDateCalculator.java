@@ -2,7 +2,9 @@ package net.objectlab.kit.datecalc.jdk;
 
 import java.util.Calendar;
 
+import net.objectlab.kit.datecalc.common.CalendarEpochDayConverter;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.ccy.AbstractCurrencyDateCalculator;
 
 /**
@@ -18,8 +20,9 @@ public class CalendarCurrencyDateCalculator extends AbstractCurrencyDateCalculat
 
     @Override
     protected Calendar addMonths(final Calendar calc, final int unit) {
-        calc.add(Calendar.MONTH, unit);
-        return calc;
+        final Calendar cal = (Calendar) calc.clone();
+        cal.add(Calendar.MONTH, unit);
+        return cal;
     }
 
     @Override
@@ -30,6 +33,14 @@ public class CalendarCurrencyDateCalculator extends AbstractCurrencyDateCalculat
         return cal;
     }
 
+    @Override
+    protected Calendar plusDays(final Calendar date, final int days) {
+        final Calendar cal = Calendar.getInstance();
+        cal.setTime(date.getTime());
+        cal.add(Calendar.DAY_OF_MONTH, days);
+        return cal;
+    }
+
     @Override
     protected int calendarWeekDay(final Calendar date) {
         return date.get(Calendar.DAY_OF_WEEK);
@@ -40,4 +51,8 @@ public class CalendarCurrencyDateCalculator extends AbstractCurrencyDateCalculat
         return d1.compareTo(d2) > 0 ? d1 : d2;
     }
 
+    @Override
+    protected EpochDayConverter<Calendar> getEpochDayConverter() {
+        return CalendarEpochDayConverter.INSTANCE;
+    }
 }
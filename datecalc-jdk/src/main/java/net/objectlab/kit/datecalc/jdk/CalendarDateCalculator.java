@@ -36,8 +36,10 @@ import java.util.Calendar;
 import java.util.Collections;
 
 import net.objectlab.kit.datecalc.common.AbstractDateCalculator;
+import net.objectlab.kit.datecalc.common.CalendarEpochDayConverter;
 import net.objectlab.kit.datecalc.common.DateCalculator;
 import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayCalendar;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.Utils;
@@ -71,6 +73,7 @@ public class CalendarDateCalculator extends AbstractDateCalculator<Calendar> {
 
     public DateCalculator<Calendar> setWorkingWeek(final WorkingWeek week) {
         workingWeek = week;
+        invalidateBusinessDayIndex();
         return this;
     }
 
@@ -152,6 +155,11 @@ public class CalendarDateCalculator extends AbstractDateCalculator<Calendar> {
         }
     }
 
+    @Override
+    protected EpochDayConverter<Calendar> getEpochDayConverter() {
+        return CalendarEpochDayConverter.INSTANCE;
+    }
+
     @Override
     protected Calendar clone(final Calendar date) {
         final Calendar cal = Calendar.getInstance();
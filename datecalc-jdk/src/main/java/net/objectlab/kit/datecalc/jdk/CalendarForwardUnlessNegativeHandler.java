@@ -35,9 +35,11 @@ package net.objectlab.kit.datecalc.jdk;
 import java.util.Calendar;
 
 import net.objectlab.kit.datecalc.common.BaseCalculator;
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
+import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
 /**
  * A Jdk <code>Calendar</code> implementation of the
@@ -72,6 +74,15 @@ public class CalendarForwardUnlessNegativeHandler implements HolidayHandler<Cale
     public Calendar adjustDate(final Calendar startDate, final int increment, final NonWorkingDayChecker<Calendar> checker) {
         final Calendar cal = (Calendar) startDate.clone();
 
+        // jump straight to the working day if the checker has the tables
+        if (checker instanceof WorkingDayJumpTable) {
+            final int days = ((WorkingDayJumpTable<Calendar>) checker).daysToWorkingDay(cal, increment);
+            if (days != BusinessDayIndex.NOT_FOUND) {
+                cal.add(Calendar.DAY_OF_MONTH, days);
+                return cal;
+            }
+        }
+
         while (checker.isNonWorkingDay(cal)) {
             if (increment < 0) {
                 cal.add(Calendar.DAY_OF_MONTH, -1);
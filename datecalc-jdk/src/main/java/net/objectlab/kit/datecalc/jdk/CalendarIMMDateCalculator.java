@@ -33,19 +33,14 @@
 package net.objectlab.kit.datecalc.jdk;
 
 import static java.util.Calendar.DAY_OF_MONTH;
-import static java.util.Calendar.DECEMBER;
-import static java.util.Calendar.JUNE;
-import static java.util.Calendar.MARCH;
-import static java.util.Calendar.MONTH;
-import static java.util.Calendar.SEPTEMBER;
-import static java.util.Calendar.WEDNESDAY;
-import static net.objectlab.kit.datecalc.common.IMMPeriod.QUARTERLY;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 
 import net.objectlab.kit.datecalc.common.AbstractIMMDateCalculator;
+import net.objectlab.kit.datecalc.common.CalendarEpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.IMMPeriod;
 
 /**
@@ -56,8 +51,6 @@ import net.objectlab.kit.datecalc.common.IMMPeriod;
  *
  */
 public class CalendarIMMDateCalculator extends AbstractIMMDateCalculator<Calendar> {
-    private static final int NUMBER_DAYS_IN_WEEK = 7;
-
     /**
      * Returns a list of IMM dates between 2 dates, it will exclude the start
      * date if it is an IMM date but would include the end date if it is an IMM.
@@ -88,63 +81,17 @@ public class CalendarIMMDateCalculator extends AbstractIMMDateCalculator<Calenda
     }
 
     @Override
-    protected Calendar getNextIMMDate(final boolean requestNextIMM, final Calendar startDate, final IMMPeriod period) {
-
-        Calendar cal = (Calendar) startDate.clone();
-
-        if (isIMMMonth(cal)) {
-            moveToIMMDay(cal);
-            if (requestNextIMM && cal.after(startDate) || !requestNextIMM && cal.before(startDate)) {
-                return cal;
-            }
-        }
-
-        final int delta = requestNextIMM ? 1 : -1;
-        do {
-            cal.add(MONTH, delta);
-        } while (!isIMMMonth(cal));
-
-        moveToIMMDay(cal);
-
-        cal = handlePeriod(requestNextIMM, period, cal);
-
+    protected Calendar getNextIMMDate(final boolean requestNextIMM, final Calendar start, final IMMPeriod period) {
+        // keeps the time of the start date
+        final int startDay = CalendarEpochDayConverter.INSTANCE.toEpochDay(start);
+        final Calendar cal = (Calendar) start.clone();
+        cal.add(DAY_OF_MONTH, getNextIMMEpochDay(requestNextIMM, startDay, period) - startDay);
         return cal;
     }
 
-    private Calendar handlePeriod(final boolean requestNextIMM, final IMMPeriod period, final Calendar givenCal) {
-        Calendar cal = givenCal;
-        final int month = cal.get(MONTH);
-        switch (period) {
-        case BI_ANNUALY_JUN_DEC:
-            if (month == MARCH || month == SEPTEMBER) {
-                // need to move to the next one.
-                cal = getNextIMMDate(requestNextIMM, cal, period);
-            }
-            break;
-
-        case BI_ANNUALY_MAR_SEP:
-            if (month == JUNE || month == DECEMBER) {
-                // need to move to the next one.
-                cal = getNextIMMDate(requestNextIMM, cal, period);
-            }
-            break;
-
-        case ANNUALLY:
-            // second jump
-            cal = getNextIMMDate(requestNextIMM, cal, QUARTERLY);
-            // third jump
-            cal = getNextIMMDate(requestNextIMM, cal, QUARTERLY);
-            // fourth jump
-            cal = getNextIMMDate(requestNextIMM, cal, QUARTERLY);
-            // fifth jump
-            cal = getNextIMMDate(requestNextIMM, cal, QUARTERLY);
-            break;
-
-        case QUARTERLY:
-        default:
-            break;
-        }
-        return cal;
+    @Override
+    protected EpochDayConverter<Calendar> getEpochDayConverter() {
+        return CalendarEpochDayConverter.INSTANCE;
     }
 
     // -----------------------------------------------------------------------
@@ -155,45 +102,8 @@ public class CalendarIMMDateCalculator extends AbstractIMMDateCalculator<Calenda
     //
     // -----------------------------------------------------------------------
 
-    private static boolean isIMMMonth(final Calendar cal) {
-        final int month = cal.get(MONTH);
-
-        switch (month) {
-        case MARCH:
-        case JUNE:
-        case SEPTEMBER:
-        case DECEMBER:
-            return true;
-        default:
-            return false;
-        }
-    }
-
-    /**
-     * Assumes that the month is correct, get the day for the 3rd wednesday.
-     *
-     * @param cal
-     */
-    private static void moveToIMMDay(final Calendar cal) {
-        cal.set(DAY_OF_MONTH, 1);
-
-        // go to 1st wed
-        final int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
-        if (dayOfWeek < WEDNESDAY) {
-            cal.add(DAY_OF_MONTH, WEDNESDAY - dayOfWeek);
-        } else if (dayOfWeek > WEDNESDAY) {
-            cal.add(DAY_OF_MONTH, WEDNESDAY + NUMBER_DAYS_IN_WEEK - dayOfWeek);
-        }
-
-        // go to 3rd wednesday - i.e. move 2 weeks forward
-        cal.add(DAY_OF_MONTH, NUMBER_DAYS_IN_WEEK * 2);
-    }
-
     public boolean isIMMDate(final Calendar date) {
-        // TODO a slightly crude implementation - revisit
-        final Calendar cal = (Calendar) date.clone();
-        moveToIMMDay(cal);
-        return cal.equals(date);
+        return isIMMEpochDay(CalendarEpochDayConverter.INSTANCE.toEpochDay(date));
     }
 }
 
@@ -40,7 +40,9 @@ import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PREC
 import java.util.Calendar;
 
 import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.CalendarEpochDayConverter;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.IMMDateCalculator;
@@ -62,6 +64,17 @@ public class CalendarKitCalculatorsFactory extends AbstractKitCalculatorsFactory
 
     private static final CalendarIMMDateCalculator IMMDC = new CalendarIMMDateCalculator();
 
+    // the handlers are stateless, they are shared by all the calculators
+    private static final HolidayHandler<Calendar> FORWARD_HANDLER = new CalendarForwardHandler();
+
+    private static final HolidayHandler<Calendar> BACKWARD_HANDLER = new CalendarBackwardHandler();
+
+    private static final HolidayHandler<Calendar> MODIFIED_FOLLOWING_HANDLER = new CalendarModifiedFollowingHandler();
+
+    private static final HolidayHandler<Calendar> MODIFIED_PRECEDING_HANDLER = new CalendarModifiedPrecedingHandler();
+
+    private static final HolidayHandler<Calendar> FORWARD_UNLESS_MOVING_BACK_HANDLER = new CalendarForwardUnlessNegativeHandler();
+
     public static CalendarKitCalculatorsFactory getDefaultInstance() {
         return DEFAULT;
     }
@@ -93,7 +106,7 @@ public class CalendarKitCalculatorsFactory extends AbstractKitCalculatorsFactory
     }
 
     public CalendarCurrencyDateCalculator getDefaultCurrencyDateCalculator(final String ccy1, final String ccy2, final SpotLag spotLag) {
-        return new CalendarCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+        return (CalendarCurrencyDateCalculator) super.getDefaultCurrencyDateCalculator(ccy1, ccy2, spotLag);
     }
 
     public static CalendarDateCalculator forwardCalculator(final String name) {
@@ -141,15 +154,15 @@ public class CalendarKitCalculatorsFactory extends AbstractKitCalculatorsFactory
 
     public HolidayHandler<Calendar> getHolidayHandler(final String holidayHandlerType) {
         if (HolidayHandlerType.FORWARD.equals(holidayHandlerType)) {
-            return new CalendarForwardHandler();
+            return FORWARD_HANDLER;
         } else if (BACKWARD.equals(holidayHandlerType)) {
-            return new CalendarBackwardHandler();
+            return BACKWARD_HANDLER;
         } else if (MODIFIED_FOLLOWING.equals(holidayHandlerType)) {
-            return new CalendarModifiedFollowingHandler();
+            return MODIFIED_FOLLOWING_HANDLER;
         } else if (MODIFIED_PRECEDING.equals(holidayHandlerType)) {
-            return new CalendarModifiedPrecedingHandler();
+            return MODIFIED_PRECEDING_HANDLER;
         } else if (FORWARD_UNLESS_MOVING_BACK.equals(holidayHandlerType)) {
-            return new CalendarForwardUnlessNegativeHandler();
+            return FORWARD_UNLESS_MOVING_BACK_HANDLER;
         } else if (holidayHandlerType != null) {
             throw new IllegalArgumentException("Unsupported HolidayHandler: " + holidayHandlerType);
         }
@@ -181,6 +194,11 @@ public class CalendarKitCalculatorsFactory extends AbstractKitCalculatorsFactory
     public IMMDateCalculator<Calendar> getIMMDateCalculator() {
         return IMMDC;
     }
+
+    @Override
+    protected EpochDayConverter<Calendar> getEpochDayConverter() {
+        return CalendarEpochDayConverter.INSTANCE;
+    }
 }
 
 /*
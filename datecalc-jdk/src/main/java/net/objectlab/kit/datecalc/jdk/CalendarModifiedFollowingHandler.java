@@ -34,9 +34,11 @@
  import java.util.Calendar;
 
  import net.objectlab.kit.datecalc.common.BaseCalculator;
+ import net.objectlab.kit.datecalc.common.BusinessDayIndex;
  import net.objectlab.kit.datecalc.common.HolidayHandler;
  import net.objectlab.kit.datecalc.common.HolidayHandlerType;
  import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
+ import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
  /**
   * A Jdk <code>Calendar</code> implementation of the
@@ -72,6 +74,15 @@
          int step = increment;
          final int month = cal.get(Calendar.MONTH);
 
+         // jump straight to the working day if the checker has the tables
+         if (Math.abs(increment) == 1 && checker instanceof WorkingDayJumpTable) {
+             final int days = ((WorkingDayJumpTable<Calendar>) checker).daysToWorkingDayInMonth(cal, increment);
+             if (days != BusinessDayIndex.NOT_FOUND) {
+                 cal.add(Calendar.DAY_OF_MONTH, days);
+                 return cal;
+             }
+         }
+
          while (checker.isNonWorkingDay(cal)) {
              cal.add(Calendar.DAY_OF_MONTH, step);
              if (month != cal.get(Calendar.MONTH)) {
@@ -34,8 +34,10 @@ package net.objectlab.kit.datecalc.jdk;
 
 import java.util.Calendar;
 
+import net.objectlab.kit.datecalc.common.AbstractPeriodCountCalculator;
+import net.objectlab.kit.datecalc.common.CalendarEpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayPeriodCount;
 import net.objectlab.kit.datecalc.common.PeriodCountBasis;
-import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 
 /**
  * Jdk <code>Calendar</code> based implementation of the
@@ -44,7 +46,7 @@ import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
  * @author Marcin Jekot
  *
  */
-public class CalendarPeriodCountCalculator implements PeriodCountCalculator<Calendar> {
+public class CalendarPeriodCountCalculator extends AbstractPeriodCountCalculator<Calendar> {
 
     private static final long MILLIS_IN_DAY = 1000L * 60L * 60L * 24L;
 
@@ -65,6 +67,9 @@ public class CalendarPeriodCountCalculator implements PeriodCountCalculator<Cale
             diff = calculateConv360EIsma(start, end);
             break;
 
+        case BUS_252:
+            throw EpochDayPeriodCount.unsupported(basis);
+
         default:
             diff = dayDiff(start, end);
         }
@@ -172,12 +177,22 @@ public class CalendarPeriodCountCalculator implements PeriodCountCalculator<Cale
             break;
 
         default:
-            throw new UnsupportedOperationException("Sorry no ACT_UST yet");
+            throw EpochDayPeriodCount.unsupported(basis);
         }
 
         return diff;
     }
 
+    public double yearDiffActActIcma(final Calendar start, final Calendar end, final int couponsPerYear) {
+        return EpochDayPeriodCount.yearDiffActActIcma(CalendarEpochDayConverter.INSTANCE.toEpochDay(start),
+                CalendarEpochDayConverter.INSTANCE.toEpochDay(end), couponsPerYear);
+    }
+
+    public double yearDiffActActIcma(final Calendar start, final Calendar end, final int couponsPerYear, final boolean endOfMonth) {
+        return EpochDayPeriodCount.yearDiffActActIcma(CalendarEpochDayConverter.INSTANCE.toEpochDay(start),
+                CalendarEpochDayConverter.INSTANCE.toEpochDay(end), couponsPerYear, endOfMonth);
+    }
+
 }
 
 /*
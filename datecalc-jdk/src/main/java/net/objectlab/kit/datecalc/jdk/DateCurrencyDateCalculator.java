@@ -4,6 +4,8 @@ import java.util.Calendar;
 import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.DateEpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.ccy.AbstractCurrencyDateCalculator;
 
 /**
@@ -12,6 +14,7 @@ import net.objectlab.kit.datecalc.common.ccy.AbstractCurrencyDateCalculator;
  * @since 1.4.0
  */
 public class DateCurrencyDateCalculator extends AbstractCurrencyDateCalculator<Date> {
+    private final DateEpochDayConverter epochDayConverter = new DateEpochDayConverter();
 
     public DateCurrencyDateCalculator(final CurrencyDateCalculatorBuilder<Date> builder) {
         super(builder);
@@ -33,6 +36,14 @@ public class DateCurrencyDateCalculator extends AbstractCurrencyDateCalculator<D
         return cal.getTime();
     }
 
+    @Override
+    protected Date plusDays(final Date date, final int days) {
+        final Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        cal.add(Calendar.DAY_OF_MONTH, days);
+        return cal.getTime();
+    }
+
     @Override
     protected int calendarWeekDay(final Date date) {
         final Calendar cal = Calendar.getInstance();
@@ -45,4 +56,8 @@ public class DateCurrencyDateCalculator extends AbstractCurrencyDateCalculator<D
         return d1.compareTo(d2) > 0 ? d1 : d2;
     }
 
+    @Override
+    protected EpochDayConverter<Date> getEpochDayConverter() {
+        return epochDayConverter;
+    }
 }
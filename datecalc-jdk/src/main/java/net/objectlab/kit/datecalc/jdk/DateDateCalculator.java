@@ -38,7 +38,10 @@ import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.AbstractDateCalculator;
 import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.DateEpochDayConverter;
 import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayUtil;
 import net.objectlab.kit.datecalc.common.HolidayCalendar;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.Utils;
@@ -48,12 +51,20 @@ import net.objectlab.kit.datecalc.common.WorkingWeek;
  * This class is used via the DateCalculator interface, it enables the handling
  * of different HolidayHandler, if no HolidayHandler is defined, the calendar
  * will NOT move a date, even if it falls on a holiday or weekend.
+ * <p>
+ * The dates are moved as epoch days (see {@link DateEpochDayConverter}), a
+ * Date is only created for the result; as before, the result is at midnight
+ * in the default time zone.
+ * </p>
  *
  * @author Marcin Jekot
  */
 public class DateDateCalculator extends AbstractDateCalculator<Date> {
 
-    private final CalendarDateCalculator delegate;
+    private WorkingWeek workingWeek = WorkingWeek.DEFAULT;
+
+    // set by the super constructor, so it must not be initialised here
+    private EpochDayConverter<Date> converter;
 
     public DateDateCalculator() {
         this(null, null, new DefaultHolidayCalendar<Date>(Collections.<Date> emptySet()), null);
@@ -62,19 +73,7 @@ public class DateDateCalculator extends AbstractDateCalculator<Date> {
     public DateDateCalculator(final String name, final Date startDate, final HolidayCalendar<Date> holidayCalendar,
             final HolidayHandler<Date> holidayHandler) {
         super(name, holidayCalendar, holidayHandler);
-        Date date = startDate;
-        final HolidayHandler<Calendar> locDate = new HolidayHandlerDateWrapper(holidayHandler, this);
-
-        final HolidayCalendar<Calendar> nonWorkingCalendars = Utils.toHolidayCalendarSet(holidayCalendar);
-        if (date == null) {
-            date = getToday();
-        }
-
-        delegate = new CalendarDateCalculator(name, Utils.getCal(date), nonWorkingCalendars, locDate);
-        delegate.setStartDate(Utils.getCal(date));
-        if (date != null) {
-            setStartDate(date);
-        }
+        setStartDate(startDate != null ? startDate : getToday());
     }
 
     // -----------------------------------------------------------------------
@@ -87,7 +86,8 @@ public class DateDateCalculator extends AbstractDateCalculator<Date> {
 
     // TODO throw an exception if the type is incorrect
     public DateCalculator<Date> setWorkingWeek(final WorkingWeek week) {
-        delegate.setWorkingWeek(week);
+        workingWeek = week;
+        invalidateBusinessDayIndex();
         return this;
     }
 
@@ -95,17 +95,16 @@ public class DateDateCalculator extends AbstractDateCalculator<Date> {
      * is the date a non-working day according to the WorkingWeek?
      */
     public boolean isWeekend(final Date date) {
-        if (date != null && delegate != null) {
-            return delegate.isWeekend(Utils.getCal(date));
+        if (date != null) {
+            return !workingWeek.isWorkingDayFromCalendar(EpochDayUtil.getCalendarDayOfWeek(getEpochDayConverter().toEpochDay(date)));
         }
         return false;
     }
 
     public DateCalculator<Date> moveByDays(final int days) {
         setCurrentIncrement(days);
-        delegate.setCurrentIncrement(days);
-        delegate.setCurrentBusinessDate(Utils.getCal(getCurrentBusinessDate()));
-        setCurrentBusinessDate(delegate.moveByDays(days).getCurrentBusinessDate().getTime());
+        final EpochDayConverter<Date> dates = getEpochDayConverter();
+        setCurrentBusinessDate(dates.fromEpochDay(dates.toEpochDay(getCurrentBusinessDate()) + days));
         return this;
     }
 
@@ -115,15 +114,6 @@ public class DateDateCalculator extends AbstractDateCalculator<Date> {
         return new DateDateCalculator(name, startDate, holidays, handler);
     }
 
-    @Override
-    public final DateCalculator<Date> setStartDate(final Date startDate) {
-        if (delegate != null) {
-            delegate.setStartDate(startDate != null ? Utils.getCal(startDate) : null);
-        }
-        super.setStartDate(startDate);
-        return this;
-    }
-
     @Override
     protected final Date getToday() {
         return Utils.blastTime(Calendar.getInstance()).getTime();
@@ -132,9 +122,8 @@ public class DateDateCalculator extends AbstractDateCalculator<Date> {
     @Override
     protected DateCalculator<Date> moveByMonths(final int months) {
         setCurrentIncrement(months);
-        delegate.setCurrentIncrement(months);
-        delegate.setCurrentBusinessDate(Utils.getCal(getCurrentBusinessDate()));
-        setCurrentBusinessDate(delegate.moveByMonths(months).getCurrentBusinessDate().getTime());
+        final EpochDayConverter<Date> dates = getEpochDayConverter();
+        setCurrentBusinessDate(dates.fromEpochDay(EpochDayUtil.plusMonths(dates.toEpochDay(getCurrentBusinessDate()), months)));
         return this;
     }
 
@@ -163,6 +152,14 @@ public class DateDateCalculator extends AbstractDateCalculator<Date> {
         }
     }
 
+    @Override
+    protected EpochDayConverter<Date> getEpochDayConverter() {
+        if (converter == null) {
+            converter = new DateEpochDayConverter();
+        }
+        return converter;
+    }
+
     @Override
     protected Date clone(final Date date) {
         return new Date(date.getTime());
@@ -36,10 +36,12 @@ import java.util.Calendar;
 import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.BaseCalculator;
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
 import net.objectlab.kit.datecalc.common.Utils;
+import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
 /**
  * A Jdk <code>Date</code> implementation of the
@@ -74,6 +76,15 @@ public class DateForwardHandler implements HolidayHandler<Date> {
     public Date adjustDate(final Date startDate, final int step, final NonWorkingDayChecker<Date> checker) {
         final Calendar cal = Utils.getCal(startDate);
 
+        // jump straight to the working day if the checker has the tables
+        if (Math.abs(step) == 1 && checker instanceof WorkingDayJumpTable) {
+            final int days = ((WorkingDayJumpTable<Date>) checker).daysToWorkingDay(cal.getTime(), step);
+            if (days != BusinessDayIndex.NOT_FOUND) {
+                cal.add(Calendar.DAY_OF_MONTH, days);
+                return cal.getTime();
+            }
+        }
+
         while (checker.isNonWorkingDay(cal.getTime())) {
             cal.add(Calendar.DAY_OF_MONTH, step);
         }
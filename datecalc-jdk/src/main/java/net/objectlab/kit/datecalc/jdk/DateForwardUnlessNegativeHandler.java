@@ -36,10 +36,12 @@ import java.util.Calendar;
 import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.BaseCalculator;
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
 import net.objectlab.kit.datecalc.common.Utils;
+import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
 /**
  * A Jdk <code>Date</code> implementation of the
@@ -73,6 +75,15 @@ public class DateForwardUnlessNegativeHandler implements HolidayHandler<Date> {
     public Date adjustDate(final Date startDate, final int increment, final NonWorkingDayChecker<Date> checker) {
         final Calendar cal = Utils.getCal(startDate);
 
+        // jump straight to the working day if the checker has the tables
+        if (checker instanceof WorkingDayJumpTable) {
+            final int days = ((WorkingDayJumpTable<Date>) checker).daysToWorkingDay(cal.getTime(), increment);
+            if (days != BusinessDayIndex.NOT_FOUND) {
+                cal.add(Calendar.DAY_OF_MONTH, days);
+                return cal.getTime();
+            }
+        }
+
         while (checker.isNonWorkingDay(cal.getTime())) {
             if (increment < 0) {
                 cal.add(Calendar.DAY_OF_MONTH, -1);
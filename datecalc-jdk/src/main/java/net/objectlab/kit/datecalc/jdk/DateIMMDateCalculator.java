@@ -38,6 +38,8 @@ import java.util.Date;
 import java.util.List;
 
 import net.objectlab.kit.datecalc.common.AbstractIMMDateCalculator;
+import net.objectlab.kit.datecalc.common.DateEpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.IMMPeriod;
 import net.objectlab.kit.datecalc.common.Utils;
 
@@ -58,6 +60,11 @@ public class DateIMMDateCalculator extends AbstractIMMDateCalculator<Date> {
         return DELEGATE.getNextIMMDate(requestNextIMM, Utils.getCal(theStartDate), period).getTime();
     }
 
+    @Override
+    protected EpochDayConverter<Date> getEpochDayConverter() {
+        return new DateEpochDayConverter();
+    }
+
     // -----------------------------------------------------------------------
     //
     // ObjectLab, world leaders in the design and development of bespoke
@@ -41,6 +41,8 @@ import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.DateEpochDayConverter;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.IMMDateCalculator;
@@ -61,6 +63,17 @@ public class DateKitCalculatorsFactory extends AbstractKitCalculatorsFactory<Dat
 
     private static final DateIMMDateCalculator IMMDC = new DateIMMDateCalculator();
 
+    // the handlers are stateless, they are shared by all the calculators
+    private static final HolidayHandler<Date> FORWARD_HANDLER = new DateForwardHandler();
+
+    private static final HolidayHandler<Date> BACKWARD_HANDLER = new DateBackwardHandler();
+
+    private static final HolidayHandler<Date> MODIFIED_FOLLOWING_HANDLER = new DateModifiedFollowingHandler();
+
+    private static final HolidayHandler<Date> MODIFIED_PRECEDING_HANDLER = new DateModifiedPreceedingHandler();
+
+    private static final HolidayHandler<Date> FORWARD_UNLESS_MOVING_BACK_HANDLER = new DateForwardUnlessNegativeHandler();
+
     public static DateKitCalculatorsFactory getDefaultInstance() {
         return DEFAULT;
     }
@@ -91,7 +104,7 @@ public class DateKitCalculatorsFactory extends AbstractKitCalculatorsFactory<Dat
     }
 
     public DateCurrencyDateCalculator getDefaultCurrencyDateCalculator(final String ccy1, final String ccy2, final SpotLag spotLag) {
-        return new DateCurrencyDateCalculator(DEFAULT.getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+        return (DateCurrencyDateCalculator) super.getDefaultCurrencyDateCalculator(ccy1, ccy2, spotLag);
     }
 
     public static DateDateCalculator forwardCalculator(final String name) {
@@ -140,15 +153,15 @@ public class DateKitCalculatorsFactory extends AbstractKitCalculatorsFactory<Dat
 
     public HolidayHandler<Date> getHolidayHandler(final String holidayHandlerType) {
         if (HolidayHandlerType.FORWARD.equals(holidayHandlerType)) {
-            return new DateForwardHandler();
+            return FORWARD_HANDLER;
         } else if (BACKWARD.equals(holidayHandlerType)) {
-            return new DateBackwardHandler();
+            return BACKWARD_HANDLER;
         } else if (MODIFIED_FOLLOWING.equals(holidayHandlerType)) {
-            return new DateModifiedFollowingHandler();
+            return MODIFIED_FOLLOWING_HANDLER;
         } else if (MODIFIED_PRECEDING.equals(holidayHandlerType)) {
-            return new DateModifiedPreceedingHandler();
+            return MODIFIED_PRECEDING_HANDLER;
         } else if (FORWARD_UNLESS_MOVING_BACK.equals(holidayHandlerType)) {
-            return new DateForwardUnlessNegativeHandler();
+            return FORWARD_UNLESS_MOVING_BACK_HANDLER;
         } else if (holidayHandlerType != null) {
             throw new IllegalArgumentException("Unsupported HolidayHandler: " + holidayHandlerType);
         }
@@ -167,6 +180,11 @@ public class DateKitCalculatorsFactory extends AbstractKitCalculatorsFactory<Dat
     public IMMDateCalculator<Date> getIMMDateCalculator() {
         return IMMDC;
     }
+
+    @Override
+    protected EpochDayConverter<Date> getEpochDayConverter() {
+        return new DateEpochDayConverter();
+    }
 }
 
 /*
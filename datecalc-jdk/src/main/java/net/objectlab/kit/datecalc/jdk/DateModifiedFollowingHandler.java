@@ -36,10 +36,12 @@ import java.util.Calendar;
 import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.BaseCalculator;
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
 import net.objectlab.kit.datecalc.common.Utils;
+import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
 /**
  * A Jdk <code>Date</code> implementation of the
@@ -75,6 +77,15 @@ public class DateModifiedFollowingHandler implements HolidayHandler<Date> {
         int step = increment;
         final int month = cal.get(Calendar.MONTH);
 
+        // jump straight to the working day if the checker has the tables
+        if (Math.abs(increment) == 1 && checker instanceof WorkingDayJumpTable) {
+            final int days = ((WorkingDayJumpTable<Date>) checker).daysToWorkingDayInMonth(cal.getTime(), increment);
+            if (days != BusinessDayIndex.NOT_FOUND) {
+                cal.add(Calendar.DAY_OF_MONTH, days);
+                return cal.getTime();
+            }
+        }
+
         while (checker.isNonWorkingDay(cal.getTime())) {
             cal.add(Calendar.DAY_OF_MONTH, step);
             if (month != cal.get(Calendar.MONTH)) {
@@ -34,8 +34,9 @@ package net.objectlab.kit.datecalc.jdk;
 
 import java.util.Date;
 
+import net.objectlab.kit.datecalc.common.AbstractPeriodCountCalculator;
+import net.objectlab.kit.datecalc.common.EpochDayPeriodCount;
 import net.objectlab.kit.datecalc.common.PeriodCountBasis;
-import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 import net.objectlab.kit.datecalc.common.Utils;
 
 /**
@@ -45,7 +46,7 @@ import net.objectlab.kit.datecalc.common.Utils;
  * @author Marcin Jekot
  *
  */
-public class DatePeriodCountCalculator implements PeriodCountCalculator<Date> {
+public class DatePeriodCountCalculator extends AbstractPeriodCountCalculator<Date> {
 
     private static final CalendarPeriodCountCalculator PCC = new CalendarPeriodCountCalculator();
 
@@ -61,6 +62,14 @@ public class DatePeriodCountCalculator implements PeriodCountCalculator<Date> {
     public double yearDiff(final Date start, final Date end, final PeriodCountBasis basis) {
         return PCC.yearDiff(Utils.getCal(start), Utils.getCal(end), basis);
     }
+
+    public double yearDiffActActIcma(final Date start, final Date end, final int couponsPerYear) {
+        return PCC.yearDiffActActIcma(Utils.getCal(start), Utils.getCal(end), couponsPerYear);
+    }
+
+    public double yearDiffActActIcma(final Date start, final Date end, final int couponsPerYear, final boolean endOfMonth) {
+        return PCC.yearDiffActActIcma(Utils.getCal(start), Utils.getCal(end), couponsPerYear, endOfMonth);
+    }
 }
 
 /*
@@ -33,10 +33,16 @@
 package net.objectlab.kit.datecalc.jdk;
 
 import java.util.Calendar;
+import java.util.Set;
 
 import net.objectlab.kit.datecalc.common.AbstractPeriodCountCalculatorTest;
+import net.objectlab.kit.datecalc.common.BusinessDayEngine;
+import net.objectlab.kit.datecalc.common.CalendarEpochDayConverter;
+import net.objectlab.kit.datecalc.common.DefaultBusinessDayEngine;
+import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
 import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 import net.objectlab.kit.datecalc.common.Utils;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 public class JdkCalendarPeriodCountCalculatorTest extends AbstractPeriodCountCalculatorTest<Calendar> {
 
@@ -54,6 +60,11 @@ public class JdkCalendarPeriodCountCalculatorTest extends AbstractPeriodCountCal
     public Calendar getDate() {
         return Calendar.getInstance();
     }
+
+    @Override
+    public BusinessDayEngine<Calendar> newBusinessDayEngine(final Set<Calendar> holidays) {
+        return new DefaultBusinessDayEngine<Calendar>(new DefaultHolidayCalendar<Calendar>(holidays), WorkingWeek.DEFAULT, null, CalendarEpochDayConverter.INSTANCE);
+    }
 }
 
 /*
@@ -32,10 +32,14 @@
  */
 package net.objectlab.kit.datecalc.jdk;
 
+import java.util.Calendar;
 import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.AbstractCurrencyDateCalculatorTest;
+import net.objectlab.kit.datecalc.common.CurrencyDateCalculator;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.StandardTenor;
+import net.objectlab.kit.datecalc.common.TenorDateGrid;
 import net.objectlab.kit.datecalc.common.Utils;
 
 public class JdkDateCurrencyDateCalculatorTest extends AbstractCurrencyDateCalculatorTest<Date> {
@@ -49,6 +53,30 @@ public class JdkDateCurrencyDateCalculatorTest extends AbstractCurrencyDateCalcu
     protected KitCalculatorsFactory<Date> getDateCalculatorFactory() {
         return DateKitCalculatorsFactory.getDefaultInstance();
     }
+
+    public void testTenorDateGridKeepsTimeOfDay() {
+        final CurrencyDateCalculator<Date> cal = newCurrencyCalculator("EUR", "GBP");
+        final TenorDateGrid<Date> grid = cal.createTenorDateGrid(newDate("2006-08-01"), 45, StandardTenor.getAll());
+        final Date inWindow = afternoon("2006-08-24");
+        assertTrue("in the window", grid.covers(inWindow));
+        assertEquals("Spot", cal.calculateTenorDate(inWindow, StandardTenor.SPOT), grid.getTenorDate(inWindow, StandardTenor.SPOT));
+        assertEquals("all tenors", cal.calculateTenorDates(inWindow, StandardTenor.getAll()), grid.getTenorDates(inWindow));
+        final Calendar oneMonth = Calendar.getInstance();
+        oneMonth.setTime(grid.getTenorDate(inWindow, StandardTenor.T_1M));
+        assertEquals("time of day kept", 15, oneMonth.get(Calendar.HOUR_OF_DAY));
+
+        final Date outside = afternoon("2006-12-21");
+        assertFalse("outside the window", grid.covers(outside));
+        assertEquals("1M", cal.calculateTenorDate(outside, StandardTenor.T_1M), grid.getTenorDate(outside, StandardTenor.T_1M));
+    }
+
+    private Date afternoon(final String date) {
+        final Calendar cal = Calendar.getInstance();
+        cal.setTime(newDate(date));
+        cal.set(Calendar.HOUR_OF_DAY, 15);
+        cal.set(Calendar.MINUTE, 30);
+        return cal.getTime();
+    }
 }
 
 /*
@@ -32,10 +32,14 @@
  */
 package net.objectlab.kit.datecalc.jdk;
 
+import java.util.Calendar;
 import java.util.Date;
 
 import net.objectlab.kit.datecalc.common.AbstractForwardUnlessNegativeCalculatorTest;
+import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.KitCalculatorsFactory;
+import net.objectlab.kit.datecalc.common.StandardTenor;
 import net.objectlab.kit.datecalc.common.Utils;
 
 public class JdkDateForwardDateCalculatorTest extends AbstractForwardUnlessNegativeCalculatorTest<Date> {
@@ -49,6 +53,19 @@ public class JdkDateForwardDateCalculatorTest extends AbstractForwardUnlessNegat
     protected KitCalculatorsFactory<Date> getDateCalculatorFactory() {
         return DateKitCalculatorsFactory.getDefaultInstance();
     }
+
+    public void testMovesDropTheTimeOfDay() {
+        final Calendar afternoon = Utils.getCal("2006-08-25");
+        afternoon.set(Calendar.HOUR_OF_DAY, 15);
+        final DateCalculator<Date> cal = newDateCalculator("bla", HolidayHandlerType.FORWARD);
+        cal.setStartDate(afternoon.getTime());
+        assertFalse("Friday afternoon", cal.isWeekend(afternoon.getTime()));
+        checkDate("Fri + 1", cal.moveByDays(1), "2006-08-28");
+        checkDate("Mon + 1 month", cal.moveByTenor(StandardTenor.T_1M), "2006-09-28");
+
+        afternoon.add(Calendar.DAY_OF_MONTH, 1);
+        assertTrue("Saturday afternoon", cal.isWeekend(afternoon.getTime()));
+    }
 }
 
 /*
@@ -33,10 +33,16 @@
 package net.objectlab.kit.datecalc.jdk;
 
 import java.util.Date;
+import java.util.Set;
 
 import net.objectlab.kit.datecalc.common.AbstractPeriodCountCalculatorTest;
+import net.objectlab.kit.datecalc.common.BusinessDayEngine;
+import net.objectlab.kit.datecalc.common.DateEpochDayConverter;
+import net.objectlab.kit.datecalc.common.DefaultBusinessDayEngine;
+import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
 import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 import net.objectlab.kit.datecalc.common.Utils;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 public class JdkDatePeriodCountCalculatorTest extends AbstractPeriodCountCalculatorTest<Date> {
 
@@ -54,6 +60,11 @@ public class JdkDatePeriodCountCalculatorTest extends AbstractPeriodCountCalcula
     public Date getDate() {
         return new Date();
     }
+
+    @Override
+    public BusinessDayEngine<Date> newBusinessDayEngine(final Set<Date> holidays) {
+        return new DefaultBusinessDayEngine<Date>(new DefaultHolidayCalendar<Date>(holidays), WorkingWeek.DEFAULT, null, new DateEpochDayConverter());
+    }
 }
 
 /*
@@ -38,6 +38,7 @@ import java.util.Collections;
 import net.objectlab.kit.datecalc.common.AbstractDateCalculator;
 import net.objectlab.kit.datecalc.common.DateCalculator;
 import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayCalendar;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.WorkingWeek;
@@ -75,6 +76,7 @@ public class LocalDateCalculator extends AbstractDateCalculator<LocalDate> {
     public DateCalculator<LocalDate> setWorkingWeek(final WorkingWeek week) {
         if (week instanceof Jdk8WorkingWeek) {
             workingWeek = (Jdk8WorkingWeek) week;
+            invalidateBusinessDayIndex();
             return this;
         }
         throw new IllegalArgumentException("Please give an instance of JodaWorkingWeek");
@@ -159,6 +161,11 @@ public class LocalDateCalculator extends AbstractDateCalculator<LocalDate> {
         }
     }
 
+    @Override
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
+    }
+
     @Override
     protected LocalDate clone(final LocalDate date) {
         return date;
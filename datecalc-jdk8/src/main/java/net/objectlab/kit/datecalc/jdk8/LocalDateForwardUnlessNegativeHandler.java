@@ -35,9 +35,11 @@ package net.objectlab.kit.datecalc.jdk8;
 import java.time.LocalDate;
 
 import net.objectlab.kit.datecalc.common.BaseCalculator;
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
+import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
 /**
  * A Forward handler will move the date forward if it falls on a non working
@@ -64,6 +66,14 @@ public class LocalDateForwardUnlessNegativeHandler implements HolidayHandler<Loc
     @Override
     public LocalDate adjustDate(LocalDate startDate, int increment, NonWorkingDayChecker<LocalDate> checker) {
         LocalDate date = startDate;
+        // jump straight to the working day if the checker has the tables
+        if (checker instanceof WorkingDayJumpTable) {
+            final int days = ((WorkingDayJumpTable<LocalDate>) checker).daysToWorkingDay(date, increment);
+            if (days != BusinessDayIndex.NOT_FOUND) {
+                return date.plusDays(days);
+            }
+        }
+
         while (checker.isNonWorkingDay(date)) {
             if (increment < 0) {
                 // act as a Backward calendar
@@ -32,16 +32,17 @@
  */
 package net.objectlab.kit.datecalc.jdk8;
 
-import static net.objectlab.kit.datecalc.common.IMMPeriod.QUARTERLY;
-
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.Month;
-import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import net.objectlab.kit.datecalc.common.AbstractIMMDateCalculator;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.IMMPeriod;
 
 /**
@@ -82,47 +83,54 @@ public class LocalDateIMMDateCalculator extends AbstractIMMDateCalculator<LocalD
         return dates;
     }
 
-    @Override
-    protected LocalDate getNextIMMDate(final boolean requestNextIMM, final LocalDate start, final IMMPeriod period) {
-        LocalDate date = start;
-
-        date = calculateIMMMonth(requestNextIMM, date, date.getMonth());
-
-        LocalDate imm = calculate3rdWednesday(date);
-        final Month immMonth = imm.getMonth();
-        final boolean isMarchSept = immMonth == Month.MARCH || immMonth == Month.SEPTEMBER;
-
-        switch (period) {
-
-        case BI_ANNUALY_JUN_DEC:
-            if (isMarchSept) {
-                imm = getNextIMMDate(requestNextIMM, imm, period);
-            }
-            break;
+    /**
+     * Streams lazily the IMM dates after a given date, without any end; it
+     * will exclude the start date if it is an IMM date. Use limit to stop the
+     * stream.
+     *
+     * @param start
+     *            start of the stream, excluded
+     * @param period
+     *            specify when the "next" IMM is, if quarterly then it is the
+     *            conventional algorithm.
+     * @return an infinite, ordered stream of IMM dates.
+     * @since 1.4.0
+     */
+    public Stream<LocalDate> getIMMDateStream(final LocalDate start, final IMMPeriod period) {
+        return toStream(getIMMDateIterator(start, period));
+    }
 
-        case BI_ANNUALY_MAR_SEP:
-            if (!isMarchSept) {
-                imm = getNextIMMDate(requestNextIMM, imm, period);
-            }
-            break;
+    /**
+     * Streams lazily the IMM dates between 2 dates, it will exclude the start
+     * date if it is an IMM date but would include the end date if it is an
+     * IMM.
+     *
+     * @param start
+     *            start of the interval, excluded
+     * @param end
+     *            end of the interval, may be included.
+     * @param period
+     *            specify when the "next" IMM is, if quarterly then it is the
+     *            conventional algorithm.
+     * @return an ordered stream of IMM dates.
+     * @since 1.4.0
+     */
+    public Stream<LocalDate> getIMMDateStream(final LocalDate start, final LocalDate end, final IMMPeriod period) {
+        return toStream(getIMMDateIterator(start, end, period));
+    }
 
-        case ANNUALLY:
-            // second jump
-            imm = getNextIMMDate(requestNextIMM, imm, QUARTERLY);
-            // third jump
-            imm = getNextIMMDate(requestNextIMM, imm, QUARTERLY);
-            // fourth jump
-            imm = getNextIMMDate(requestNextIMM, imm, QUARTERLY);
-            // fifth jump
-            imm = getNextIMMDate(requestNextIMM, imm, QUARTERLY);
-            break;
+    private static Stream<LocalDate> toStream(final Iterator<LocalDate> dates) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(dates, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
 
-        case QUARTERLY:
-        default:
-            break;
-        }
+    @Override
+    protected LocalDate getNextIMMDate(final boolean requestNextIMM, final LocalDate start, final IMMPeriod period) {
+        return LocalDateEpochDayConverter.INSTANCE.fromEpochDay(getNextIMMEpochDay(requestNextIMM, LocalDateEpochDayConverter.INSTANCE.toEpochDay(start), period));
+    }
 
-        return imm;
+    @Override
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
     }
 
     // -----------------------------------------------------------------------
@@ -133,46 +141,6 @@ public class LocalDateIMMDateCalculator extends AbstractIMMDateCalculator<LocalD
     //
     // -----------------------------------------------------------------------
 
-    private LocalDate calculateIMMMonth(final boolean requestNextIMM, final LocalDate startDate, final Month month) {
-        int monthOffset;
-        LocalDate date = startDate;
-        switch (month) {
-        case MARCH:
-        case JUNE:
-        case SEPTEMBER:
-        case DECEMBER:
-            final LocalDate immDate = calculate3rdWednesday(date);
-            if (requestNextIMM && !date.isBefore(immDate)) {
-                date = date.plusMonths(MONTHS_IN_QUARTER);
-            } else if (!requestNextIMM && !date.isAfter(immDate)) {
-                date = date.minusMonths(MONTHS_IN_QUARTER);
-            }
-            break;
-
-        default:
-            if (requestNextIMM) {
-                monthOffset = (MONTH_IN_YEAR - month.getValue()) % MONTHS_IN_QUARTER;
-                date = date.plusMonths(monthOffset);
-            } else {
-                monthOffset = month.getValue() % MONTHS_IN_QUARTER;
-                date = date.minusMonths(monthOffset);
-            }
-            break;
-        }
-        return date;
-    }
-
-    /**
-     * Assumes that the month is correct, get the day for the 2rd wednesday.
-     *
-     * @param original
-     *            the start date
-     * @return the 3rd Wednesday of the month
-     */
-    private static LocalDate calculate3rdWednesday(final LocalDate original) {
-        return original.with(TemporalAdjusters.firstInMonth(DayOfWeek.WEDNESDAY)).plusWeeks(2);
-    }
-
     /**
      * Checks if a given date is an official IMM Date (3rd Wednesdays of
      * March/June/Sept/Dec.
@@ -182,15 +150,7 @@ public class LocalDateIMMDateCalculator extends AbstractIMMDateCalculator<LocalD
      */
     @Override
     public boolean isIMMDate(final LocalDate date) {
-        boolean same = false;
-
-        final List<LocalDate> dates = getIMMDates(date.minusDays(1), date, QUARTERLY);
-
-        if (!dates.isEmpty()) {
-            same = date.equals(dates.get(0));
-        }
-
-        return same;
+        return isIMMEpochDay(LocalDateEpochDayConverter.INSTANCE.toEpochDay(date));
     }
 }
 
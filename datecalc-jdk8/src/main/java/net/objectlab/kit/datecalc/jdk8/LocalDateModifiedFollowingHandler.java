@@ -35,9 +35,11 @@ package net.objectlab.kit.datecalc.jdk8;
 import java.time.LocalDate;
 
 import net.objectlab.kit.datecalc.common.BaseCalculator;
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
+import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
 /**
  * A modified following handler will move the date forward if it falls on a non
@@ -74,6 +76,14 @@ public class LocalDateModifiedFollowingHandler implements HolidayHandler<LocalDa
         LocalDate date = startDate;
         final int month = date.getMonthValue();
         int stepToUse = increment;
+        // jump straight to the working day if the checker has the tables
+        if (Math.abs(increment) == 1 && checker instanceof WorkingDayJumpTable) {
+            final int days = ((WorkingDayJumpTable<LocalDate>) checker).daysToWorkingDayInMonth(date, increment);
+            if (days != BusinessDayIndex.NOT_FOUND) {
+                return date.plusDays(days);
+            }
+        }
+
         while (checker.isNonWorkingDay(date)) {
             date = date.plusDays(stepToUse);
             if (date.getMonthValue() != month) {
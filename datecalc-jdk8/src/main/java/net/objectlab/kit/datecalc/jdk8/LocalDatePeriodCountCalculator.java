@@ -37,8 +37,9 @@ import java.time.Month;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 
+import net.objectlab.kit.datecalc.common.AbstractPeriodCountCalculator;
+import net.objectlab.kit.datecalc.common.EpochDayPeriodCount;
 import net.objectlab.kit.datecalc.common.PeriodCountBasis;
-import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 
 /**
  * Joda <code>LocalDatePeriod</code> based implementation of the
@@ -47,7 +48,7 @@ import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
  * @author Benoit Xhenseval
  *
  */
-public class LocalDatePeriodCountCalculator implements PeriodCountCalculator<LocalDate> {
+public class LocalDatePeriodCountCalculator extends AbstractPeriodCountCalculator<LocalDate> {
 
     @Override
     public int dayDiff(final LocalDate start, final LocalDate end, final PeriodCountBasis basis) {
@@ -65,6 +66,8 @@ public class LocalDatePeriodCountCalculator implements PeriodCountCalculator<Loc
         case CONV_360E_ISMA:
             diff = diff360EIsma(start, end);
             break;
+        case BUS_252:
+            throw EpochDayPeriodCount.unsupported(basis);
         default:
             diff = (int) ChronoUnit.DAYS.between(start, end);
         }
@@ -156,11 +159,23 @@ public class LocalDatePeriodCountCalculator implements PeriodCountCalculator<Loc
             break;
 
         default:
-            throw new UnsupportedOperationException("Sorry ACT_UST is not supported");
+            throw EpochDayPeriodCount.unsupported(basis);
         }
 
         return diff;
     }
+
+    @Override
+    public double yearDiffActActIcma(final LocalDate start, final LocalDate end, final int couponsPerYear) {
+        return EpochDayPeriodCount.yearDiffActActIcma(LocalDateEpochDayConverter.INSTANCE.toEpochDay(start),
+                LocalDateEpochDayConverter.INSTANCE.toEpochDay(end), couponsPerYear);
+    }
+
+    @Override
+    public double yearDiffActActIcma(final LocalDate start, final LocalDate end, final int couponsPerYear, final boolean endOfMonth) {
+        return EpochDayPeriodCount.yearDiffActActIcma(LocalDateEpochDayConverter.INSTANCE.toEpochDay(start),
+                LocalDateEpochDayConverter.INSTANCE.toEpochDay(end), couponsPerYear, endOfMonth);
+    }
 }
 
 /*
@@ -33,9 +33,11 @@
 package net.objectlab.kit.datecalc.jdk8;
 
 import java.time.LocalDate;
+import java.util.stream.Collectors;
 
 import net.objectlab.kit.datecalc.common.AbstractIMMDateTest;
 import net.objectlab.kit.datecalc.common.IMMDateCalculator;
+import net.objectlab.kit.datecalc.common.IMMPeriod;
 
 public class LocalDateIMMDateTest extends AbstractIMMDateTest<LocalDate> {
 
@@ -48,6 +50,18 @@ public class LocalDateIMMDateTest extends AbstractIMMDateTest<LocalDate> {
     protected LocalDate parseDate(final String string) {
         return LocalDate.parse(string);
     }
+
+    public void testIMMDateStream() {
+        final LocalDateIMMDateCalculator cal = new LocalDateIMMDateCalculator();
+        final LocalDate start = LocalDate.parse("2006-03-16");
+        assertEquals(cal.getNextIMMDates(start, 5), cal.getIMMDateStream(start, IMMPeriod.QUARTERLY).limit(5).collect(Collectors.toList()));
+
+        final LocalDate end = LocalDate.parse("2056-03-16");
+        for (final IMMPeriod period : IMMPeriod.values()) {
+            assertEquals(period.toString(), cal.getIMMDates(start, end, period), cal.getIMMDateStream(start, end, period).collect(Collectors.toList()));
+        }
+        assertEquals(LocalDate.parse("2006-06-21"), cal.getIMMDateStream(start, end, IMMPeriod.QUARTERLY).findFirst().get());
+    }
 }
 
 /*
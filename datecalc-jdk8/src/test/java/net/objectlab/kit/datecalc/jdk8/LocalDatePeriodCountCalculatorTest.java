@@ -33,9 +33,14 @@
 package net.objectlab.kit.datecalc.jdk8;
 
 import java.time.LocalDate;
+import java.util.Set;
 
 import net.objectlab.kit.datecalc.common.AbstractPeriodCountCalculatorTest;
+import net.objectlab.kit.datecalc.common.BusinessDayEngine;
+import net.objectlab.kit.datecalc.common.DefaultBusinessDayEngine;
+import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
 import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 public class LocalDatePeriodCountCalculatorTest extends AbstractPeriodCountCalculatorTest<LocalDate> {
 
@@ -53,6 +58,11 @@ public class LocalDatePeriodCountCalculatorTest extends AbstractPeriodCountCalcu
     public LocalDate getDate() {
         return LocalDate.now();
     }
+
+    @Override
+    public BusinessDayEngine<LocalDate> newBusinessDayEngine(final Set<LocalDate> holidays) {
+        return new DefaultBusinessDayEngine<LocalDate>(new DefaultHolidayCalendar<LocalDate>(holidays), WorkingWeek.DEFAULT, null, LocalDateEpochDayConverter.INSTANCE);
+    }
 }
 
 /*
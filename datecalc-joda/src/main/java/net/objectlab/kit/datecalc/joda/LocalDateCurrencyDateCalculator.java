@@ -1,6 +1,7 @@
 package net.objectlab.kit.datecalc.joda;
 
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.ccy.AbstractCurrencyDateCalculator;
 
 import org.joda.time.LocalDate;
@@ -26,6 +27,11 @@ public class LocalDateCurrencyDateCalculator extends AbstractCurrencyDateCalcula
         return date.plusDays(1);
     }
 
+    @Override
+    protected LocalDate plusDays(final LocalDate date, final int days) {
+        return date.plusDays(days);
+    }
+
     @Override
     protected int calendarWeekDay(final LocalDate date) {
         return JodaWorkingWeek.jodaToCalendarDayConstant(date);
@@ -36,4 +42,8 @@ public class LocalDateCurrencyDateCalculator extends AbstractCurrencyDateCalcula
         return d1.isAfter(d2) ? d1 : d2;
     }
 
+    @Override
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
+    }
 }
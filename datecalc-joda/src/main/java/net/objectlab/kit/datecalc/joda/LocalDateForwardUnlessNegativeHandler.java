@@ -33,9 +33,11 @@
 package net.objectlab.kit.datecalc.joda;
 
 import net.objectlab.kit.datecalc.common.BaseCalculator;
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
+import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
 import org.joda.time.LocalDate;
 
@@ -62,6 +64,14 @@ public class LocalDateForwardUnlessNegativeHandler implements HolidayHandler<Loc
 
     public LocalDate adjustDate(LocalDate startDate, int increment, NonWorkingDayChecker<LocalDate> checker) {
         LocalDate date = startDate;
+        // jump straight to the working day if the checker has the tables
+        if (checker instanceof WorkingDayJumpTable) {
+            final int days = ((WorkingDayJumpTable<LocalDate>) checker).daysToWorkingDay(date, increment);
+            if (days != BusinessDayIndex.NOT_FOUND) {
+                return date.plusDays(days);
+            }
+        }
+
         while (checker.isNonWorkingDay(date)) {
             if (increment < 0) {
                 // act as a Backward calendar
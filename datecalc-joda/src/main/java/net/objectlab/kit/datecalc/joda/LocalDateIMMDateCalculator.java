@@ -32,18 +32,13 @@
  */
 package net.objectlab.kit.datecalc.joda;
 
-import static net.objectlab.kit.datecalc.common.IMMPeriod.QUARTERLY;
-import static org.joda.time.DateTimeConstants.DECEMBER;
-import static org.joda.time.DateTimeConstants.JUNE;
-import static org.joda.time.DateTimeConstants.MARCH;
-import static org.joda.time.DateTimeConstants.SEPTEMBER;
-
 import java.util.ArrayList;
 import java.util.List;
 
 import org.joda.time.LocalDate;
 
 import net.objectlab.kit.datecalc.common.AbstractIMMDateCalculator;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.IMMPeriod;
 
 /**
@@ -85,46 +80,12 @@ public class LocalDateIMMDateCalculator extends AbstractIMMDateCalculator<LocalD
 
     @Override
     protected LocalDate getNextIMMDate(final boolean requestNextIMM, final LocalDate start, final IMMPeriod period) {
-        LocalDate date = start;
-
-        final int month = date.getMonthOfYear();
-        date = calculateIMMMonth(requestNextIMM, date, month);
-
-        LocalDate imm = calculate3rdWednesday(date);
-        final int immMonth = imm.getMonthOfYear();
-        final boolean isMarchSept = immMonth == MARCH || immMonth == SEPTEMBER;
-
-        switch (period) {
-
-        case BI_ANNUALY_JUN_DEC:
-            if (isMarchSept) {
-                imm = getNextIMMDate(requestNextIMM, imm, period);
-            }
-            break;
-
-        case BI_ANNUALY_MAR_SEP:
-            if (!isMarchSept) {
-                imm = getNextIMMDate(requestNextIMM, imm, period);
-            }
-            break;
-
-        case ANNUALLY:
-            // second jump
-            imm = getNextIMMDate(requestNextIMM, imm, QUARTERLY);
-            // third jump
-            imm = getNextIMMDate(requestNextIMM, imm, QUARTERLY);
-            // fourth jump
-            imm = getNextIMMDate(requestNextIMM, imm, QUARTERLY);
-            // fifth jump
-            imm = getNextIMMDate(requestNextIMM, imm, QUARTERLY);
-            break;
-
-        case QUARTERLY:
-        default:
-            break;
-        }
+        return LocalDateEpochDayConverter.INSTANCE.fromEpochDay(getNextIMMEpochDay(requestNextIMM, LocalDateEpochDayConverter.INSTANCE.toEpochDay(start), period));
+    }
 
-        return imm;
+    @Override
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
     }
 
     // -----------------------------------------------------------------------
@@ -135,51 +96,6 @@ public class LocalDateIMMDateCalculator extends AbstractIMMDateCalculator<LocalD
     //
     // -----------------------------------------------------------------------
 
-    private LocalDate calculateIMMMonth(final boolean requestNextIMM, final LocalDate startDate, final int month) {
-        int monthOffset;
-        LocalDate date = startDate;
-        switch (month) {
-        case MARCH:
-        case JUNE:
-        case SEPTEMBER:
-        case DECEMBER:
-            final LocalDate immDate = calculate3rdWednesday(date);
-            if (requestNextIMM && !date.isBefore(immDate)) {
-                date = date.plusMonths(MONTHS_IN_QUARTER);
-            } else if (!requestNextIMM && !date.isAfter(immDate)) {
-                date = date.minusMonths(MONTHS_IN_QUARTER);
-            }
-            break;
-
-        default:
-            if (requestNextIMM) {
-                monthOffset = (MONTH_IN_YEAR - month) % MONTHS_IN_QUARTER;
-                date = date.plusMonths(monthOffset);
-            } else {
-                monthOffset = month % MONTHS_IN_QUARTER;
-                date = date.minusMonths(monthOffset);
-            }
-            break;
-        }
-        return date;
-    }
-
-    /**
-     * Assumes that the month is correct, get the day for the 2rd wednesday.
-     *
-     * @param original
-     *            the start date
-     * @return the 3rd Wednesday of the month
-     */
-    private LocalDate calculate3rdWednesday(final LocalDate original) {
-        final LocalDate firstOfMonth = original.withDayOfMonth(1);
-        LocalDate firstWed = firstOfMonth.withDayOfWeek(MONTHS_IN_QUARTER);
-        if (firstWed.isBefore(firstOfMonth)) {
-            firstWed = firstWed.plusWeeks(1);
-        }
-        return firstWed.plusWeeks(2);
-    }
-
     /**
      * Checks if a given date is an official IMM Date (3rd Wednesdays of
      * March/June/Sept/Dec.
@@ -188,15 +104,7 @@ public class LocalDateIMMDateCalculator extends AbstractIMMDateCalculator<LocalD
      * @return true if that date is an IMM date.
      */
     public boolean isIMMDate(final LocalDate date) {
-        boolean same = false;
-
-        final List<LocalDate> dates = getIMMDates(date.minusDays(1), date, QUARTERLY);
-
-        if (!dates.isEmpty()) {
-            same = date.equals(dates.get(0));
-        }
-
-        return same;
+        return isIMMEpochDay(LocalDateEpochDayConverter.INSTANCE.toEpochDay(date));
     }
 }
 
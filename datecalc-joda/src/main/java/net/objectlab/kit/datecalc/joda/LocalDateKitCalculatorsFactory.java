@@ -38,6 +38,7 @@ import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_FOLL
 import static net.objectlab.kit.datecalc.common.HolidayHandlerType.MODIFIED_PRECEDING;
 import net.objectlab.kit.datecalc.common.AbstractKitCalculatorsFactory;
 import net.objectlab.kit.datecalc.common.CurrencyDateCalculatorBuilder;
+import net.objectlab.kit.datecalc.common.EpochDayConverter;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.IMMDateCalculator;
@@ -61,6 +62,17 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
 
     private static final IMMDateCalculator<LocalDate> IMMDC = new LocalDateIMMDateCalculator();
 
+    // the handlers are stateless, they are shared by all the calculators
+    private static final HolidayHandler<LocalDate> FORWARD_HANDLER = new LocalDateForwardHandler();
+
+    private static final HolidayHandler<LocalDate> BACKWARD_HANDLER = new LocalDateBackwardHandler();
+
+    private static final HolidayHandler<LocalDate> MODIFIED_FOLLOWING_HANDLER = new LocalDateModifiedFollowingHandler();
+
+    private static final HolidayHandler<LocalDate> MODIFIED_PRECEDING_HANDLER = new LocalDateModifiedPrecedingHandler();
+
+    private static final HolidayHandler<LocalDate> FORWARD_UNLESS_MOVING_BACK_HANDLER = new LocalDateForwardUnlessNegativeHandler();
+
     public static LocalDateKitCalculatorsFactory getDefaultInstance() {
         return DEFAULT;
     }
@@ -88,7 +100,7 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
     }
 
     public LocalDateCurrencyDateCalculator getDefaultCurrencyDateCalculator(final String ccy1, final String ccy2, final SpotLag spotLag) {
-        return new LocalDateCurrencyDateCalculator(getDefaultCurrencyDateCalculatorBuilder(ccy1, ccy2, spotLag));
+        return (LocalDateCurrencyDateCalculator) super.getDefaultCurrencyDateCalculator(ccy1, ccy2, spotLag);
     }
 
     public LocalDateCurrencyDateCalculator buildCurrencyDateCalculator(final CurrencyDateCalculatorBuilder<LocalDate> builder) {
@@ -145,15 +157,15 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
 
     public HolidayHandler<LocalDate> getHolidayHandler(final String holidayHandlerType) {
         if (HolidayHandlerType.FORWARD.equals(holidayHandlerType)) {
-            return new LocalDateForwardHandler();
+            return FORWARD_HANDLER;
         } else if (BACKWARD.equals(holidayHandlerType)) {
-            return new LocalDateBackwardHandler();
+            return BACKWARD_HANDLER;
         } else if (MODIFIED_FOLLOWING.equals(holidayHandlerType)) {
-            return new LocalDateModifiedFollowingHandler();
+            return MODIFIED_FOLLOWING_HANDLER;
         } else if (MODIFIED_PRECEDING.equals(holidayHandlerType)) {
-            return new LocalDateModifiedPrecedingHandler();
+            return MODIFIED_PRECEDING_HANDLER;
         } else if (FORWARD_UNLESS_MOVING_BACK.equals(holidayHandlerType)) {
-            return new LocalDateForwardUnlessNegativeHandler();
+            return FORWARD_UNLESS_MOVING_BACK_HANDLER;
         } else if (holidayHandlerType != null) {
             throw new IllegalArgumentException("Unsupported HolidayHandler: " + holidayHandlerType);
         }
@@ -167,6 +179,11 @@ public class LocalDateKitCalculatorsFactory extends AbstractKitCalculatorsFactor
     public IMMDateCalculator<LocalDate> getIMMDateCalculator() {
         return IMMDC;
     }
+
+    @Override
+    protected EpochDayConverter<LocalDate> getEpochDayConverter() {
+        return LocalDateEpochDayConverter.INSTANCE;
+    }
 }
 
 /*
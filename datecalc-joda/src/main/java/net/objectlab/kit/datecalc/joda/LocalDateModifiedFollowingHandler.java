@@ -33,9 +33,11 @@
 package net.objectlab.kit.datecalc.joda;
 
 import net.objectlab.kit.datecalc.common.BaseCalculator;
+import net.objectlab.kit.datecalc.common.BusinessDayIndex;
 import net.objectlab.kit.datecalc.common.HolidayHandler;
 import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.NonWorkingDayChecker;
+import net.objectlab.kit.datecalc.common.WorkingDayJumpTable;
 
 import org.joda.time.LocalDate;
 
@@ -73,6 +75,14 @@ public class LocalDateModifiedFollowingHandler implements HolidayHandler<LocalDa
         LocalDate date = startDate;
         final int month = date.getMonthOfYear();
         int stepToUse = increment;
+        // jump straight to the working day if the checker has the tables
+        if (Math.abs(increment) == 1 && checker instanceof WorkingDayJumpTable) {
+            final int days = ((WorkingDayJumpTable<LocalDate>) checker).daysToWorkingDayInMonth(date, increment);
+            if (days != BusinessDayIndex.NOT_FOUND) {
+                return date.plusDays(days);
+            }
+        }
+
         while (checker.isNonWorkingDay(date)) {
             date = date.plusDays(stepToUse);
             if (date.getMonthOfYear() != month) {
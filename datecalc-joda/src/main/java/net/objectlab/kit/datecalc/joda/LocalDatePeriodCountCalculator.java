@@ -32,12 +32,14 @@
  */
 package net.objectlab.kit.datecalc.joda;
 
+
 import org.joda.time.LocalDate;
 import org.joda.time.Period;
 import org.joda.time.PeriodType;
 
+import net.objectlab.kit.datecalc.common.AbstractPeriodCountCalculator;
+import net.objectlab.kit.datecalc.common.EpochDayPeriodCount;
 import net.objectlab.kit.datecalc.common.PeriodCountBasis;
-import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
 
 /**
  * Joda <code>LocalDatePeriod</code> based implementation of the
@@ -46,7 +48,7 @@ import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
  * @author Benoit Xhenseval
  *
  */
-public class LocalDatePeriodCountCalculator implements PeriodCountCalculator<LocalDate> {
+public class LocalDatePeriodCountCalculator extends AbstractPeriodCountCalculator<LocalDate> {
 
     public int dayDiff(final LocalDate start, final LocalDate end, final PeriodCountBasis basis) {
         int diff;
@@ -63,6 +65,8 @@ public class LocalDatePeriodCountCalculator implements PeriodCountCalculator<Loc
         case CONV_360E_ISMA:
             diff = diff360EIsma(start, end);
             break;
+        case BUS_252:
+            throw EpochDayPeriodCount.unsupported(basis);
         default:
             final Period p = new Period(start, end, PeriodType.days());
             diff = p.getDays();
@@ -154,11 +158,21 @@ public class LocalDatePeriodCountCalculator implements PeriodCountCalculator<Loc
             break;
 
         default:
-            throw new UnsupportedOperationException("Sorry ACT_UST is not supported");
+            throw EpochDayPeriodCount.unsupported(basis);
         }
 
         return diff;
     }
+
+    public double yearDiffActActIcma(final LocalDate start, final LocalDate end, final int couponsPerYear) {
+        return EpochDayPeriodCount.yearDiffActActIcma(LocalDateEpochDayConverter.INSTANCE.toEpochDay(start),
+                LocalDateEpochDayConverter.INSTANCE.toEpochDay(end), couponsPerYear);
+    }
+
+    public double yearDiffActActIcma(final LocalDate start, final LocalDate end, final int couponsPerYear, final boolean endOfMonth) {
+        return EpochDayPeriodCount.yearDiffActActIcma(LocalDateEpochDayConverter.INSTANCE.toEpochDay(start),
+                LocalDateEpochDayConverter.INSTANCE.toEpochDay(end), couponsPerYear, endOfMonth);
+    }
 }
 
 /*
@@ -32,8 +32,14 @@
  */
 package net.objectlab.kit.datecalc.joda;
 
+import java.util.Set;
+
 import net.objectlab.kit.datecalc.common.AbstractPeriodCountCalculatorTest;
+import net.objectlab.kit.datecalc.common.BusinessDayEngine;
+import net.objectlab.kit.datecalc.common.DefaultBusinessDayEngine;
+import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
 import net.objectlab.kit.datecalc.common.PeriodCountCalculator;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
 
 import org.joda.time.LocalDate;
 
@@ -53,6 +59,11 @@ public class LocalDatePeriodCountCalculatorTest extends AbstractPeriodCountCalcu
     public LocalDate getDate() {
         return new LocalDate();
     }
+
+    @Override
+    public BusinessDayEngine<LocalDate> newBusinessDayEngine(final Set<LocalDate> holidays) {
+        return new DefaultBusinessDayEngine<LocalDate>(new DefaultHolidayCalendar<LocalDate>(holidays), WorkingWeek.DEFAULT, null, LocalDateEpochDayConverter.INSTANCE);
+    }
 }
 
 /*